@@ -0,0 +1,66 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.aspect;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CacheRefresher;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CacheWarmupRecorder;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * Cache Refresh Aspect
+ *
+ * For {@code @Cacheable} methods of refresh-ahead caches, binds a
+ * {@link CacheRefresher.Reloader} that calls the method again through its proxy
+ * with the same arguments. The cache stores it next to the entry the call
+ * writes, so the entry can later be reloaded in the background.
+ *
+ * Reloads are not counted by the warm-up recorder: they are not demand.
+ * Runs just after Spring's ExposeInvocationInterceptor (HIGHEST_PRECEDENCE + 1),
+ * which binding the annotation argument needs, and so always wraps the caching
+ * interceptor.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class CacheRefreshAspect {
+
+    private final CacheRefresher refresher;
+
+    @Around("@annotation(cacheable)")
+    public Object bindReloader(ProceedingJoinPoint joinPoint, Cacheable cacheable) throws Throwable {
+        if (!refreshes(cacheable)) {
+            return joinPoint.proceed();
+        }
+        Object proxy = joinPoint.getThis();
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Object[] args = joinPoint.getArgs().clone();
+
+        CacheRefresher.Reloader previous = CacheRefresher.bind(() ->
+                CacheWarmupRecorder.replaying(() -> ReflectionUtils.invokeMethod(method, proxy, args)));
+        try {
+            return joinPoint.proceed();
+        } finally {
+            CacheRefresher.restore(previous);
+        }
+    }
+
+    private boolean refreshes(Cacheable cacheable) {
+        String[] cacheNames = cacheable.value().length > 0 ? cacheable.value() : cacheable.cacheNames();
+        for (String cacheName : cacheNames) {
+            if (refresher.covers(cacheName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,75 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.aspect;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CacheTagContext;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CacheTagged;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CacheTags;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.Ordered;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.Order;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache Tagging Aspect
+ *
+ * Evaluates {@link CacheTagged} expressions and binds the resulting tags for
+ * the duration of the call, so that the cache entry written by the
+ * {@code @Cacheable} interceptor underneath is indexed under them.
+ * Expressions use {@link CacheTags} as their root object.
+ *
+ * Runs just after Spring's ExposeInvocationInterceptor (HIGHEST_PRECEDENCE + 1),
+ * which binding the annotation argument needs, and so always wraps the caching
+ * interceptor.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Slf4j
+public class CacheTaggingAspect {
+
+    private final SpelExpressionParser parser = new SpelExpressionParser();
+    private final ParameterNameDiscoverer parameterNames = new DefaultParameterNameDiscoverer();
+    private final Map<String, Expression> expressions = new ConcurrentHashMap<>();
+
+    @Around("@annotation(cacheTagged)")
+    public Object bindTags(ProceedingJoinPoint joinPoint, CacheTagged cacheTagged) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Set<String> tags = evaluate(cacheTagged, method, joinPoint.getArgs());
+
+        Set<String> previous = CacheTagContext.bind(tags);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            CacheTagContext.restore(previous);
+        }
+    }
+
+    private Set<String> evaluate(CacheTagged cacheTagged, Method method, Object[] args) {
+        MethodBasedEvaluationContext context =
+                new MethodBasedEvaluationContext(CacheTags.class, method, args, parameterNames);
+        Set<String> tags = new HashSet<>();
+        for (String source : cacheTagged.value()) {
+            Object value = expressions.computeIfAbsent(source, parser::parseExpression).getValue(context);
+            if (value instanceof Iterable<?> iterable) {
+                iterable.forEach(tag -> tags.add(String.valueOf(tag)));
+            } else if (value != null) {
+                tags.add(value.toString());
+            }
+        }
+        return tags;
+    }
+}
@@ -0,0 +1,35 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.aspect;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CacheWarmupRecorder;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache Warm-up Recording Aspect
+ *
+ * Feeds every call to a {@code @Cacheable} method of a warm-up cache into the
+ * {@link CacheWarmupRecorder}, hit or miss, so the warm-up engine knows which
+ * keys are requested most.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class CacheWarmupRecordingAspect {
+
+    private final CacheWarmupRecorder recorder;
+
+    @Before("@annotation(cacheable)")
+    public void record(JoinPoint joinPoint, Cacheable cacheable) {
+        String[] cacheNames = cacheable.value().length > 0 ? cacheable.value() : cacheable.cacheNames();
+        for (String cacheName : cacheNames) {
+            if (recorder.tracks(cacheName)) {
+                recorder.record(cacheName, ((MethodSignature) joinPoint.getSignature()).getMethod(), joinPoint.getArgs());
+            }
+        }
+    }
+}
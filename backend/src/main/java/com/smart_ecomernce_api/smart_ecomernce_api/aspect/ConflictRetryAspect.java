@@ -0,0 +1,124 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.aspect;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.retry.RetryOnConflict;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PessimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Conflict Retry Aspect
+ *
+ * Implements {@link RetryOnConflict}. Ordered just outside Spring's
+ * transaction interceptor, so each attempt is a whole transaction and the
+ * conflict raised at commit is seen here.
+ *
+ * Meters, tagged with {@code method}: {@code conflict.retry.conflicts}
+ * (conflicts seen), {@code conflict.retry.retries} (attempts re-run) and
+ * {@code conflict.retry.exhausted} (calls that gave up).
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@Slf4j
+public class ConflictRetryAspect {
+
+    /** Per-method counts for the performance endpoints. */
+    public record Stats(long conflicts, long retries, long exhausted) {}
+
+    private record Meters(Counter conflicts, Counter retries, Counter exhausted) {}
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public ConflictRetryAspect(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+    }
+
+    @Around("@annotation(com.smart_ecomernce_api.smart_ecomernce_api.common.retry.RetryOnConflict)"
+            + " || (@within(com.smart_ecomernce_api.smart_ecomernce_api.common.retry.RetryOnConflict)"
+            + " && execution(public * *(..)))")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+        Method method = AopUtils.getMostSpecificMethod(((MethodSignature) joinPoint.getSignature()).getMethod(), targetClass);
+        RetryOnConflict policy = policy(method, targetClass);
+        String name = targetClass.getSimpleName() + "." + method.getName();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (RuntimeException e) {
+                if (!isConflict(e)) {
+                    throw e;
+                }
+                Meters counters = meters(name);
+                counters.conflicts().increment();
+                if (attempt >= policy.maxAttempts()) {
+                    counters.exhausted().increment();
+                    if (attempt > 1) {
+                        log.warn("{} still conflicting after {} attempts", name, attempt);
+                    }
+                    throw e;
+                }
+                counters.retries().increment();
+                long cap = Math.min(policy.maxBackoffMs(), policy.initialBackoffMs() << Math.min(attempt - 1, 20));
+                long sleep = ThreadLocalRandom.current().nextLong(cap + 1);
+                log.debug("{} conflicted on attempt {}; retrying in {} ms", name, attempt, sleep);
+                Thread.sleep(sleep);
+            }
+        }
+    }
+
+    public Map<String, Stats> stats() {
+        Map<String, Stats> stats = new TreeMap<>();
+        meters.forEach((name, counters) -> stats.put(name, new Stats((long) counters.conflicts().count(),
+                (long) counters.retries().count(), (long) counters.exhausted().count())));
+        return stats;
+    }
+
+    private Meters meters(String name) {
+        return meters.computeIfAbsent(name, method -> new Meters(
+                Counter.builder("conflict.retry.conflicts").tag("method", method).register(meterRegistry),
+                Counter.builder("conflict.retry.retries").tag("method", method).register(meterRegistry),
+                Counter.builder("conflict.retry.exhausted").tag("method", method).register(meterRegistry)));
+    }
+
+    private static RetryOnConflict policy(Method method, Class<?> targetClass) {
+        RetryOnConflict policy = AnnotatedElementUtils.findMergedAnnotation(method, RetryOnConflict.class);
+        return policy != null ? policy : AnnotatedElementUtils.findMergedAnnotation(targetClass, RetryOnConflict.class);
+    }
+
+    private static boolean isConflict(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConcurrencyFailureException
+                    || cause instanceof OptimisticLockException
+                    || cause instanceof PessimisticLockException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,167 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.base;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.CaseBuilder;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.jpa.JPQLQuery;
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.support.Querydsl;
+import org.springframework.data.querydsl.SimpleEntityPathResolver;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Base class for repository fragments that page over an entity graph with
+ * collections.
+ *
+ * <p>Putting a collection in the {@code @EntityGraph} of a paged query makes
+ * Hibernate drop the SQL {@code LIMIT}, read every matching row and page in
+ * memory (HHH90003004). Paging is split in two instead:
+ * <ol>
+ *   <li>page over ids only, so {@code LIMIT}/{@code OFFSET} and the count run
+ *       in the database;</li>
+ *   <li>load just those ids with one fetch-join query over the graph and put
+ *       the rows back in the order of phase one.</li>
+ * </ol>
+ *
+ * @param <T> Entity type
+ */
+public abstract class HydratingPagingSupport<T extends BaseEntity> {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Class<T> domainClass;
+    private final String[] attributePaths;
+
+    protected HydratingPagingSupport(Class<T> domainClass, String... attributePaths) {
+        this.domainClass = domainClass;
+        this.attributePaths = attributePaths;
+    }
+
+    /**
+     * Replaces a page of ids with the entities they identify, graph loaded,
+     * keeping page metadata and order.
+     */
+    public Page<T> hydrate(Page<Long> ids) {
+        return new PageImpl<>(hydrate(ids.getContent()), ids.getPageable(), ids.getTotalElements());
+    }
+
+    /**
+     * Loads {@code ids} with the entity graph in one query, in the given order.
+     * Ids with no row (deleted in between) are skipped.
+     */
+    public List<T> hydrate(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        EntityGraph<T> graph = entityManager.createEntityGraph(domainClass);
+        graph.addAttributeNodes(attributePaths);
+
+        List<T> rows = entityManager
+                .createQuery("SELECT e FROM " + domainClass.getSimpleName() + " e WHERE e.id IN :ids", domainClass)
+                .setParameter("ids", ids)
+                .setHint("jakarta.persistence.fetchgraph", graph)
+                .getResultList();
+
+        Map<Long, T> byId = new HashMap<>(rows.size() * 2);
+        for (T row : rows) {
+            byId.putIfAbsent(row.getId(), row);
+        }
+        List<T> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            T row = byId.get(id);
+            if (row != null) {
+                ordered.add(row);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Ids of the entities matching {@code predicate}, at most {@code limit} of
+     * them, without loading the entities.
+     */
+    public List<Long> findIds(Predicate predicate, int limit) {
+        PathBuilder<T> root = rootPath();
+        return new Querydsl(entityManager, root).createQuery(root)
+                .select(root.getNumber("id", Long.class))
+                .where(predicate)
+                .limit(limit)
+                .fetch();
+    }
+
+    /**
+     * Number of entities matching {@code predicate} per value of {@code group},
+     * in one {@code GROUP BY} query.
+     */
+    public <K> Map<K, Long> countGroupedBy(Predicate predicate, Expression<K> group) {
+        PathBuilder<T> root = rootPath();
+        List<Tuple> rows = new Querydsl(entityManager, root).createQuery(root)
+                .select(group, root.count())
+                .where(predicate)
+                .groupBy(group)
+                .fetch();
+        Map<K, Long> counts = new HashMap<>(rows.size() * 2);
+        for (Tuple row : rows) {
+            counts.put(row.get(group), row.get(1, Long.class));
+        }
+        return counts;
+    }
+
+    /**
+     * For each of {@code cases}, the number of entities matching both
+     * {@code predicate} and that case, in one query.
+     */
+    public List<Long> countEach(Predicate predicate, List<Predicate> cases) {
+        PathBuilder<T> root = rootPath();
+        Expression<?>[] sums = cases.stream()
+                .map(condition -> new CaseBuilder().when(condition).then(1L).otherwise(0L).sum())
+                .toArray(Expression<?>[]::new);
+        Tuple row = new Querydsl(entityManager, root).createQuery(root)
+                .select(sums)
+                .where(predicate)
+                .fetchOne();
+        List<Long> counts = new ArrayList<>(cases.size());
+        for (int i = 0; i < cases.size(); i++) {
+            Long count = row != null ? row.get(i, Long.class) : null;
+            counts.add(count != null ? count : 0L);
+        }
+        return counts;
+    }
+
+    /**
+     * Two-phase replacement for
+     * {@link org.springframework.data.querydsl.QuerydslPredicateExecutor#findAll(Predicate, Pageable)}.
+     */
+    protected Page<T> findAllHydrated(Predicate predicate, Pageable pageable) {
+        PathBuilder<T> root = rootPath();
+        Querydsl querydsl = new Querydsl(entityManager, root);
+
+        JPQLQuery<Long> idQuery = querydsl.createQuery(root)
+                .select(root.getNumber("id", Long.class))
+                .where(predicate);
+        List<Long> ids = querydsl.applyPagination(pageable, idQuery).fetch();
+
+        Page<Long> idPage = PageableExecutionUtils.getPage(ids, pageable, () ->
+                querydsl.createQuery(root).select(root.count()).where(predicate).fetchOne());
+        return hydrate(idPage);
+    }
+
+    private PathBuilder<T> rootPath() {
+        return new PathBuilder<>(domainClass,
+                SimpleEntityPathResolver.INSTANCE.createPath(domainClass).getMetadata());
+    }
+}
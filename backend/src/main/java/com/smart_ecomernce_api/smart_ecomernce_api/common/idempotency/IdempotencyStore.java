@@ -0,0 +1,127 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Replay cache for client-supplied idempotency keys on mutating endpoints.
+ *
+ * <p>The first request with a key runs; its result is kept for
+ * {@code idempotency.ttl-minutes} in a Caffeine cache bounded to
+ * {@code idempotency.max-entries}. A duplicate that arrives while the first
+ * is still running waits for its result instead of running again, and a
+ * later duplicate gets the stored result without touching the database. A
+ * failed request is not stored, so the client can retry it with the same key.
+ *
+ * <p>Keys are scoped by operation and by the authenticated principal, and a
+ * key reused for a different request (another fingerprint) is rejected. The
+ * store is in-process: duplicates must reach the same node to be collapsed.
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    /** Result of {@link #execute}: the value, and whether it was replayed from an earlier request. */
+    public record Outcome<T>(T value, boolean replayed) {}
+
+    private record Key(String operation, String principal, String key) {}
+
+    private record Entry(Object fingerprint, CompletableFuture<Object> result) {}
+
+    private final Cache<Key, Entry> entries;
+
+    public IdempotencyStore(
+            @Value("${idempotency.max-entries:100000}") long maxEntries,
+            @Value("${idempotency.ttl-minutes:1440}") long ttlMinutes) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    /**
+     * Runs {@code action} once per {@code key}. Without a key it simply runs.
+     *
+     * @param operation   name of the endpoint, so keys of different operations never collide
+     * @param fingerprint the request's arguments; a duplicate must present an equal one
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Outcome<T> execute(String operation, String key, Object fingerprint, Supplier<T> action) {
+        if (key == null) {
+            return new Outcome<>(action.get(), false);
+        }
+        Key scoped = scope(operation, key);
+        Entry mine = new Entry(fingerprint, new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(scoped, mine);
+        if (existing != null) {
+            return new Outcome<>((T) await(existing, fingerprint), true);
+        }
+        try {
+            T value = action.get();
+            mine.result().complete(value);
+            return new Outcome<>(value, false);
+        } catch (RuntimeException | Error e) {
+            entries.asMap().remove(scoped, mine);
+            mine.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * The stored result for {@code key}, if its request has completed; lets a
+     * caller answer a replay before doing admission or other per-request work.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Optional<T> completed(String operation, String key, Object fingerprint) {
+        if (key == null) {
+            return Optional.empty();
+        }
+        Entry existing = entries.getIfPresent(scope(operation, key));
+        if (existing == null || !existing.result().isDone() || existing.result().isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+        return Optional.of((T) await(existing, fingerprint));
+    }
+
+    private static Object await(Entry existing, Object fingerprint) {
+        if (!Objects.equals(existing.fingerprint(), fingerprint)) {
+            throw new BadRequestException("Idempotency-Key was already used for a different request");
+        }
+        try {
+            return existing.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static Key scope(String operation, String key) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String principal = authentication != null ? authentication.getName() : "";
+        return new Key(operation, principal, key);
+    }
+}
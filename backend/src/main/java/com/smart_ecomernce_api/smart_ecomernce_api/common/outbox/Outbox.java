@@ -0,0 +1,57 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+/**
+ * Transactional outbox: records a domain event in the same transaction as
+ * the change it describes, so the event exists exactly when the change
+ * commits. Delivery happens later, off the request thread, through the
+ * {@link OutboxDispatcher}, which is nudged as soon as the transaction
+ * commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class Outbox {
+
+    private final OutboxEventRepository repository;
+    private final OutboxDispatcher dispatcher;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Appends an event; must be called inside the transaction that makes
+     * the change.
+     *
+     * @param payload serialised to JSON with the application {@link ObjectMapper}
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String aggregateType, Object aggregateId, String eventType, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialise " + eventType + " event", e);
+        }
+        repository.save(OutboxEvent.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(String.valueOf(aggregateId))
+                .eventType(eventType)
+                .payload(json)
+                .createdAt(LocalDateTime.now())
+                .build());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatcher.nudge();
+            }
+        });
+    }
+}
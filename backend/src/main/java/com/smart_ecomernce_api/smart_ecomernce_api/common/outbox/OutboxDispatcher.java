@@ -0,0 +1,304 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers {@link OutboxEvent}s to the {@link OutboxSubscriber} beans.
+ *
+ * <p>One poller thread reads up to {@code outbox.batch-size} pending events
+ * in id order, every {@code outbox.poll-ms} and whenever a transaction that
+ * appended events commits. The batch is split by aggregate; each aggregate's
+ * events are delivered in order on a virtual thread, so a slow subscriber
+ * holds up only its own aggregate, and what was delivered is marked
+ * published in one UPDATE. An event whose subscriber throws stays pending,
+ * and its aggregate stops there: it is tried again after a backoff that
+ * starts at {@code outbox.retry-backoff-ms} and doubles with each attempt up
+ * to {@code outbox.max-retry-backoff-ms}, and the aggregate's later events
+ * wait for it. After {@code outbox.max-attempts} it is set aside (dead) and
+ * can be queued again with {@link #replay}. Published events are deleted after
+ * {@code outbox.retention-hours}, which is also how far back a replay reaches.
+ *
+ * <p>Only one node should dispatch ({@code outbox.dispatcher.enabled}); two
+ * dispatchers would still deliver every event, but could interleave an
+ * aggregate's events.
+ *
+ * <p>Meters: {@code outbox.lag} (commit to delivery, p50/p95/p99),
+ * {@code outbox.oldest-pending-seconds}, {@code outbox.batch},
+ * {@code outbox.delivered}, {@code outbox.failed} and {@code outbox.dead}.
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+
+    /** Dispatcher state for the performance endpoints. */
+    public record Status(boolean enabled, long pending, long dead, long delivered, long failed,
+                         double oldestPendingSeconds, Map<String, Double> lagPercentilesMillis) {}
+
+    private record Delivery(List<OutboxEvent> delivered, OutboxEvent failed, Exception error) {}
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxEventRepository repository;
+    private final ObjectProvider<OutboxSubscriber> subscribers;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long pollMs;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final long maxRetryBackoffMs;
+    private final Duration retention;
+
+    private final Timer lagTimer;
+    private final Timer batchTimer;
+    private final Counter deliveredCounter;
+    private final Counter failedCounter;
+    private final Counter deadCounter;
+    private final AtomicLong oldestPendingMillis = new AtomicLong();
+
+    private final AtomicBoolean nudged = new AtomicBoolean();
+    private final ScheduledExecutorService poller =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("outbox-dispatcher").daemon().factory());
+    private final ExecutorService deliverers =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("outbox-delivery-", 0).factory());
+
+    public OutboxDispatcher(
+            OutboxEventRepository repository,
+            ObjectProvider<OutboxSubscriber> subscribers,
+            PlatformTransactionManager transactionManager,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${outbox.dispatcher.enabled:true}") boolean enabled,
+            @Value("${outbox.poll-ms:500}") long pollMs,
+            @Value("${outbox.batch-size:200}") int batchSize,
+            @Value("${outbox.max-attempts:10}") int maxAttempts,
+            @Value("${outbox.retry-backoff-ms:1000}") long retryBackoffMs,
+            @Value("${outbox.max-retry-backoff-ms:300000}") long maxRetryBackoffMs,
+            @Value("${outbox.retention-hours:168}") long retentionHours) {
+        this.repository = repository;
+        this.subscribers = subscribers;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.pollMs = pollMs;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+        this.maxRetryBackoffMs = maxRetryBackoffMs;
+        this.retention = Duration.ofHours(retentionHours);
+
+        MeterRegistry meters = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.lagTimer = Timer.builder("outbox.lag")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meters);
+        this.batchTimer = Timer.builder("outbox.batch").register(meters);
+        this.deliveredCounter = Counter.builder("outbox.delivered").register(meters);
+        this.failedCounter = Counter.builder("outbox.failed").register(meters);
+        this.deadCounter = Counter.builder("outbox.dead").register(meters);
+        Gauge.builder("outbox.oldest-pending-seconds", oldestPendingMillis, millis -> millis.get() / 1000.0)
+                .register(meters);
+    }
+
+    @PostConstruct
+    void start() {
+        if (enabled) {
+            poller.scheduleWithFixedDelay(this::poll, pollMs, pollMs, TimeUnit.MILLISECONDS);
+            poller.scheduleWithFixedDelay(this::purge, 1, 1, TimeUnit.HOURS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        poller.shutdownNow();
+        deliverers.shutdownNow();
+    }
+
+    /** Asks for a poll as soon as possible; calls that arrive before it runs are coalesced. */
+    public void nudge() {
+        if (enabled && nudged.compareAndSet(false, true)) {
+            try {
+                poller.execute(this::poll);
+            } catch (RuntimeException e) {
+                nudged.set(false);
+            }
+        }
+    }
+
+    /**
+     * Queues events in {@code [fromId, toId]} for delivery again, including
+     * published and dead ones still within retention. Null filters match
+     * everything.
+     *
+     * @return the number of events queued
+     */
+    public int replay(long fromId, long toId, String aggregateType, String aggregateId, String eventType) {
+        Integer requeued = transactionTemplate.execute(status ->
+                repository.requeue(fromId, toId, aggregateType, aggregateId, eventType));
+        log.info("Replaying {} outbox events {}..{} (aggregate {} {}, type {})",
+                requeued, fromId, toId, aggregateType, aggregateId, eventType);
+        nudge();
+        return requeued == null ? 0 : requeued;
+    }
+
+    public Status status() {
+        Map<String, Double> percentiles = new TreeMap<>();
+        for (ValueAtPercentile value : lagTimer.takeSnapshot().percentileValues()) {
+            percentiles.put("p" + Math.round(value.percentile() * 100), value.value(TimeUnit.MILLISECONDS));
+        }
+        return new Status(enabled, repository.countPending(maxAttempts), repository.countDead(maxAttempts),
+                (long) deliveredCounter.count(), (long) failedCounter.count(),
+                oldestPendingMillis.get() / 1000.0, percentiles);
+    }
+
+    /** Delivers due events until a batch comes back short or delivers nothing. */
+    void poll() {
+        nudged.set(false);
+        try {
+            List<OutboxEvent> batch;
+            int published;
+            do {
+                batch = repository.findPending(maxAttempts, LocalDateTime.now(), Limit.of(batchSize));
+                oldestPendingMillis.set(batch.isEmpty() ? 0 : Math.max(0, System.currentTimeMillis() - millis(batch.get(0).getCreatedAt())));
+                published = batch.isEmpty() ? 0 : dispatch(batch);
+            } while (batch.size() == batchSize && published > 0 && !Thread.currentThread().isInterrupted());
+        } catch (RuntimeException e) {
+            log.error("Outbox poll failed", e);
+        }
+    }
+
+    /** Delivers one batch and records the outcome; returns how many events were published. */
+    private int dispatch(List<OutboxEvent> batch) {
+        long started = System.nanoTime();
+        Map<String, List<OutboxEvent>> byAggregate = new LinkedHashMap<>();
+        for (OutboxEvent event : batch) {
+            byAggregate.computeIfAbsent(event.getAggregateType() + ":" + event.getAggregateId(), key -> new ArrayList<>())
+                    .add(event);
+        }
+        List<OutboxSubscriber> targets = subscribers.orderedStream().toList();
+        List<Future<Delivery>> futures = new ArrayList<>(byAggregate.size());
+        for (List<OutboxEvent> events : byAggregate.values()) {
+            futures.add(deliverers.submit(() -> deliver(events, targets)));
+        }
+
+        List<Long> published = new ArrayList<>();
+        List<Delivery> failures = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (Future<Delivery> future : futures) {
+            Delivery delivery;
+            try {
+                delivery = future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return 0;
+            } catch (ExecutionException e) {
+                log.error("Outbox delivery crashed", e.getCause());
+                continue;
+            }
+            for (OutboxEvent event : delivery.delivered()) {
+                published.add(event.getId());
+                lagTimer.record(Math.max(0, now - millis(event.getCreatedAt())), TimeUnit.MILLISECONDS);
+            }
+            if (delivery.failed() != null) {
+                failures.add(delivery);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime completedAt = LocalDateTime.now();
+            if (!published.isEmpty()) {
+                repository.markPublished(published, completedAt);
+            }
+            failures.forEach(failure -> repository.recordFailure(failure.failed().getId(), describe(failure.error()),
+                    completedAt.plus(Duration.ofMillis(backoff(failure.failed().getAttempts() + 1)))));
+        });
+        deliveredCounter.increment(published.size());
+        for (Delivery failure : failures) {
+            OutboxEvent event = failure.failed();
+            failedCounter.increment();
+            if (event.getAttempts() + 1 >= maxAttempts) {
+                deadCounter.increment();
+                log.error("Outbox event {} ({} {} {}) failed {} times and is set aside; replay it once fixed",
+                        event.getId(), event.getEventType(), event.getAggregateType(), event.getAggregateId(),
+                        maxAttempts, failure.error());
+            } else {
+                log.warn("Outbox event {} ({}) failed; retrying in {} ms: {}", event.getId(), event.getEventType(),
+                        backoff(event.getAttempts() + 1), failure.error().toString());
+            }
+        }
+        batchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return published.size();
+    }
+
+    /** Wait before the attempt after {@code failures} failed ones. */
+    private long backoff(int failures) {
+        return Math.min(maxRetryBackoffMs, retryBackoffMs << Math.min(failures - 1, 20));
+    }
+
+    /** Hands one aggregate's events to every subscriber in order, stopping at the first failure. */
+    private static Delivery deliver(List<OutboxEvent> events, List<OutboxSubscriber> targets) {
+        List<OutboxEvent> delivered = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            for (OutboxSubscriber subscriber : targets) {
+                try {
+                    if (subscriber.accepts(event)) {
+                        subscriber.handle(event);
+                    }
+                } catch (Exception e) {
+                    return new Delivery(delivered, event, new IllegalStateException(subscriber.name() + ": " + e, e));
+                }
+            }
+            delivered.add(event);
+        }
+        return new Delivery(delivered, null, null);
+    }
+
+    private void purge() {
+        try {
+            Integer deleted = transactionTemplate.execute(status ->
+                    repository.deletePublishedBefore(LocalDateTime.now().minus(retention)));
+            if (deleted != null && deleted > 0) {
+                log.info("Purged {} published outbox events", deleted);
+            }
+        } catch (RuntimeException e) {
+            log.error("Outbox purge failed", e);
+        }
+    }
+
+    private static String describe(Exception error) {
+        String text = String.valueOf(error.getMessage());
+        return text.length() > MAX_ERROR_LENGTH ? text.substring(0, MAX_ERROR_LENGTH) : text;
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,72 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.outbox;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Undelivered events that have not used up their attempts and are due by
+     * {@code now}, oldest first. An event behind one of its aggregate's
+     * events that is waiting out a backoff waits too, so aggregates stay in
+     * order.
+     */
+    @Query("""
+            SELECT e FROM OutboxEvent e
+            WHERE e.publishedAt IS NULL AND e.attempts < :maxAttempts
+              AND (e.nextAttemptAt IS NULL OR e.nextAttemptAt <= :now)
+              AND NOT EXISTS (
+                  SELECT w.id FROM OutboxEvent w
+                  WHERE w.aggregateType = e.aggregateType AND w.aggregateId = e.aggregateId AND w.id < e.id
+                    AND w.publishedAt IS NULL AND w.attempts < :maxAttempts AND w.nextAttemptAt > :now)
+            ORDER BY e.id
+            """)
+    List<OutboxEvent> findPending(@Param("maxAttempts") int maxAttempts, @Param("now") LocalDateTime now, Limit limit);
+
+    @Query("SELECT COUNT(e) FROM OutboxEvent e WHERE e.publishedAt IS NULL AND e.attempts < :maxAttempts")
+    long countPending(@Param("maxAttempts") int maxAttempts);
+
+    @Query("SELECT COUNT(e) FROM OutboxEvent e WHERE e.publishedAt IS NULL AND e.attempts >= :maxAttempts")
+    long countDead(@Param("maxAttempts") int maxAttempts);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.publishedAt = :publishedAt WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    @Modifying
+    @Query("""
+            UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, e.lastError = :error, e.nextAttemptAt = :nextAttemptAt
+            WHERE e.id = :id
+            """)
+    int recordFailure(@Param("id") Long id, @Param("error") String error,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    /**
+     * Queues events for delivery again: published ones and ones that used up
+     * their attempts. Null filters match everything.
+     */
+    @Modifying
+    @Query("""
+            UPDATE OutboxEvent e SET e.publishedAt = NULL, e.attempts = 0, e.lastError = NULL, e.nextAttemptAt = NULL
+            WHERE e.id BETWEEN :fromId AND :toId
+              AND (:aggregateType IS NULL OR e.aggregateType = :aggregateType)
+              AND (:aggregateId IS NULL OR e.aggregateId = :aggregateId)
+              AND (:eventType IS NULL OR e.eventType = :eventType)
+            """)
+    int requeue(@Param("fromId") long fromId, @Param("toId") long toId,
+                @Param("aggregateType") String aggregateType, @Param("aggregateId") String aggregateId,
+                @Param("eventType") String eventType);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
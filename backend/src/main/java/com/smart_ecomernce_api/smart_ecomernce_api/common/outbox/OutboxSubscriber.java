@@ -0,0 +1,24 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.outbox;
+
+/**
+ * In-process consumer of outbox events. Every bean implementing this
+ * receives the events it {@link #accepts}.
+ *
+ * <p>Delivery is at-least-once: after a crash, or when another subscriber of
+ * the same event fails, an event is handed over again. Events of one
+ * aggregate arrive in the order they were written; events of different
+ * aggregates may be handled concurrently, each on its own virtual thread.
+ * Throwing fails the event; it is retried on the next poll and blocks the
+ * later events of its aggregate until it succeeds or runs out of attempts.
+ */
+public interface OutboxSubscriber {
+
+    boolean accepts(OutboxEvent event);
+
+    void handle(OutboxEvent event) throws Exception;
+
+    /** Name used in logs. */
+    default String name() {
+        return getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,80 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.pagination;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.response.CursorPage;
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.BadRequestException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.graphql.data.pagination.CursorStrategy;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Converts between opaque REST cursors and keyset {@link ScrollPosition}s.
+ *
+ * <p>A cursor carries the sort-key values of the last row returned. It is only
+ * accepted back with the sort it was issued for: a cursor from a
+ * {@code createdAt} listing replayed against a {@code price} listing would
+ * otherwise seek on a key the query does not order by.
+ */
+@Component
+@RequiredArgsConstructor
+public class CursorCodec {
+
+    private final CursorStrategy<ScrollPosition> cursorStrategy;
+
+    /**
+     * Returns the position to scroll from: the start of the listing when
+     * {@code cursor} is blank, otherwise the decoded keyset position.
+     *
+     * @throws BadRequestException if the cursor is malformed or was issued for a different sort
+     */
+    public KeysetScrollPosition decode(String cursor, Sort sort) {
+        if (!StringUtils.hasText(cursor)) {
+            return ScrollPosition.keyset();
+        }
+        KeysetScrollPosition keyset = verify(cursorStrategy.fromCursor(cursor), sort);
+        if (!keyset.scrollsForward()) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        return keyset;
+    }
+
+    /**
+     * Checks a position already decoded elsewhere (a GraphQL
+     * {@code ScrollSubrange}) against the sort it is about to be used with.
+     * An initial position, with no keys yet, matches any sort.
+     *
+     * @throws BadRequestException if the position was issued for a different sort
+     */
+    public KeysetScrollPosition verify(ScrollPosition position, Sort sort) {
+        if (!(position instanceof KeysetScrollPosition keyset)
+                || (!keyset.isInitial() && !keyset.getKeys().keySet().equals(properties(sort)))) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        return keyset;
+    }
+
+    public <T> CursorPage<T> toPage(Window<T> window) {
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? cursorStrategy.toCursor(window.positionAt(window.size() - 1))
+                : null;
+        return CursorPage.<T>builder()
+                .content(window.getContent())
+                .size(window.size())
+                .hasNext(window.hasNext())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private static Set<String> properties(Sort sort) {
+        Set<String> properties = new HashSet<>();
+        sort.forEach(order -> properties.add(order.getProperty()));
+        return properties;
+    }
+}
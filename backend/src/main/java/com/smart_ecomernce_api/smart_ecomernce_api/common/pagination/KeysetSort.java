@@ -0,0 +1,54 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.pagination;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.BadRequestException;
+import org.springframework.data.domain.Sort;
+
+import java.util.Set;
+
+/**
+ * Sort orders a listing may be scrolled by.
+ *
+ * <p>Keyset pagination seeks past the last row with
+ * {@code WHERE (sortKey, id) > (:lastSortKey, :lastId)}, so the sort has to be
+ * total and its keys must be non-null columns. Each listing therefore
+ * whitelists its sort properties, and {@code id} is always appended as the
+ * tie-breaker.
+ */
+public final class KeysetSort {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private static final String TIE_BREAKER = "id";
+
+    private final Set<String> properties;
+
+    private KeysetSort(Set<String> properties) {
+        this.properties = properties;
+    }
+
+    public static KeysetSort of(String... properties) {
+        return new KeysetSort(Set.of(properties));
+    }
+
+    /**
+     * Returns {@code sortBy} in {@code direction} followed by {@code id} in the
+     * same direction.
+     *
+     * @throws BadRequestException if {@code sortBy} is not scrollable
+     */
+    public Sort resolve(String sortBy, Sort.Direction direction) {
+        if (TIE_BREAKER.equals(sortBy)) {
+            return Sort.by(direction, TIE_BREAKER);
+        }
+        if (!properties.contains(sortBy)) {
+            throw new BadRequestException("Cannot scroll by '" + sortBy + "'; supported: " + properties);
+        }
+        return Sort.by(direction, sortBy).and(Sort.by(direction, TIE_BREAKER));
+    }
+
+    /** Clamps a requested page size to {@code 1..MAX_LIMIT}. */
+    public static int limit(int requested) {
+        return Math.max(1, Math.min(requested, MAX_LIMIT));
+    }
+}
@@ -0,0 +1,164 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.GraphQLJwtInterceptor;
+import com.smart_ecomernce_api.smart_ecomernce_api.security.UserPrincipal;
+import graphql.ExecutionResult;
+import graphql.GraphqlErrorBuilder;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.parser.InvalidSyntaxException;
+import graphql.parser.Parser;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.graphql.support.DefaultExecutionGraphQlResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Applies the {@link RateLimiter} to GraphQL operations, sharing the REST
+ * buckets. The document is parsed and the operation that will run (the one
+ * named by {@code operationName}, or the only one) is classified: mutations
+ * are {@link RouteClass#WRITE}, operations that select a search or filter
+ * field at the root are {@link RouteClass#SEARCH}, and other queries
+ * {@link RouteClass#READ}. A document that does not parse is
+ * {@link RouteClass#READ}; it fails before any resolver runs. Clients send
+ * the same few documents over and over, so classifications are kept in a
+ * bounded cache keyed by document and operation name.
+ *
+ * <p>Runs after {@link GraphQLJwtInterceptor}, so signed-in callers are
+ * limited by user id.
+ *
+ * <p>A rejected operation is not executed. Following GraphQL over HTTP, it
+ * is answered with a single error whose {@code code} extension is
+ * {@code TOO_MANY_REQUESTS}, plus the {@code Retry-After} header.
+ */
+@Slf4j
+@Component
+@Order(GraphQLRateLimitInterceptor.ORDER)
+@RequiredArgsConstructor
+public class GraphQLRateLimitInterceptor implements WebGraphQlInterceptor {
+
+    /** After {@link GraphQLJwtInterceptor#ORDER}. */
+    public static final int ORDER = GraphQLJwtInterceptor.ORDER + 10;
+
+    private static final Pattern SEARCH_FIELD = Pattern.compile("(search|filter|advancedFilter)\\w*");
+
+    private record Operation(String document, String operationName) {}
+
+    private final RateLimiter rateLimiter;
+    private final Cache<Operation, RouteClass> routes = Caffeine.newBuilder()
+            .maximumWeight(4_000_000)
+            .<Operation, RouteClass>weigher((operation, route) -> operation.document().length())
+            .build();
+
+    @Override
+    public @NonNull Mono<WebGraphQlResponse> intercept(@NonNull WebGraphQlRequest request, @NonNull Chain chain) {
+        if (!rateLimiter.isEnabled()) {
+            return chain.next(request);
+        }
+        RouteClass route = routes.get(new Operation(request.getDocument(), request.getOperationName()),
+                operation -> classify(operation.document(), operation.operationName()));
+        long wait = rateLimiter.tryAcquire(route, caller(request));
+        if (wait == 0) {
+            return chain.next(request);
+        }
+        long retryAfter = RateLimiter.retryAfterSeconds(wait);
+        log.debug("Rate limit hit on GraphQL {} ({}), retry after {}s", request.getOperationName(), route, retryAfter);
+        ExecutionResult result = ExecutionResult.newExecutionResult()
+                .addError(GraphqlErrorBuilder.newError()
+                        .message("Too many requests. Please try again later.")
+                        .extensions(Map.of("code", "TOO_MANY_REQUESTS", "retryAfterSeconds", retryAfter))
+                        .build())
+                .build();
+        WebGraphQlResponse response =
+                new WebGraphQlResponse(new DefaultExecutionGraphQlResponse(request.toExecutionInput(), result));
+        response.getResponseHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        return Mono.just(response);
+    }
+
+    static RouteClass classify(String document, String operationName) {
+        Document parsed;
+        try {
+            parsed = Parser.parse(document);
+        } catch (InvalidSyntaxException e) {
+            return RouteClass.READ;
+        }
+        OperationDefinition operation = selectOperation(parsed, operationName);
+        if (operation == null) {
+            return RouteClass.READ;
+        }
+        if (operation.getOperation() == OperationDefinition.Operation.MUTATION) {
+            return RouteClass.WRITE;
+        }
+        Map<String, FragmentDefinition> fragments = new HashMap<>();
+        parsed.getDefinitionsOfType(FragmentDefinition.class).forEach(fragment -> fragments.put(fragment.getName(), fragment));
+        return selectsSearchField(operation.getSelectionSet(), fragments, new HashSet<>())
+                ? RouteClass.SEARCH : RouteClass.READ;
+    }
+
+    /** The operation GraphQL will execute, or null when the request does not pick one unambiguously. */
+    private static OperationDefinition selectOperation(Document document, String operationName) {
+        List<OperationDefinition> operations = document.getDefinitionsOfType(OperationDefinition.class);
+        if (operationName == null || operationName.isBlank()) {
+            return operations.size() == 1 ? operations.get(0) : null;
+        }
+        return operations.stream()
+                .filter(operation -> operationName.equals(operation.getName()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /** Whether a root field, directly or through fragments, is a search or filter field. */
+    private static boolean selectsSearchField(SelectionSet selectionSet, Map<String, FragmentDefinition> fragments,
+                                              Set<String> visited) {
+        if (selectionSet == null) {
+            return false;
+        }
+        for (Selection<?> selection : selectionSet.getSelections()) {
+            boolean search = switch (selection) {
+                case Field field -> SEARCH_FIELD.matcher(field.getName()).matches();
+                case InlineFragment inline -> selectsSearchField(inline.getSelectionSet(), fragments, visited);
+                case FragmentSpread spread -> visited.add(spread.getName()) && fragments.containsKey(spread.getName())
+                        && selectsSearchField(fragments.get(spread.getName()).getSelectionSet(), fragments, visited);
+                default -> false;
+            };
+            if (search) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Object caller(WebGraphQlRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
+        InetSocketAddress remote = request.getRemoteAddress();
+        return remote == null ? "unknown" : remote.getHostString();
+    }
+}
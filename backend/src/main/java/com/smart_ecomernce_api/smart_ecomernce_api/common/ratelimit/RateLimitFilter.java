@@ -0,0 +1,82 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.ratelimit;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.security.UserPrincipal;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Applies the {@link RateLimiter} to REST requests and answers 429 with
+ * {@code Retry-After} once a caller's bucket is empty.
+ *
+ * <p>Runs in the security chain right after the JWT filter, so signed-in
+ * callers are limited by user id and anonymous ones by client address.
+ * Tomcat takes that address from {@code X-Forwarded-For} only when the
+ * request comes from one of {@code server.tomcat.remoteip.internal-proxies};
+ * from anyone else the header is ignored, so a client cannot mint itself
+ * fresh buckets.
+ * GraphQL is left to {@link GraphQLRateLimitInterceptor}, which can see the
+ * operation.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String GRAPHQL_PATH = "/graphql";
+
+    private final RateLimiter rateLimiter;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimiter.isEnabled() || request.getServletPath().startsWith(GRAPHQL_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RouteClass route = classify(request.getMethod(), request.getServletPath());
+        long wait = rateLimiter.tryAcquire(route, caller(request));
+        if (wait > 0) {
+            long retryAfter = RateLimiter.retryAfterSeconds(wait);
+            log.debug("Rate limit hit on {} {} ({}), retry after {}s", request.getMethod(), request.getServletPath(), route, retryAfter);
+            response.setStatus(429);
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\": \"Too many requests. Please try again later.\"}");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    static RouteClass classify(String method, String path) {
+        if (path.startsWith("/v1/auth") && !path.startsWith("/v1/auth/security")) {
+            return RouteClass.AUTH;
+        }
+        if (path.contains("/search") || path.endsWith("/filter") || path.contains("/filter/")) {
+            return RouteClass.SEARCH;
+        }
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)
+                ? RouteClass.READ : RouteClass.WRITE;
+    }
+
+    /** User id when the JWT filter authenticated the request, otherwise the client address. */
+    static Object caller(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
+        return request.getRemoteAddr();
+    }
+}
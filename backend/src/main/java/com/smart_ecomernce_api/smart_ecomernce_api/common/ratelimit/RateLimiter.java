@@ -0,0 +1,152 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets per caller and {@link RouteClass}.
+ *
+ * <p>A bucket holds up to {@code rate-limit.<class>.capacity} tokens and
+ * refills at {@code rate-limit.<class>.per-second}. It is kept as a single
+ * {@link AtomicLong}, the time at which it will be full again (the GCRA form
+ * of a token bucket), so a check is one read and one CAS with no lock and no
+ * refill bookkeeping. Callers are keyed by user id when authenticated and by
+ * client address otherwise.
+ *
+ * <p>Buckets live in a Caffeine cache bounded by
+ * {@code rate-limit.max-buckets} and dropped after
+ * {@code rate-limit.idle-minutes} without a request; the idle time is never
+ * shorter than a full refill, so a dropped bucket was full and recreating it
+ * changes nothing.
+ *
+ * <p>Meters: {@code ratelimit.allowed} and {@code ratelimit.rejected}, tagged
+ * by {@code route}, and {@code ratelimit.buckets}.
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+
+    /** Limit of one route class. */
+    public record Limit(int capacity, double perSecond) {
+
+        long intervalNanos() {
+            return Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / perSecond));
+        }
+    }
+
+    private record BucketKey(RouteClass route, Object caller) {}
+
+    private final boolean enabled;
+    private final Map<RouteClass, Limit> limits = new EnumMap<>(RouteClass.class);
+    private final long[] intervalNanos = new long[RouteClass.values().length];
+    private final long[] burstNanos = new long[RouteClass.values().length];
+    private final Counter[] allowed = new Counter[RouteClass.values().length];
+    private final Counter[] rejected = new Counter[RouteClass.values().length];
+    private final Cache<BucketKey, AtomicLong> buckets;
+    private final LongSupplier clock;
+
+    @Autowired
+    public RateLimiter(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${rate-limit.enabled:true}") boolean enabled,
+            @Value("${rate-limit.max-buckets:100000}") long maxBuckets,
+            @Value("${rate-limit.idle-minutes:10}") long idleMinutes,
+            @Value("${rate-limit.auth.capacity:10}") int authCapacity,
+            @Value("${rate-limit.auth.per-second:0.2}") double authPerSecond,
+            @Value("${rate-limit.search.capacity:20}") int searchCapacity,
+            @Value("${rate-limit.search.per-second:5}") double searchPerSecond,
+            @Value("${rate-limit.write.capacity:30}") int writeCapacity,
+            @Value("${rate-limit.write.per-second:10}") double writePerSecond,
+            @Value("${rate-limit.read.capacity:100}") int readCapacity,
+            @Value("${rate-limit.read.per-second:50}") double readPerSecond) {
+        this(meterRegistry.getIfAvailable(SimpleMeterRegistry::new), enabled, maxBuckets, Duration.ofMinutes(idleMinutes),
+                Map.of(RouteClass.AUTH, new Limit(authCapacity, authPerSecond),
+                        RouteClass.SEARCH, new Limit(searchCapacity, searchPerSecond),
+                        RouteClass.WRITE, new Limit(writeCapacity, writePerSecond),
+                        RouteClass.READ, new Limit(readCapacity, readPerSecond)),
+                System::nanoTime);
+    }
+
+    RateLimiter(MeterRegistry meters, boolean enabled, long maxBuckets, Duration idle,
+                Map<RouteClass, Limit> limits, LongSupplier clock) {
+        this.enabled = enabled;
+        this.clock = clock;
+        long longestRefill = 0;
+        for (RouteClass route : RouteClass.values()) {
+            Limit limit = limits.get(route);
+            this.limits.put(route, limit);
+            intervalNanos[route.ordinal()] = limit.intervalNanos();
+            burstNanos[route.ordinal()] = limit.intervalNanos() * limit.capacity();
+            longestRefill = Math.max(longestRefill, burstNanos[route.ordinal()]);
+            allowed[route.ordinal()] = Counter.builder("ratelimit.allowed").tag("route", route.name()).register(meters);
+            rejected[route.ordinal()] = Counter.builder("ratelimit.rejected").tag("route", route.name()).register(meters);
+        }
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(Duration.ofNanos(Math.max(idle.toNanos(), longestRefill)))
+                .build();
+        Gauge.builder("ratelimit.buckets", buckets, Cache::estimatedSize).register(meters);
+        log.info("Rate limiting {}: {}", enabled ? "enabled" : "disabled", this.limits);
+    }
+
+    /**
+     * Takes one token from the caller's bucket for {@code route}.
+     *
+     * @param caller user id, or client address for anonymous callers
+     * @return 0 if the request may proceed, otherwise how many nanoseconds
+     *         until a token is available
+     */
+    public long tryAcquire(RouteClass route, Object caller) {
+        if (!enabled) {
+            return 0;
+        }
+        int index = route.ordinal();
+        long interval = intervalNanos[index];
+        long burst = burstNanos[index];
+        AtomicLong fullAt = buckets.get(new BucketKey(route, caller), key -> new AtomicLong(Long.MIN_VALUE));
+        long now = clock.getAsLong();
+        while (true) {
+            long current = fullAt.get();
+            // The bucket is full from fullAt on; each token taken pushes that point one interval later.
+            long next = Math.max(current, now) + interval;
+            long wait = next - now - burst;
+            if (wait > 0) {
+                rejected[index].increment();
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                allowed[index].increment();
+                return 0;
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Map<RouteClass, Limit> limits() {
+        return Map.copyOf(limits);
+    }
+
+    /** Whole seconds to put in a {@code Retry-After} header, at least 1. */
+    public static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,21 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.ratelimit;
+
+/**
+ * Groups of endpoints that share a rate limit. Each caller has one bucket
+ * per class, whichever endpoint of the class it calls and whether over REST
+ * or GraphQL.
+ */
+public enum RouteClass {
+
+    /** Login, registration, token refresh: the targets of credential stuffing. */
+    AUTH,
+
+    /** Keyword search and filter queries, the most expensive reads. */
+    SEARCH,
+
+    /** Everything that changes state. */
+    WRITE,
+
+    /** Every other read. */
+    READ
+}
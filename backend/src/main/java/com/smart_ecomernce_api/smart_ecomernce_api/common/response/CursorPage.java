@@ -0,0 +1,21 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.response;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * One slice of a keyset-paginated listing. Pass {@code nextCursor} back as
+ * {@code cursor} to fetch the following slice; it is {@code null} on the last
+ * one. There is deliberately no total count.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPage<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
@@ -0,0 +1,44 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.retry;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Re-runs a service method whose transaction lost a concurrency conflict: an
+ * optimistic-lock version mismatch, or a lock timeout or deadlock.
+ *
+ * <p>Each attempt gets a fresh transaction, so it reads current rows. Between
+ * attempts the caller sleeps for a random time up to an exponentially
+ * growing cap ("full jitter"), which spreads colliding writers apart. A call
+ * made inside a transaction that is already running is not retried: the
+ * conflict has to roll that transaction back and is left to whoever started
+ * it. On a class, applies to every public method.
+ *
+ * <p>Only methods whose outcome is decided by the rows they read are safe to
+ * re-run. A method that writes values taken from the request over whatever
+ * it loaded (an edit form, a quantity set to N) would overwrite the change
+ * that beat it, so it opts out with {@code maxAttempts = 1}: the conflict
+ * reaches the client as 409 Conflict and the client decides.
+ *
+ * <pre>{@code
+ * @RetryOnConflict(maxAttempts = 5)
+ * @Transactional
+ * public ProductResponse updateProduct(Long id, ProductUpdateRequest request)
+ * }</pre>
+ */
+@Documented
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+
+    /** Total attempts, including the first. */
+    int maxAttempts() default 4;
+
+    /** Backoff cap before the first retry; doubles for each later one. */
+    long initialBackoffMs() default 10;
+
+    long maxBackoffMs() default 200;
+}
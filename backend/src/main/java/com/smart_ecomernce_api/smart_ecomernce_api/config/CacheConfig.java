@@ -1,13 +1,27 @@
 package com.smart_ecomernce_api.smart_ecomernce_api.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CacheInvalidationBus;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CacheRefresher;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CacheTagIndex;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CacheTags;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.RemoteCacheLoader;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.RemoteCacheStore;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.SingleFlightLoader;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.TaggedCaffeineCache;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.TwoTierCache;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.TwoTierCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.interceptor.CacheErrorHandler;
 import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
@@ -15,15 +29,38 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.lang.NonNull;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Project-specific Cache Configuration using Caffeine
+ * Project-specific Cache Configuration using Caffeine.
+ *
+ * <p>Every cache is a {@link TaggedCaffeineCache}: entries are indexed by the
+ * entities they contain so that mutations can evict by tag (see
+ * {@link CacheTags}) instead of clearing whole caches. Listing caches carry a
+ * static tag that is evicted only when membership can change.
+ *
+ * <p>With {@code cache.two-tier.enabled=true} each cache becomes a
+ * {@link TwoTierCache}: Caffeine stays the L1, the {@link RemoteCacheStore}
+ * from {@link TwoTierCacheConfig} is the shared L2, and evictions are
+ * broadcast so other nodes drop their L1 copies.
+ *
+ * <p>The hottest listing caches and the admin dashboard are refresh-ahead
+ * (see {@link CacheRefresher}): once an entry is older than its refresh
+ * interval, reads keep returning it while it is reloaded in the background,
+ * and their methods use {@code @Cacheable(sync = true)} so concurrent misses
+ * run a single load. The TTL remains the upper bound on staleness.
+ *
+ * <p>The single-entity caches ({@code products}, {@code order}, {@code users})
+ * coalesce concurrent misses through a {@link SingleFlightLoader}, so a hot
+ * key expiring costs one database load rather than one per request.
  */
 @Slf4j
 @Configuration
 @EnableCaching
+@RequiredArgsConstructor
 public class CacheConfig implements CachingConfigurer {
 
     // ====== Product cache names ======
@@ -98,35 +135,84 @@ public class CacheConfig implements CachingConfigurer {
     // ====== Admin / dashboard cache names ======
     public static final String DASHBOARD_CACHE = "admin-dashboard";
 
+    private final CacheTagIndex tagIndex = new CacheTagIndex();
+
+    private final RemoteCacheStore remoteCacheStore;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final ObjectProvider<RemoteCacheLoader> remoteCacheLoader;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${cache.two-tier.enabled:false}")
+    private boolean twoTierEnabled;
+
+    @Value("${cache.two-tier.remote-wait-ms:10}")
+    private long remoteWaitMillis;
+
+    @Value("${cache.refresh.enabled:true}")
+    private boolean refreshEnabled;
+
+    @Value("${cache.refresh.max-concurrent:4}")
+    private int refreshMaxConcurrent;
+
+    @Value("${cache.single-flight.enabled:true}")
+    private boolean singleFlightEnabled;
+
+    private MeterRegistry cacheMeters;
+
+    @Bean
+    public CacheTagIndex cacheTagIndex() {
+        return tagIndex;
+    }
+
+    @Bean
+    public CacheRefresher cacheRefresher() {
+        return new CacheRefresher(cacheMeters(), refreshMaxConcurrent);
+    }
+
+    @Bean
+    public SingleFlightLoader singleFlightLoader() {
+        return new SingleFlightLoader(cacheMeters());
+    }
+
+    /** The application's registry if there is one, otherwise a local one so the performance endpoints still work. */
+    private synchronized MeterRegistry cacheMeters() {
+        if (cacheMeters == null) {
+            cacheMeters = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        }
+        return cacheMeters;
+    }
+
     @Bean
     @Primary
     @ConditionalOnProperty(name = "spring.cache.type", havingValue = "caffeine", matchIfMissing = true)
     public CacheManager caffeineCacheManager() {
-        log.info("Configuring Caffeine cache manager for project");
-        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        log.info("Configuring Caffeine cache manager for project (two-tier: {})", twoTierEnabled);
+        SimpleCacheManager cacheManager = twoTierEnabled
+                ? new TwoTierCacheManager(tagIndex, cacheInvalidationBus)
+                : new SimpleCacheManager();
         cacheManager.setCaches(List.of(
 
                 // --- Products ---
-                buildCaffeineCache(PRODUCTS_CACHE,               2000, 60),
-                buildCaffeineCache(PRODUCTS_PAGE_CACHE,          1000, 60),
-                buildCaffeineCache(PRODUCTS_SEARCH_CACHE,        1000, 60),
-                buildCaffeineCache(PRODUCTS_PREDICATE_CACHE,     1000, 60),
-                buildCaffeineCache(PRODUCTS_FILTER_CACHE,        1000, 60),
-                buildCaffeineCache(PRODUCTS_CATEGORY_CACHE,      1000, 60),
-                buildCaffeineCache(PRODUCTS_CATEGORY_NAME_CACHE, 1000, 60),
-                buildCaffeineCache(PRODUCTS_PRICE_RANGE_CACHE,   1000, 60),
-                buildCaffeineCache(PRODUCTS_DISCOUNTED_CACHE,     300, 30),
-                buildCaffeineCache(PRODUCTS_FEATURED_CACHE,       200, 120),
-                buildCaffeineCache(PRODUCTS_NEW_CACHE,            200, 60),
-                buildCaffeineCache(PRODUCTS_BESTSELLER_CACHE,     200, 60),
-                buildCaffeineCache(PRODUCTS_TOP_RATED_CACHE,      200, 60),
-                buildCaffeineCache(PRODUCTS_TRENDING_CACHE,       200, 30),
-                buildCaffeineCache(PRODUCTS_STATUS_CACHE,        1000, 60),
-                buildCaffeineCache(PRODUCTS_REORDER_CACHE,        500, 30),
+                buildSingleFlightCache(PRODUCTS_CACHE,           2000, 60),
+                buildCaffeineCache(PRODUCTS_PAGE_CACHE,          1000, 60,  CacheTags.PRODUCT_LISTINGS),
+                buildCaffeineCache(PRODUCTS_SEARCH_CACHE,        1000, 60,  CacheTags.PRODUCT_LISTINGS),
+                buildCaffeineCache(PRODUCTS_PREDICATE_CACHE,     1000, 60,  CacheTags.PRODUCT_LISTINGS),
+                buildCaffeineCache(PRODUCTS_FILTER_CACHE,        1000, 60,  CacheTags.PRODUCT_LISTINGS),
+                buildCaffeineCache(PRODUCTS_CATEGORY_CACHE,      1000, 60,  CacheTags.PRODUCT_CATEGORY_LISTINGS),
+                buildCaffeineCache(PRODUCTS_CATEGORY_NAME_CACHE, 1000, 60,  CacheTags.PRODUCT_LISTINGS),
+                buildCaffeineCache(PRODUCTS_PRICE_RANGE_CACHE,   1000, 60,  CacheTags.PRODUCT_LISTINGS),
+                buildCaffeineCache(PRODUCTS_DISCOUNTED_CACHE,     300, 30,  CacheTags.PRODUCT_LISTINGS),
+                buildRefreshingCache(PRODUCTS_FEATURED_CACHE,     200, 120, 10, CacheTags.PRODUCT_LISTINGS),
+                buildCaffeineCache(PRODUCTS_NEW_CACHE,            200, 60,  CacheTags.PRODUCT_LISTINGS),
+                buildRefreshingCache(PRODUCTS_BESTSELLER_CACHE,   200, 60,  10, CacheTags.PRODUCT_LISTINGS),
+                buildCaffeineCache(PRODUCTS_TOP_RATED_CACHE,      200, 60,  CacheTags.PRODUCT_LISTINGS),
+                buildRefreshingCache(PRODUCTS_TRENDING_CACHE,     200, 30,  5,  CacheTags.PRODUCT_LISTINGS),
+                buildCaffeineCache(PRODUCTS_STATUS_CACHE,        1000, 60,  CacheTags.PRODUCT_LISTINGS),
+                buildCaffeineCache(PRODUCTS_REORDER_CACHE,        500, 30,  CacheTags.PRODUCT_LISTINGS),
 
                 // --- Categories ---
                 buildCaffeineCache(CATEGORIES_CACHE,        500, 180),
-                buildCaffeineCache(CATEGORIES_LIST_CACHE,   500, 180),
+                buildRefreshingCache(CATEGORIES_LIST_CACHE, 500, 180, 15),
                 buildCaffeineCache(CATEGORIES_PAGED_CACHE,  500, 180),
                 buildCaffeineCache(CATEGORIES_SEARCH_CACHE, 500, 180),
                 buildCaffeineCache(CATEGORIES_FILTER_CACHE, 500, 180),
@@ -134,17 +220,17 @@ public class CacheConfig implements CachingConfigurer {
 
                 // --- Orders ---
                 buildCaffeineCache(ORDERS_CACHE,           2000, 30),
-                buildCaffeineCache(ORDER_CACHE,            2000, 30),
+                buildSingleFlightCache(ORDER_CACHE,        2000, 30),
                 buildCaffeineCache(ORDER_EXISTS_CACHE,     2000, 30),
                 buildCaffeineCache(USER_ORDERS_CACHE,      2000, 30),
-                buildCaffeineCache(ORDER_STATS_CACHE,       100, 15),
+                buildCaffeineCache(ORDER_STATS_CACHE,       100, 15, CacheTags.ORDER_STATS),
                 buildCaffeineCache(ORDER_COUNTS_CACHE,      500, 15),
-                buildCaffeineCache(ORDERS_PREDICATE_CACHE, 1000, 30),
-                buildCaffeineCache(ORDERS_SEARCH_CACHE,    1000, 30),
-                buildCaffeineCache(ORDERS_FILTER_CACHE,    1000, 30),
+                buildCaffeineCache(ORDERS_PREDICATE_CACHE, 1000, 30, CacheTags.ORDER_LISTINGS),
+                buildCaffeineCache(ORDERS_SEARCH_CACHE,    1000, 30, CacheTags.ORDER_LISTINGS),
+                buildCaffeineCache(ORDERS_FILTER_CACHE,    1000, 30, CacheTags.ORDER_LISTINGS),
 
                 // --- Users ---
-                buildCaffeineCache(USERS_CACHE,           1000, 60),
+                buildSingleFlightCache(USERS_CACHE,       1000, 60),
                 buildCaffeineCache(USERS_PAGE_CACHE,      1000, 60),
                 buildCaffeineCache(USERS_SEARCH_CACHE,    1000, 60),
                 buildCaffeineCache(USERS_ROLE_CACHE,      1000, 60),
@@ -155,17 +241,17 @@ public class CacheConfig implements CachingConfigurer {
                 buildCaffeineCache(CARTS_CACHE, 3000, 15),
 
                 // --- Reviews ---
-                buildCaffeineCache(REVIEWS_CACHE,                2000, 60),
+                buildCaffeineCache(REVIEWS_CACHE,                2000, 60, CacheTags.REVIEW_PRODUCT_LISTINGS),
                 buildCaffeineCache(REVIEW_CACHE,                 1000, 60),
-                buildCaffeineCache(REVIEWS_PREDICATE_CACHE,      1000, 60),
-                buildCaffeineCache(REVIEW_STATS_CACHE,           1000, 60),
-                buildCaffeineCache(RATING_DISTRIBUTION_CACHE,    1000, 60),
-                buildCaffeineCache(REVIEW_TRENDS_CACHE,           500, 60),
-                buildCaffeineCache(TOP_RATED_PRODUCTS_CACHE,      500, 60),
-                buildCaffeineCache(MOST_REVIEWED_PRODUCTS_CACHE,  500, 60),
+                buildCaffeineCache(REVIEWS_PREDICATE_CACHE,      1000, 60, CacheTags.REVIEW_LISTINGS),
+                buildCaffeineCache(REVIEW_STATS_CACHE,           1000, 60, CacheTags.REVIEW_PRODUCT_LISTINGS),
+                buildCaffeineCache(RATING_DISTRIBUTION_CACHE,    1000, 60, CacheTags.REVIEW_PRODUCT_LISTINGS),
+                buildCaffeineCache(REVIEW_TRENDS_CACHE,           500, 60, CacheTags.REVIEW_LISTINGS),
+                buildCaffeineCache(TOP_RATED_PRODUCTS_CACHE,      500, 60, CacheTags.REVIEW_LISTINGS),
+                buildCaffeineCache(MOST_REVIEWED_PRODUCTS_CACHE,  500, 60, CacheTags.REVIEW_LISTINGS),
                 buildCaffeineCache(USER_REVIEWS_CACHE,           1000, 60),
-                buildCaffeineCache(REVIEW_LISTS_CACHE,           1000, 60),
-                buildCaffeineCache(ADMIN_REVIEWS_CACHE,           500, 60),
+                buildCaffeineCache(REVIEW_LISTS_CACHE,           1000, 60, CacheTags.REVIEW_PRODUCT_LISTINGS),
+                buildCaffeineCache(ADMIN_REVIEWS_CACHE,           500, 60, CacheTags.REVIEW_LISTINGS),
 
                 // --- Wishlists ---
                 buildCaffeineCache(WISHLIST_CACHE,           1000, 60),
@@ -176,17 +262,41 @@ public class CacheConfig implements CachingConfigurer {
                 buildCaffeineCache(WISHLIST_ANALYTICS_CACHE,  500, 60),
 
                 // --- Admin dashboard ---
-                buildCaffeineCache(DASHBOARD_CACHE, 10, 10)
+                buildRefreshingCache(DASHBOARD_CACHE, 10, 5, 1)
         ));
         return cacheManager;
     }
 
-    private Cache buildCaffeineCache(String name, int maxSize, int ttlMinutes) {
-        return new CaffeineCache(name, Caffeine.newBuilder()
+    private Cache buildSingleFlightCache(String name, int maxSize, int ttlMinutes, String... staticTags) {
+        TaggedCaffeineCache cache = (TaggedCaffeineCache) buildCaffeineCache(name, maxSize, ttlMinutes, staticTags);
+        if (singleFlightEnabled) {
+            cache.enableSingleFlight(singleFlightLoader());
+        }
+        return cache;
+    }
+
+    private Cache buildRefreshingCache(String name, int maxSize, int ttlMinutes, int refreshAfterMinutes,
+                                       String... staticTags) {
+        TaggedCaffeineCache cache = (TaggedCaffeineCache) buildCaffeineCache(name, maxSize, ttlMinutes, staticTags);
+        if (refreshEnabled) {
+            cache.enableRefresh(Duration.ofMinutes(refreshAfterMinutes), cacheRefresher());
+        }
+        return cache;
+    }
+
+    private Cache buildCaffeineCache(String name, int maxSize, int ttlMinutes, String... staticTags) {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> l1 = Caffeine.newBuilder()
                 .maximumSize(maxSize)
                 .expireAfterWrite(ttlMinutes, TimeUnit.MINUTES)
+                .evictionListener((key, value, cause) -> tagIndex.unregister(name, key))
                 .recordStats()
-                .build());
+                .build();
+        if (!twoTierEnabled) {
+            return new TaggedCaffeineCache(name, l1, tagIndex, Set.of(staticTags));
+        }
+        return new TwoTierCache(name, l1, tagIndex, Set.of(staticTags),
+                remoteCacheStore, remoteCacheLoader.getObject(), cacheInvalidationBus,
+                Duration.ofMinutes(ttlMinutes), remoteWaitMillis);
     }
 
     @Override
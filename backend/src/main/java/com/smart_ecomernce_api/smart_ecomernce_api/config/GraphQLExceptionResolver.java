@@ -5,7 +5,9 @@ import graphql.ErrorType;
 import graphql.GraphQLError;
 import graphql.GraphqlErrorBuilder;
 import graphql.schema.DataFetchingEnvironment;
+import jakarta.persistence.OptimisticLockException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.graphql.execution.DataFetcherExceptionResolverAdapter;
 import org.springframework.stereotype.Component;
 
@@ -58,6 +60,15 @@ public class GraphQLExceptionResolver extends DataFetcherExceptionResolverAdapte
                     .build();
         }
 
+        if (ex instanceof BadRequestException) {
+            return GraphqlErrorBuilder.newError()
+                    .errorType(ErrorType.ValidationError)
+                    .message(ex.getMessage())
+                    .path(env.getExecutionStepInfo().getPath())
+                    .location(env.getField().getSourceLocation())
+                    .build();
+        }
+
         if (ex instanceof DuplicateResourceException) {
             return GraphqlErrorBuilder.newError()
                     .errorType(ErrorType.ExecutionAborted)
@@ -76,6 +87,15 @@ public class GraphQLExceptionResolver extends DataFetcherExceptionResolverAdapte
                     .build();
         }
 
+        if (ex instanceof ConcurrencyFailureException || ex instanceof OptimisticLockException) {
+            return GraphqlErrorBuilder.newError()
+                    .errorType(ErrorType.ExecutionAborted)
+                    .message("The resource was changed by another request. Reload it and try again.")
+                    .path(env.getExecutionStepInfo().getPath())
+                    .location(env.getField().getSourceLocation())
+                    .build();
+        }
+
         if (ex instanceof InsufficientStockException) {
             return GraphqlErrorBuilder.newError()
                     .errorType(ErrorType.ExecutionAborted)
@@ -1,10 +1,14 @@
 package com.smart_ecomernce_api.smart_ecomernce_api.config;
 
-import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.repository.UserRepository;
-import com.smart_ecomernce_api.smart_ecomernce_api.security.JwtTokenProvider;
+import com.smart_ecomernce_api.smart_ecomernce_api.security.JwtVerifier;
+import com.smart_ecomernce_api.smart_ecomernce_api.security.PrincipalCache;
+import com.smart_ecomernce_api.smart_ecomernce_api.security.PrincipalSnapshot;
 import com.smart_ecomernce_api.smart_ecomernce_api.security.UserPrincipal;
+import com.smart_ecomernce_api.smart_ecomernce_api.security.VerifiedToken;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.graphql.server.WebGraphQlInterceptor;
 import org.springframework.graphql.server.WebGraphQlRequest;
 import org.springframework.graphql.server.WebGraphQlResponse;
@@ -19,12 +23,16 @@ import reactor.core.publisher.Mono;
 import java.util.Collections;
 
 @Component
+@Order(GraphQLJwtInterceptor.ORDER)
 @RequiredArgsConstructor
 @Slf4j
 public class GraphQLJwtInterceptor implements WebGraphQlInterceptor {
 
-    private final JwtTokenProvider jwtTokenProvider;
-    private final UserRepository userRepository;
+    /** First in the chain, so later interceptors see the authenticated principal. */
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 100;
+
+    private final JwtVerifier jwtVerifier;
+    private final PrincipalCache principalCache;
 
     private static final String AUTH_HEADER = "Authorization";
     private static final String BEARER_PREFIX = "Bearer ";
@@ -37,12 +45,17 @@ public class GraphQLJwtInterceptor implements WebGraphQlInterceptor {
         if (authHeader != null && authHeader.startsWith(BEARER_PREFIX)) {
             String token = authHeader.substring(BEARER_PREFIX.length());
 
-            if (jwtTokenProvider.validateToken(token)) {
+            // The servlet filter has normally verified this token already; reuse its result.
+            VerifiedToken verified = request.getAttributes().get(JwtVerifier.VERIFIED_TOKEN_ATTRIBUTE) instanceof VerifiedToken t
+                    ? t : jwtVerifier.verifyOrNull(token);
+
+            if (verified != null) {
                 try {
-                    userId = jwtTokenProvider.getUserIdFromToken(token);
-                    String role = jwtTokenProvider.getRoleFromToken(token);
+                    userId = verified.userId();
+                    String role = verified.role();
 
-                    userRepository.findById(userId).ifPresent(user -> {
+                    PrincipalSnapshot user = principalCache.get(userId);
+                    if (user != null) {
                         UserPrincipal userPrincipal = UserPrincipal.create(user);
                         UsernamePasswordAuthenticationToken authentication =
                                 new UsernamePasswordAuthenticationToken(
@@ -51,8 +64,8 @@ public class GraphQLJwtInterceptor implements WebGraphQlInterceptor {
                                         Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))
                                 );
                         SecurityContextHolder.getContext().setAuthentication(authentication);
-                        log.debug("GraphQL authenticated user: {} with role: {}", user.getEmail(), role);
-                    });
+                        log.debug("GraphQL authenticated user: {} with role: {}", user.email(), role);
+                    }
                 } catch (Exception e) {
                     log.warn("GraphQL JWT authentication failed: {}", e.getMessage());
                 }
@@ -1,7 +1,8 @@
 package com.smart_ecomernce_api.smart_ecomernce_api.config;
 
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.repository.UserRepository;
-import com.smart_ecomernce_api.smart_ecomernce_api.security.JwtTokenProvider;
+import com.smart_ecomernce_api.smart_ecomernce_api.security.JwtVerifier;
+import com.smart_ecomernce_api.smart_ecomernce_api.security.VerifiedToken;
 import graphql.schema.DataFetchingEnvironment;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,7 +20,7 @@ import java.util.Set;
 @Slf4j
 public class GraphQLSecurityConfig {
 
-    private final JwtTokenProvider jwtTokenProvider;
+    private final JwtVerifier jwtVerifier;
     private final UserRepository userRepository;
 
     private static final Set<String> PUBLIC_OPERATIONS = Set.of(
@@ -75,13 +76,14 @@ public class GraphQLSecurityConfig {
 
         String token = authHeader.substring(7);
 
-        if (!jwtTokenProvider.validateToken(token)) {
+        VerifiedToken verified = jwtVerifier.verifyOrNull(token);
+        if (verified == null) {
             return;
         }
 
         try {
-            Long userId = jwtTokenProvider.getUserIdFromToken(token);
-            String role = jwtTokenProvider.getRoleFromToken(token);
+            Long userId = verified.userId();
+            String role = verified.role();
 
             userRepository.findById(userId).ifPresent(user -> {
                 UsernamePasswordAuthenticationToken authentication =
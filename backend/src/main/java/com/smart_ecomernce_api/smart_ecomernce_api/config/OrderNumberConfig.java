@@ -0,0 +1,48 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.number.OrderNumberGenerator;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.number.SnowflakeOrderNumberGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Order number generation.
+ *
+ * Each node needs its own {@code orders.number.node-id} (0-1023) for order
+ * numbers to be unique across nodes. Without one, an id is derived from the
+ * host name and process id, which is only unlikely, not guaranteed, to
+ * differ between nodes.
+ */
+@Slf4j
+@Configuration
+public class OrderNumberConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public OrderNumberGenerator orderNumberGenerator(
+            @Value("${orders.number.prefix:ORD}") String prefix,
+            @Value("${orders.number.node-id:-1}") int nodeId) {
+        if (nodeId < 0) {
+            nodeId = derivedNodeId();
+            log.warn("orders.number.node-id is not set; using {} derived from host and process", nodeId);
+        }
+        return new SnowflakeOrderNumberGenerator(prefix, nodeId);
+    }
+
+    private static int derivedNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "";
+        }
+        int hash = host.hashCode() * 31 + Long.hashCode(ProcessHandle.current().pid());
+        return (hash ^ (hash >>> 16)) & SnowflakeOrderNumberGenerator.MAX_NODE_ID;
+    }
+}
@@ -0,0 +1,86 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.BadRequestException;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.graphql.data.pagination.CursorEncoder;
+import org.springframework.graphql.data.pagination.CursorStrategy;
+import org.springframework.graphql.data.pagination.EncodingCursorStrategy;
+import org.springframework.graphql.data.query.JsonKeysetCursorStrategy;
+import org.springframework.graphql.data.query.ScrollPositionCursorStrategy;
+import org.springframework.http.codec.CodecConfigurer;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Map;
+
+/**
+ * Pagination Configuration
+ *
+ * One cursor format for REST and GraphQL: keyset scroll positions serialised
+ * to JSON and Base64-encoded. Declared here rather than left to Boot so the
+ * REST controllers get the same strategy the GraphQL connection adapter uses.
+ *
+ * The JSON carries the Java type of every key. Spring GraphQL's default only
+ * accepts {@code java.time} and {@code java.util} types back, which rejects
+ * the {@code Long} id tie-breaker; numbers are allowed as well here.
+ *
+ * A cursor that does not decode (not Base64, tampered JSON, a type outside
+ * the allow-list) is a {@link BadRequestException}, whether the REST
+ * controllers or Spring GraphQL's {@code ScrollSubrange} resolution decode it.
+ */
+@Configuration
+public class PaginationConfig {
+
+    @Bean
+    public EncodingCursorStrategy<ScrollPosition> cursorStrategy() {
+        JsonKeysetCursorStrategy keysetStrategy = new JsonKeysetCursorStrategy(keysetCodecs());
+        EncodingCursorStrategy<ScrollPosition> base64 =
+                CursorStrategy.withEncoder(new ScrollPositionCursorStrategy(keysetStrategy), CursorEncoder.base64());
+        return CursorStrategy.withEncoder(rejectingMalformed(base64), CursorEncoder.noOpEncoder());
+    }
+
+    private static CursorStrategy<ScrollPosition> rejectingMalformed(CursorStrategy<ScrollPosition> delegate) {
+        return new CursorStrategy<>() {
+            @Override
+            public boolean supports(Class<?> targetType) {
+                return delegate.supports(targetType);
+            }
+
+            @Override
+            public String toCursor(ScrollPosition position) {
+                return delegate.toCursor(position);
+            }
+
+            @Override
+            public ScrollPosition fromCursor(String cursor) {
+                try {
+                    return delegate.fromCursor(cursor);
+                } catch (RuntimeException e) {
+                    throw new BadRequestException("Invalid cursor");
+                }
+            }
+        };
+    }
+
+    private static CodecConfigurer keysetCodecs() {
+        PolymorphicTypeValidator validator = BasicPolymorphicTypeValidator.builder()
+                .allowIfBaseType(Map.class)
+                .allowIfSubType("java.time.")
+                .allowIfSubType(Number.class)
+                .build();
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        mapper.activateDefaultTyping(validator, ObjectMapper.DefaultTyping.NON_FINAL);
+
+        CodecConfigurer configurer = ServerCodecConfigurer.create();
+        configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(mapper));
+        configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(mapper));
+        return configurer;
+    }
+}
@@ -0,0 +1,23 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.security.revocation.LoopbackRevocationBus;
+import com.smart_ecomernce_api.smart_ecomernce_api.security.revocation.RevocationBus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Infrastructure for the token blacklist. The default
+ * {@link LoopbackRevocationBus} has no peers; a multi-node deployment
+ * declares its own {@link RevocationBus} bean (e.g. Redis pub/sub) so that
+ * revocations reach every node.
+ */
+@Configuration
+public class TokenRevocationConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public RevocationBus revocationBus() {
+        return new LoopbackRevocationBus();
+    }
+}
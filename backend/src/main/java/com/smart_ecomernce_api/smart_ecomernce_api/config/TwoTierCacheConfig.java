@@ -0,0 +1,50 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CacheInvalidationBus;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.InMemoryRemoteCacheStore;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.LoopbackCacheInvalidationBus;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.RemoteCacheLoader;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.RemoteCacheStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Infrastructure for the two-tier cache built by {@link CacheConfig}.
+ *
+ * <p>The defaults are in-process stand-ins: an {@link InMemoryRemoteCacheStore}
+ * as L2 and a {@link LoopbackCacheInvalidationBus} with no peers. A multi-node
+ * deployment declares its own {@link RemoteCacheStore} and
+ * {@link CacheInvalidationBus} beans (e.g. backed by Redis get/set and pub/sub)
+ * and sets {@code cache.two-tier.enabled=true}.
+ */
+@Slf4j
+@Configuration
+public class TwoTierCacheConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public RemoteCacheStore remoteCacheStore() {
+        return new InMemoryRemoteCacheStore();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public CacheInvalidationBus cacheInvalidationBus() {
+        return new LoopbackCacheInvalidationBus();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "cache.two-tier.enabled", havingValue = "true")
+    public RemoteCacheLoader remoteCacheLoader(
+            RemoteCacheStore remoteCacheStore,
+            @Value("${cache.two-tier.batch-size:64}") int batchSize,
+            @Value("${cache.two-tier.batch-linger-ms:2}") long lingerMillis) {
+        log.info("L2 cache lookups batched up to {} keys / {} ms using {}",
+                batchSize, lingerMillis, remoteCacheStore.getClass().getSimpleName());
+        return new RemoteCacheLoader(remoteCacheStore, batchSize, lingerMillis);
+    }
+}
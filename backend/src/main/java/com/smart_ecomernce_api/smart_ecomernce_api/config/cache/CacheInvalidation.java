@@ -0,0 +1,28 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config.cache;
+
+import java.util.Set;
+
+/**
+ * Invalidation message exchanged between nodes over a {@link CacheInvalidationBus}.
+ *
+ * @param type      what to drop
+ * @param cacheName cache concerned, {@code null} for {@link Type#TAGS}
+ * @param key       key to drop, only for {@link Type#KEY}
+ * @param tags      tags to evict, only for {@link Type#TAGS}
+ */
+public record CacheInvalidation(Type type, String cacheName, Object key, Set<String> tags) {
+
+    public enum Type { KEY, CLEAR, TAGS }
+
+    public static CacheInvalidation key(String cacheName, Object key) {
+        return new CacheInvalidation(Type.KEY, cacheName, key, Set.of());
+    }
+
+    public static CacheInvalidation clear(String cacheName) {
+        return new CacheInvalidation(Type.CLEAR, cacheName, null, Set.of());
+    }
+
+    public static CacheInvalidation tags(Set<String> tags) {
+        return new CacheInvalidation(Type.TAGS, null, null, Set.copyOf(tags));
+    }
+}
@@ -0,0 +1,17 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts cache invalidations to the other nodes of the cluster so that
+ * each one drops its L1 copy as soon as the owning node evicts it.
+ *
+ * <p>Implementations deliver a published message to every node except the
+ * publisher itself.
+ */
+public interface CacheInvalidationBus {
+
+    void publish(CacheInvalidation invalidation);
+
+    void subscribe(Consumer<CacheInvalidation> listener);
+}
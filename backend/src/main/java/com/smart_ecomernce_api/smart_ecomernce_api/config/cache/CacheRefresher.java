@@ -0,0 +1,168 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the background reloads of refresh-ahead caches (see
+ * {@link TaggedCaffeineCache#enableRefresh}).
+ *
+ * <p>A reload re-invokes the cached method through its Spring proxy with the
+ * {@link Target} marked as refreshing on the reloading thread; the cache then
+ * reports a miss for that one key, so the caching interceptor calls the method
+ * and stores the fresh value, tags included. Readers keep getting the old
+ * value until then.
+ *
+ * <p>Each key is reloaded by at most one thread at a time and at most
+ * {@code cache.refresh.max-concurrent} reloads run at once; a refresh that
+ * finds no free slot is skipped and retried by the next stale read.
+ *
+ * <p>Meters, tagged with the cache name:
+ * <ul>
+ *   <li>{@code cache.refresh} timer, tagged {@code outcome=success|failure};</li>
+ *   <li>{@code cache.refresh.stale} counter, reads answered with an entry due for refresh;</li>
+ *   <li>{@code cache.refresh.skipped} counter, refreshes dropped for lack of a slot;</li>
+ *   <li>{@code cache.refresh.in-flight} gauge (untagged).</li>
+ * </ul>
+ */
+@Slf4j
+public class CacheRefresher implements DisposableBean {
+
+    private static final ThreadLocal<Reloader> CURRENT_RELOADER = new ThreadLocal<>();
+    private static final ThreadLocal<Target> REFRESHING = new ThreadLocal<>();
+
+    /** Re-invokes a cached method with the arguments of the call that stored the entry. */
+    @FunctionalInterface
+    public interface Reloader {
+        void reload();
+    }
+
+    /** The entry being reloaded on the current thread. */
+    record Target(String cacheName, Object key) {}
+
+    /** Per-cache refresh figures for the performance endpoints. */
+    public record Stats(long refreshed, long failed, double meanMillis, double maxMillis,
+                        long staleReads, long skipped) {}
+
+    private final MeterRegistry registry;
+    private final Semaphore slots;
+    private final Set<Target> inFlight = ConcurrentHashMap.newKeySet();
+    private final Set<String> caches = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("cache-refresh-", 0).factory());
+
+    public CacheRefresher(MeterRegistry registry, int maxConcurrent) {
+        this.registry = registry;
+        this.slots = new Semaphore(maxConcurrent);
+        Gauge.builder("cache.refresh.in-flight", inFlight, Set::size).register(registry);
+    }
+
+    /**
+     * Binds the reloader of the cached call running on this thread and returns
+     * the previous binding so nested cached calls can restore it.
+     */
+    public static Reloader bind(Reloader reloader) {
+        Reloader previous = CURRENT_RELOADER.get();
+        CURRENT_RELOADER.set(reloader);
+        return previous;
+    }
+
+    public static void restore(Reloader previous) {
+        if (previous == null) {
+            CURRENT_RELOADER.remove();
+        } else {
+            CURRENT_RELOADER.set(previous);
+        }
+    }
+
+    static Reloader currentReloader() {
+        return CURRENT_RELOADER.get();
+    }
+
+    /** Whether this thread is reloading {@code key} of {@code cacheName} and must bypass the stored value. */
+    static boolean isRefreshing(String cacheName, Object key) {
+        Target target = REFRESHING.get();
+        return target != null && target.cacheName().equals(cacheName) && target.key().equals(key);
+    }
+
+    void register(String cacheName) {
+        caches.add(cacheName);
+    }
+
+    public boolean covers(String cacheName) {
+        return caches.contains(cacheName);
+    }
+
+    /** Records a stale read and starts a reload of the entry unless one is already running. */
+    void refresh(String cacheName, Object key, Reloader reloader) {
+        Counter.builder("cache.refresh.stale").tag("cache", cacheName).register(registry).increment();
+        Target target = new Target(cacheName, key);
+        if (!inFlight.add(target)) {
+            return;
+        }
+        if (!slots.tryAcquire()) {
+            inFlight.remove(target);
+            Counter.builder("cache.refresh.skipped").tag("cache", cacheName).register(registry).increment();
+            return;
+        }
+        executor.execute(() -> reload(target, reloader));
+    }
+
+    private void reload(Target target, Reloader reloader) {
+        long started = System.nanoTime();
+        String outcome = "success";
+        REFRESHING.set(target);
+        try {
+            reloader.reload();
+        } catch (RuntimeException e) {
+            outcome = "failure";
+            log.warn("Refresh of '{}' in cache '{}' failed, keeping the current entry: {}",
+                    target.key(), target.cacheName(), e.getMessage());
+        } finally {
+            REFRESHING.remove();
+            inFlight.remove(target);
+            slots.release();
+            Timer.builder("cache.refresh")
+                    .tag("cache", target.cacheName())
+                    .tag("outcome", outcome)
+                    .register(registry)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public Map<String, Stats> stats() {
+        Map<String, Stats> stats = new TreeMap<>();
+        for (String cache : caches) {
+            Timer success = registry.find("cache.refresh").tags("cache", cache, "outcome", "success").timer();
+            Timer failure = registry.find("cache.refresh").tags("cache", cache, "outcome", "failure").timer();
+            Counter stale = registry.find("cache.refresh.stale").tag("cache", cache).counter();
+            Counter skipped = registry.find("cache.refresh.skipped").tag("cache", cache).counter();
+            stats.put(cache, new Stats(
+                    success != null ? success.count() : 0,
+                    failure != null ? failure.count() : 0,
+                    success != null ? success.mean(TimeUnit.MILLISECONDS) : 0,
+                    success != null ? success.max(TimeUnit.MILLISECONDS) : 0,
+                    stale != null ? (long) stale.count() : 0,
+                    skipped != null ? (long) skipped.count() : 0));
+        }
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,40 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config.cache;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Carries the {@link CacheTagged} tags of the method currently being invoked
+ * down to {@link TaggedCaffeineCache#put}, which Spring calls from inside the
+ * caching interceptor without any reference to the original arguments.
+ */
+public final class CacheTagContext {
+
+    private static final ThreadLocal<Set<String>> CURRENT = new ThreadLocal<>();
+
+    private CacheTagContext() {
+    }
+
+    /**
+     * Binds tags for the current thread and returns the previous binding so
+     * nested cached calls can restore it.
+     */
+    public static Set<String> bind(Set<String> tags) {
+        Set<String> previous = CURRENT.get();
+        CURRENT.set(tags);
+        return previous;
+    }
+
+    public static void restore(Set<String> previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public static Set<String> current() {
+        Set<String> tags = CURRENT.get();
+        return tags != null ? tags : Collections.emptySet();
+    }
+}
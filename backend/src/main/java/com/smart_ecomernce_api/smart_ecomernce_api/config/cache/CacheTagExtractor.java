@@ -0,0 +1,50 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config.cache;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.category.dto.CategoryResponse;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.OrderResponse;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductResponse;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.review.dto.ReviewResponse;
+import org.springframework.data.domain.Page;
+
+import java.util.Set;
+
+/**
+ * Derives entity tags from cached values so that a page of products is
+ * automatically tagged with every product it contains.
+ *
+ * <p>Only the identity of each element is used. Query dimensions such as the
+ * owning user or category decide list <em>membership</em>, not content, so
+ * they are attached from the method arguments through {@link CacheTagged}.
+ * Values without an identity (counts, booleans, statistics) contribute no
+ * tags and rely on {@link CacheTagged} or the cache's static tags instead.
+ */
+public final class CacheTagExtractor {
+
+    private CacheTagExtractor() {
+    }
+
+    public static void collect(Object value, Set<String> tags) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof Page<?> page) {
+            page.getContent().forEach(element -> collect(element, tags));
+        } else if (value instanceof Iterable<?> iterable) {
+            iterable.forEach(element -> collect(element, tags));
+        } else if (value instanceof ProductResponse product) {
+            addIfPresent(tags, CacheTags.PRODUCT, product.getId());
+        } else if (value instanceof OrderResponse order) {
+            addIfPresent(tags, CacheTags.ORDER, order.getId());
+        } else if (value instanceof ReviewResponse review) {
+            addIfPresent(tags, CacheTags.REVIEW, review.getId());
+        } else if (value instanceof CategoryResponse category) {
+            addIfPresent(tags, CacheTags.CATEGORY, category.getId());
+        }
+    }
+
+    private static void addIfPresent(Set<String> tags, String namespace, Object id) {
+        if (id != null) {
+            tags.add(CacheTags.of(namespace, id));
+        }
+    }
+}
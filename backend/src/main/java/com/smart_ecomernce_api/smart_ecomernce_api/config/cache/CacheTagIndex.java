@@ -0,0 +1,138 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reverse index from tag to the cache entries that depend on it.
+ *
+ * <p>Two maps are kept in step: {@code tag -> entries} answers "what must go
+ * when product 42 changes" and {@code entry -> tags} lets an entry that is
+ * overwritten, evicted or expired drop out of every tag set it joined, so the
+ * index never outgrows the caches it describes.
+ */
+@Slf4j
+public class CacheTagIndex {
+
+    /** Identifies one entry: the owning cache name plus the cache key. */
+    public record EntryRef(String cacheName, Object key) {}
+
+    private final Map<String, Set<EntryRef>> entriesByTag = new ConcurrentHashMap<>();
+    private final Map<EntryRef, Set<String>> tagsByEntry  = new ConcurrentHashMap<>();
+    private final Map<String, Cache>         caches       = new ConcurrentHashMap<>();
+
+    private final LongAdder tagEvictions   = new LongAdder();
+    private final LongAdder entryEvictions = new LongAdder();
+
+    /** Makes a cache reachable for tag evictions. Called once per cache at construction. */
+    public void attach(Cache cache) {
+        caches.put(cache.getName(), cache);
+    }
+
+    /**
+     * Records that {@code key} in {@code cacheName} depends on {@code tags},
+     * replacing whatever the previous value at that key was tagged with.
+     */
+    public void register(String cacheName, Object key, Set<String> tags) {
+        EntryRef ref = new EntryRef(cacheName, key);
+        Set<String> previous = tags.isEmpty() ? tagsByEntry.remove(ref) : tagsByEntry.put(ref, tags);
+        if (previous != null) {
+            for (String tag : previous) {
+                if (!tags.contains(tag)) {
+                    detach(tag, ref);
+                }
+            }
+        }
+        for (String tag : tags) {
+            // compute() rather than computeIfAbsent().add() so a concurrent detach()
+            // cannot drop the set between lookup and insertion.
+            entriesByTag.compute(tag, (t, refs) -> {
+                Set<EntryRef> set = refs != null ? refs : ConcurrentHashMap.newKeySet();
+                set.add(ref);
+                return set;
+            });
+        }
+    }
+
+    /** Whether an entry of {@code cacheName} under {@code key} is currently indexed. */
+    public boolean isRegistered(String cacheName, Object key) {
+        return tagsByEntry.containsKey(new EntryRef(cacheName, key));
+    }
+
+    /** Forgets an entry that has left its cache (explicit evict, size eviction or expiry). */
+    public void unregister(String cacheName, Object key) {
+        EntryRef ref = new EntryRef(cacheName, key);
+        Set<String> tags = tagsByEntry.remove(ref);
+        if (tags != null) {
+            tags.forEach(tag -> detach(tag, ref));
+        }
+    }
+
+    /** Forgets every entry of a cache that has just been cleared. */
+    public void unregisterAll(String cacheName) {
+        tagsByEntry.keySet().removeIf(ref -> {
+            if (!ref.cacheName().equals(cacheName)) {
+                return false;
+            }
+            Set<String> tags = tagsByEntry.get(ref);
+            if (tags != null) {
+                tags.forEach(tag -> detach(tag, ref));
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Evicts every entry carrying at least one of the given tags.
+     *
+     * @return number of cache entries evicted
+     */
+    public int evict(Collection<String> tags) {
+        int evicted = 0;
+        for (String tag : tags) {
+            Set<EntryRef> refs = entriesByTag.remove(tag);
+            tagEvictions.increment();
+            if (refs == null) {
+                continue;
+            }
+            for (EntryRef ref : refs) {
+                Cache cache = caches.get(ref.cacheName());
+                if (cache != null) {
+                    // The cache's evict() calls back into unregister(), which also
+                    // removes the entry from any other tag sets it belonged to.
+                    cache.evict(ref.key());
+                    evicted++;
+                }
+            }
+        }
+        entryEvictions.add(evicted);
+        if (evicted > 0) {
+            log.debug("Tag eviction {} removed {} cache entries", tags, evicted);
+        }
+        return evicted;
+    }
+
+    public Stats stats() {
+        return new Stats(entriesByTag.size(), tagsByEntry.size(), tagEvictions.sum(), entryEvictions.sum());
+    }
+
+    private void detach(String tag, EntryRef ref) {
+        entriesByTag.computeIfPresent(tag, (t, refs) -> {
+            refs.remove(ref);
+            return refs.isEmpty() ? null : refs;
+        });
+    }
+
+    public record Stats(
+            int tags,
+            int taggedEntries,
+            long tagEvictions,
+            long entryEvictions
+    ) {}
+}
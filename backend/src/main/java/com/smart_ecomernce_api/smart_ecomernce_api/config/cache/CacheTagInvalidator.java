@@ -0,0 +1,93 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Entry point for services to invalidate cached data by tag.
+ *
+ * <p>Inside a transaction the eviction is deferred until after commit, so a
+ * concurrent reader cannot repopulate an entry from the pre-commit state in
+ * the window between eviction and commit. Outside a transaction it runs
+ * immediately.
+ *
+ * <p>The tags are also published on the {@link CacheInvalidationBus}, so other
+ * nodes evict their own entries carrying them; the per-key broadcasts the
+ * local evictions would otherwise send are suppressed as redundant. With the
+ * two-tier cache the shared L2 is evicted by tag as well, since it may hold
+ * entries that have left every node's L1 and with it every tag index.
+ */
+@Slf4j
+@Component
+public class CacheTagInvalidator {
+
+    private final CacheTagIndex tagIndex;
+    private final CacheInvalidationBus invalidationBus;
+    private final RemoteCacheStore remoteStore;
+    private final boolean twoTierEnabled;
+
+    public CacheTagInvalidator(CacheTagIndex tagIndex,
+                               CacheInvalidationBus invalidationBus,
+                               RemoteCacheStore remoteStore,
+                               @Value("${cache.two-tier.enabled:false}") boolean twoTierEnabled) {
+        this.tagIndex = tagIndex;
+        this.invalidationBus = invalidationBus;
+        this.remoteStore = remoteStore;
+        this.twoTierEnabled = twoTierEnabled;
+    }
+
+    public void evict(String... tags) {
+        evict(List.of(tags));
+    }
+
+    public void evict(Collection<String> tags) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<String> pending = List.copyOf(tags);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictAndPublish(pending);
+                }
+            });
+        } else {
+            evictAndPublish(tags);
+        }
+    }
+
+    /** Evicts immediately regardless of any surrounding transaction. */
+    public int evictNow(Collection<String> tags) {
+        return evictAndPublish(tags);
+    }
+
+    private int evictAndPublish(Collection<String> tags) {
+        int[] evicted = new int[1];
+        TwoTierCache.withoutBroadcast(() -> evicted[0] = tagIndex.evict(tags));
+        CacheInvalidation invalidation = CacheInvalidation.tags(Set.copyOf(tags));
+        if (!twoTierEnabled) {
+            invalidationBus.publish(invalidation);
+            return evicted[0];
+        }
+        // Broadcast once L2 is done, so no peer can promote an L2 copy the tags cover.
+        remoteStore.evictTags(tags).whenComplete((ignored, error) -> {
+            if (error != null) {
+                log.warn("L2 eviction of tags {} failed: {}", tags, error.getMessage());
+            }
+            invalidationBus.publish(invalidation);
+        });
+        return evicted[0];
+    }
+
+    public CacheTagIndex.Stats stats() {
+        return tagIndex.stats();
+    }
+}
@@ -0,0 +1,32 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Adds argument-derived tags to whatever a {@code @Cacheable} method writes.
+ *
+ * <p>Each expression is SpEL evaluated against the method arguments, the same
+ * way {@code @Cacheable(key = ...)} is, with {@link CacheTags} as the root
+ * object so its factory methods and constants can be named directly. An
+ * expression may return a single tag or a collection of tags. Use it for the
+ * query dimensions that decide which rows belong in the result, e.g. the user
+ * of {@code getUserOrders}:
+ *
+ * <pre>{@code
+ * @Cacheable(value = "user-orders", key = "...")
+ * @CacheTagged("user(#userId)")
+ * public Page<OrderResponse> getUserOrders(Long userId, Pageable pageable)
+ * }</pre>
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CacheTagged {
+
+    /** SpEL expressions producing the tags. */
+    String[] value();
+}
@@ -0,0 +1,56 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config.cache;
+
+import java.util.Locale;
+
+/**
+ * Tag vocabulary for dependency-tracked cache invalidation.
+ *
+ * <p>A tag names one thing a cached entry depends on: a single entity
+ * ({@code product:42}), a query dimension ({@code order-status:SHIPPED}) or a
+ * whole family of listings whose membership can change when a row is created
+ * or deleted ({@code products:listing}). Entries are tagged when they are
+ * written and mutations evict only the entries carrying the tags they touch.
+ */
+public final class CacheTags {
+
+    // ====== Entity namespaces ======
+    public static final String PRODUCT         = "product";
+    public static final String CATEGORY        = "category";
+    public static final String USER            = "user";
+    public static final String ORDER           = "order";
+    public static final String ORDER_STATUS    = "order-status";
+    public static final String PAYMENT_STATUS  = "payment-status";
+    public static final String REVIEW          = "review";
+    public static final String PRODUCT_REVIEWS = "product-reviews";
+    public static final String USER_REVIEWS    = "user-reviews";
+
+    // ====== Listing tags (membership changes on create / delete) ======
+    public static final String PRODUCT_LISTINGS          = "products:listing";
+    public static final String PRODUCT_CATEGORY_LISTINGS = "products:by-category";
+    public static final String ORDER_LISTINGS            = "orders:listing";
+    public static final String ORDER_ALL_LISTINGS        = "orders:all";
+    public static final String ORDER_STATS               = "orders:stats";
+    public static final String REVIEW_LISTINGS           = "reviews:listing";
+    public static final String REVIEW_PRODUCT_LISTINGS   = "reviews:by-product";
+
+    private CacheTags() {
+    }
+
+    public static String product(Object id)         { return of(PRODUCT, id); }
+    public static String category(Object id)        { return of(CATEGORY, id); }
+    public static String user(Object id)            { return of(USER, id); }
+    public static String order(Object id)           { return of(ORDER, id); }
+    public static String orderStatus(Object status) { return of(ORDER_STATUS, status); }
+    public static String paymentStatus(Object ps)   { return of(PAYMENT_STATUS, ps); }
+    public static String review(Object id)          { return of(REVIEW, id); }
+    public static String productReviews(Object id)  { return of(PRODUCT_REVIEWS, id); }
+    public static String userReviews(Object id)     { return of(USER_REVIEWS, id); }
+
+    /**
+     * Builds a tag from an entity namespace and identifier, e.g. {@code of("product", 42)}.
+     * Namespaces are case-insensitive so the admin API can accept {@code PRODUCT} or {@code product}.
+     */
+    public static String of(String namespace, Object id) {
+        return namespace.toLowerCase(Locale.ROOT) + ':' + id;
+    }
+}
@@ -0,0 +1,191 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config.cache;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Records which lookups hit the warm-up caches and how often, so that
+ * {@link CacheWarmupService} can replay the most frequent ones after a deploy.
+ *
+ * <p>Counts live in a size-bounded Caffeine map whose admission policy already
+ * favours frequently used keys. They are snapshotted to disk periodically and
+ * on shutdown; the previous run's snapshot is loaded at startup, which is what
+ * makes the first warm-up after a deploy possible.
+ */
+@Slf4j
+@Component
+public class CacheWarmupRecorder {
+
+    private static final ThreadLocal<Boolean> REPLAYING = ThreadLocal.withInitial(() -> false);
+
+    /** A recorded call: the cache it populates, the method and its arguments. */
+    public record Invocation(String cacheName, Method method, List<Object> args) {}
+
+    /** Serialised form of an {@link Invocation}, as written to the snapshot file. */
+    public record Entry(String cache, String type, String method,
+                        List<String> parameterTypes, List<JsonNode> args, long hits) {
+
+        Entry withHits(long total) {
+            return new Entry(cache, type, method, parameterTypes, args, total);
+        }
+
+        private List<Object> identity() {
+            return List.of(cache, type, method, parameterTypes, args);
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Set<String> trackedCaches;
+    private final int keysPerCache;
+    private final Path snapshotPath;
+    private final long snapshotIntervalSeconds;
+    private final Cache<Invocation, LongAdder> frequencies;
+    private final ScheduledExecutorService snapshotter =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("cache-warmup-snapshot").daemon().factory());
+
+    private volatile List<Entry> previousRun = List.of();
+
+    public CacheWarmupRecorder(
+            ObjectMapper objectMapper,
+            @Value("${cache.warmup.caches:products,products-featured,categories-list,products-category}") Set<String> trackedCaches,
+            @Value("${cache.warmup.keys-per-cache:200}") int keysPerCache,
+            @Value("${cache.warmup.tracked-keys:10000}") long trackedKeys,
+            @Value("${cache.warmup.snapshot-path:data/cache-warmup.json}") Path snapshotPath,
+            @Value("${cache.warmup.snapshot-interval-seconds:300}") long snapshotIntervalSeconds) {
+        this.objectMapper = objectMapper;
+        this.trackedCaches = Set.copyOf(trackedCaches);
+        this.keysPerCache = keysPerCache;
+        this.snapshotPath = snapshotPath;
+        this.snapshotIntervalSeconds = snapshotIntervalSeconds;
+        this.frequencies = Caffeine.newBuilder()
+                .maximumSize(trackedKeys)
+                .expireAfterAccess(Duration.ofDays(1))
+                .build();
+    }
+
+    @PostConstruct
+    void loadSnapshot() {
+        if (Files.isReadable(snapshotPath)) {
+            try {
+                // Halve the previous run's counts so that keys stop being warmed
+                // a few deploys after they stop being requested.
+                previousRun = objectMapper.readValue(snapshotPath.toFile(), new TypeReference<List<Entry>>() {})
+                        .stream()
+                        .map(entry -> entry.withHits(entry.hits() / 2))
+                        .filter(entry -> entry.hits() > 0)
+                        .toList();
+                log.info("Loaded {} cache warm-up keys from {}", previousRun.size(), snapshotPath);
+            } catch (IOException e) {
+                log.warn("Ignoring unreadable cache warm-up snapshot {}: {}", snapshotPath, e.getMessage());
+            }
+        }
+        snapshotter.scheduleWithFixedDelay(this::writeSnapshot,
+                snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        snapshotter.shutdownNow();
+        writeSnapshot();
+    }
+
+    public boolean tracks(String cacheName) {
+        return trackedCaches.contains(cacheName);
+    }
+
+    public void record(String cacheName, Method method, Object[] args) {
+        if (REPLAYING.get() || !WarmupArguments.isReplayable(args)) {
+            return;
+        }
+        frequencies.get(new Invocation(cacheName, method, Arrays.asList(args.clone())), k -> new LongAdder())
+                .increment();
+    }
+
+    /** Runs {@code action} without recording, so replays do not inflate their own counts. */
+    public static void replaying(Runnable action) {
+        REPLAYING.set(true);
+        try {
+            action.run();
+        } finally {
+            REPLAYING.set(false);
+        }
+    }
+
+    /**
+     * The keys to warm: this run's counts merged with the previous run's
+     * snapshot, most frequent first, at most {@code keysPerCache} per cache.
+     */
+    public List<Entry> plan() {
+        Map<List<Object>, Entry> merged = new LinkedHashMap<>();
+        for (Entry entry : previousRun) {
+            merged.merge(entry.identity(), entry, (a, b) -> a.withHits(a.hits() + b.hits()));
+        }
+        frequencies.asMap().forEach((invocation, hits) -> {
+            Entry entry = toEntry(invocation, hits.sum());
+            merged.merge(entry.identity(), entry, (a, b) -> a.withHits(a.hits() + b.hits()));
+        });
+        return merged.values().stream()
+                .filter(entry -> tracks(entry.cache()))
+                .collect(Collectors.groupingBy(Entry::cache, LinkedHashMap::new, Collectors.toList()))
+                .values().stream()
+                .flatMap(entries -> entries.stream()
+                        .sorted(Comparator.comparingLong(Entry::hits).reversed())
+                        .limit(keysPerCache))
+                .sorted(Comparator.comparingLong(Entry::hits).reversed())
+                .toList();
+    }
+
+    public Map<String, Long> trackedKeyCounts() {
+        return frequencies.asMap().keySet().stream()
+                .collect(Collectors.groupingBy(Invocation::cacheName, Collectors.counting()));
+    }
+
+    void writeSnapshot() {
+        try {
+            List<Entry> entries = plan();
+            Files.createDirectories(snapshotPath.toAbsolutePath().getParent());
+            Path tmp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+            objectMapper.writeValue(tmp.toFile(), entries);
+            Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Wrote {} cache warm-up keys to {}", entries.size(), snapshotPath);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to write cache warm-up snapshot {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    private Entry toEntry(Invocation invocation, long hits) {
+        Method method = invocation.method();
+        List<String> parameterTypes = Arrays.stream(method.getParameterTypes()).map(Class::getName).toList();
+        List<JsonNode> args = new ArrayList<>(invocation.args().size());
+        invocation.args().forEach(arg -> args.add(WarmupArguments.encode(objectMapper, arg)));
+        return new Entry(invocation.cacheName(), method.getDeclaringClass().getName(), method.getName(),
+                parameterTypes, args, hits);
+    }
+}
@@ -0,0 +1,284 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Replays the most frequent recorded cache lookups (see {@link CacheWarmupRecorder})
+ * through the service proxies so that the caching interceptor fills the caches.
+ *
+ * <p>At most {@code cache.warmup.parallelism} loads run at once and no more
+ * than {@code cache.warmup.max-per-second} are started per second, so a
+ * warm-up cannot starve the connection pool. With {@code cache.warmup.on-startup}
+ * the run happens in an {@link ApplicationRunner}, i.e. before Spring Boot
+ * reports the application as ready to accept traffic.
+ *
+ * <p>The snapshot is only a list of what to replay, never trusted to say what
+ * may be called: an entry runs only if it names a {@code @Cacheable} method,
+ * of a bean in the application's packages, that populates the tracked cache
+ * it was recorded for. Anything else is rejected before a class is loaded.
+ */
+@Slf4j
+@Component
+public class CacheWarmupService implements ApplicationRunner {
+
+    private final CacheWarmupRecorder recorder;
+    private final ApplicationContext applicationContext;
+    private final ObjectMapper objectMapper;
+
+    @Value("${cache.warmup.parallelism:4}")
+    private int parallelism;
+
+    @Value("${cache.warmup.max-per-second:50}")
+    private int maxPerSecond;
+
+    @Value("${cache.warmup.on-startup:false}")
+    private boolean onStartup;
+
+    @Value("${cache.warmup.startup-timeout-seconds:60}")
+    private long startupTimeoutSeconds;
+
+    private volatile Run current;
+    private volatile Map<Signature, Target> allowList;
+
+    /** What a snapshot entry claims to call. */
+    private record Signature(String cache, String type, String method, List<String> parameterTypes) {
+
+        static Signature of(CacheWarmupRecorder.Entry entry) {
+            return new Signature(entry.cache(), entry.type(), entry.method(), entry.parameterTypes());
+        }
+    }
+
+    /** A replayable {@code @Cacheable} method and the bean that declares it. */
+    private record Target(String beanName, Method method) {}
+
+    public CacheWarmupService(CacheWarmupRecorder recorder,
+                              ApplicationContext applicationContext,
+                              ObjectMapper objectMapper) {
+        this.recorder = recorder;
+        this.applicationContext = applicationContext;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        if (!onStartup) {
+            return;
+        }
+        Run run = launch();
+        if (!run.done.await(startupTimeoutSeconds, TimeUnit.SECONDS)) {
+            log.warn("Cache warm-up still running after {} s; continuing startup", startupTimeoutSeconds);
+        }
+        log.info("Startup cache warm-up: {}", run.status());
+    }
+
+    /** Starts a warm-up unless one is already running, and returns its status. */
+    public synchronized CacheWarmupStatus start() {
+        Run run = current;
+        if (run != null && run.done.getCount() > 0) {
+            return run.status();
+        }
+        return launch().status();
+    }
+
+    public CacheWarmupStatus status() {
+        Run run = current;
+        return run != null ? run.status() : CacheWarmupStatus.idle();
+    }
+
+    private synchronized Run launch() {
+        Map<Signature, Target> targets = allowList();
+        Map<Boolean, List<CacheWarmupRecorder.Entry>> allowed = recorder.plan().stream()
+                .collect(Collectors.partitioningBy(entry -> targets.containsKey(Signature.of(entry))
+                        && entry.args().size() == entry.parameterTypes().size()));
+        List<CacheWarmupRecorder.Entry> plan = allowed.get(true);
+        List<CacheWarmupRecorder.Entry> rejected = allowed.get(false);
+        rejected.forEach(entry -> log.warn("Rejected cache warm-up entry {}#{} for cache '{}': not a @Cacheable method of that cache",
+                entry.type(), entry.method(), entry.cache()));
+        Run run = new Run(plan.size(), rejected.size());
+        current = run;
+        log.info("Starting cache warm-up of {} keys (parallelism {}, max {}/s)", plan.size(), parallelism, maxPerSecond);
+        Thread.ofVirtual().name("cache-warmup").start(() -> execute(run, plan));
+        return run;
+    }
+
+    private void execute(Run run, List<CacheWarmupRecorder.Entry> plan) {
+        Semaphore slots = new Semaphore(parallelism);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, maxPerSecond);
+        long nextStart = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (CacheWarmupRecorder.Entry entry : plan) {
+                long wait = nextStart - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                nextStart = Math.max(nextStart, System.nanoTime()) + intervalNanos;
+                slots.acquire();
+                executor.execute(() -> {
+                    try {
+                        warm(run, entry);
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Cache warm-up interrupted");
+        } finally {
+            run.finish();
+            log.info("Cache warm-up finished: {}", run.status());
+        }
+    }
+
+    private void warm(Run run, CacheWarmupRecorder.Entry entry) {
+        long started = System.nanoTime();
+        try {
+            Target target = allowList().get(Signature.of(entry));
+            Method method = target.method();
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            Object[] args = new Object[parameterTypes.length];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = WarmupArguments.decode(objectMapper, entry.args().get(i),
+                        parameterTypes[i], method.getGenericParameterTypes()[i]);
+            }
+            if (!WarmupArguments.isReplayable(args)) {
+                throw new IllegalArgumentException("arguments are not simple values");
+            }
+            Object bean = applicationContext.getBean(target.beanName());
+            Method invocable = AopUtils.selectInvocableMethod(method, bean.getClass());
+            CacheWarmupRecorder.replaying(() -> ReflectionUtils.invokeMethod(invocable, bean, args));
+            run.succeeded(entry.cache(), System.nanoTime() - started);
+        } catch (Exception e) {
+            log.debug("Cache warm-up of {}#{} {} failed: {}", entry.type(), entry.method(), entry.args(), e.getMessage());
+            run.failed(entry.cache());
+        }
+    }
+
+    /**
+     * The {@code @Cacheable} methods of tracked caches declared by beans in the
+     * application's packages, keyed the way the recorder writes them. Built
+     * from bean types, without instantiating beans.
+     */
+    private Map<Signature, Target> allowList() {
+        Map<Signature, Target> targets = allowList;
+        if (targets != null) {
+            return targets;
+        }
+        List<String> packages = AutoConfigurationPackages.has(applicationContext)
+                ? AutoConfigurationPackages.get(applicationContext)
+                : List.of(ClassUtils.getPackageName(CacheWarmupService.class));
+        targets = new HashMap<>();
+        for (String beanName : applicationContext.getBeanDefinitionNames()) {
+            Class<?> beanType = applicationContext.getType(beanName, false);
+            if (beanType == null) {
+                continue;
+            }
+            Class<?> userType = ClassUtils.getUserClass(beanType);
+            if (packages.stream().noneMatch(base -> userType.getName().startsWith(base + "."))) {
+                continue;
+            }
+            Map<Method, Cacheable> cacheable = MethodIntrospector.selectMethods(userType,
+                    (MethodIntrospector.MetadataLookup<Cacheable>) method ->
+                            AnnotatedElementUtils.findMergedAnnotation(method, Cacheable.class));
+            for (Map.Entry<Method, Cacheable> found : cacheable.entrySet()) {
+                Method method = found.getKey();
+                List<String> parameterTypes = Arrays.stream(method.getParameterTypes()).map(Class::getName).toList();
+                for (String cache : found.getValue().cacheNames()) {
+                    if (recorder.tracks(cache)) {
+                        targets.put(new Signature(cache, method.getDeclaringClass().getName(), method.getName(),
+                                parameterTypes), new Target(beanName, method));
+                    }
+                }
+            }
+        }
+        allowList = Map.copyOf(targets);
+        return allowList;
+    }
+
+    private static final class Run {
+
+        private final int total;
+        private final int rejected;
+        private final Instant startedAt = Instant.now();
+        private final long startedNanos = System.nanoTime();
+        private final AtomicInteger completed = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final Map<String, Counters> caches = new ConcurrentHashMap<>();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile Instant finishedAt;
+        private volatile long elapsedNanos;
+
+        private record Counters(LongAdder warmed, LongAdder failed, LongAdder nanos) {
+            Counters() {
+                this(new LongAdder(), new LongAdder(), new LongAdder());
+            }
+        }
+
+        Run(int total, int rejected) {
+            this.total = total;
+            this.rejected = rejected;
+        }
+
+        void succeeded(String cache, long nanos) {
+            Counters counters = caches.computeIfAbsent(cache, c -> new Counters());
+            counters.warmed().increment();
+            counters.nanos().add(nanos);
+            completed.incrementAndGet();
+        }
+
+        void failed(String cache) {
+            caches.computeIfAbsent(cache, c -> new Counters()).failed().increment();
+            failed.incrementAndGet();
+        }
+
+        void finish() {
+            elapsedNanos = System.nanoTime() - startedNanos;
+            finishedAt = Instant.now();
+            done.countDown();
+        }
+
+        CacheWarmupStatus status() {
+            boolean running = done.getCount() > 0;
+            long elapsed = running ? System.nanoTime() - startedNanos : elapsedNanos;
+            Map<String, CacheWarmupStatus.CacheProgress> progress = caches.entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, e -> {
+                        long warmed = e.getValue().warmed().sum();
+                        double avgMillis = warmed == 0 ? 0 : e.getValue().nanos().sum() / 1e6 / warmed;
+                        return new CacheWarmupStatus.CacheProgress(warmed, e.getValue().failed().sum(), avgMillis);
+                    }));
+            return new CacheWarmupStatus(
+                    running ? CacheWarmupStatus.State.RUNNING : CacheWarmupStatus.State.COMPLETED,
+                    total, completed.get(), failed.get(), rejected, startedAt, finishedAt,
+                    TimeUnit.NANOSECONDS.toMillis(elapsed), progress);
+        }
+    }
+}
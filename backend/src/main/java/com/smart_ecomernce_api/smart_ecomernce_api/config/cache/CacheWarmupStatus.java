@@ -0,0 +1,31 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config.cache;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Progress of the current or last cache warm-up run. {@code rejected} counts
+ * recorded calls that were not replayed because they are not a
+ * {@code @Cacheable} method of a warm-up cache.
+ */
+public record CacheWarmupStatus(
+        State state,
+        int total,
+        int completed,
+        int failed,
+        int rejected,
+        Instant startedAt,
+        Instant finishedAt,
+        long elapsedMs,
+        Map<String, CacheProgress> caches
+) {
+
+    public enum State { IDLE, RUNNING, COMPLETED }
+
+    /** Per-cache outcome; {@code avgMillis} is the mean time to load one key. */
+    public record CacheProgress(long warmed, long failed, double avgMillis) {}
+
+    public static CacheWarmupStatus idle() {
+        return new CacheWarmupStatus(State.IDLE, 0, 0, 0, 0, null, null, 0, Map.of());
+    }
+}
@@ -0,0 +1,138 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config.cache;
+
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Predicate;
+import com.smart_ecomernce_api.smart_ecomernce_api.graphql.input.OrderFilterInput;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductFilterRequest;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.data.domain.Pageable;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builds {@link CompositeCacheKey}s from method arguments instead of SpEL
+ * string concatenation and MD5.
+ *
+ * <p>The key is the method name followed by one canonical part per argument:
+ * <ul>
+ *   <li>{@link Pageable}: page number, page size and {@link org.springframework.data.domain.Sort},
+ *       which is already an immutable value object;</li>
+ *   <li>filter DTOs ({@link ProductFilterRequest}, {@link OrderFilterInput}):
+ *       a snapshot of their fields in name order, with list filters sorted and
+ *       de-duplicated (null elements included), empty lists treated as absent and
+ *       decimals stripped of trailing zeros, so equivalent filters share a key.
+ *       Strings are keyed verbatim because the predicates query them verbatim;</li>
+ *   <li>QueryDSL {@link Predicate}: {@code and}/{@code or} trees flattened into
+ *       unordered sets of their operands;</li>
+ *   <li>anything else is used as is.</li>
+ * </ul>
+ * Use with {@code @Cacheable(keyGenerator = CanonicalKeyGenerator.NAME)}.
+ */
+@Component(CanonicalKeyGenerator.NAME)
+public class CanonicalKeyGenerator implements KeyGenerator {
+
+    public static final String NAME = "canonicalKeyGenerator";
+
+    private static final Object UNPAGED = "unpaged";
+
+    private static final ClassValue<Field[]> FILTER_FIELDS = new ClassValue<>() {
+        @Override
+        protected Field[] computeValue(@NonNull Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            ReflectionUtils.doWithFields(type, field -> {
+                ReflectionUtils.makeAccessible(field);
+                fields.add(field);
+            }, field -> !Modifier.isStatic(field.getModifiers()));
+            fields.sort(Comparator.comparing(Field::getName));
+            return fields.toArray(Field[]::new);
+        }
+    };
+
+    @Override
+    @NonNull
+    public Object generate(@NonNull Object target, Method method, @NonNull Object... params) {
+        Object[] parts = new Object[params.length + 1];
+        parts[0] = method.getName();
+        for (int i = 0; i < params.length; i++) {
+            parts[i + 1] = canonical(params[i]);
+        }
+        return CompositeCacheKey.of(parts);
+    }
+
+    static Object canonical(Object value) {
+        if (value instanceof Pageable pageable) {
+            return pageable.isPaged()
+                    ? CompositeCacheKey.of(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort())
+                    : UNPAGED;
+        }
+        if (value instanceof Predicate predicate) {
+            return canonicalPredicate(predicate);
+        }
+        if (value instanceof ProductFilterRequest || value instanceof OrderFilterInput) {
+            return filterKey(value);
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.stripTrailingZeros();
+        }
+        return value;
+    }
+
+    private static Object filterKey(Object filter) {
+        Field[] fields = FILTER_FIELDS.get(filter.getClass());
+        Object[] parts = new Object[fields.length + 1];
+        parts[0] = filter.getClass();
+        for (int i = 0; i < fields.length; i++) {
+            parts[i + 1] = canonicalField(ReflectionUtils.getField(fields[i], filter));
+        }
+        return CompositeCacheKey.of(parts);
+    }
+
+    private static Object canonicalField(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal.stripTrailingZeros();
+        }
+        if (value instanceof Collection<?> collection) {
+            if (collection.isEmpty()) {
+                return null;
+            }
+            // List filters are IN clauses: order and duplicates do not matter. A HashSet,
+            // unlike TreeSet or Set.copyOf, accepts null and mixed-type elements.
+            return Collections.unmodifiableSet(new HashSet<>(collection));
+        }
+        return value;
+    }
+
+    private static Object canonicalPredicate(Predicate predicate) {
+        if (predicate instanceof Operation<?> operation
+                && (operation.getOperator() == Ops.AND || operation.getOperator() == Ops.OR)) {
+            Set<Object> operands = new HashSet<>();
+            flatten(operation, operation.getOperator(), operands);
+            return CompositeCacheKey.of(operation.getOperator(), operands);
+        }
+        return predicate;
+    }
+
+    private static void flatten(Operation<?> operation, Object operator, Set<Object> operands) {
+        for (Object arg : operation.getArgs()) {
+            if (arg instanceof Operation<?> nested && nested.getOperator() == operator) {
+                flatten(nested, operator, operands);
+            } else {
+                operands.add(arg instanceof Predicate nestedPredicate ? canonicalPredicate(nestedPredicate) : arg);
+            }
+        }
+    }
+}
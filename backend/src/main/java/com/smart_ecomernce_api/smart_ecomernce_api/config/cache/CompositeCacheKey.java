@@ -0,0 +1,40 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config.cache;
+
+import java.util.Arrays;
+
+/**
+ * Immutable multi-part cache key with a hash code computed once at
+ * construction. Parts are compared with {@link Arrays#deepEquals}, so nested
+ * keys and arrays compare by value.
+ */
+public final class CompositeCacheKey {
+
+    private final Object[] parts;
+    private final int hash;
+
+    private CompositeCacheKey(Object[] parts) {
+        this.parts = parts;
+        this.hash = Arrays.deepHashCode(parts);
+    }
+
+    /** The array is taken over, not copied; callers must not keep a reference to it. */
+    public static CompositeCacheKey of(Object... parts) {
+        return new CompositeCacheKey(parts);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other
+                || other instanceof CompositeCacheKey key && hash == key.hash && Arrays.deepEquals(parts, key.parts);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.deepToString(parts);
+    }
+}
@@ -0,0 +1,119 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process {@link RemoteCacheStore} used when no shared store is configured
+ * and in tests. Several cache managers in the same JVM can share one instance
+ * to behave like nodes pointing at the same L2.
+ *
+ * <p>Tags are indexed like a shared store would keep them in per-tag key
+ * sets: {@code tag -> entries}, pruned when an entry is replaced or removed.
+ */
+public class InMemoryRemoteCacheStore implements RemoteCacheStore {
+
+    private record Entry(Object value, Set<String> tags, long expiresAtNanos) {
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+
+    private record EntryRef(String cacheName, Object key) {}
+
+    private final Map<String, Map<Object, Entry>> caches = new ConcurrentHashMap<>();
+    private final Map<String, Set<EntryRef>> entriesByTag = new ConcurrentHashMap<>();
+
+    @Override
+    public CompletableFuture<Map<Object, Object>> getAll(String cacheName, Collection<Object> keys) {
+        Map<Object, Entry> cache = caches.get(cacheName);
+        Map<Object, Object> found = new HashMap<>();
+        if (cache != null) {
+            long now = System.nanoTime();
+            for (Object key : keys) {
+                Entry entry = cache.get(key);
+                if (entry == null) {
+                    continue;
+                }
+                if (entry.isExpired(now)) {
+                    if (cache.remove(key, entry)) {
+                        detach(cacheName, key, entry);
+                    }
+                } else {
+                    found.put(key, entry.value());
+                }
+            }
+        }
+        return CompletableFuture.completedFuture(found);
+    }
+
+    @Override
+    public CompletableFuture<Void> put(String cacheName, Object key, Object value, Set<String> tags, Duration ttl) {
+        EntryRef ref = new EntryRef(cacheName, key);
+        // Indexed before it is visible, so a concurrent evictTags() cannot miss it.
+        for (String tag : tags) {
+            entriesByTag.compute(tag, (t, refs) -> {
+                Set<EntryRef> set = refs != null ? refs : ConcurrentHashMap.newKeySet();
+                set.add(ref);
+                return set;
+            });
+        }
+        Entry previous = caches.computeIfAbsent(cacheName, name -> new ConcurrentHashMap<>())
+                .put(key, new Entry(value, Set.copyOf(tags), System.nanoTime() + ttl.toNanos()));
+        if (previous != null) {
+            previous.tags().stream().filter(tag -> !tags.contains(tag)).forEach(tag -> detach(tag, ref));
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<Void> evict(String cacheName, Object key) {
+        Map<Object, Entry> cache = caches.get(cacheName);
+        if (cache != null) {
+            Entry removed = cache.remove(key);
+            if (removed != null) {
+                detach(cacheName, key, removed);
+            }
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<Void> evictTags(Collection<String> tags) {
+        for (String tag : tags) {
+            Set<EntryRef> refs = entriesByTag.remove(tag);
+            if (refs != null) {
+                refs.forEach(ref -> evict(ref.cacheName(), ref.key()));
+            }
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<Void> clear(String cacheName) {
+        caches.remove(cacheName);
+        entriesByTag.replaceAll((tag, refs) -> {
+            refs.removeIf(ref -> ref.cacheName().equals(cacheName));
+            return refs;
+        });
+        entriesByTag.values().removeIf(Set::isEmpty);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private void detach(String cacheName, Object key, Entry entry) {
+        EntryRef ref = new EntryRef(cacheName, key);
+        entry.tags().forEach(tag -> detach(tag, ref));
+    }
+
+    private void detach(String tag, EntryRef ref) {
+        entriesByTag.computeIfPresent(tag, (t, refs) -> {
+            refs.remove(ref);
+            return refs.isEmpty() ? null : refs;
+        });
+    }
+}
@@ -0,0 +1,58 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process {@link CacheInvalidationBus}. A single instance is a one-node
+ * cluster, so publishing is a no-op; {@link #join()} adds another node to the
+ * same group, which is how tests wire up several cache managers in one JVM.
+ * Delivery is synchronous on the publishing thread.
+ */
+@Slf4j
+public class LoopbackCacheInvalidationBus implements CacheInvalidationBus {
+
+    private final List<LoopbackCacheInvalidationBus> group;
+    private final List<Consumer<CacheInvalidation>> listeners = new CopyOnWriteArrayList<>();
+
+    public LoopbackCacheInvalidationBus() {
+        this(new CopyOnWriteArrayList<>());
+    }
+
+    private LoopbackCacheInvalidationBus(List<LoopbackCacheInvalidationBus> group) {
+        this.group = group;
+        group.add(this);
+    }
+
+    /** Creates another node attached to the same group. */
+    public LoopbackCacheInvalidationBus join() {
+        return new LoopbackCacheInvalidationBus(group);
+    }
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        for (LoopbackCacheInvalidationBus node : group) {
+            if (node != this) {
+                node.deliver(invalidation);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> listener) {
+        listeners.add(listener);
+    }
+
+    private void deliver(CacheInvalidation invalidation) {
+        for (Consumer<CacheInvalidation> listener : listeners) {
+            try {
+                listener.accept(invalidation);
+            } catch (RuntimeException e) {
+                log.warn("Cache invalidation listener failed for {}: {}", invalidation, e.getMessage());
+            }
+        }
+    }
+}
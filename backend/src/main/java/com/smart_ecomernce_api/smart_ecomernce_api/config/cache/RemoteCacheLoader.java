@@ -0,0 +1,115 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces L1 misses into batched {@link RemoteCacheStore#getAll} calls.
+ *
+ * <p>A miss enqueues its key and gets a future back immediately. A single
+ * worker thread collects whatever arrives within {@code lingerMillis} (up to
+ * {@code maxBatchSize} keys), groups it by cache and issues one lookup per
+ * cache. Concurrent misses on the same key share one future, so a burst of
+ * requests for a hot product costs one remote read.
+ */
+@Slf4j
+public class RemoteCacheLoader implements DisposableBean {
+
+    private record Pending(CacheTagIndex.EntryRef ref, CompletableFuture<Object> result) {}
+
+    private final RemoteCacheStore store;
+    private final int maxBatchSize;
+    private final long lingerMillis;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Map<CacheTagIndex.EntryRef, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    public RemoteCacheLoader(RemoteCacheStore store, int maxBatchSize, long lingerMillis) {
+        this.store = store;
+        this.maxBatchSize = maxBatchSize;
+        this.lingerMillis = lingerMillis;
+        this.worker = Thread.ofPlatform().name("l2-cache-loader").daemon().start(this::run);
+    }
+
+    /**
+     * Requests a key from the remote store.
+     *
+     * @return future completing with the stored value, or {@code null} if absent
+     */
+    public CompletableFuture<Object> load(String cacheName, Object key) {
+        CacheTagIndex.EntryRef ref = new CacheTagIndex.EntryRef(cacheName, key);
+        return inFlight.computeIfAbsent(ref, r -> {
+            CompletableFuture<Object> result = new CompletableFuture<>();
+            queue.add(new Pending(r, result));
+            return result;
+        });
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                Pending first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+                while (batch.size() < maxBatchSize) {
+                    Pending next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("L2 batch lookup failed: {}", e.getMessage());
+                batch.forEach(pending -> complete(pending, null, e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void dispatch(List<Pending> batch) {
+        Map<String, List<Pending>> byCache = new LinkedHashMap<>();
+        for (Pending pending : batch) {
+            byCache.computeIfAbsent(pending.ref().cacheName(), name -> new ArrayList<>()).add(pending);
+        }
+        byCache.forEach((cacheName, pendings) -> {
+            List<Object> keys = pendings.stream().map(p -> p.ref().key()).toList();
+            store.getAll(cacheName, keys).whenComplete((found, error) ->
+                    pendings.forEach(p -> complete(p, found != null ? found.get(p.ref().key()) : null, error)));
+        });
+    }
+
+    private void complete(Pending pending, Object value, Throwable error) {
+        inFlight.remove(pending.ref(), pending.result());
+        if (error != null) {
+            pending.result().completeExceptionally(error);
+        } else {
+            pending.result().complete(value);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        worker.interrupt();
+    }
+}
@@ -0,0 +1,39 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Shared second-level cache behind the node-local Caffeine caches.
+ *
+ * <p>All operations are asynchronous so that a slow or unreachable store
+ * never holds up a request thread; callers decide how long they are willing
+ * to wait. Values handed to {@link #put} are Spring store values (nulls
+ * already wrapped), and a networked implementation is responsible for
+ * serialising them.
+ */
+public interface RemoteCacheStore {
+
+    /**
+     * Looks up several keys of one cache in a single round trip.
+     *
+     * @return the entries that were found; missing keys are simply absent
+     */
+    CompletableFuture<Map<Object, Object>> getAll(String cacheName, Collection<Object> keys);
+
+    /**
+     * Stores a value together with the tags it depends on, so that
+     * {@link #evictTags} reaches it even when no node still holds it in L1.
+     */
+    CompletableFuture<Void> put(String cacheName, Object key, Object value, Set<String> tags, Duration ttl);
+
+    CompletableFuture<Void> evict(String cacheName, Object key);
+
+    /** Evicts the entries of every cache that were stored with at least one of {@code tags}. */
+    CompletableFuture<Void> evictTags(Collection<String> tags);
+
+    CompletableFuture<Void> clear(String cacheName);
+}
@@ -0,0 +1,120 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces concurrent cache-miss loads of the same key: the first caller
+ * runs the load, later callers wait on its future instead of querying the
+ * database again.
+ *
+ * <p>The in-flight futures live in a Caffeine {@link AsyncCache} keyed by
+ * cache name and key. Unlike loading through the synchronous cache's
+ * {@code get(key, loader)}, no hash-bin lock is held while the load runs, so a
+ * slow product query cannot stall lookups of unrelated keys. The leader runs
+ * the load on its own thread, inside its own transaction and security
+ * context, and removes the future once the value is in the cache; a failed
+ * load is rethrown to every waiter and not cached.
+ *
+ * <p>Meters, tagged with the cache name: {@code cache.single-flight.loads}
+ * (loads actually run) and {@code cache.single-flight.collapsed} (callers that
+ * waited on another caller's load instead).
+ */
+public class SingleFlightLoader {
+
+    private record Flight(String cacheName, Object key) {}
+
+    /**
+     * A failed load. Futures are completed with this rather than exceptionally:
+     * Caffeine logs every exceptionally completed future it has held, and "not
+     * found" is an ordinary outcome here.
+     */
+    private record Failure(Throwable error) {}
+
+    /** Per-cache figures for the performance endpoints. */
+    public record Stats(long loads, long collapsed) {}
+
+    private final AsyncCache<Flight, Object> inFlight = Caffeine.newBuilder().buildAsync();
+    private final MeterRegistry registry;
+    private final Set<String> caches = ConcurrentHashMap.newKeySet();
+
+    public SingleFlightLoader(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    void register(String cacheName) {
+        caches.add(cacheName);
+    }
+
+    /**
+     * Returns the value of {@code loader} for {@code key}, running it only if no
+     * other thread is already loading the same key. The loader is expected to
+     * store the value in the cache before returning.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T load(String cacheName, Object key, Callable<T> loader) {
+        Flight flight = new Flight(cacheName, key);
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.asMap().putIfAbsent(flight, mine);
+        if (running != null) {
+            counter("cache.single-flight.collapsed", cacheName).increment();
+            return (T) await(key, loader, running);
+        }
+        counter("cache.single-flight.loads", cacheName).increment();
+        Object outcome = null;
+        try {
+            T value = loader.call();
+            outcome = value;
+            return value;
+        } catch (Throwable e) {
+            outcome = new Failure(e);
+            throw rethrow(key, loader, e);
+        } finally {
+            inFlight.asMap().remove(flight, mine);
+            mine.complete(outcome);
+        }
+    }
+
+    private Object await(Object key, Callable<?> loader, CompletableFuture<Object> running) {
+        Object outcome = running.join();
+        if (outcome instanceof Failure failure) {
+            throw rethrow(key, loader, failure.error());
+        }
+        return outcome;
+    }
+
+    private RuntimeException rethrow(Object key, Callable<?> loader, Throwable error) {
+        if (error instanceof Error fatal) {
+            throw fatal;
+        }
+        return error instanceof RuntimeException runtime
+                ? runtime
+                : new Cache.ValueRetrievalException(key, loader, error);
+    }
+
+    private Counter counter(String name, String cacheName) {
+        return Counter.builder(name).tag("cache", cacheName).register(registry);
+    }
+
+    public Map<String, Stats> stats() {
+        Map<String, Stats> stats = new TreeMap<>();
+        for (String cache : caches) {
+            Counter loads = registry.find("cache.single-flight.loads").tag("cache", cache).counter();
+            Counter collapsed = registry.find("cache.single-flight.collapsed").tag("cache", cache).counter();
+            stats.put(cache, new Stats(
+                    loads != null ? (long) loads.count() : 0,
+                    collapsed != null ? (long) collapsed.count() : 0));
+        }
+        return stats;
+    }
+}
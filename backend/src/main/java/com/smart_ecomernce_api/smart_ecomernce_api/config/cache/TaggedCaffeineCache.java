@@ -0,0 +1,266 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * Caffeine-backed Spring cache that records the tags of every entry it stores
+ * in a shared {@link CacheTagIndex}.
+ *
+ * <p>An entry's tags are the union of
+ * <ul>
+ *   <li>the cache's static tags (e.g. every {@code products-featured} entry is a product listing),</li>
+ *   <li>tags derived from the value by {@link CacheTagExtractor}, and</li>
+ *   <li>argument tags bound by {@link CacheTagged} for the current call.</li>
+ * </ul>
+ * Size- and time-based removals are reported back through the Caffeine
+ * eviction listener configured in {@code CacheConfig}.
+ *
+ * <p>With {@link #enableRefresh} the cache becomes refresh-ahead: a read of
+ * an entry older than the refresh interval still returns it, but also starts
+ * a background reload through the {@link CacheRefresher}. The expire-after-write
+ * TTL stays the hard limit on how stale a served value can get.
+ *
+ * <p>With {@link #enableSingleFlight} concurrent {@code @Cacheable(sync = true)}
+ * misses on the same key are coalesced by a {@link SingleFlightLoader}.
+ */
+public class TaggedCaffeineCache extends CaffeineCache {
+
+    private final CacheTagIndex tagIndex;
+    private final Set<String> staticTags;
+
+    private CacheRefresher refresher;
+    private Duration refreshAfter;
+    private com.github.benmanes.caffeine.cache.Cache<Object, CacheRefresher.Reloader> reloaders;
+    private SingleFlightLoader singleFlight;
+
+    public TaggedCaffeineCache(String name,
+                               com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                               CacheTagIndex tagIndex,
+                               Set<String> staticTags) {
+        super(name, cache);
+        this.tagIndex = tagIndex;
+        this.staticTags = Set.copyOf(staticTags);
+        tagIndex.attach(this);
+    }
+
+    /**
+     * Reloads entries in the background once they are older than
+     * {@code refreshAfter}. Entries are only refreshed if they were stored by a
+     * call that bound a {@link CacheRefresher.Reloader}.
+     */
+    public void enableRefresh(Duration refreshAfter, CacheRefresher refresher) {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> cache = getNativeCache();
+        Caffeine<Object, Object> builder = Caffeine.newBuilder();
+        cache.policy().eviction().ifPresent(eviction -> builder.maximumSize(eviction.getMaximum()));
+        cache.policy().expireAfterWrite().ifPresent(expiry -> builder.expireAfterWrite(expiry.getExpiresAfter()));
+        this.reloaders = builder.build();
+        this.refreshAfter = refreshAfter;
+        this.refresher = refresher;
+        refresher.register(getName());
+    }
+
+    /** Coalesces concurrent misses of a key into one load (for {@code sync = true} lookups). */
+    public void enableSingleFlight(SingleFlightLoader singleFlight) {
+        this.singleFlight = singleFlight;
+        singleFlight.register(getName());
+    }
+
+    @Override
+    @Nullable
+    protected Object lookup(@NonNull Object key) {
+        if (isRefreshing(key)) {
+            return null;
+        }
+        Object value = super.lookup(key);
+        if (value != null) {
+            refreshIfDue(key);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(@NonNull Object key, @Nullable Object value) {
+        storeTagged(key, value);
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper putIfAbsent(@NonNull Object key, @Nullable Object value) {
+        Set<String> tags = tagsOf(value);
+        registerTags(key, tags);
+        ValueWrapper existing = super.putIfAbsent(key, value);
+        if (existing != null) {
+            // The entry that stays keeps its own tags.
+            tags = tagsOf(existing.get());
+            registerTags(key, tags);
+        }
+        keepIfTracked(key, tags);
+        return existing;
+    }
+
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+        if (isRefreshing(key)) {
+            T value = load(key, valueLoader);
+            put(key, value);
+            return value;
+        }
+        if (refresher != null || singleFlight != null) {
+            Object present = getNativeCache().getIfPresent(key);
+            if (present != null) {
+                refreshIfDue(key);
+                return (T) fromStoreValue(present);
+            }
+        }
+        if (singleFlight != null) {
+            return singleFlight.load(getName(), key, () -> {
+                // The previous leader may have stored the value just after our miss.
+                Object present = getNativeCache().getIfPresent(key);
+                if (present != null) {
+                    return (T) fromStoreValue(present);
+                }
+                T value = load(key, valueLoader);
+                storeTagged(key, value);
+                return value;
+            });
+        }
+        // @Cacheable(sync = true) loads through here instead of put(). The
+        // entry is tagged inside the load, before Caffeine publishes it; an
+        // eviction of the key waits for the load to finish.
+        return super.get(key, () -> {
+            T value = valueLoader.call();
+            registerTags(key, value);
+            return value;
+        });
+    }
+
+    @Override
+    public void evict(@NonNull Object key) {
+        super.evict(key);
+        forget(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(@NonNull Object key) {
+        boolean present = super.evictIfPresent(key);
+        forget(key);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        forgetAll();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean notEmpty = super.invalidate();
+        forgetAll();
+        return notEmpty;
+    }
+
+    public Set<String> getStaticTags() {
+        return staticTags;
+    }
+
+    /**
+     * Stores {@code value} in this node's cache with its tags registered
+     * first. A tag eviction that runs between the two finds nothing to evict
+     * but drops the registration; the value it would have missed is then
+     * dropped here.
+     *
+     * @return whether the value is still stored
+     */
+    protected boolean storeTagged(Object key, @Nullable Object value) {
+        Set<String> tags = tagsOf(value);
+        registerTags(key, tags);
+        getNativeCache().put(key, toStoreValue(value));
+        return keepIfTracked(key, tags);
+    }
+
+    /** Indexes an entry stored, or about to be stored, under {@code key}. */
+    protected void registerTags(Object key, @Nullable Object value) {
+        registerTags(key, tagsOf(value));
+    }
+
+    /** The static, call-bound and value-derived tags of an entry. */
+    protected Set<String> tagsOf(@Nullable Object value) {
+        Set<String> tags = new HashSet<>(staticTags);
+        tags.addAll(CacheTagContext.current());
+        CacheTagExtractor.collect(value, tags);
+        return tags;
+    }
+
+    /** Records the entry's tags and, for a refresh-ahead cache, how to reload it. */
+    private void registerTags(Object key, Set<String> tags) {
+        tagIndex.register(getName(), key, tags);
+        if (reloaders != null) {
+            CacheRefresher.Reloader reloader = CacheRefresher.currentReloader();
+            if (reloader != null) {
+                reloaders.put(key, reloader);
+            }
+        }
+    }
+
+    /** Whether the current thread is reloading {@code key} and must not be served the stored value. */
+    protected boolean isRefreshing(Object key) {
+        return refresher != null && CacheRefresher.isRefreshing(getName(), key);
+    }
+
+    private void refreshIfDue(Object key) {
+        if (refresher == null) {
+            return;
+        }
+        Duration age = getNativeCache().policy().expireAfterWrite()
+                .flatMap(expiry -> expiry.ageOf(key))
+                .orElse(Duration.ZERO);
+        if (age.compareTo(refreshAfter) < 0) {
+            return;
+        }
+        CacheRefresher.Reloader reloader = reloaders.getIfPresent(key);
+        if (reloader != null) {
+            refresher.refresh(getName(), key, reloader);
+        }
+    }
+
+    private boolean keepIfTracked(Object key, Set<String> tags) {
+        if (tags.isEmpty() || tagIndex.isRegistered(getName(), key)) {
+            return true;
+        }
+        getNativeCache().invalidate(key);
+        return false;
+    }
+
+    private <T> T load(Object key, Callable<T> valueLoader) {
+        try {
+            return valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    private void forget(Object key) {
+        tagIndex.unregister(getName(), key);
+        if (reloaders != null) {
+            reloaders.invalidate(key);
+        }
+    }
+
+    private void forgetAll() {
+        tagIndex.unregisterAll(getName());
+        if (reloaders != null) {
+            reloaders.invalidateAll();
+        }
+    }
+}
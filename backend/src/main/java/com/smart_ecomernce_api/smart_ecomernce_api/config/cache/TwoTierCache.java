@@ -0,0 +1,203 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Caffeine L1 in front of a shared {@link RemoteCacheStore} L2.
+ *
+ * <ul>
+ *   <li>Reads hit L1 first. On a miss the key is handed to the batching
+ *       {@link RemoteCacheLoader} and the caller waits at most
+ *       {@code remoteWaitMillis}; a slower L2 answer is treated as a miss, so
+ *       L2 never costs a request more than that budget.</li>
+ *   <li>Writes go to L1 synchronously and to L2 asynchronously, with the
+ *       entry's tags, so a tag eviction reaches L2 copies that no node holds
+ *       in L1 any more.</li>
+ *   <li>Evictions and clears are applied to both tiers and broadcast on the
+ *       {@link CacheInvalidationBus} so that other nodes drop their L1 copy.</li>
+ * </ul>
+ */
+@Slf4j
+public class TwoTierCache extends TaggedCaffeineCache {
+
+    private static final ThreadLocal<Boolean> BROADCAST_SUPPRESSED = ThreadLocal.withInitial(() -> false);
+
+    private final RemoteCacheStore remoteStore;
+    private final RemoteCacheLoader remoteLoader;
+    private final CacheInvalidationBus invalidationBus;
+    private final Duration ttl;
+    private final long remoteWaitMillis;
+
+    public TwoTierCache(String name,
+                        com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                        CacheTagIndex tagIndex,
+                        Set<String> staticTags,
+                        RemoteCacheStore remoteStore,
+                        RemoteCacheLoader remoteLoader,
+                        CacheInvalidationBus invalidationBus,
+                        Duration ttl,
+                        long remoteWaitMillis) {
+        super(name, cache, tagIndex, staticTags);
+        this.remoteStore = remoteStore;
+        this.remoteLoader = remoteLoader;
+        this.invalidationBus = invalidationBus;
+        this.ttl = ttl;
+        this.remoteWaitMillis = remoteWaitMillis;
+    }
+
+    /**
+     * Runs {@code action} without publishing per-key invalidations. Used when
+     * the caller broadcasts a coarser message itself (a tag eviction) or is
+     * applying one received from another node.
+     */
+    public static void withoutBroadcast(Runnable action) {
+        boolean previous = BROADCAST_SUPPRESSED.get();
+        BROADCAST_SUPPRESSED.set(true);
+        try {
+            action.run();
+        } finally {
+            BROADCAST_SUPPRESSED.set(previous);
+        }
+    }
+
+    @Override
+    @Nullable
+    protected Object lookup(@NonNull Object key) {
+        Object local = super.lookup(key);
+        if (local != null || isRefreshing(key)) {
+            // A refresh must reach the method, not the possibly older L2 copy.
+            return local;
+        }
+        Object remote = awaitRemote(key);
+        if (remote != null) {
+            // Straight into Caffeine: the value came from L2, so there is no
+            // point writing it back there.
+            storeTagged(key, fromStoreValue(remote));
+        }
+        return remote;
+    }
+
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+        if (isRefreshing(key)) {
+            return super.get(key, valueLoader);
+        }
+        return super.get(key, () -> {
+            Object remote = awaitRemote(key);
+            if (remote != null) {
+                return (T) fromStoreValue(remote);
+            }
+            T value = valueLoader.call();
+            writeRemote(key, value);
+            return value;
+        });
+    }
+
+    @Override
+    public void put(@NonNull Object key, @Nullable Object value) {
+        if (storeTagged(key, value)) {
+            writeRemote(key, value);
+        }
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper putIfAbsent(@NonNull Object key, @Nullable Object value) {
+        ValueWrapper existing = super.putIfAbsent(key, value);
+        if (existing == null && getNativeCache().asMap().containsKey(key)) {
+            writeRemote(key, value);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(@NonNull Object key) {
+        super.evict(key);
+        evictRemote(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(@NonNull Object key) {
+        boolean present = super.evictIfPresent(key);
+        evictRemote(key);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        clearRemote();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean notEmpty = super.invalidate();
+        clearRemote();
+        return notEmpty;
+    }
+
+    /** Drops the L1 entry only, in response to another node's eviction. */
+    public void evictLocal(Object key) {
+        super.evict(key);
+    }
+
+    /** Clears L1 only, in response to another node's clear. */
+    public void clearLocal() {
+        super.clear();
+    }
+
+    @Nullable
+    private Object awaitRemote(Object key) {
+        CompletableFuture<Object> pending = remoteLoader.load(getName(), key);
+        try {
+            return pending.get(remoteWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.debug("L2 lookup for '{}' in cache '{}' exceeded {} ms", key, getName(), remoteWaitMillis);
+            return null;
+        } catch (ExecutionException e) {
+            log.warn("L2 lookup for '{}' in cache '{}' failed: {}", key, getName(), e.getCause().getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void writeRemote(Object key, @Nullable Object value) {
+        logFailure(remoteStore.put(getName(), key, toStoreValue(value), tagsOf(value), ttl), "put", key);
+    }
+
+    private void evictRemote(Object key) {
+        logFailure(remoteStore.evict(getName(), key), "evict", key);
+        if (!BROADCAST_SUPPRESSED.get()) {
+            invalidationBus.publish(CacheInvalidation.key(getName(), key));
+        }
+    }
+
+    private void clearRemote() {
+        logFailure(remoteStore.clear(getName()), "clear", "*");
+        if (!BROADCAST_SUPPRESSED.get()) {
+            invalidationBus.publish(CacheInvalidation.clear(getName()));
+        }
+    }
+
+    private void logFailure(CompletableFuture<Void> operation, String action, Object key) {
+        operation.whenComplete((ignored, error) -> {
+            if (error != null) {
+                log.warn("L2 {} of '{}' in cache '{}' failed: {}", action, key, getName(), error.getMessage());
+            }
+        });
+    }
+}
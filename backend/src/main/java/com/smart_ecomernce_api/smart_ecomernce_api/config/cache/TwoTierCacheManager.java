@@ -0,0 +1,40 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.SimpleCacheManager;
+
+/**
+ * {@link SimpleCacheManager} of {@link TwoTierCache}s that applies the
+ * invalidations other nodes publish on the {@link CacheInvalidationBus}.
+ *
+ * <p>Key and clear messages only touch L1 here, since the publishing node has
+ * already updated L2. Tag messages are re-evaluated against this node's own
+ * tag index, because the entries a tag covers differ from node to node.
+ */
+@Slf4j
+public class TwoTierCacheManager extends SimpleCacheManager {
+
+    private final CacheTagIndex tagIndex;
+
+    public TwoTierCacheManager(CacheTagIndex tagIndex, CacheInvalidationBus invalidationBus) {
+        this.tagIndex = tagIndex;
+        invalidationBus.subscribe(this::apply);
+    }
+
+    void apply(CacheInvalidation invalidation) {
+        switch (invalidation.type()) {
+            case KEY -> {
+                if (lookupCache(invalidation.cacheName()) instanceof TwoTierCache cache) {
+                    cache.evictLocal(invalidation.key());
+                }
+            }
+            case CLEAR -> {
+                if (lookupCache(invalidation.cacheName()) instanceof TwoTierCache cache) {
+                    cache.clearLocal();
+                }
+            }
+            case TAGS -> TwoTierCache.withoutBroadcast(() -> tagIndex.evict(invalidation.tags()));
+        }
+        log.debug("Applied remote cache invalidation {}", invalidation);
+    }
+}
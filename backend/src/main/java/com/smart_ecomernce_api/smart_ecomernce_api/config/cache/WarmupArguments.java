@@ -0,0 +1,79 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JSON encoding of the arguments of a recorded cache lookup, so that the call
+ * can be replayed after a restart. Only simple values, collections of simple
+ * values and {@link Pageable} are supported; anything else is not recorded.
+ */
+final class WarmupArguments {
+
+    private WarmupArguments() {
+    }
+
+    static boolean isReplayable(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof Collection<?> collection) {
+                for (Object element : collection) {
+                    if (!isScalar(element)) {
+                        return false;
+                    }
+                }
+            } else if (!(arg instanceof Pageable) && !isScalar(arg)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static JsonNode encode(ObjectMapper mapper, Object arg) {
+        if (!(arg instanceof Pageable pageable)) {
+            return mapper.valueToTree(arg);
+        }
+        ObjectNode node = mapper.createObjectNode();
+        if (pageable.isUnpaged()) {
+            return node.put("unpaged", true);
+        }
+        node.put("page", pageable.getPageNumber());
+        node.put("size", pageable.getPageSize());
+        ArrayNode sort = node.putArray("sort");
+        pageable.getSort().forEach(order -> sort.addObject()
+                .put("property", order.getProperty())
+                .put("direction", order.getDirection().name()));
+        return node;
+    }
+
+    static Object decode(ObjectMapper mapper, JsonNode node, Class<?> rawType, Type genericType) {
+        if (!Pageable.class.isAssignableFrom(rawType)) {
+            return mapper.convertValue(node, mapper.constructType(genericType));
+        }
+        if (node.path("unpaged").asBoolean(false)) {
+            return Pageable.unpaged();
+        }
+        List<Sort.Order> orders = new ArrayList<>();
+        node.path("sort").forEach(order -> orders.add(new Sort.Order(
+                Sort.Direction.fromString(order.path("direction").asText("ASC")),
+                order.path("property").asText())));
+        return PageRequest.of(node.path("page").asInt(), node.path("size").asInt(), Sort.by(orders));
+    }
+
+    private static boolean isScalar(Object value) {
+        return value == null
+                || value instanceof Number
+                || value instanceof CharSequence
+                || value instanceof Boolean
+                || value instanceof Enum<?>;
+    }
+}
@@ -0,0 +1,19 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.exception;
+
+/**
+ * A bounded resource is saturated and the request was turned away rather
+ * than queued; the client should retry after {@link #getRetryAfterSeconds()}.
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
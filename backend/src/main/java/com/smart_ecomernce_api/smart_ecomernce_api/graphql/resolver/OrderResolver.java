@@ -2,6 +2,9 @@ package com.smart_ecomernce_api.smart_ecomernce_api.graphql.resolver;
 
 import com.querydsl.core.types.Predicate;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderPredicates;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.idempotency.IdempotencyStore;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.pagination.CursorCodec;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.pagination.KeysetSort;
 import com.smart_ecomernce_api.smart_ecomernce_api.common.response.PaginatedResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.graphql.dto.OrderResponseDto;
 import com.smart_ecomernce_api.smart_ecomernce_api.graphql.input.OrderFilterInput;
@@ -9,26 +12,30 @@ import com.smart_ecomernce_api.smart_ecomernce_api.graphql.input.PageInput;
 import com.smart_ecomernce_api.smart_ecomernce_api.graphql.input.SortDirection;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.OrderResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.OrderStatsResponse;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.OrderSummaryResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.OrderUpdateRequest;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderStatus;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.PaymentStatus;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.ContextValue;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.query.ScrollSubrange;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 
 /**
  * GraphQL resolver for all Order queries and mutations.
@@ -41,7 +48,11 @@ import java.time.LocalDateTime;
 @Slf4j
 public class OrderResolver {
 
+    private static final Sort CONNECTION_SORT = KeysetSort.of("createdAt").resolve("createdAt", Sort.Direction.DESC);
+
     private final OrderService orderService;
+    private final CursorCodec cursorCodec;
+    private final IdempotencyStore idempotencyStore;
 
     // =========================================================================
     // Queries
@@ -71,6 +82,22 @@ public class OrderResolver {
         return toDto(page);
     }
 
+    /**
+     * The caller's order history as a connection of summaries, newest first.
+     * Reads only the order-summary read model: one query per page.
+     */
+    @QueryMapping
+    public Window<OrderSummaryResponse> myOrderSummaries(@Argument OrderStatus status,
+                                                         ScrollSubrange subrange,
+                                                         @ContextValue Long userId) {
+        log.debug("GQL myOrderSummaries(user={}, status={})", userId, status);
+
+        ScrollPosition position = cursorCodec.verify(
+                subrange.position().orElse(ScrollPosition.keyset()), CONNECTION_SORT);
+        return orderService.scrollUserOrderSummaries(userId, status, position, CONNECTION_SORT,
+                KeysetSort.limit(subrange.count().orElse(KeysetSort.DEFAULT_LIMIT)));
+    }
+
     @QueryMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
     public OrderResponseDto allOrders(@Argument PageInput pagination) {
@@ -114,6 +141,22 @@ public class OrderResolver {
         return toDto(page);
     }
 
+    /**
+     * Relay-style connection over {@link #filteredOrdersAdvanced}, newest first,
+     * seeking on (createdAt, id) instead of counting and skipping rows.
+     */
+    @QueryMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public Window<OrderResponse> ordersConnection(@Argument OrderFilterInput filter,
+                                                  ScrollSubrange subrange) {
+        log.debug("GQL ordersConnection(filter={})", filter);
+
+        ScrollPosition position = cursorCodec.verify(
+                subrange.position().orElse(ScrollPosition.keyset()), CONNECTION_SORT);
+        return orderService.scrollOrders(OrderPredicates.from(filter), position, CONNECTION_SORT,
+                KeysetSort.limit(subrange.count().orElse(KeysetSort.DEFAULT_LIMIT)));
+    }
+
     @QueryMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
     public OrderResponseDto searchOrders(@Argument String keyword,
@@ -127,7 +170,6 @@ public class OrderResolver {
 
     @QueryMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
-    @Cacheable(value = "orders", key = "'stats'")
     public OrderStatsResponse orderStatistics() {
         log.debug("GQL orderStatistics");
         return orderService.getOrderStatistics();
@@ -253,9 +295,11 @@ public class OrderResolver {
     
     public OrderResponse cancelOrder(@Argument Long id,
                                      @Argument String reason,
+                                     @Argument String idempotencyKey,
                                      @ContextValue Long userId) {
         log.info("GQL cancelOrder(id={}, user={})", id, userId);
-        return orderService.cancelOrder(id, reason, userId);
+        return idempotencyStore.execute("cancelOrder", idempotencyKey, Arrays.asList(id, reason),
+                () -> orderService.cancelOrder(id, reason, userId)).value();
     }
 
     @MutationMapping
@@ -271,9 +315,11 @@ public class OrderResolver {
 
     public OrderResponse shipOrder(@Argument Long id,
                                    @Argument String trackingNumber,
-                                   @Argument String carrier) {
+                                   @Argument String carrier,
+                                   @Argument String idempotencyKey) {
         log.info("GQL shipOrder(id={})", id);
-        return orderService.shipOrder(id, trackingNumber, carrier);
+        return idempotencyStore.execute("shipOrder", idempotencyKey, Arrays.asList(id, trackingNumber, carrier),
+                () -> orderService.shipOrder(id, trackingNumber, carrier)).value();
     }
 
     @MutationMapping
@@ -289,9 +335,11 @@ public class OrderResolver {
 
     public OrderResponse refundOrder(@Argument Long id,
                                      @Argument BigDecimal amount,
-                                     @Argument String reason) {
+                                     @Argument String reason,
+                                     @Argument String idempotencyKey) {
         log.info("GQL refundOrder(id={})", id);
-        return orderService.refundOrder(id, amount, reason);
+        return idempotencyStore.execute("refundOrder", idempotencyKey, Arrays.asList(id, amount, reason),
+                () -> orderService.refundOrder(id, amount, reason)).value();
     }
 
     @MutationMapping
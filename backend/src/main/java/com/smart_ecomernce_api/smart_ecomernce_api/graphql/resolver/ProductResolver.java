@@ -2,6 +2,8 @@ package com.smart_ecomernce_api.smart_ecomernce_api.graphql.resolver;
 
 import com.querydsl.core.types.Predicate;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.ProductPredicates;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.pagination.CursorCodec;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.pagination.KeysetSort;
 import com.smart_ecomernce_api.smart_ecomernce_api.common.response.PaginatedResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.graphql.dto.ProductDto;
 import com.smart_ecomernce_api.smart_ecomernce_api.graphql.input.PageInput;
@@ -19,10 +21,13 @@ import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.query.ScrollSubrange;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 
@@ -37,7 +42,10 @@ import java.util.List;
 @Slf4j
 public class ProductResolver {
 
+    private static final Sort CONNECTION_SORT = KeysetSort.of("createdAt").resolve("createdAt", Sort.Direction.DESC);
+
     private final ProductService productService;
+    private final CursorCodec cursorCodec;
 
     // ==================== Single Product Queries ====================
 
@@ -76,10 +84,8 @@ public class ProductResolver {
 
         if (filter != null && filter.hasFilters()) {
             log.debug("Applying filter - keyword: {}, name: {}, featured: {}", filter.getKeyword(), filter.getName(), filter.getFeatured());
-            // Build predicate for advanced filtering
-            Predicate predicate = buildPredicateFromFilter(filter);
-            log.debug("Built predicate: {}", predicate);
-            productPage = productService.findByPredicate(predicate, pageable);
+            // Indexed filters (category, price, status, flags) are served from the facet index
+            productPage = productService.findByFilters(filter.toFilterRequest(), pageable);
         } else {
             log.debug("No filters applied, getting all products");
             productPage = productService.getAllProducts(pageable);
@@ -91,6 +97,26 @@ public class ProductResolver {
                 .build();
     }
 
+    /**
+     * Relay-style connection over the same listing as {@link #products}, newest
+     * first. Seeks on (createdAt, id) from the {@code after}/{@code before}
+     * cursor rather than counting and skipping rows.
+     */
+    @QueryMapping
+    public Window<ProductResponse> productsConnection(
+            @Argument ProductFilterInput filter,
+            ScrollSubrange subrange) {
+        log.debug("GraphQL Query: productsConnection with filter: {}", filter);
+
+        Predicate predicate = filter != null && filter.hasFilters()
+                ? buildPredicateFromFilter(filter)
+                : ProductPredicates.builder().withActive(true).build();
+        ScrollPosition position = cursorCodec.verify(
+                subrange.position().orElse(ScrollPosition.keyset()), CONNECTION_SORT);
+        return productService.scrollByPredicate(predicate, position, CONNECTION_SORT,
+                KeysetSort.limit(subrange.count().orElse(KeysetSort.DEFAULT_LIMIT)));
+    }
+
     // ==================== Specialized Filter Queries ====================
 
     @QueryMapping
@@ -1,7 +1,22 @@
 package com.smart_ecomernce_api.smart_ecomernce_api.modules.admin;
 
+import com.smart_ecomernce_api.smart_ecomernce_api.aspect.ConflictRetryAspect;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.outbox.OutboxDispatcher;
 import com.smart_ecomernce_api.smart_ecomernce_api.common.response.ApiResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.config.CacheStatisticsService;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CacheRefresher;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CacheTagIndex;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CacheTagInvalidator;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CacheTags;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CacheWarmupService;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CacheWarmupStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.SingleFlightLoader;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.queue.CheckoutWaitingRoom;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.reservation.ReservationExpiryJob;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.stats.OrderStatistics;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.inventory.HotStockService;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.search.ProductFacetEngine;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.search.ProductSearchEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.CacheManager;
@@ -9,6 +24,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -23,6 +39,18 @@ public class PerformanceController {
 
     private final CacheManager cacheManager;
     private final CacheStatisticsService cacheStatisticsService;
+    private final CacheTagInvalidator cacheTagInvalidator;
+    private final CacheWarmupService cacheWarmupService;
+    private final CacheRefresher cacheRefresher;
+    private final SingleFlightLoader singleFlightLoader;
+    private final ProductSearchEngine productSearchEngine;
+    private final ProductFacetEngine productFacetEngine;
+    private final HotStockService hotStockService;
+    private final CheckoutWaitingRoom checkoutWaitingRoom;
+    private final ReservationExpiryJob reservationExpiryJob;
+    private final ConflictRetryAspect conflictRetryAspect;
+    private final OrderStatistics orderStatistics;
+    private final OutboxDispatcher outboxDispatcher;
 
     @GetMapping("/metrics")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getPerformanceMetrics() {
@@ -104,20 +132,194 @@ public class PerformanceController {
         }
     }
 
+    /**
+     * Evicts every cached entry tagged with the given entity, across all caches,
+     * e.g. {@code POST /v1/performance/cache/evict/product/42}.
+     */
+    @PostMapping("/cache/evict/{entity}/{id}")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> evictByEntity(
+            @PathVariable String entity, @PathVariable String id) {
+        try {
+            String tag = CacheTags.of(entity, id);
+            int evicted = cacheTagInvalidator.evictNow(List.of(tag));
+            log.info("Evicted {} cache entries tagged {}", evicted, tag);
+            return ResponseEntity.ok(ApiResponse.<Map<String, Object>>builder()
+                    .success(true).data(Map.of("tag", tag, "evicted_entries", evicted))
+                    .message("Evicted " + evicted + " entries tagged '" + tag + "'").build());
+        } catch (Exception e) {
+            log.error("Error evicting cache entries for {}:{}: {}", entity, id, e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(ApiResponse.<Map<String, Object>>builder()
+                    .success(false).message("Failed to evict cache entries: " + e.getMessage()).build());
+        }
+    }
+
+    @GetMapping("/cache/tags")
+    public ResponseEntity<ApiResponse<CacheTagIndex.Stats>> getCacheTagStats() {
+        try {
+            return ResponseEntity.ok(ApiResponse.<CacheTagIndex.Stats>builder()
+                    .success(true).data(cacheTagInvalidator.stats()).build());
+        } catch (Exception e) {
+            log.error("Error retrieving cache tag stats: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(ApiResponse.<CacheTagIndex.Stats>builder()
+                    .success(false).message("Failed to retrieve cache tag stats: " + e.getMessage()).build());
+        }
+    }
+
+    /** Background refresh counts and latency of the refresh-ahead caches. */
+    @GetMapping("/cache/refresh")
+    public ResponseEntity<ApiResponse<Map<String, CacheRefresher.Stats>>> getCacheRefreshStats() {
+        try {
+            return ResponseEntity.ok(ApiResponse.<Map<String, CacheRefresher.Stats>>builder()
+                    .success(true).data(cacheRefresher.stats()).build());
+        } catch (Exception e) {
+            log.error("Error retrieving cache refresh stats: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(ApiResponse.<Map<String, CacheRefresher.Stats>>builder()
+                    .success(false).message("Failed to retrieve cache refresh stats: " + e.getMessage()).build());
+        }
+    }
+
+    /** Cache-miss loads run vs. collapsed onto a concurrent load of the same key. */
+    @GetMapping("/cache/single-flight")
+    public ResponseEntity<ApiResponse<Map<String, SingleFlightLoader.Stats>>> getSingleFlightStats() {
+        try {
+            return ResponseEntity.ok(ApiResponse.<Map<String, SingleFlightLoader.Stats>>builder()
+                    .success(true).data(singleFlightLoader.stats()).build());
+        } catch (Exception e) {
+            log.error("Error retrieving single-flight stats: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(ApiResponse.<Map<String, SingleFlightLoader.Stats>>builder()
+                    .success(false).message("Failed to retrieve single-flight stats: " + e.getMessage()).build());
+        }
+    }
+
     @PostMapping("/cache/warmup")
-    public ResponseEntity<ApiResponse<String>> warmupCaches() {
+    public ResponseEntity<ApiResponse<CacheWarmupStatus>> warmupCaches() {
         try {
             log.info("Starting cache warmup process");
-            // Warmup logic implemented as needed
-            return ResponseEntity.ok(ApiResponse.<String>builder()
-                    .success(true).message("Cache warmup process initiated").build());
+            CacheWarmupStatus status = cacheWarmupService.start();
+            return ResponseEntity.ok(ApiResponse.<CacheWarmupStatus>builder()
+                    .success(true).data(status)
+                    .message("Cache warmup process initiated").build());
         } catch (Exception e) {
             log.error("Error during cache warmup: {}", e.getMessage(), e);
-            return ResponseEntity.internalServerError().body(ApiResponse.<String>builder()
+            return ResponseEntity.internalServerError().body(ApiResponse.<CacheWarmupStatus>builder()
                     .success(false).message("Failed to warmup caches: " + e.getMessage()).build());
         }
     }
 
+    @GetMapping("/cache/warmup")
+    public ResponseEntity<ApiResponse<CacheWarmupStatus>> getWarmupStatus() {
+        return ResponseEntity.ok(ApiResponse.<CacheWarmupStatus>builder()
+                .success(true).data(cacheWarmupService.status()).build());
+    }
+
+    @GetMapping("/search-index")
+    public ResponseEntity<ApiResponse<ProductSearchEngine.Status>> getSearchIndexStatus() {
+        return ResponseEntity.ok(ApiResponse.<ProductSearchEngine.Status>builder()
+                .success(true).data(productSearchEngine.status()).build());
+    }
+
+    @PostMapping("/search-index/rebuild")
+    public ResponseEntity<ApiResponse<ProductSearchEngine.Status>> rebuildSearchIndex() {
+        try {
+            log.info("Rebuilding product search index");
+            productSearchEngine.rebuild();
+            return ResponseEntity.ok(ApiResponse.<ProductSearchEngine.Status>builder()
+                    .success(true).data(productSearchEngine.status())
+                    .message("Product search index rebuild initiated").build());
+        } catch (Exception e) {
+            log.error("Error rebuilding product search index: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(ApiResponse.<ProductSearchEngine.Status>builder()
+                    .success(false).message("Failed to rebuild product search index: " + e.getMessage()).build());
+        }
+    }
+
+    @GetMapping("/facet-index")
+    public ResponseEntity<ApiResponse<ProductFacetEngine.Status>> getFacetIndexStatus() {
+        return ResponseEntity.ok(ApiResponse.<ProductFacetEngine.Status>builder()
+                .success(true).data(productFacetEngine.status()).build());
+    }
+
+    @PostMapping("/facet-index/rebuild")
+    public ResponseEntity<ApiResponse<ProductFacetEngine.Status>> rebuildFacetIndex() {
+        try {
+            log.info("Rebuilding product facet index");
+            productFacetEngine.rebuild();
+            return ResponseEntity.ok(ApiResponse.<ProductFacetEngine.Status>builder()
+                    .success(true).data(productFacetEngine.status())
+                    .message("Product facet index rebuild initiated").build());
+        } catch (Exception e) {
+            log.error("Error rebuilding product facet index: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(ApiResponse.<ProductFacetEngine.Status>builder()
+                    .success(false).message("Failed to rebuild product facet index: " + e.getMessage()).build());
+        }
+    }
+
+    @GetMapping("/hot-stock")
+    public ResponseEntity<ApiResponse<HotStockService.Status>> getHotStockStatus() {
+        return ResponseEntity.ok(ApiResponse.<HotStockService.Status>builder()
+                .success(true).data(hotStockService.status()).build());
+    }
+
+    @GetMapping("/checkout-queue")
+    public ResponseEntity<ApiResponse<CheckoutWaitingRoom.Status>> getCheckoutQueueStatus() {
+        return ResponseEntity.ok(ApiResponse.<CheckoutWaitingRoom.Status>builder()
+                .success(true).data(checkoutWaitingRoom.status()).build());
+    }
+
+    @GetMapping("/order-reservations")
+    public ResponseEntity<ApiResponse<ReservationExpiryJob.Status>> getOrderReservationStatus() {
+        return ResponseEntity.ok(ApiResponse.<ReservationExpiryJob.Status>builder()
+                .success(true).data(reservationExpiryJob.status()).build());
+    }
+
+    /** Optimistic-lock conflicts, retries and given-up calls per service method. */
+    @GetMapping("/conflicts")
+    public ResponseEntity<ApiResponse<Map<String, ConflictRetryAspect.Stats>>> getConflictStats() {
+        return ResponseEntity.ok(ApiResponse.<Map<String, ConflictRetryAspect.Stats>>builder()
+                .success(true).data(conflictRetryAspect.stats()).build());
+    }
+
+    /** When the in-memory order statistics were last reconciled, and the drift found. */
+    @GetMapping("/order-stats")
+    public ResponseEntity<ApiResponse<OrderStatistics.Status>> getOrderStatsStatus() {
+        return ResponseEntity.ok(ApiResponse.<OrderStatistics.Status>builder()
+                .success(true).data(orderStatistics.status()).build());
+    }
+
+    /** Reconciles the in-memory order statistics with the database now. */
+    @PostMapping("/order-stats/reconcile")
+    public ResponseEntity<ApiResponse<OrderStatistics.Status>> reconcileOrderStats() {
+        orderStatistics.reconcile();
+        return ResponseEntity.ok(ApiResponse.<OrderStatistics.Status>builder()
+                .success(true).data(orderStatistics.status())
+                .message("Order statistics reconciled").build());
+    }
+
+    /** Outbox backlog, dead events and delivery lag. */
+    @GetMapping("/outbox")
+    public ResponseEntity<ApiResponse<OutboxDispatcher.Status>> getOutboxStatus() {
+        return ResponseEntity.ok(ApiResponse.<OutboxDispatcher.Status>builder()
+                .success(true).data(outboxDispatcher.status()).build());
+    }
+
+    /**
+     * Delivers outbox events in {@code [fromId, toId]} to the subscribers again,
+     * optionally only one aggregate or event type. Reaches back as far as
+     * {@code outbox.retention-hours}.
+     */
+    @PostMapping("/outbox/replay")
+    public ResponseEntity<ApiResponse<Integer>> replayOutbox(
+            @RequestParam long fromId,
+            @RequestParam(defaultValue = "" + Long.MAX_VALUE) long toId,
+            @RequestParam(required = false) String aggregateType,
+            @RequestParam(required = false) String aggregateId,
+            @RequestParam(required = false) String eventType) {
+        int requeued = outboxDispatcher.replay(fromId, toId, aggregateType, aggregateId, eventType);
+        return ResponseEntity.ok(ApiResponse.<Integer>builder()
+                .success(true).data(requeued)
+                .message(requeued + " outbox events queued for delivery").build());
+    }
+
     @GetMapping("/database")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getDatabaseMetrics() {
         try {
@@ -9,9 +9,7 @@ import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.Pr
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,7 +26,7 @@ public class AdminServiceImpl implements AdminService {
     private final ProductRepository productRepository;
 
     @Override
-    @Cacheable(value = "admin-dashboard", key = "'stats'")
+    @Cacheable(value = "admin-dashboard", key = "'stats'", sync = true)
     public AdminDashboardDto getDashboardStats() {
         log.info("Calculating dashboard statistics");
 
@@ -49,13 +47,4 @@ public class AdminServiceImpl implements AdminService {
         BigDecimal revenue = orderRepository.calculateTotalRevenue();
         return revenue != null ? revenue : BigDecimal.ZERO;
     }
-
-    /**
-     * Periodically evict the dashboard cache so stats stay reasonably fresh (every 5 minutes).
-     */
-    @CacheEvict(value = "admin-dashboard", allEntries = true)
-    @Scheduled(fixedRate = 300_000)
-    public void clearDashboardCache() {
-        log.debug("Clearing admin dashboard cache");
-    }
 }
\ No newline at end of file
@@ -42,10 +42,12 @@ public class SecurityStatsController {
 
         Map<String, Object> stats = Map.of(
                 "tokenBlacklist", Map.of(
-                        "currentSize",      blacklistStats.currentSize(),
-                        "hitRate",          formatPercent(blacklistStats.hitRate()),
-                        "missRate",         formatPercent(blacklistStats.missRate()),
-                        "expiryCacheSize",  blacklistStats.expiryCacheSize()
+                        "currentSize",           blacklistStats.currentSize(),
+                        "hitRate",               formatPercent(blacklistStats.hitRate()),
+                        "missRate",              formatPercent(blacklistStats.missRate()),
+                        "bloomFilterRejections", blacklistStats.bloomFilterRejections(),
+                        "bloomFilterBytes",      blacklistStats.bloomFilterBytes(),
+                        "persistedRevocations",  blacklistStats.persistedRevocations()
                 ),
                 "securityEvents", Map.of(
                         "failedAttemptsCount",   securityStats.currentFailedAttemptsCount(),
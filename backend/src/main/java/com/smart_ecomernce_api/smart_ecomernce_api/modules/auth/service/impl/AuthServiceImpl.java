@@ -5,6 +5,7 @@ import com.smart_ecomernce_api.smart_ecomernce_api.exception.BadCredentialsExcep
 import com.smart_ecomernce_api.smart_ecomernce_api.exception.DuplicateResourceException;
 import com.smart_ecomernce_api.smart_ecomernce_api.exception.InvalidTokenException;
 import com.smart_ecomernce_api.smart_ecomernce_api.exception.ResourceNotFoundException;
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.ServiceBusyException;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.auth.dto.AuthResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.auth.dto.LoginRequest;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.auth.dto.RefreshTokenRequest;
@@ -17,8 +18,10 @@ import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.entity.Role;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.entity.User;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.repository.UserRepository;
 import com.smart_ecomernce_api.smart_ecomernce_api.security.JwtTokenProvider;
+import com.smart_ecomernce_api.smart_ecomernce_api.security.PrincipalCache;
 import com.smart_ecomernce_api.smart_ecomernce_api.security.SecurityEventService;
 import com.smart_ecomernce_api.smart_ecomernce_api.security.TokenBlacklistService;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -43,6 +46,7 @@ public class AuthServiceImpl implements AuthService {
     private final AuthMapper authMapper;
     private final TokenBlacklistService tokenBlacklistService;
     private final SecurityEventService securityEventService;
+    private final PrincipalCache principalCache;
 
     @Value("${jwt.refresh-token.expiration:604800000}")
     private Long refreshTokenExpiration;
@@ -50,6 +54,14 @@ public class AuthServiceImpl implements AuthService {
     @Value("${jwt.access-token.expiration:3600000}")
     private Long accessTokenExpiration;
 
+    /** Checked against when the email is unknown, so that login hashes either way. */
+    private String dummyPasswordHash;
+
+    @PostConstruct
+    void initDummyPasswordHash() {
+        dummyPasswordHash = passwordEncoder.encode(UUID.randomUUID().toString());
+    }
+
     // ── Register ─────────────────────────────────────────────────────────────
 
     @Override
@@ -97,8 +109,11 @@ public class AuthServiceImpl implements AuthService {
         // timing-based user enumeration attacks (never short-circuit before checking password).
         User user = userRepository.findByEmail(request.getEmail()).orElse(null);
 
-        boolean credentialsValid = user != null
-                && passwordEncoder.matches(request.getPassword(), user.getPassword());
+        // An unknown email costs the same hash (and meets the same ServiceBusyException when
+        // hashing is saturated) as a known one.
+        boolean passwordMatches = passwordEncoder.matches(request.getPassword(),
+                user != null ? user.getPassword() : dummyPasswordHash);
+        boolean credentialsValid = user != null && passwordMatches;
 
         if (!credentialsValid) {
             // Record failure regardless of whether the user exists
@@ -118,6 +133,8 @@ public class AuthServiceImpl implements AuthService {
             throw new AccountLockedException("Account is locked. Please contact support.");
         }
 
+        upgradePasswordHash(user, request.getPassword());
+
         securityEventService.recordLoginSuccess(user.getEmail(), ip);
         log.info("User authenticated successfully: {}", user.getEmail());
         return createAuthSession(user, httpRequest);
@@ -193,7 +210,7 @@ public class AuthServiceImpl implements AuthService {
                 if (StringUtils.hasText(accessToken)) {
                     long remaining = jwtTokenProvider.getTokenRemainingTime(accessToken);
                     if (remaining > 0) {
-                        tokenBlacklistService.blacklistToken(accessToken, remaining);
+                        tokenBlacklistService.blacklistToken(accessToken, System.currentTimeMillis() + remaining);
                     }
                     Long tokenUserId = jwtTokenProvider.getUserIdFromToken(accessToken);
                     securityEventService.recordTokenRevoked("user_" + tokenUserId, "User logout");
@@ -251,6 +268,7 @@ public class AuthServiceImpl implements AuthService {
         user.setPassword(passwordEncoder.encode(newPassword));
         user.setLastPasswordChange(LocalDateTime.now());
         userRepository.save(user);
+        principalCache.evict(userId);
 
         // Revoke ALL active sessions so the user must re-authenticate everywhere.
         // This is the secure default — a password change is a security event.
@@ -261,6 +279,24 @@ public class AuthServiceImpl implements AuthService {
         log.info("Password changed and all sessions revoked for user ID: {}", userId);
     }
 
+    /**
+     * Re-hashes a password stored at a lower cost than the current one while
+     * the raw password is at hand. Skipped when hashing is saturated; the
+     * next login tries again. Not a password change, so sessions stay valid.
+     */
+    private void upgradePasswordHash(User user, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(user.getPassword())) {
+            return;
+        }
+        try {
+            user.setPassword(passwordEncoder.encode(rawPassword));
+            userRepository.save(user);
+            log.debug("Upgraded password hash for user ID: {}", user.getId());
+        } catch (ServiceBusyException e) {
+            log.debug("Password hash upgrade for user ID {} deferred: {}", user.getId(), e.getMessage());
+        }
+    }
+
     // ── Account Lock / Unlock ─────────────────────────────────────────────────
 
     @Override
@@ -274,6 +310,7 @@ public class AuthServiceImpl implements AuthService {
         user.setIsLocked(true);
         // Do NOT update lastPasswordChange here — it has nothing to do with locking
         userRepository.save(user);
+        principalCache.evict(userId);
 
         // Terminate all active sessions and tokens immediately
         authRepository.invalidateAllUserSessions(userId, LocalDateTime.now());
@@ -293,6 +330,7 @@ public class AuthServiceImpl implements AuthService {
 
         user.setIsLocked(false);
         userRepository.save(user);
+        principalCache.evict(userId);
 
         securityEventService.recordAccountUnlocked(user.getEmail(), "admin");
         log.info("Account unlocked for user ID: {}", userId);
@@ -5,6 +5,7 @@ import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.Produc
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.util.HashSet;
@@ -34,6 +35,15 @@ public class Cart extends BaseEntity {
     @Builder.Default
     private CartStatus status = CartStatus.ACTIVE;
 
+    /**
+     * Optimistic-lock version of the cart and its items: item changes go
+     * through {@code CartRepository.findByIdWithItemsForUpdate}, which bumps it.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
     /**
      * Cart items
      */
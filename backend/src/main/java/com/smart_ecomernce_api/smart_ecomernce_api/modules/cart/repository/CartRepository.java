@@ -3,6 +3,8 @@ package com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.repository;
 import com.smart_ecomernce_api.smart_ecomernce_api.common.base.BaseRepository;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.entity.Cart;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.entity.CartStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -20,6 +22,15 @@ public interface CartRepository extends BaseRepository<Cart, Long> {
     @Query("SELECT c FROM Cart c LEFT JOIN FETCH c.items WHERE c.id = :id")
     Optional<Cart> findByIdWithItems(@Param("id") Long id);
 
+    /**
+     * As {@link #findByIdWithItems}, and bumps the cart's version on commit,
+     * so concurrent changes to its items conflict even when the cart row
+     * itself is untouched.
+     */
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT c FROM Cart c LEFT JOIN FETCH c.items WHERE c.id = :id")
+    Optional<Cart> findByIdWithItemsForUpdate(@Param("id") Long id);
+
     @Query("SELECT c FROM Cart c WHERE c.createdAt < :cutoffDate AND SIZE(c.items) > 0")
     List<Cart> findAbandonedCartsBefore(@Param("cutoffDate") LocalDateTime cutoffDate);
 
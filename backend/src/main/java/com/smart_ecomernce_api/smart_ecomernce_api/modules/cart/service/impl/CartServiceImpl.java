@@ -1,5 +1,6 @@
 package com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.service.impl;
 
+import com.smart_ecomernce_api.smart_ecomernce_api.common.retry.RetryOnConflict;
 import com.smart_ecomernce_api.smart_ecomernce_api.exception.CartNotFoundException;
 import com.smart_ecomernce_api.smart_ecomernce_api.exception.InsufficientStockException;
 import com.smart_ecomernce_api.smart_ecomernce_api.exception.ResourceNotFoundException;
@@ -32,6 +33,7 @@ import java.util.Optional;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@RetryOnConflict
 public class CartServiceImpl implements CartService {
 
     private final CartRepository cartRepository;
@@ -78,7 +80,7 @@ public class CartServiceImpl implements CartService {
         Long userId = getCurrentUserId();
 
         log.info("Adding product {} to cart {}", request.getProductId(), cartId);
-        Cart cart = cartRepository.findByIdWithItems(cartId)
+        Cart cart = cartRepository.findByIdWithItemsForUpdate(cartId)
                 .orElseThrow(() -> new CartNotFoundException(cartId));
         if (!cart.getUserId().equals(userId)) {
             throw new CartNotFoundException("Cart not found for user");
@@ -98,12 +100,13 @@ public class CartServiceImpl implements CartService {
     @Override
     @Transactional
     @CacheEvict(value = "carts", key = "#cartId")
+    @RetryOnConflict(maxAttempts = 1)
     public CartItemDto updateItemQuantity(Long cartId, Long productId, UpdateCartItemRequest request) {
         Long userId = getCurrentUserId();
 
         Integer quantity = request.getQuantity();
         log.info("Updating cart {} item {} quantity to {}", cartId, productId, quantity);
-        Cart cart = cartRepository.findByIdWithItems(cartId)
+        Cart cart = cartRepository.findByIdWithItemsForUpdate(cartId)
                 .orElseThrow(() -> new CartNotFoundException(cartId));
         if (!cart.getUserId().equals(userId)) {
             throw new CartNotFoundException("Cart not found for user");
@@ -135,7 +138,7 @@ public class CartServiceImpl implements CartService {
         Long userId = getCurrentUserId();
 
         log.info("Removing product {} from cart {}", productId, cartId);
-        Cart cart = cartRepository.findByIdWithItems(cartId)
+        Cart cart = cartRepository.findByIdWithItemsForUpdate(cartId)
                 .orElseThrow(() -> new CartNotFoundException(cartId));
         if (!cart.getUserId().equals(userId)) {
             throw new CartNotFoundException("Cart not found for user");
@@ -151,7 +154,7 @@ public class CartServiceImpl implements CartService {
     public void clearCart(Long cartId) {
         Long userId = getCurrentUserId();
         log.info("Clearing cart: {}", cartId);
-        Cart cart = cartRepository.findByIdWithItems(cartId)
+        Cart cart = cartRepository.findByIdWithItemsForUpdate(cartId)
                 .orElseThrow(() -> new CartNotFoundException(cartId));
         if (!cart.getUserId().equals(userId)) {
             throw new CartNotFoundException("Cart not found for user");
@@ -173,7 +173,7 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
-    @Cacheable(value = "categories-list", key = "'all_active_categories'")
+    @Cacheable(value = "categories-list", key = "'all_active_categories'", sync = true)
     public List<CategoryResponse> getAllActiveCategories() {
         log.debug("Fetching all active categories");
 
@@ -188,7 +188,7 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
-    @Cacheable(value = "categories-list", key = "'all_featured_categories'")
+    @Cacheable(value = "categories-list", key = "'all_featured_categories'", sync = true)
     public List<CategoryResponse> getAllFeaturedCategories() {
         log.debug("Fetching all featured categories");
 
@@ -361,7 +361,7 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
-    @Cacheable(value = "categories-list", key = "'by_ids:' + T(org.springframework.util.DigestUtils).md5DigestAsHex(#ids.toString().getBytes())")
+    @Cacheable(value = "categories-list", key = "'by_ids:' + T(org.springframework.util.DigestUtils).md5DigestAsHex(#ids.toString().getBytes())", sync = true)
     public List<CategoryResponse> getCategoriesByIds(List<Long> ids) {
         log.debug("Fetching categories by IDs: {}", ids);
 
@@ -376,7 +376,7 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
-    @Cacheable(value = "categories-list", key = "'by_slugs:' + T(org.springframework.util.DigestUtils).md5DigestAsHex(#slugs.toString().getBytes())")
+    @Cacheable(value = "categories-list", key = "'by_slugs:' + T(org.springframework.util.DigestUtils).md5DigestAsHex(#slugs.toString().getBytes())", sync = true)
     public List<CategoryResponse> getCategoriesBySlugs(List<String> slugs) {
         log.debug("Fetching categories by slugs: {}", slugs);
 
@@ -1,13 +1,22 @@
 package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.controller;
 
+import com.querydsl.core.types.Predicate;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.idempotency.IdempotencyStore;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.pagination.CursorCodec;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.pagination.KeysetSort;
 import com.smart_ecomernce_api.smart_ecomernce_api.common.response.ApiResponse;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.response.CursorPage;
 import com.smart_ecomernce_api.smart_ecomernce_api.common.response.PaginatedResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.CartOrderRequest;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.OrderResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.OrderStatsResponse;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.OrderSummaryResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.OrderUpdateRequest;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.QueueTicketResponse;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderPredicates;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderStatus;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.PaymentStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.queue.CheckoutWaitingRoom;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -18,6 +27,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -26,6 +36,9 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("v1/orders")
@@ -34,20 +47,50 @@ import java.time.LocalDateTime;
 @Tag(name = "Orders", description = "Order management endpoints")
 public class OrderController {
 
+    private static final KeysetSort SCROLL_SORT = KeysetSort.of("createdAt", "totalAmount");
+    private static final KeysetSort SUMMARY_SORT = KeysetSort.of("createdAt");
+    private static final String QUEUE_TOKEN_HEADER = "X-Queue-Token";
+
     private final OrderService orderService;
+    private final CursorCodec cursorCodec;
+    private final CheckoutWaitingRoom waitingRoom;
+    private final IdempotencyStore idempotencyStore;
 
     @PostMapping("/from-cart/{cartId}")
     @PreAuthorize("isAuthenticated()")
     @Operation(summary = "Create order from cart (checkout)")
-    public ResponseEntity<ApiResponse<OrderResponse>> createOrderFromCart(
+    public ResponseEntity<ApiResponse<?>> createOrderFromCart(
             @PathVariable Long cartId,
             @RequestBody(required = false) CartOrderRequest request,
+            @RequestHeader(value = QUEUE_TOKEN_HEADER, required = false) String queueToken,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
             @AuthenticationPrincipal UserDetails userDetails) {
         Long userId = getCurrentUserId(userDetails);
-        log.info("POST /v1/orders/from-cart/{} — user={}", cartId, userId);
-        OrderResponse response = orderService.createOrderFromCart(cartId, userId, request);
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(ApiResponse.success("Order created from cart successfully", response));
+        List<Object> fingerprint = Arrays.asList(cartId, request);
+        // A replay of a finished checkout is answered without queueing again.
+        Optional<OrderResponse> replay = idempotencyStore.completed("createOrderFromCart", idempotencyKey, fingerprint);
+        if (replay.isPresent()) {
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .header(IdempotencyStore.REPLAYED_HEADER, "true")
+                    .body(ApiResponse.success("Order created from cart successfully", replay.get()));
+        }
+        try (CheckoutWaitingRoom.Admission admission = waitingRoom.enter(userId, queueToken)) {
+            if (!admission.admitted()) {
+                QueueTicketResponse ticket = admission.ticket();
+                log.debug("POST /v1/orders/from-cart/{} — user={} queued at {}", cartId, userId, ticket.getPosition());
+                return ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(ticket.getRetryAfterSeconds()))
+                        .header(QUEUE_TOKEN_HEADER, ticket.getToken())
+                        .body(ApiResponse.success("Checkout queued; retry with the queue token", ticket));
+            }
+            log.info("POST /v1/orders/from-cart/{} — user={}", cartId, userId);
+            IdempotencyStore.Outcome<OrderResponse> outcome = idempotencyStore.execute(
+                    "createOrderFromCart", idempotencyKey, fingerprint,
+                    () -> orderService.createOrderFromCart(cartId, userId, request));
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .header(IdempotencyStore.REPLAYED_HEADER, String.valueOf(outcome.replayed()))
+                    .body(ApiResponse.success("Order created from cart successfully", outcome.value()));
+        }
     }
 
     @GetMapping("/{id}")
@@ -85,6 +128,22 @@ public class OrderController {
         return ResponseEntity.ok(ApiResponse.success("Orders retrieved successfully", PaginatedResponse.from(orders)));
     }
 
+    @GetMapping("/my-orders/summaries")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Scroll current user's order history as summaries (one query per page, no total count)")
+    public ResponseEntity<ApiResponse<CursorPage<OrderSummaryResponse>>> getMyOrderSummaries(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction,
+            @RequestParam(required = false) OrderStatus status) {
+        Long userId = getCurrentUserId(userDetails);
+        Sort sort = SUMMARY_SORT.resolve("createdAt", direction);
+        return ResponseEntity.ok(ApiResponse.success("Orders retrieved successfully", cursorCodec.toPage(
+                orderService.scrollUserOrderSummaries(userId, status, cursorCodec.decode(cursor, sort), sort,
+                        KeysetSort.limit(limit)))));
+    }
+
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'STAFF')")
     @Operation(summary = "Get all orders (admin)")
@@ -102,15 +161,44 @@ public class OrderController {
         return ResponseEntity.ok(ApiResponse.success("All orders retrieved successfully", PaginatedResponse.from(orders)));
     }
 
+    @GetMapping("/scroll")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'STAFF')")
+    @Operation(summary = "Scroll all orders with a keyset cursor (admin, no total count)")
+    public ResponseEntity<ApiResponse<CursorPage<OrderResponse>>> scrollOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) PaymentStatus paymentStatus,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        Sort sort = SCROLL_SORT.resolve(sortBy, direction);
+        OrderPredicates builder = OrderPredicates.builder().withActive(true);
+        if (status != null) builder.withStatus(status);
+        if (paymentStatus != null) builder.withPaymentStatus(paymentStatus);
+        if (startDate != null) builder.withCreatedAfter(startDate);
+        if (endDate != null) builder.withCreatedBefore(endDate);
+        Predicate predicate = builder.build();
+        return ResponseEntity.ok(ApiResponse.success("Orders retrieved successfully", cursorCodec.toPage(
+                orderService.scrollOrders(predicate, cursorCodec.decode(cursor, sort), sort, KeysetSort.limit(limit)))));
+    }
+
     @PatchMapping("/{id}/status")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'STAFF')")
     @Operation(summary = "Update order status (admin/staff)")
     public ResponseEntity<ApiResponse<OrderResponse>> updateOrderStatus(
             @PathVariable Long id,
-            @RequestParam OrderStatus status) {
+            @RequestParam OrderStatus status,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
         OrderUpdateRequest request = new OrderUpdateRequest();
         request.setStatus(status);
-        return ResponseEntity.ok(ApiResponse.success("Order status updated", orderService.updateOrderStatus(id, request)));
+        IdempotencyStore.Outcome<OrderResponse> outcome = idempotencyStore.execute(
+                "updateOrderStatus", idempotencyKey, List.of(id, status),
+                () -> orderService.updateOrderStatus(id, request));
+        return ResponseEntity.ok()
+                .header(IdempotencyStore.REPLAYED_HEADER, String.valueOf(outcome.replayed()))
+                .body(ApiResponse.success("Order status updated", outcome.value()));
     }
 
     @PatchMapping("/{id}/payment")
@@ -118,8 +206,14 @@ public class OrderController {
     @Operation(summary = "Update payment status (admin/staff)")
     public ResponseEntity<ApiResponse<OrderResponse>> updatePaymentStatus(
             @PathVariable Long id,
-            @RequestParam PaymentStatus status) {
-        return ResponseEntity.ok(ApiResponse.success("Payment status updated", orderService.updatePaymentStatus(id, status.name())));
+            @RequestParam PaymentStatus status,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        IdempotencyStore.Outcome<OrderResponse> outcome = idempotencyStore.execute(
+                "updatePaymentStatus", idempotencyKey, List.of(id, status),
+                () -> orderService.updatePaymentStatus(id, status.name()));
+        return ResponseEntity.ok()
+                .header(IdempotencyStore.REPLAYED_HEADER, String.valueOf(outcome.replayed()))
+                .body(ApiResponse.success("Payment status updated", outcome.value()));
     }
 
     @DeleteMapping("/{id}")
@@ -1,6 +1,7 @@
 package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto;
 
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.PaymentStatus;
 import lombok.Data;
 
 import java.math.BigDecimal;
@@ -11,6 +12,10 @@ public class OrderSummaryResponse {
     private Long id;
     private String orderNumber;
     private OrderStatus status;
+    private PaymentStatus paymentStatus;
     private BigDecimal totalAmount;
+    private Integer itemCount;
+    private String firstItemName;
+    private String firstItemThumbnail;
     private LocalDateTime orderDate;
-}
\ No newline at end of file
+}
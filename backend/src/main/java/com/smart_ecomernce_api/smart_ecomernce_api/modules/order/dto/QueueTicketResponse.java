@@ -0,0 +1,21 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Returned instead of an order while checkout is queued. Retry the checkout
+ * with {@code token} in the {@code X-Queue-Token} header.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QueueTicketResponse {
+    private String token;
+    private long position;
+    private long estimatedWaitSeconds;
+    private long retryAfterSeconds;
+}
@@ -3,19 +3,21 @@ package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.smart_ecomernce_api.smart_ecomernce_api.common.base.BaseEntity;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.entity.Cart;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.number.OrderNumberGenerator;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.stats.OrderTally;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.entity.User;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 /**
  * Order Entity — represents a customer order created from a cart.
@@ -66,6 +68,12 @@ public class Order extends BaseEntity {
     @Builder.Default
     private OrderStatus status = OrderStatus.PENDING;
 
+    /** Optimistic-lock version; concurrent transitions of one order conflict instead of overwriting each other. */
+    @Version
+    @Column(name = "version", nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "order_date", nullable = false, updatable = false)
     private LocalDateTime orderDate;
@@ -164,11 +172,16 @@ public class Order extends BaseEntity {
     @Column(name = "customer_notes", columnDefinition = "TEXT")
     private String customerNotes;
 
+    /** What this order last contributed to the order statistics; set on load, not persisted. */
+    @JsonIgnore
+    @Transient
+    private OrderTally tally;
+
     // ========================================================================
     // FACTORY METHOD
     // ========================================================================
 
-    public static Order fromCart(Cart cart, User customer) {
+    public static Order fromCart(Cart cart, User customer, OrderNumberGenerator orderNumbers) {
         if (cart == null)     throw new IllegalArgumentException("Cart cannot be null");
         if (cart.isEmpty())   throw new IllegalStateException("Cannot create order from empty cart");
         if (customer == null) throw new IllegalArgumentException("Customer cannot be null");
@@ -179,7 +192,7 @@ public class Order extends BaseEntity {
                 .customerName(customer.getFullName())
                 .status(OrderStatus.PENDING)
                 .paymentStatus(PaymentStatus.PENDING)
-                .orderNumber(generateOrderNumber())
+                .orderNumber(orderNumbers.next())
                 .build();
 
         cart.getItems().forEach(cartItem -> {
@@ -201,13 +214,6 @@ public class Order extends BaseEntity {
         return order;
     }
 
-    /** Format: ORD-YYYYMMDD-XXXXXX */
-    private static String generateOrderNumber() {
-        String date   = java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd").format(LocalDateTime.now());
-        String random = String.format("%06d", new Random().nextInt(999999));
-        return "ORD-" + date + "-" + random;
-    }
-
     // ========================================================================
     // BUSINESS LOGIC
     // ========================================================================
@@ -394,7 +400,7 @@ public class Order extends BaseEntity {
     protected void onCreate() {
         super.onCreate();
         if (orderNumber == null || orderNumber.isEmpty()) {
-            orderNumber = generateOrderNumber();
+            throw new IllegalStateException("Order number must be assigned before the order is saved");
         }
         calculateTotals();
     }
@@ -403,4 +409,9 @@ public class Order extends BaseEntity {
     protected void onUpdate() {
         calculateTotals();
     }
+
+    @PostLoad
+    protected void onLoad() {
+        tally = OrderTally.of(this);
+    }
 }
\ No newline at end of file
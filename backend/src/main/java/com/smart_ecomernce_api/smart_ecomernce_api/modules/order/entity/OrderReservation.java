@@ -0,0 +1,33 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock held by a PENDING order until it is confirmed, cancelled or
+ * {@code expiresAt} passes. Rows are the durable copy of the in-memory
+ * expiry wheel and are loaded back into it on startup.
+ */
+@Entity
+@Table(name = "order_reservations")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderReservation {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
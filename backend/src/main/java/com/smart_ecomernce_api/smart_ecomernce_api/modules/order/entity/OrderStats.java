@@ -6,6 +6,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
 
 @Data
 @NoArgsConstructor
@@ -18,8 +20,27 @@ public class OrderStats {
     private Long shippedOrders;
     private Long deliveredOrders;
     private Long cancelledOrders;
+    private Long refundedOrders;
+    /** Amount collected from paid orders, net of refunds. */
     private BigDecimal totalRevenue;
     private BigDecimal monthlyRevenue;
+    /** Average total of the orders that were paid. */
     private BigDecimal averageOrderValue;
-}
+    private BigDecimal totalRefunds;
+    private Map<OrderStatus, Totals> byStatus;
+    private Map<PaymentStatus, Totals> byPaymentStatus;
+    /** When the figures were last checked against the database. */
+    private LocalDateTime reconciledAt;
 
+    /** Count and amounts of the orders in one status. */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Totals {
+        private Long count;
+        private BigDecimal amount;
+        private BigDecimal refunded;
+        private BigDecimal averageOrderValue;
+    }
+}
@@ -0,0 +1,71 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read model of an order for order-history listings: one flat row per order,
+ * written in the same transaction as the order itself, so a page of history
+ * is one indexed query with no joins to items or products.
+ */
+@Entity
+@Table(name = "order_summaries", indexes = {
+        @Index(name = "idx_order_summary_user_created", columnList = "user_id, created_at, order_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSummary {
+
+    /** The order's id; named {@code id} so keyset cursors use the same tie-breaker as orders. */
+    @Id
+    @Column(name = "order_id")
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "order_number", nullable = false, length = 50)
+    private String orderNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 30)
+    private OrderStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_status", nullable = false, length = 30)
+    private PaymentStatus paymentStatus;
+
+    @Column(name = "total_amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "item_count", nullable = false)
+    private Integer itemCount;
+
+    @Column(name = "first_item_name", length = 255)
+    private String firstItemName;
+
+    @Column(name = "first_item_thumbnail", length = 500)
+    private String firstItemThumbnail;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,30 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.event;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.Order;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Outbox payload of an order lifecycle event. Subscribers that need the
+ * items load them by {@code orderId}.
+ */
+public record OrderEvent(Long orderId, String orderNumber, Long userId, OrderStatus status,
+                         OrderStatus previousStatus, PaymentStatus paymentStatus, BigDecimal totalAmount,
+                         LocalDateTime occurredAt) {
+
+    public static final String AGGREGATE = "Order";
+
+    public static final String CREATED = "ORDER_CREATED";
+    public static final String STATUS_CHANGED = "ORDER_STATUS_CHANGED";
+    public static final String PAYMENT_STATUS_CHANGED = "ORDER_PAYMENT_STATUS_CHANGED";
+    public static final String UPDATED = "ORDER_UPDATED";
+    public static final String DELETED = "ORDER_DELETED";
+
+    public static OrderEvent of(Order order, OrderStatus previousStatus) {
+        return new OrderEvent(order.getId(), order.getOrderNumber(), order.getUser().getId(), order.getStatus(),
+                previousStatus, order.getPaymentStatus(), order.getTotalAmount(), LocalDateTime.now());
+    }
+}
@@ -4,16 +4,15 @@ import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.*;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.Order;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderItem;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderStats;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderSummary;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.number.OrderNumberGenerator;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.Product;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.entity.User;
 import org.mapstruct.*;
 import org.springframework.data.domain.Page;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Random;
 
 @Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
 public interface OrderMapper {
@@ -33,6 +32,13 @@ public interface OrderMapper {
         return orderPage.map(this::toResponse);
     }
 
+    // =========================================================================
+    // OrderSummary read model → DTO
+    // =========================================================================
+
+    @Mapping(target = "orderDate", source = "createdAt")
+    OrderSummaryResponse toSummaryResponse(OrderSummary summary);
+
     // =========================================================================
     // OrderItem Entity → DTO
     // =========================================================================
@@ -68,7 +74,7 @@ public interface OrderMapper {
      * {@code calculateItemTotal} uses it directly without touching the stub product.
      */
     @Mapping(target = "id",           ignore = true)
-    @Mapping(target = "orderNumber",  expression = "java(generateOrderNumber())")
+    @Mapping(target = "orderNumber",  ignore = true)
     @Mapping(target = "user",         source = "user")
     @Mapping(target = "status",       constant = "PENDING")
     @Mapping(target = "paymentStatus", constant = "PENDING")
@@ -79,9 +85,10 @@ public interface OrderMapper {
     // the Order.orderItems field declaration and avoiding silent item-collapsing.
     @Mapping(target = "orderItems",   expression = "java(mapItems(request.getItems(), user))")
     @Mapping(target = "isActive",     ignore = true)
+    @Mapping(target = "version",      ignore = true)
     @Mapping(target = "createdAt",    ignore = true)
     @Mapping(target = "updatedAt",    ignore = true)
-    Order toEntity(OrderCreateRequest request, User user);
+    Order toEntity(OrderCreateRequest request, User user, @Context OrderNumberGenerator orderNumbers);
 
     /**
      * Maps item create-requests to {@link OrderItem} entities.
@@ -155,6 +162,7 @@ public interface OrderMapper {
     @Mapping(target = "estimatedDeliveryDate", ignore = true)
     @Mapping(target = "customerNotes",         ignore = true)
     @Mapping(target = "isActive",              ignore = true)
+    @Mapping(target = "version",               ignore = true)
     @Mapping(target = "createdAt",             ignore = true)
     @Mapping(target = "updatedAt",             expression = "java(java.time.LocalDateTime.now())")
     void applyCustomerUpdate(@MappingTarget Order order, OrderUpdateRequest request);
@@ -207,6 +215,7 @@ public interface OrderMapper {
     @Mapping(target = "estimatedDeliveryDate", ignore = true)
     @Mapping(target = "customerNotes",         ignore = true)
     @Mapping(target = "isActive",              ignore = true)
+    @Mapping(target = "version",               ignore = true)
     @Mapping(target = "createdAt",             ignore = true)
     // trackingNumber, carrier, shippingAddress: intentionally NOT ignored → auto-mapped by MapStruct
     @Mapping(target = "updatedAt",             expression = "java(java.time.LocalDateTime.now())")
@@ -262,11 +271,11 @@ public interface OrderMapper {
         }
     }
 
-    /** Defensive fallback: ensures an order number is always set. */
+    /** Assigns the order number from the same generator the service path uses. */
     @AfterMapping
-    default void ensureOrderNumber(@MappingTarget Order order) {
+    default void assignOrderNumber(@MappingTarget Order order, @Context OrderNumberGenerator orderNumbers) {
         if (order.getOrderNumber() == null || order.getOrderNumber().isEmpty()) {
-            order.setOrderNumber(generateOrderNumber());
+            order.setOrderNumber(orderNumbers.next());
         }
     }
 
@@ -284,19 +293,4 @@ public interface OrderMapper {
         }
         return total.max(BigDecimal.ZERO);
     }
-
-    /**
-     * BUG FIX: format changed from {@code ORD-<millis>-<random3>} to
-     * {@code ORD-YYYYMMDD-XXXXXX}, matching {@code Order#generateOrderNumber()}.
-     *
-     * <p>Previously the mapper generated order numbers with a completely different
-     * format (timestamp-based) while the entity used a date-based format, so
-     * orders created through different paths were visually inconsistent and harder
-     * to reason about in logs and reports.
-     */
-    default String generateOrderNumber() {
-        String date   = DateTimeFormatter.ofPattern("yyyyMMdd").format(LocalDateTime.now());
-        String random = String.format("%06d", new Random().nextInt(999_999));
-        return "ORD-" + date + "-" + random;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.number;
+
+/**
+ * Source of unique order numbers. The default is
+ * {@link SnowflakeOrderNumberGenerator}; declare another bean of this type to
+ * replace it.
+ */
+@FunctionalInterface
+public interface OrderNumberGenerator {
+
+    /** A new order number, unique across threads and nodes. */
+    String next();
+}
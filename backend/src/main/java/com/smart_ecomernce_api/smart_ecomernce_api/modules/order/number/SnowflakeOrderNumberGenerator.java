@@ -0,0 +1,77 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.number;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake-style order numbers: a 63-bit id of 41 bits of milliseconds since
+ * 2024-01-01, a 10-bit node id and a 12-bit sequence, written as 13
+ * Crockford base-32 characters after a readable prefix, e.g.
+ * {@code ORD-0CJ4N8T2M000A}.
+ *
+ * <p>Ids are issued from a single {@link AtomicLong} holding the last
+ * timestamp and sequence, advanced with a compare-and-set: no lock, no
+ * database round trip, and one {@code char[]} and one {@code String} per
+ * number. When 4096 numbers are taken within one millisecond the sequence
+ * carries into the next millisecond, and a clock that steps backwards is
+ * ignored until it catches up, so ids from one generator only ever increase.
+ * Two nodes cannot collide as long as their node ids differ. Because the
+ * encoding is fixed-width and follows the alphabet's order, order numbers
+ * sort by creation time.
+ */
+public final class SnowflakeOrderNumberGenerator implements OrderNumberGenerator {
+
+    /** 2024-01-01T00:00:00Z. */
+    static final long EPOCH_MILLIS = 1_704_067_200_000L;
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int ID_CHARS = 13;
+
+    private final char[] prefix;
+    private final long node;
+    private final LongSupplier clock;
+    /** Last issued (milliseconds since the epoch, sequence), packed as {@code millis << SEQUENCE_BITS | sequence}. */
+    private final AtomicLong last = new AtomicLong();
+
+    public SnowflakeOrderNumberGenerator(String prefix, int nodeId) {
+        this(prefix, nodeId, System::currentTimeMillis);
+    }
+
+    SnowflakeOrderNumberGenerator(String prefix, int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Order number node id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.prefix = (prefix + "-").toCharArray();
+        this.node = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    @Override
+    public String next() {
+        long id = nextId();
+        char[] chars = new char[prefix.length + ID_CHARS];
+        System.arraycopy(prefix, 0, chars, 0, prefix.length);
+        for (int i = chars.length - 1; i >= prefix.length; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    /** The next raw id. */
+    long nextId() {
+        long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long previous;
+        long next;
+        do {
+            previous = last.get();
+            next = Math.max(previous + 1, now);
+        } while (!last.compareAndSet(previous, next));
+        long millis = next >>> SEQUENCE_BITS;
+        return millis << (NODE_BITS + SEQUENCE_BITS) | node | (next & SEQUENCE_MASK);
+    }
+}
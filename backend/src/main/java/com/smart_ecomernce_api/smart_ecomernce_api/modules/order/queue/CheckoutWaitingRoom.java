@@ -0,0 +1,332 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.queue;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.QueueTicketResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * FIFO admission queue in front of checkout, so a flash-sale burst cannot
+ * take every pooled connection and starve the rest of the API.
+ *
+ * <p>At most {@code max-in-flight} checkouts run (or hold an admission) at
+ * once. While nobody is waiting and a slot is free, a checkout goes straight
+ * through. Otherwise the user gets a queue token and an estimated position
+ * and retries with the token; tokens are admitted strictly in arrival order,
+ * at a rate derived from measured checkout time by Little's law
+ * ({@code max-in-flight / mean checkout seconds}), and never beyond the free
+ * slots. A token that stops polling is dropped after
+ * {@code abandon-after-seconds}; an admitted token that is not used within
+ * {@code admission-ttl-seconds} gives its slot back.
+ *
+ * <p>Meters: {@code checkout.queue.depth}, {@code checkout.queue.in-flight},
+ * {@code checkout.queue.admit-rate} (gauges), {@code checkout.queue.wait}
+ * (queue wait, with p50/p95/p99), {@code checkout.queue.service} (checkout
+ * time), {@code checkout.queue.admitted} and {@code checkout.queue.abandoned}.
+ */
+@Slf4j
+@Component
+public class CheckoutWaitingRoom {
+
+    /** Queue state for the performance endpoints. */
+    public record Status(boolean enabled, int depth, int inFlight, int maxInFlight, double admitRatePerSecond,
+                         double meanCheckoutMillis, Map<String, Double> waitPercentilesMillis,
+                         long admitted, long abandoned) {}
+
+    /** Weight of the latest checkout time in the running mean. */
+    private static final double SERVICE_TIME_WEIGHT = 0.1;
+    private static final int SWEEP_EVERY_TICKS = 10;
+
+    private final boolean enabled;
+    private final int maxInFlight;
+    private final double minRate;
+    private final double maxRate;
+    private final long tickMs;
+    private final long abandonAfterNanos;
+    private final long admissionTtlNanos;
+
+    private final ConcurrentSkipListMap<Long, Waiter> waiting = new ConcurrentSkipListMap<>();
+    private final Map<String, Waiter> byToken = new ConcurrentHashMap<>();
+    private final Map<Long, Waiter> byUser = new ConcurrentHashMap<>();
+    private final AtomicLong nextSeq = new AtomicLong();
+    /** Checkouts running plus admissions not yet claimed. */
+    private final AtomicInteger slotsUsed = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final MeterRegistry meters;
+    private final Timer waitTimer;
+    private final Timer serviceTimer;
+    private final Counter admittedCounter;
+    private final Counter abandonedCounter;
+
+    private final ScheduledExecutorService admitter =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("checkout-admitter").daemon().factory());
+
+    private volatile double meanServiceSeconds;
+    private volatile double admitRate;
+    /** Admissions owed by the rate but not yet granted; only touched on the admitter thread. */
+    private double credit;
+    private long ticks;
+
+    public CheckoutWaitingRoom(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${checkout.queue.enabled:false}") boolean enabled,
+            @Value("${checkout.queue.max-in-flight:8}") int maxInFlight,
+            @Value("${checkout.queue.min-rate-per-second:5}") double minRate,
+            @Value("${checkout.queue.max-rate-per-second:200}") double maxRate,
+            @Value("${checkout.queue.tick-ms:100}") long tickMs,
+            @Value("${checkout.queue.abandon-after-seconds:30}") long abandonAfterSeconds,
+            @Value("${checkout.queue.admission-ttl-seconds:15}") long admissionTtlSeconds) {
+        this.enabled = enabled;
+        this.maxInFlight = maxInFlight;
+        this.minRate = minRate;
+        this.maxRate = maxRate;
+        this.tickMs = tickMs;
+        this.abandonAfterNanos = TimeUnit.SECONDS.toNanos(abandonAfterSeconds);
+        this.admissionTtlNanos = TimeUnit.SECONDS.toNanos(admissionTtlSeconds);
+        this.admitRate = minRate;
+
+        this.meters = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        Gauge.builder("checkout.queue.depth", waiting, Map::size).register(meters);
+        Gauge.builder("checkout.queue.in-flight", inFlight, AtomicInteger::get).register(meters);
+        Gauge.builder("checkout.queue.admit-rate", this, room -> room.admitRate).register(meters);
+        this.waitTimer = Timer.builder("checkout.queue.wait")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meters);
+        this.serviceTimer = Timer.builder("checkout.queue.service").register(meters);
+        this.admittedCounter = Counter.builder("checkout.queue.admitted").register(meters);
+        this.abandonedCounter = Counter.builder("checkout.queue.abandoned").register(meters);
+    }
+
+    @PostConstruct
+    void start() {
+        if (enabled) {
+            admitter.scheduleWithFixedDelay(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        admitter.shutdownNow();
+    }
+
+    /**
+     * Lets the user's checkout run, or queues it. Callers must close an
+     * admitted {@link Admission} when the checkout is done.
+     *
+     * @param token the queue token from an earlier queued attempt, if any
+     */
+    public Admission enter(Long userId, String token) {
+        if (!enabled) {
+            return Admission.passThrough();
+        }
+        long now = System.nanoTime();
+        Waiter waiter = token != null ? byToken.get(token) : null;
+        if (waiter == null || !Objects.equals(waiter.userId, userId)) {
+            waiter = userId != null ? byUser.get(userId) : null;
+        }
+        if (waiter != null) {
+            if (waiter.admittedAt != 0) {
+                if (forget(waiter)) {
+                    return admitted(now);
+                }
+            } else {
+                waiter.lastSeen = now;
+                return Admission.queued(ticket(waiter));
+            }
+        }
+        if (waiting.isEmpty() && tryTakeSlot()) {
+            return admitted(now);
+        }
+        Waiter queued = new Waiter(UUID.randomUUID().toString(), userId, nextSeq.incrementAndGet(), now);
+        if (userId != null) {
+            Waiter existing = byUser.putIfAbsent(userId, queued);
+            if (existing != null) {
+                return Admission.queued(ticket(existing));
+            }
+        }
+        byToken.put(queued.token, queued);
+        waiting.put(queued.seq, queued);
+        return Admission.queued(ticket(queued));
+    }
+
+    public Status status() {
+        Map<String, Double> percentiles = new TreeMap<>();
+        for (ValueAtPercentile value : waitTimer.takeSnapshot().percentileValues()) {
+            percentiles.put("p" + Math.round(value.percentile() * 100), value.value(TimeUnit.MILLISECONDS));
+        }
+        return new Status(enabled, waiting.size(), inFlight.get(), maxInFlight, admitRate,
+                meanServiceSeconds * 1000, percentiles,
+                (long) admittedCounter.count(), (long) abandonedCounter.count());
+    }
+
+    /** Admits from the head of the queue, up to the rate and the free slots. */
+    private void tick() {
+        try {
+            long now = System.nanoTime();
+            if (++ticks % SWEEP_EVERY_TICKS == 0) {
+                sweep(now);
+            }
+            double mean = meanServiceSeconds;
+            admitRate = mean > 0 ? Math.clamp(maxInFlight / mean, minRate, maxRate) : minRate;
+            credit = Math.min(credit + admitRate * tickMs / 1000.0, maxInFlight);
+            while (credit >= 1 && !waiting.isEmpty() && tryTakeSlot()) {
+                Map.Entry<Long, Waiter> head = waiting.pollFirstEntry();
+                if (head == null) {
+                    slotsUsed.decrementAndGet();
+                    break;
+                }
+                Waiter waiter = head.getValue();
+                waiter.admittedAt = now;
+                waitTimer.record(now - waiter.enqueuedAt, TimeUnit.NANOSECONDS);
+                admittedCounter.increment();
+                credit--;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Checkout admission tick failed", e);
+        }
+    }
+
+    /** Drops waiters that stopped polling and admissions that were never used. */
+    private void sweep(long now) {
+        for (Waiter waiter : byToken.values()) {
+            if (waiter.admittedAt != 0) {
+                if (now - waiter.admittedAt > admissionTtlNanos && forget(waiter)) {
+                    slotsUsed.decrementAndGet();
+                    abandonedCounter.increment();
+                }
+            } else if (now - waiter.lastSeen > abandonAfterNanos
+                    && waiting.remove(waiter.seq, waiter) && forget(waiter)) {
+                abandonedCounter.increment();
+            }
+        }
+    }
+
+    /** Removes a waiter's token; true for the one caller that removed it. */
+    private boolean forget(Waiter waiter) {
+        if (!byToken.remove(waiter.token, waiter)) {
+            return false;
+        }
+        if (waiter.userId != null) {
+            byUser.remove(waiter.userId, waiter);
+        }
+        return true;
+    }
+
+    private boolean tryTakeSlot() {
+        int used;
+        do {
+            used = slotsUsed.get();
+            if (used >= maxInFlight) {
+                return false;
+            }
+        } while (!slotsUsed.compareAndSet(used, used + 1));
+        return true;
+    }
+
+    private Admission admitted(long startedAt) {
+        inFlight.incrementAndGet();
+        return new Admission(null, () -> {
+            long elapsed = System.nanoTime() - startedAt;
+            serviceTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            double seconds = elapsed / 1e9;
+            double mean = meanServiceSeconds;
+            meanServiceSeconds = mean == 0 ? seconds : mean + SERVICE_TIME_WEIGHT * (seconds - mean);
+            inFlight.decrementAndGet();
+            slotsUsed.decrementAndGet();
+        });
+    }
+
+    private QueueTicketResponse ticket(Waiter waiter) {
+        Map.Entry<Long, Waiter> head = waiting.firstEntry();
+        long position = head != null ? Math.max(waiter.seq - head.getKey(), 0) + 1 : 1;
+        long waitSeconds = (long) Math.ceil(position / Math.max(admitRate, minRate));
+        return QueueTicketResponse.builder()
+                .token(waiter.token)
+                .position(position)
+                .estimatedWaitSeconds(waitSeconds)
+                .retryAfterSeconds(Math.clamp(waitSeconds, 1, 10))
+                .build();
+    }
+
+    /**
+     * Outcome of {@link #enter}: either admitted, holding a checkout slot until
+     * closed, or queued with a ticket to retry with.
+     */
+    public static final class Admission implements AutoCloseable {
+
+        private static final Runnable NO_OP = () -> { };
+
+        private final QueueTicketResponse ticket;
+        private final Runnable release;
+        private boolean closed;
+
+        private Admission(QueueTicketResponse ticket, Runnable release) {
+            this.ticket = ticket;
+            this.release = release;
+        }
+
+        static Admission passThrough() {
+            return new Admission(null, NO_OP);
+        }
+
+        static Admission queued(QueueTicketResponse ticket) {
+            return new Admission(ticket, NO_OP);
+        }
+
+        public boolean admitted() {
+            return ticket == null;
+        }
+
+        public QueueTicketResponse ticket() {
+            return ticket;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                release.run();
+            }
+        }
+    }
+
+    private static final class Waiter {
+
+        final String token;
+        final Long userId;
+        final long seq;
+        final long enqueuedAt;
+        volatile long lastSeen;
+        volatile long admittedAt;
+
+        Waiter(String token, Long userId, long seq, long now) {
+            this.token = token;
+            this.userId = userId;
+            this.seq = seq;
+            this.enqueuedAt = now;
+            this.lastSeen = now;
+        }
+    }
+}
@@ -4,15 +4,18 @@ import com.smart_ecomernce_api.smart_ecomernce_api.common.base.BaseRepository;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.Order;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderStatus;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.PaymentStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -42,6 +45,18 @@ public interface OrderRepository extends BaseRepository<Order, Long> {
 
   boolean existsByOrderNumberAndIsActiveTrue(String orderNumber);
 
+  /**
+   * Locks the still-PENDING orders among {@code ids}, for expiring their
+   * reservations. Items are loaded separately: a fetch join cannot be
+   * locked on PostgreSQL.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT o FROM Order o WHERE o.id IN :ids AND o.status = 'PENDING'")
+  List<Order> findPendingByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+  @EntityGraph(attributePaths = { "orderItems", "orderItems.product" })
+  List<Order> findWithItemsByIdIn(Collection<Long> ids);
+
   // -------------------------------------------------------------------------
   // User-scoped paged queries
   // -------------------------------------------------------------------------
@@ -194,6 +209,23 @@ public interface OrderRepository extends BaseRepository<Order, Long> {
       """)
   List<Object[]> getOrderStatisticsByPaymentStatus();
 
+  /**
+   * Returns rows of [OrderStatus, PaymentStatus, count, sum(totalAmount),
+   * sum(refundAmount)] grouped by both; the seed of the in-memory order
+   * statistics.
+   */
+  @Query("""
+      SELECT o.status, o.paymentStatus, COUNT(o), SUM(o.totalAmount), SUM(o.refundAmount)
+      FROM Order o
+      WHERE o.isActive = true
+      GROUP BY o.status, o.paymentStatus
+      """)
+  List<Object[]> getOrderTotalsByStatusAndPaymentStatus();
+
+  /** Id and optimistic-lock version of each of {@code ids} that exists. */
+  @Query("SELECT o.id, o.version FROM Order o WHERE o.id IN :ids")
+  List<Object[]> findVersionsByIdIn(@Param("ids") Collection<Long> ids);
+
   @Query("""
       SELECT SUM(o.totalAmount)
       FROM Order o
@@ -381,7 +413,7 @@ public interface OrderRepository extends BaseRepository<Order, Long> {
   // -------------------------------------------------------------------------
 
   @Query("""
-      UPDATE Order o SET o.status = 'CANCELLED', o.isActive = false, o.updatedAt = CURRENT_TIMESTAMP
+      UPDATE Order o SET o.status = 'CANCELLED', o.isActive = false, o.version = o.version + 1, o.updatedAt = CURRENT_TIMESTAMP
       WHERE o.isActive = true
         AND o.status = 'PENDING'
         AND o.createdAt < :cutoff
@@ -389,7 +421,7 @@ public interface OrderRepository extends BaseRepository<Order, Long> {
   int cancelAbandonedOrders(@Param("cutoff") LocalDateTime cutoff);
 
   @Query("""
-      UPDATE Order o SET o.status = 'PROCESSING', o.updatedAt = CURRENT_TIMESTAMP
+      UPDATE Order o SET o.status = 'PROCESSING', o.version = o.version + 1, o.updatedAt = CURRENT_TIMESTAMP
       WHERE o.isActive = true
         AND o.status = 'PENDING'
         AND o.createdAt >= :cutoff
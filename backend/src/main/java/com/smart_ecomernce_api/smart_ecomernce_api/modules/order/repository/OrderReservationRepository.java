@@ -0,0 +1,37 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface OrderReservationRepository extends JpaRepository<OrderReservation, Long> {
+
+    /** Plain insert; {@code save} would select first because the id is assigned. */
+    @Modifying
+    @Query(value = "INSERT INTO order_reservations (order_id, expires_at) VALUES (:orderId, :expiresAt)",
+            nativeQuery = true)
+    void insert(@Param("orderId") Long orderId, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Gives every PENDING order that has no reservation one expiring at
+     * {@code expiresAt}: orders placed before reservations were enabled, or
+     * while they were off. Safe to run on several nodes at once.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO order_reservations (order_id, expires_at) "
+            + "SELECT o.id, :expiresAt FROM orders o WHERE o.status = 'PENDING' ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertForUnreservedPending(@Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM OrderReservation r WHERE r.orderId = :orderId")
+    int deleteByOrderId(@Param("orderId") Long orderId);
+}
@@ -0,0 +1,51 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderSummary;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OrderSummaryRepository extends JpaRepository<OrderSummary, Long> {
+
+    /** One keyset page of a user's order history; no count query. */
+    Window<OrderSummary> findByUserId(Long userId, ScrollPosition position, Sort sort, Limit limit);
+
+    Window<OrderSummary> findByUserIdAndStatus(Long userId, OrderStatus status, ScrollPosition position,
+                                               Sort sort, Limit limit);
+
+    /** Ids of orders that have no summary yet, in id order; used to backfill the read model. */
+    @Query("""
+            SELECT o.id FROM Order o
+            WHERE o.id > :afterId
+              AND NOT EXISTS (SELECT s.id FROM OrderSummary s WHERE s.id = o.id)
+            ORDER BY o.id
+            """)
+    List<Long> findUnsummarisedOrderIds(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Inserts {@code summary} unless its order already has one, without
+     * failing when another transaction writes it concurrently.
+     *
+     * @return 1 if inserted, 0 if a summary was already there
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO order_summaries (order_id, user_id, order_number, status, payment_status, total_amount,
+                                         item_count, first_item_name, first_item_thumbnail, created_at, updated_at)
+            VALUES (:#{#s.id}, :#{#s.userId}, :#{#s.orderNumber}, :#{#s.status.name()}, :#{#s.paymentStatus.name()},
+                    :#{#s.totalAmount}, :#{#s.itemCount}, :#{#s.firstItemName}, :#{#s.firstItemThumbnail},
+                    :#{#s.createdAt}, :#{#s.updatedAt})
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("s") OrderSummary summary);
+}
@@ -0,0 +1,159 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.reservation;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderReservation;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.OrderReservationRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Time-to-live for the stock a PENDING order holds.
+ *
+ * <p>Checkout takes stock out of the product rows straight away, so an order
+ * that is never paid keeps its units off sale. Each new order gets a
+ * reservation that expires after {@code checkout.reservation.ttl-minutes}:
+ * a row in {@code order_reservations}, written in the checkout transaction,
+ * and a timer in an in-memory {@link TimingWheel}, added once that
+ * transaction commits. The order's next transition out of PENDING settles
+ * the reservation; one that is still there when its timer fires is picked up
+ * by {@link ReservationExpiryJob}. Rows are loaded back into the wheel on
+ * startup, so reservations outlive restarts; every node loads every row, and
+ * expiry is idempotent, so it does not matter which node gets there first.
+ * PENDING orders without a row, placed while reservations were off, get one
+ * with a full TTL on startup, so turning the feature on covers them too.
+ */
+@Slf4j
+@Component
+public class OrderReservations {
+
+    /** A reservation whose timer fired. */
+    public record Expired(long orderId, long expiresAtMillis) {}
+
+    private static final int WHEEL_LEVELS = 3;
+
+    private final OrderReservationRepository repository;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final TimingWheel wheel;
+
+    public OrderReservations(
+            OrderReservationRepository repository,
+            @Value("${checkout.reservation.enabled:false}") boolean enabled,
+            @Value("${checkout.reservation.ttl-minutes:30}") long ttlMinutes,
+            @Value("${checkout.reservation.tick-ms:1000}") long tickMs) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.wheel = new TimingWheel(tickMs, WHEEL_LEVELS, System.currentTimeMillis());
+    }
+
+    @PostConstruct
+    void load() {
+        if (!enabled) {
+            return;
+        }
+        int seeded = repository.insertForUnreservedPending(toLocalDateTime(System.currentTimeMillis() + ttl.toMillis()));
+        if (seeded > 0) {
+            log.info("Reserved stock of {} PENDING orders placed without a reservation", seeded);
+        }
+        List<OrderReservation> rows = repository.findAll();
+        synchronized (wheel) {
+            rows.forEach(row -> wheel.schedule(row.getOrderId(), toMillis(row.getExpiresAt())));
+        }
+        log.info("Loaded {} order reservations into the expiry wheel", rows.size());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Starts the reservation of a new order. Must run in the transaction that creates it. */
+    public void hold(Long orderId) {
+        if (!enabled) {
+            return;
+        }
+        long expiresAt = System.currentTimeMillis() + ttl.toMillis();
+        repository.insert(orderId, toLocalDateTime(expiresAt));
+        afterCommit(() -> {
+            synchronized (wheel) {
+                wheel.schedule(orderId, expiresAt);
+            }
+        });
+    }
+
+    /**
+     * Ends the reservation of an order that left PENDING, in the current
+     * transaction. Whether its stock goes back depends on the transition, not
+     * on whether a reservation was still held.
+     */
+    public void settle(Long orderId) {
+        if (!enabled) {
+            return;
+        }
+        repository.deleteByOrderId(orderId);
+        afterCommit(() -> {
+            synchronized (wheel) {
+                wheel.cancel(orderId);
+            }
+        });
+    }
+
+    /** Deletes the rows of reservations that have expired, in the current transaction. */
+    public void settleExpired(Collection<Long> orderIds) {
+        repository.deleteAllByIdInBatch(orderIds);
+    }
+
+    /** Advances the wheel to {@code nowMillis} and returns what expired by then. */
+    public List<Expired> advance(long nowMillis) {
+        List<Expired> expired = new ArrayList<>();
+        synchronized (wheel) {
+            wheel.advance(nowMillis, (orderId, deadline) -> expired.add(new Expired(orderId, deadline)));
+        }
+        return expired;
+    }
+
+    /** Schedules an expired reservation to be tried again, after a failed expiry. */
+    public void retry(long orderId, long atMillis) {
+        synchronized (wheel) {
+            wheel.schedule(orderId, atMillis);
+        }
+    }
+
+    public int size() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
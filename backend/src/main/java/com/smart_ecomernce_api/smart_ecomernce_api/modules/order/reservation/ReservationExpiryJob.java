@@ -0,0 +1,139 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.reservation;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.service.OrderService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expires the reservations of abandoned checkouts.
+ *
+ * <p>Every {@code checkout.reservation.tick-ms} a single thread advances the
+ * {@link OrderReservations} wheel and hands what fired to
+ * {@link OrderService#expireReservations} in batches of
+ * {@code checkout.reservation.batch-size}: each batch is one transaction that
+ * cancels its orders and returns their stock in one batch of UPDATEs. A
+ * batch that fails is tried again after {@code retry-seconds}.
+ *
+ * <p>Meters: {@code checkout.reservation.pending} (gauge),
+ * {@code checkout.reservation.expiry-lag} (time from deadline to release,
+ * with p50/p95/p99), {@code checkout.reservation.batch} (batch time),
+ * {@code checkout.reservation.expired} and
+ * {@code checkout.reservation.released-units}, whose rates are the release
+ * throughput.
+ */
+@Slf4j
+@Component
+public class ReservationExpiryJob {
+
+    /** Expiry state for the performance endpoints. */
+    public record Status(boolean enabled, int pending, long expired, long releasedUnits, long failedBatches,
+                         Map<String, Double> lagPercentilesMillis) {}
+
+    private final OrderReservations reservations;
+    private final OrderService orderService;
+    private final long tickMs;
+    private final int batchSize;
+    private final long retryMillis;
+
+    private final Timer lagTimer;
+    private final Timer batchTimer;
+    private final Counter expiredCounter;
+    private final Counter releasedCounter;
+    private final Counter failedCounter;
+
+    private final ScheduledExecutorService expirer =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("reservation-expiry").daemon().factory());
+
+    public ReservationExpiryJob(
+            OrderReservations reservations,
+            OrderService orderService,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${checkout.reservation.tick-ms:1000}") long tickMs,
+            @Value("${checkout.reservation.batch-size:200}") int batchSize,
+            @Value("${checkout.reservation.retry-seconds:30}") long retrySeconds) {
+        this.reservations = reservations;
+        this.orderService = orderService;
+        this.tickMs = tickMs;
+        this.batchSize = batchSize;
+        this.retryMillis = TimeUnit.SECONDS.toMillis(retrySeconds);
+
+        MeterRegistry meters = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        Gauge.builder("checkout.reservation.pending", reservations, OrderReservations::size).register(meters);
+        this.lagTimer = Timer.builder("checkout.reservation.expiry-lag")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meters);
+        this.batchTimer = Timer.builder("checkout.reservation.batch").register(meters);
+        this.expiredCounter = Counter.builder("checkout.reservation.expired").register(meters);
+        this.releasedCounter = Counter.builder("checkout.reservation.released-units").register(meters);
+        this.failedCounter = Counter.builder("checkout.reservation.failed-batches").register(meters);
+    }
+
+    @PostConstruct
+    void start() {
+        if (reservations.isEnabled()) {
+            expirer.scheduleWithFixedDelay(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        expirer.shutdownNow();
+    }
+
+    public Status status() {
+        Map<String, Double> percentiles = new TreeMap<>();
+        for (ValueAtPercentile value : lagTimer.takeSnapshot().percentileValues()) {
+            percentiles.put("p" + Math.round(value.percentile() * 100), value.value(TimeUnit.MILLISECONDS));
+        }
+        return new Status(reservations.isEnabled(), reservations.size(), (long) expiredCounter.count(),
+                (long) releasedCounter.count(), (long) failedCounter.count(), percentiles);
+    }
+
+    void tick() {
+        try {
+            List<OrderReservations.Expired> expired = reservations.advance(System.currentTimeMillis());
+            for (int from = 0; from < expired.size(); from += batchSize) {
+                expire(expired.subList(from, Math.min(from + batchSize, expired.size())));
+            }
+        } catch (RuntimeException e) {
+            log.error("Reservation expiry tick failed", e);
+        }
+    }
+
+    private void expire(List<OrderReservations.Expired> batch) {
+        List<Long> orderIds = batch.stream().map(OrderReservations.Expired::orderId).toList();
+        long started = System.nanoTime();
+        int units;
+        try {
+            units = orderService.expireReservations(orderIds);
+        } catch (RuntimeException e) {
+            failedCounter.increment();
+            log.warn("Could not expire {} order reservations; retrying in {} ms", orderIds.size(), retryMillis, e);
+            long retryAt = System.currentTimeMillis() + retryMillis;
+            orderIds.forEach(orderId -> reservations.retry(orderId, retryAt));
+            return;
+        }
+        batchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        long now = System.currentTimeMillis();
+        batch.forEach(reservation -> lagTimer.record(Math.max(0, now - reservation.expiresAtMillis()), TimeUnit.MILLISECONDS));
+        expiredCounter.increment(batch.size());
+        releasedCounter.increment(units);
+    }
+}
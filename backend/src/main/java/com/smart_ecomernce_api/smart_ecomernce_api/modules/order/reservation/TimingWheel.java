@@ -0,0 +1,139 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.reservation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical hashed timing wheel keyed by id.
+ *
+ * <p>Each level has 64 slots; a slot of level {@code n} spans {@code 64^n}
+ * ticks, so three levels of one-second ticks cover about three days and later
+ * deadlines simply wait in the top level. Scheduling and cancelling are O(1):
+ * a timer goes into the slot of the lowest level whose span reaches its
+ * deadline, and cancelling only forgets it, leaving the stale entry to be
+ * skipped when its slot comes round. Each tick moves the slot that starts
+ * at it down a level ("cascading") and fires what is due in level 0.
+ * Timers never fire before their deadline.
+ *
+ * <p>Not thread-safe; the owner serialises access.
+ */
+final class TimingWheel {
+
+    /** Receives each expired timer. */
+    @FunctionalInterface
+    interface Expiry {
+        void expired(long id, long deadlineMillis);
+    }
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private record Timer(long id, long deadlineMillis, long deadlineTick) {}
+
+    private final long tickMillis;
+    private final int levels;
+    private final List<List<Timer>> slots;
+    private final Map<Long, Timer> timers = new HashMap<>();
+    private List<Timer> due = new ArrayList<>();
+    private long currentTick;
+
+    TimingWheel(long tickMillis, int levels, long nowMillis) {
+        if (tickMillis <= 0 || levels < 1 || levels * SLOT_BITS >= Long.SIZE - 1) {
+            throw new IllegalArgumentException("Invalid timing wheel: tick " + tickMillis + " ms, " + levels + " levels");
+        }
+        this.tickMillis = tickMillis;
+        this.levels = levels;
+        this.slots = new ArrayList<>(levels * SLOTS);
+        for (int i = 0; i < levels * SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /** Schedules {@code id}, replacing any timer it already has. */
+    void schedule(long id, long deadlineMillis) {
+        Timer timer = new Timer(id, deadlineMillis, Math.ceilDiv(deadlineMillis, tickMillis));
+        timers.put(id, timer);
+        place(timer);
+    }
+
+    boolean cancel(long id) {
+        return timers.remove(id) != null;
+    }
+
+    boolean contains(long id) {
+        return timers.containsKey(id);
+    }
+
+    int size() {
+        return timers.size();
+    }
+
+    /** Moves the wheel to {@code nowMillis}, handing every timer due by then to {@code expiry}. */
+    void advance(long nowMillis, Expiry expiry) {
+        long target = nowMillis / tickMillis;
+        fireDue(expiry);
+        while (currentTick < target) {
+            currentTick++;
+            for (int level = levels - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    for (Timer timer : drain(level, currentTick >>> (SLOT_BITS * level))) {
+                        if (timers.get(timer.id()) == timer) {
+                            place(timer);
+                        }
+                    }
+                }
+            }
+            for (Timer timer : drain(0, currentTick)) {
+                if (timers.get(timer.id()) == timer) {
+                    place(timer);
+                }
+            }
+            fireDue(expiry);
+        }
+    }
+
+    private void place(Timer timer) {
+        long delta = timer.deadlineTick() - currentTick;
+        if (delta <= 0) {
+            due.add(timer);
+            return;
+        }
+        int level = 0;
+        while (level < levels - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        slot(level, timer.deadlineTick() >>> (SLOT_BITS * level)).add(timer);
+    }
+
+    private void fireDue(Expiry expiry) {
+        if (due.isEmpty()) {
+            return;
+        }
+        List<Timer> firing = due;
+        due = new ArrayList<>();
+        for (Timer timer : firing) {
+            if (timers.get(timer.id()) == timer) {
+                timers.remove(timer.id());
+                expiry.expired(timer.id(), timer.deadlineMillis());
+            }
+        }
+    }
+
+    private List<Timer> drain(int level, long position) {
+        List<Timer> slot = slot(level, position);
+        if (slot.isEmpty()) {
+            return List.of();
+        }
+        List<Timer> drained = new ArrayList<>(slot);
+        slot.clear();
+        return drained;
+    }
+
+    private List<Timer> slot(int level, long position) {
+        return slots.get(level * SLOTS + (int) (position & SLOT_MASK));
+    }
+}
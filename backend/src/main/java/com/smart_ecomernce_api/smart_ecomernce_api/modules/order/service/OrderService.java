@@ -5,13 +5,18 @@ import com.smart_ecomernce_api.smart_ecomernce_api.graphql.input.OrderFilterInpu
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.CartOrderRequest;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.OrderResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.OrderStatsResponse;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.OrderSummaryResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.OrderUpdateRequest;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderStatus;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.PaymentStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 
 /**
  * Service interface for order management operations.
@@ -56,11 +61,25 @@ public interface OrderService {
 
         Page<OrderResponse> getUserOrdersByStatus(Long userId, OrderStatus status, Pageable pageable);
 
+        /**
+         * A user's order history from the order-summary read model: one keyset
+         * query per page, without loading orders, items or products.
+         *
+         * @param status optional; all statuses when {@code null}
+         */
+        Window<OrderSummaryResponse> scrollUserOrderSummaries(Long userId, OrderStatus status, ScrollPosition position,
+                                                              Sort sort, int limit);
+
         Page<OrderResponse> getAllOrders(Pageable pageable);
 
 
         Page<OrderResponse> getAllOrders(OrderStatus status, PaymentStatus paymentStatus, java.time.LocalDateTime startDate, java.time.LocalDateTime endDate, Pageable pageable);
 
+        /**
+         * Keyset-paginated order listing: seeks past {@code position} without a count query.
+         */
+        Window<OrderResponse> scrollOrders(Predicate predicate, ScrollPosition position, Sort sort, int limit);
+
 
         Page<OrderResponse> getOrdersByStatus(OrderStatus status, Pageable pageable);
 
@@ -115,6 +134,16 @@ public interface OrderService {
 
         OrderResponse refundOrder(Long id, BigDecimal amount, String reason);
 
+        /**
+         * Cancels the orders among {@code orderIds} that are still PENDING after
+         * their stock reservation expired, and returns their stock in one batch.
+         * Orders that already left PENDING are skipped; either way the
+         * reservations are removed.
+         *
+         * @return the number of units returned to stock
+         */
+        int expireReservations(Collection<Long> orderIds);
+
         // -------------------------------------------------------------------------
         // Delete Operations
         // -------------------------------------------------------------------------
@@ -1,7 +1,13 @@
 package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.service.impl;
 
 import com.querydsl.core.types.Predicate;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.outbox.Outbox;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.retry.RetryOnConflict;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderPredicates;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CanonicalKeyGenerator;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CacheTagInvalidator;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CacheTagged;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CacheTags;
 import com.smart_ecomernce_api.smart_ecomernce_api.exception.ResourceNotFoundException;
 import com.smart_ecomernce_api.smart_ecomernce_api.exception.UnauthorizedException;
 import com.smart_ecomernce_api.smart_ecomernce_api.graphql.input.OrderFilterInput;
@@ -10,27 +16,46 @@ import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.repository.CartR
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.CartOrderRequest;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.OrderResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.OrderStatsResponse;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.OrderSummaryResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.OrderUpdateRequest;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.*;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.mapper.OrderMapper;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.number.OrderNumberGenerator;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.OrderRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.OrderSummaryRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.reservation.OrderReservations;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.service.OrderService;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.event.OrderEvent;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.stats.OrderStatistics;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.stats.OrderTally;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.summary.OrderSummaryProjector;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.InventoryStatus;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.Product;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.inventory.HotStockService;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.search.ProductFacetEngine;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.entity.User;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Primary implementation of {@link OrderService}.
@@ -41,11 +66,16 @@ import java.time.LocalDateTime;
  *       reduces lock contention and enables Hibernate read-optimisations.</li>
  *   <li>Each mutating method overrides with {@code @Transactional} (readOnly = false).</li>
  * </ul>
+ *
+ * <p>Cache strategy: writes evict by tag through {@link CacheTagInvalidator}
+ * rather than clearing whole caches — the order itself, its user, the status
+ * and payment-status listings it left or joined, and the ad-hoc listings.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
+@RetryOnConflict
 public class OrderServiceImpl implements OrderService {
 
     private final OrderRepository orderRepository;
@@ -53,6 +83,15 @@ public class OrderServiceImpl implements OrderService {
     private final OrderMapper     orderMapper;
     private final ProductRepository productRepository;
     private final CartRepository  cartRepository;
+    private final CacheTagInvalidator cacheTagInvalidator;
+    private final ProductFacetEngine productFacetEngine;
+    private final HotStockService hotStockService;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final OrderReservations orderReservations;
+    private final OrderStatistics orderStatistics;
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final OrderSummaryProjector orderSummaryProjector;
+    private final Outbox outbox;
     // Define cache names as constants
     private static final String CACHE_ORDER = "order";
     private static final String CACHE_ORDERS = "orders";
@@ -62,19 +101,11 @@ public class OrderServiceImpl implements OrderService {
     private static final String CACHE_ORDERS_PREDICATE = "orders-predicate";
     private static final String CACHE_ORDERS_SEARCH = "orders-search";
     private static final String CACHE_ORDERS_FILTER = "orders-filter";
+    private static final String RESERVATION_EXPIRED = "Payment not received before the reservation expired";
 
 
     @Override
     @Transactional
-    @CacheEvict(value = {
-            CACHE_ORDERS,
-            CACHE_USER_ORDERS,
-            CACHE_ORDER_STATS,
-            CACHE_ORDER_COUNTS,
-            CACHE_ORDERS_PREDICATE,
-            CACHE_ORDERS_SEARCH,
-            CACHE_ORDERS_FILTER
-    }, allEntries = true)
     public OrderResponse createOrderFromCart(Long cartId, Long userId, CartOrderRequest request) {
 
         // 1. Resolve user and cart, enforce ownership
@@ -83,24 +114,17 @@ public class OrderServiceImpl implements OrderService {
         Cart cart = cartRepository.findById(cartId)
                 .orElseThrow(() -> new ResourceNotFoundException("Cart not found: " + cartId));
 
-
-        // === INVENTORY VALIDATION ===
+        Map<Long, InventoryStatus> previousInventory = new HashMap<>();
+        Map<Long, Integer> quantities = new HashMap<>();
         cart.getItems().forEach(cartItem -> {
             Product product = cartItem.getProduct();
-            int quantity = cartItem.getQuantity();
-            if (!product.isInStock() || product.getAvailableQuantity() < quantity) {
-                throw new IllegalStateException(String.format(
-                        "Insufficient stock for product '%s'. Available: %d, Requested: %d",
-                        product.getName(), product.getAvailableQuantity(), quantity));
-            }
-            // Reserve stock (prevents race conditions)
-            product.reserveStock(quantity);
-            productRepository.save(product);
+            previousInventory.putIfAbsent(product.getId(), product.getInventoryStatus());
+            quantities.merge(product.getId(), cartItem.getQuantity(), Integer::sum);
         });
 
         // 2. Delegate to the domain factory — this builds the Order + all OrderItems,
         //    copies coupon state, calls calculateTotals(), and generates the order number.
-        Order order = Order.fromCart(cart, user);
+        Order order = Order.fromCart(cart, user, orderNumberGenerator);
 
         // 3. Layer on optional request fields (shipping, payment, notes).
         //    These are intentionally separate from the factory because they are
@@ -127,17 +151,24 @@ public class OrderServiceImpl implements OrderService {
 
         // 4. Persist — CascadeType.ALL on orderItems persists every OrderItem in one shot.
         Order saved = orderRepository.save(order);
-        log.info("Order {} created from cart {} for user {} with {} items",
-                saved.getOrderNumber(), cartId, userId, saved.getOrderItems().size());
 
         // === INVENTORY DEDUCTION ===
-        saved.getOrderItems().forEach(orderItem -> {
-            Product product = orderItem.getProduct();
-            int quantity = orderItem.getQuantity();
-            product.deductStock(quantity);
-            productRepository.save(product);
-        });
+        // One JDBC batch of guarded UPDATEs in product id order. A line that is
+        // short throws InsufficientStockException and rolls the whole checkout back.
+        // Flash-sale products are taken from their in-memory counters first and
+        // journalled against the order id as it commits; their rows, and so their
+        // status, catch up when the hot-stock flusher runs.
+        Map<Long, Integer> rowLines = hotStockService.checkout(saved.getId(), quantities);
+        Map<Long, InventoryStatus> currentInventory = new HashMap<>(previousInventory);
+        currentInventory.putAll(productRepository.deductForCheckout(rowLines));
+        productFacetEngine.reindexAfterCommit(rowLines.keySet());
+
+        recordWrite(saved);
+        orderReservations.hold(saved.getId());
+        log.info("Order {} created from cart {} for user {} with {} items",
+                saved.getOrderNumber(), cartId, userId, saved.getOrderItems().size());
 
+        cacheTagInvalidator.evict(createdOrderTags(saved, previousInventory, currentInventory));
         return orderMapper.toResponse(saved);
     }
 
@@ -146,7 +177,7 @@ public class OrderServiceImpl implements OrderService {
     // =========================================================================
 
     @Override
-    @Cacheable(value = CACHE_ORDER, key = "#id + '_' + #userId")
+    @Cacheable(value = CACHE_ORDER, key = "#id + '_' + #userId", sync = true)
     public OrderResponse getOrderById(Long id, Long userId) {
         Order order = findActiveOrThrow(id);
         assertOwner(order, userId);
@@ -154,19 +185,19 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    @Cacheable(value = CACHE_ORDER, key = "#id + '_admin'")
+    @Cacheable(value = CACHE_ORDER, key = "#id + '_admin'", sync = true)
     public OrderResponse getOrderByIdAsAdmin(Long id) {
         return orderMapper.toResponse(findActiveOrThrow(id));
     }
 
     @Override
-    @Cacheable(value = CACHE_ORDER, key = "#orderId")
+    @Cacheable(value = CACHE_ORDER, key = "#orderId", sync = true)
     public OrderResponse getOrderById(Long orderId) {
         return orderMapper.toResponse(findActiveOrThrow(orderId));
     }
 
     @Override
-    @Cacheable(value = CACHE_ORDER, key = "#orderNumber")
+    @Cacheable(value = CACHE_ORDER, key = "#orderNumber", sync = true)
     public OrderResponse getOrderByOrderNumber(String orderNumber, Long userId) {
         Order order = orderRepository.findByOrderNumberAndIsActiveTrue(orderNumber)
                 .orElseThrow(() -> new ResourceNotFoundException(
@@ -180,7 +211,8 @@ public class OrderServiceImpl implements OrderService {
     // =========================================================================
 
     @Override
-    @Cacheable(value = CACHE_USER_ORDERS, key = "#userId + ':' + #pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort")
+    @Cacheable(value = CACHE_USER_ORDERS, keyGenerator = CanonicalKeyGenerator.NAME)
+    @CacheTagged("user(#userId)")
     public Page<OrderResponse> getUserOrders(Long userId, Pageable pageable) {
         return orderRepository
                 .findByUserIdAndIsActiveTrue(userId, pageable)
@@ -188,7 +220,8 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    @Cacheable(value = CACHE_USER_ORDERS, key = "'user-status:' + #userId + ':' + #status + ':' + #pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort")
+    @Cacheable(value = CACHE_USER_ORDERS, keyGenerator = CanonicalKeyGenerator.NAME)
+    @CacheTagged("user(#userId)")
     public Page<OrderResponse> getUserOrdersByStatus(Long userId,
                                                      OrderStatus status,
                                                      Pageable pageable) {
@@ -198,7 +231,8 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    @Cacheable(value = CACHE_ORDERS, key = "'all:' + #pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort")
+    @Cacheable(value = CACHE_ORDERS, keyGenerator = CanonicalKeyGenerator.NAME)
+    @CacheTagged("ORDER_ALL_LISTINGS")
     public Page<OrderResponse> getAllOrders(Pageable pageable) {
         Predicate predicate = OrderPredicates.builder()
                 .withActive(true)
@@ -208,7 +242,8 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    @Cacheable(value = CACHE_ORDERS, key = "'status:' + #status + ':' + #pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort")
+    @Cacheable(value = CACHE_ORDERS, keyGenerator = CanonicalKeyGenerator.NAME)
+    @CacheTagged("orderStatus(#status)")
     public Page<OrderResponse> getOrdersByStatus(OrderStatus status, Pageable pageable) {
         Predicate predicate = OrderPredicates.builder()
                 .withActive(true)
@@ -224,7 +259,7 @@ public class OrderServiceImpl implements OrderService {
      */
     @Override
     @Cacheable(value = CACHE_ORDERS_FILTER,
-            key = "T(org.springframework.util.DigestUtils).md5DigestAsHex(('#filter=' + #filter.toString() + '&page=' + #pageable.pageNumber + '&size=' + #pageable.pageSize + '&sort=' + #pageable.sort).getBytes())")
+            keyGenerator = CanonicalKeyGenerator.NAME)
     public Page<OrderResponse> getFilteredOrders(OrderFilterInput filter, Pageable pageable) {
         Predicate predicate = OrderPredicates.from(filter);
         return orderRepository.findAll(predicate, pageable)
@@ -237,46 +272,34 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Transactional
-    @CachePut(value = CACHE_ORDER, key = "#id")
-    @CacheEvict(value = {
-            CACHE_ORDERS, CACHE_ORDERS_PREDICATE, CACHE_ORDERS_SEARCH,
-            CACHE_ORDERS_FILTER, CACHE_ORDER_STATS, CACHE_USER_ORDERS, CACHE_ORDER_COUNTS
-    }, allEntries = true)
     public OrderResponse confirmOrder(Long id) {
         Order order = findActiveOrThrow(id);
+        Set<String> staleTags = orderTags(order);
         order.confirm();
         log.info("Order {} confirmed", order.getOrderNumber());
-        return orderMapper.toResponse(orderRepository.save(order));
+        return orderMapper.toResponse(saveAndEvict(order, staleTags));
     }
 
     @Override
     @Transactional
-    @CachePut(value = CACHE_ORDER, key = "#id")
-    @CacheEvict(value = {
-            CACHE_ORDERS, CACHE_ORDERS_PREDICATE, CACHE_ORDERS_SEARCH,
-            CACHE_ORDERS_FILTER, CACHE_ORDER_STATS, CACHE_USER_ORDERS, CACHE_ORDER_COUNTS
-    }, allEntries = true)
     public OrderResponse shipOrder(Long id, String trackingNumber, String carrier) {
         Order order = findActiveOrThrow(id);
+        Set<String> staleTags = orderTags(order);
         order.setTrackingNumber(trackingNumber);
         order.setCarrier(carrier);
         order.ship();
         log.info("Order {} shipped — tracking: {}", order.getOrderNumber(), trackingNumber);
-        return orderMapper.toResponse(orderRepository.save(order));
+        return orderMapper.toResponse(saveAndEvict(order, staleTags));
     }
 
     @Override
     @Transactional
-    @CachePut(value = CACHE_ORDER, key = "#id")
-    @CacheEvict(value = {
-            CACHE_ORDERS, CACHE_ORDERS_PREDICATE, CACHE_ORDERS_SEARCH,
-            CACHE_ORDERS_FILTER, CACHE_ORDER_STATS, CACHE_USER_ORDERS, CACHE_ORDER_COUNTS
-    }, allEntries = true)
     public OrderResponse deliverOrder(Long id) {
         Order order = findActiveOrThrow(id);
+        Set<String> staleTags = orderTags(order);
         order.deliver();
         log.info("Order {} delivered", order.getOrderNumber());
-        return orderMapper.toResponse(orderRepository.save(order));
+        return orderMapper.toResponse(saveAndEvict(order, staleTags));
     }
 
     /**
@@ -285,16 +308,12 @@ public class OrderServiceImpl implements OrderService {
      */
     @Override
     @Transactional
-    @CachePut(value = CACHE_ORDER, key = "#id")
-    @CacheEvict(value = {
-            CACHE_ORDERS, CACHE_ORDERS_PREDICATE, CACHE_ORDERS_SEARCH,
-            CACHE_ORDERS_FILTER, CACHE_ORDER_STATS, CACHE_USER_ORDERS, CACHE_ORDER_COUNTS
-    }, allEntries = true)
     public OrderResponse processOrder(Long id) {
         Order order = findActiveOrThrow(id);
+        Set<String> staleTags = orderTags(order);
         order.process();
         log.info("Order {} moved to PROCESSING", order.getOrderNumber());
-        return orderMapper.toResponse(orderRepository.save(order));
+        return orderMapper.toResponse(saveAndEvict(order, staleTags));
     }
 
     /**
@@ -303,45 +322,65 @@ public class OrderServiceImpl implements OrderService {
      */
     @Override
     @Transactional
-    @CachePut(value = CACHE_ORDER, key = "#id")
-    @CacheEvict(value = {
-            CACHE_ORDERS, CACHE_ORDERS_PREDICATE, CACHE_ORDERS_SEARCH,
-            CACHE_ORDERS_FILTER, CACHE_ORDER_STATS, CACHE_USER_ORDERS, CACHE_ORDER_COUNTS
-    }, allEntries = true)
     public OrderResponse outForDeliveryOrder(Long id) {
         Order order = findActiveOrThrow(id);
+        Set<String> staleTags = orderTags(order);
         order.outForDelivery();
         log.info("Order {} is OUT_FOR_DELIVERY", order.getOrderNumber());
-        return orderMapper.toResponse(orderRepository.save(order));
+        return orderMapper.toResponse(saveAndEvict(order, staleTags));
     }
 
     @Override
     @Transactional
-    @CachePut(value = CACHE_ORDER, key = "#id")
-    @CacheEvict(value = {
-            CACHE_ORDERS, CACHE_ORDERS_PREDICATE, CACHE_ORDERS_SEARCH,
-            CACHE_ORDERS_FILTER, CACHE_ORDER_STATS, CACHE_USER_ORDERS, CACHE_ORDER_COUNTS
-    }, allEntries = true)
     public OrderResponse cancelOrder(Long id, String reason, Long userId) {
         Order order = findActiveOrThrow(id);
         assertOwner(order, userId);
+        Set<String> staleTags = orderTags(order);
         order.cancel(reason);
         log.info("Order {} cancelled by user {}: {}", order.getOrderNumber(), userId, reason);
-        return orderMapper.toResponse(orderRepository.save(order));
+        return orderMapper.toResponse(saveAndEvict(order, staleTags));
     }
 
     @Override
     @Transactional
-    @CachePut(value = CACHE_ORDER, key = "#id")
-    @CacheEvict(value = {
-            CACHE_ORDERS, CACHE_ORDERS_PREDICATE, CACHE_ORDERS_SEARCH,
-            CACHE_ORDERS_FILTER, CACHE_ORDER_STATS, CACHE_USER_ORDERS, CACHE_ORDER_COUNTS
-    }, allEntries = true)
     public OrderResponse refundOrder(Long id, BigDecimal amount, String reason) {
         Order order = findActiveOrThrow(id);
+        Set<String> staleTags = orderTags(order);
         order.refund(amount, reason);
         log.info("Order {} refunded — amount: {}", order.getOrderNumber(), amount);
-        return orderMapper.toResponse(orderRepository.save(order));
+        return orderMapper.toResponse(saveAndEvict(order, staleTags));
+    }
+
+    @Override
+    @Transactional
+    public int expireReservations(Collection<Long> orderIds) {
+        List<Order> expired = orderRepository.findPendingByIdInForUpdate(orderIds);
+        Set<String> tags = new HashSet<>();
+        Map<Long, Integer> released = new HashMap<>();
+        if (!expired.isEmpty()) {
+            orderRepository.findWithItemsByIdIn(expired.stream().map(Order::getId).toList());
+            for (Order order : expired) {
+                tags.addAll(orderTags(order));
+                order.cancel(RESERVATION_EXPIRED);
+                tags.addAll(orderTags(order));
+                order.getOrderItems().forEach(item ->
+                        released.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum));
+            }
+            orderRepository.saveAll(expired);
+            expired.forEach(this::recordWrite);
+            tags.add(CacheTags.ORDER_LISTINGS);
+            tags.add(CacheTags.ORDER_STATS);
+        }
+        orderReservations.settleExpired(orderIds);
+        returnStock(released, tags);
+        cacheTagInvalidator.evict(tags);
+
+        int units = released.values().stream().mapToInt(Integer::intValue).sum();
+        if (!expired.isEmpty()) {
+            log.info("Cancelled {} unpaid orders with expired reservations; {} units back in stock",
+                    expired.size(), units);
+        }
+        return units;
     }
 
     // =========================================================================
@@ -350,16 +389,12 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Transactional
-    @CachePut(value = CACHE_ORDER, key = "#id")
-    @CacheEvict(value = {
-            CACHE_ORDERS, CACHE_ORDERS_PREDICATE, CACHE_ORDERS_SEARCH,
-            CACHE_ORDERS_FILTER, CACHE_ORDER_STATS, CACHE_USER_ORDERS, CACHE_ORDER_COUNTS
-    }, allEntries = true)
     public OrderResponse updateOrderStatus(Long id, OrderUpdateRequest request) {
         if (request.getStatus() == null) {
             throw new IllegalArgumentException("Status must not be null");
         }
         Order order = findActiveOrThrow(id);
+        Set<String> staleTags = orderTags(order);
 
         OrderStatus newStatus = request.getStatus();
         if (newStatus == OrderStatus.CONFIRMED) {
@@ -394,18 +429,14 @@ public class OrderServiceImpl implements OrderService {
         }
 
         log.info("Order {} status updated to {} by admin", order.getOrderNumber(), request.getStatus());
-        return orderMapper.toResponse(orderRepository.save(order));
+        return orderMapper.toResponse(saveAndEvict(order, staleTags));
     }
 
     @Override
     @Transactional
-    @CachePut(value = CACHE_ORDER, key = "#orderId")
-    @CacheEvict(value = {
-            CACHE_ORDERS, CACHE_ORDERS_PREDICATE, CACHE_ORDERS_SEARCH,
-            CACHE_ORDERS_FILTER, CACHE_ORDER_STATS, CACHE_USER_ORDERS, CACHE_ORDER_COUNTS
-    }, allEntries = true)
     public OrderResponse updatePaymentStatus(Long orderId, String status) {
         Order order = findActiveOrThrow(orderId);
+        Set<String> staleTags = orderTags(order);
         PaymentStatus paymentStatus = PaymentStatus.valueOf(status.toUpperCase());
 
         if (paymentStatus == PaymentStatus.PAID) {
@@ -417,24 +448,21 @@ public class OrderServiceImpl implements OrderService {
         }
 
         log.info("Order {} payment status updated to {}", order.getOrderNumber(), paymentStatus);
-        return orderMapper.toResponse(orderRepository.save(order));
+        return orderMapper.toResponse(saveAndEvict(order, staleTags));
     }
 
     @Override
     @Transactional
-    @CachePut(value = CACHE_ORDER, key = "#id")
-    @CacheEvict(value = {
-            CACHE_ORDERS, CACHE_ORDERS_PREDICATE, CACHE_ORDERS_SEARCH,
-            CACHE_ORDERS_FILTER, CACHE_ORDER_STATS, CACHE_USER_ORDERS, CACHE_ORDER_COUNTS
-    }, allEntries = true)
+    @RetryOnConflict(maxAttempts = 1)
     public OrderResponse updateOrderAsCustomer(Long id, OrderUpdateRequest request, Long userId) {
         Order order = findActiveOrThrow(id);
         assertOwner(order, userId);
+        Set<String> staleTags = orderTags(order);
         if (order.getStatus() != OrderStatus.PENDING) {
             throw new IllegalStateException("Customers may only update PENDING orders");
         }
         orderMapper.applyCustomerUpdate(order, request);
-        return orderMapper.toResponse(orderRepository.save(order));
+        return orderMapper.toResponse(saveAndEvict(order, staleTags));
     }
 
     // =========================================================================
@@ -443,14 +471,10 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Transactional
-    @CachePut(value = CACHE_ORDER, key = "#orderId")
-    @CacheEvict(value = {
-            CACHE_ORDERS, CACHE_ORDERS_PREDICATE, CACHE_ORDERS_SEARCH,
-            CACHE_ORDERS_FILTER, CACHE_ORDER_STATS, CACHE_USER_ORDERS, CACHE_ORDER_COUNTS
-    }, allEntries = true)
     public OrderResponse addItemToOrder(Long orderId, Long productId, Integer quantity, Long userId) {
         Order order = findActiveOrThrow(orderId);
         assertOwner(order, userId);
+        Set<String> staleTags = orderTags(order);
 
         if (order.getStatus() != OrderStatus.PENDING) {
             throw new IllegalStateException("Items can only be added to PENDING orders");
@@ -487,21 +511,17 @@ public class OrderServiceImpl implements OrderService {
 
         // calculateTotals() now reads live computeTotal() values — no stale data
         order.calculateTotals();
-        Order saved = orderRepository.save(order);
+        Order saved = saveAndEvict(order, staleTags);
         log.info("Added item {} (qty: {}) to order {}", productId, quantity, orderId);
         return orderMapper.toResponse(saved);
     }
 
     @Override
     @Transactional
-    @CachePut(value = CACHE_ORDER, key = "#orderId")
-    @CacheEvict(value = {
-            CACHE_ORDERS, CACHE_ORDERS_PREDICATE, CACHE_ORDERS_SEARCH,
-            CACHE_ORDERS_FILTER, CACHE_ORDER_STATS, CACHE_USER_ORDERS, CACHE_ORDER_COUNTS
-    }, allEntries = true)
     public OrderResponse removeItemFromOrder(Long orderId, Long productId, Long userId) {
         Order order = findActiveOrThrow(orderId);
         assertOwner(order, userId);
+        Set<String> staleTags = orderTags(order);
 
         if (order.getStatus() != OrderStatus.PENDING) {
             throw new IllegalStateException("Items can only be removed from PENDING orders");
@@ -514,21 +534,18 @@ public class OrderServiceImpl implements OrderService {
 
         order.removeOrderItem(itemToRemove);
         order.calculateTotals();
-        Order saved = orderRepository.save(order);
+        Order saved = saveAndEvict(order, staleTags);
         log.info("Removed item {} from order {}", productId, orderId);
         return orderMapper.toResponse(saved);
     }
 
     @Override
     @Transactional
-    @CachePut(value = CACHE_ORDER, key = "#orderId")
-    @CacheEvict(value = {
-            CACHE_ORDERS, CACHE_ORDERS_PREDICATE, CACHE_ORDERS_SEARCH,
-            CACHE_ORDERS_FILTER, CACHE_ORDER_STATS, CACHE_USER_ORDERS, CACHE_ORDER_COUNTS
-    }, allEntries = true)
+    @RetryOnConflict(maxAttempts = 1)
     public OrderResponse updateItemQuantity(Long orderId, Long productId, Integer quantity, Long userId) {
         Order order = findActiveOrThrow(orderId);
         assertOwner(order, userId);
+        Set<String> staleTags = orderTags(order);
 
         if (order.getStatus() != OrderStatus.PENDING) {
             throw new IllegalStateException("Items can only be modified in PENDING orders");
@@ -545,7 +562,7 @@ public class OrderServiceImpl implements OrderService {
 
         item.setQuantity(quantity);
         order.calculateTotals();
-        Order saved = orderRepository.save(order);
+        Order saved = saveAndEvict(order, staleTags);
         log.info("Updated item {} quantity to {} in order {}", productId, quantity, orderId);
         return orderMapper.toResponse(saved);
     }
@@ -556,15 +573,17 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Transactional
-    @CacheEvict(value = {
-            CACHE_ORDER, CACHE_ORDERS, CACHE_ORDERS_PREDICATE, CACHE_ORDERS_SEARCH,
-            CACHE_ORDERS_FILTER, CACHE_ORDER_STATS, CACHE_USER_ORDERS, CACHE_ORDER_COUNTS
-    }, allEntries = true)
     public void deleteOrder(Long orderId) {
-        if (!orderRepository.existsByIdAndIsActiveTrue(orderId)) {
-            throw new ResourceNotFoundException("Order not found: " + orderId);
-        }
+        Order order = findActiveOrThrow(orderId);
+        Set<String> staleTags = orderTags(order);
         orderRepository.deleteById(orderId);
+        outbox.append(OrderEvent.AGGREGATE, orderId, OrderEvent.DELETED, OrderEvent.of(order, order.getStatus()));
+        orderStatistics.recordRemoval(order);
+        orderSummaryProjector.remove(orderId);
+        staleTags.add(CacheTags.ORDER_LISTINGS);
+        staleTags.add(CacheTags.ORDER_ALL_LISTINGS);
+        staleTags.add(CacheTags.ORDER_STATS);
+        cacheTagInvalidator.evict(staleTags);
         log.info("Order {} soft-deleted", orderId);
     }
 
@@ -572,16 +591,10 @@ public class OrderServiceImpl implements OrderService {
     // STATISTICS
     // =========================================================================
 
+    /** Served from the in-memory totals kept by {@link OrderStatistics}; no query per call. */
     @Override
-    //@Cacheable(value = "order-stats", key = "'global_v2'")
     public OrderStatsResponse getOrderStatistics() {
-        // DEBUG: Simplified version
-        return OrderStatsResponse.builder()
-                .stats(OrderStats.builder()
-                        .totalOrders(0L)
-                        .totalRevenue(BigDecimal.ZERO)
-                        .build())
-                .build();
+        return orderMapper.toStatsResponse(orderStatistics.snapshot());
     }
 
     // =========================================================================
@@ -590,7 +603,7 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Cacheable(value = CACHE_ORDERS_PREDICATE,
-            key = "T(org.springframework.util.DigestUtils).md5DigestAsHex(('#predicate=' + #predicate.toString() + '&page=' + #pageable.pageNumber + '&size=' + #pageable.pageSize + '&sort=' + #pageable.sort).getBytes())")
+            keyGenerator = CanonicalKeyGenerator.NAME)
     public Page<OrderResponse> findOrdersWithPredicate(Predicate predicate, Pageable pageable) {
         log.debug("Finding orders with predicate: {}", predicate);
         return orderRepository.findAll(predicate, pageable)
@@ -599,7 +612,7 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Cacheable(value = CACHE_ORDERS_SEARCH,
-            key = "T(org.springframework.util.DigestUtils).md5DigestAsHex(('#keyword=' + #keyword + '&page=' + #pageable.pageNumber + '&size=' + #pageable.pageSize + '&sort=' + #pageable.sort).getBytes())")
+            keyGenerator = CanonicalKeyGenerator.NAME)
     public Page<OrderResponse> searchOrders(String keyword, Pageable pageable) {
         log.debug("Searching orders with keyword: {}", keyword);
 
@@ -614,7 +627,7 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Cacheable(value = CACHE_ORDERS_FILTER,
-            key = "T(org.springframework.util.DigestUtils).md5DigestAsHex(('#filter=' + #filter.toString() + '&page=' + #pageable.pageNumber + '&size=' + #pageable.pageSize + '&sort=' + #pageable.sort).getBytes())")
+            keyGenerator = CanonicalKeyGenerator.NAME)
     public Page<OrderResponse> filterOrders(OrderFilterInput filter, Pageable pageable) {
         log.debug("Filtering orders with: {}", filter);
 
@@ -624,7 +637,8 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    @Cacheable(value = CACHE_ORDERS, key = "'payment-status:' + #paymentStatus + ':' + #pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort")
+    @Cacheable(value = CACHE_ORDERS, keyGenerator = CanonicalKeyGenerator.NAME)
+    @CacheTagged("paymentStatus(#paymentStatus)")
     public Page<OrderResponse> getOrdersByPaymentStatus(PaymentStatus paymentStatus, Pageable pageable) {
         log.debug("Finding orders by payment status: {}", paymentStatus);
 
@@ -638,7 +652,8 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    @Cacheable(value = CACHE_ORDERS, key = "'high-value:' + #threshold + ':' + #pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort")
+    @Cacheable(value = CACHE_ORDERS, keyGenerator = CanonicalKeyGenerator.NAME)
+    @CacheTagged("ORDER_LISTINGS")
     public Page<OrderResponse> getHighValueOrders(BigDecimal threshold, Pageable pageable) {
         log.debug("Finding high-value orders with threshold: {}", threshold);
 
@@ -653,7 +668,8 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    @Cacheable(value = CACHE_ORDERS, key = "'overdue:' + T(org.springframework.util.DigestUtils).md5DigestAsHex(#cutoffDate.toString().getBytes()) + ':' + #pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort")
+    @Cacheable(value = CACHE_ORDERS, keyGenerator = CanonicalKeyGenerator.NAME)
+    @CacheTagged("ORDER_LISTINGS")
     public Page<OrderResponse> getOverdueOrders(LocalDateTime cutoffDate, Pageable pageable) {
         log.debug("Finding overdue orders with cutoff date: {}", cutoffDate);
 
@@ -668,7 +684,8 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    @Cacheable(value = CACHE_ORDERS, key = "'date-range:' + T(org.springframework.util.DigestUtils).md5DigestAsHex((#startDate.toString() + ':' + #endDate.toString()).getBytes()) + ':' + #pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort")
+    @Cacheable(value = CACHE_ORDERS, keyGenerator = CanonicalKeyGenerator.NAME)
+    @CacheTagged("ORDER_LISTINGS")
     public Page<OrderResponse> getOrdersByDateRange(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
         log.debug("Finding orders between {} and {}", startDate, endDate);
 
@@ -684,18 +701,21 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Cacheable(value = "order-exists", key = "#orderId")
+    @CacheTagged("order(#orderId)")
     public boolean existsByIdAndActive(Long orderId) {
         return orderRepository.existsByIdAndIsActiveTrue(orderId);
     }
 
     @Override
     @Cacheable(value = CACHE_ORDER_COUNTS, key = "'user:' + #userId")
+    @CacheTagged("user(#userId)")
     public long countByUserId(Long userId) {
         return orderRepository.countByUserIdAndIsActiveTrue(userId);
     }
 
     @Override
     @Cacheable(value = CACHE_ORDER_COUNTS, key = "'status:' + #status")
+    @CacheTagged("orderStatus(#status)")
     public long countByStatus(OrderStatus status) {
         return orderRepository.countByStatusAndIsActiveTrue(status);
     }
@@ -708,7 +728,8 @@ public class OrderServiceImpl implements OrderService {
      * Get orders that need attention (PENDING, PROCESSING, PAYMENT_PENDING)
      */
     @Override
-    @Cacheable(value = CACHE_ORDERS, key = "'needing-attention:' + #pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort")
+    @Cacheable(value = CACHE_ORDERS, keyGenerator = CanonicalKeyGenerator.NAME)
+    @CacheTagged("ORDER_LISTINGS")
     public Page<OrderResponse> getOrdersNeedingAttention(Pageable pageable) {
         Predicate predicate = OrderPredicates.builder()
                 .withActive(true)
@@ -723,7 +744,8 @@ public class OrderServiceImpl implements OrderService {
      * Get completed orders (DELIVERED)
      */
     @Override
-    @Cacheable(value = CACHE_ORDERS, key = "'completed:' + #pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort")
+    @Cacheable(value = CACHE_ORDERS, keyGenerator = CanonicalKeyGenerator.NAME)
+    @CacheTagged("ORDER_LISTINGS")
     public Page<OrderResponse> getCompletedOrders(Pageable pageable) {
         Predicate predicate = OrderPredicates.builder()
                 .withActive(true)
@@ -738,7 +760,8 @@ public class OrderServiceImpl implements OrderService {
      * Get paid orders
      */
     @Override
-    @Cacheable(value = CACHE_ORDERS, key = "'paid:' + #pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort")
+    @Cacheable(value = CACHE_ORDERS, keyGenerator = CanonicalKeyGenerator.NAME)
+    @CacheTagged("ORDER_LISTINGS")
     public Page<OrderResponse> getPaidOrders(Pageable pageable) {
         Predicate predicate = OrderPredicates.builder()
                 .withActive(true)
@@ -753,7 +776,8 @@ public class OrderServiceImpl implements OrderService {
      * Get orders with tracking numbers
      */
     @Override
-    @Cacheable(value = CACHE_ORDERS, key = "'with-tracking:' + #pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort")
+    @Cacheable(value = CACHE_ORDERS, keyGenerator = CanonicalKeyGenerator.NAME)
+    @CacheTagged("ORDER_LISTINGS")
     public Page<OrderResponse> getOrdersWithTracking(Pageable pageable) {
         Predicate predicate = OrderPredicates.builder()
                 .withActive(true)
@@ -785,12 +809,98 @@ public class OrderServiceImpl implements OrderService {
         }
     }
 
+    /**
+     * Tags an order currently appears under. Taken before a mutation so that
+     * listings the order is about to leave are evicted along with the ones it joins.
+     */
+    private Set<String> orderTags(Order order) {
+        Set<String> tags = new HashSet<>();
+        tags.add(CacheTags.order(order.getId()));
+        tags.add(CacheTags.user(order.getUser().getId()));
+        tags.add(CacheTags.orderStatus(order.getStatus()));
+        tags.add(CacheTags.paymentStatus(order.getPaymentStatus()));
+        return tags;
+    }
+
+    private Order saveAndEvict(Order order, Set<String> staleTags) {
+        Set<String> tags = new HashSet<>(staleTags);
+        OrderTally before = order.getTally();
+        boolean leftPending = before != null && before.status() == OrderStatus.PENDING
+                && order.getStatus() != OrderStatus.PENDING;
+        if (leftPending) {
+            orderReservations.settle(order.getId());
+        }
+        if (leftPending && (order.getStatus() == OrderStatus.CANCELLED || order.getStatus() == OrderStatus.FAILED)) {
+            Map<Long, Integer> quantities = new HashMap<>();
+            order.getOrderItems().forEach(item ->
+                    quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum));
+            returnStock(quantities, tags);
+        }
+        Order saved = orderRepository.save(order);
+        recordWrite(saved);
+        tags.addAll(orderTags(saved));
+        tags.add(CacheTags.ORDER_LISTINGS);
+        tags.add(CacheTags.ORDER_STATS);
+        cacheTagInvalidator.evict(tags);
+        return saved;
+    }
+
+    /**
+     * Follow-up of every order write, in its transaction: the lifecycle event
+     * goes to the outbox, and the statistics and the summary read model take
+     * in the change. Subscribers of the event run after commit, off the
+     * request thread.
+     */
+    private void recordWrite(Order order) {
+        OrderTally before = order.getTally();
+        String eventType = before == null ? OrderEvent.CREATED
+                : before.status() != order.getStatus() ? OrderEvent.STATUS_CHANGED
+                : before.paymentStatus() != order.getPaymentStatus() ? OrderEvent.PAYMENT_STATUS_CHANGED
+                : OrderEvent.UPDATED;
+        outbox.append(OrderEvent.AGGREGATE, order.getId(), eventType,
+                OrderEvent.of(order, before != null ? before.status() : null));
+        orderStatistics.record(order);
+        orderSummaryProjector.project(order);
+    }
+
+    /**
+     * Puts the stock of a cancelled PENDING order back: flash-sale products
+     * through their counters on commit, the rest as one batch of UPDATEs.
+     */
+    private void returnStock(Map<Long, Integer> quantities, Set<String> tags) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> rowLines = hotStockService.restoreOnCommit(quantities);
+        productRepository.restoreForCheckout(rowLines);
+        productFacetEngine.reindexAfterCommit(rowLines.keySet());
+        quantities.keySet().forEach(productId -> tags.add(CacheTags.product(productId)));
+        tags.add(CacheTags.PRODUCT_LISTINGS);
+    }
+
+    private Set<String> createdOrderTags(Order order, Map<Long, InventoryStatus> previousInventory,
+                                         Map<Long, InventoryStatus> currentInventory) {
+        Set<String> tags = orderTags(order);
+        tags.add(CacheTags.ORDER_LISTINGS);
+        tags.add(CacheTags.ORDER_ALL_LISTINGS);
+        tags.add(CacheTags.ORDER_STATS);
+        order.getOrderItems().forEach(item -> {
+            Product product = item.getProduct();
+            tags.add(CacheTags.product(product.getId()));
+            if (previousInventory.get(product.getId()) != currentInventory.get(product.getId())) {
+                tags.add(CacheTags.PRODUCT_LISTINGS);
+            }
+        });
+        return tags;
+    }
+
     private static BigDecimal nullSafe(BigDecimal value) {
         return value != null ? value : BigDecimal.ZERO;
     }
 
     @Override
-    @Cacheable(value = CACHE_ORDERS, key = "'all:' + #status + ':' + #paymentStatus + ':' + #startDate + ':' + #endDate + ':' + #pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort")
+    @Cacheable(value = CACHE_ORDERS, keyGenerator = CanonicalKeyGenerator.NAME)
+    @CacheTagged("ORDER_LISTINGS")
     public Page<OrderResponse> getAllOrders(OrderStatus status, PaymentStatus paymentStatus, LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
         OrderPredicates builder = OrderPredicates.builder().withActive(true);
         if (status != null) builder.withStatus(status);
@@ -800,4 +910,22 @@ public class OrderServiceImpl implements OrderService {
         Predicate predicate = builder.build();
         return orderRepository.findAll(predicate, pageable).map(orderMapper::toResponse);
     }
+
+    @Override
+    public Window<OrderSummaryResponse> scrollUserOrderSummaries(Long userId, OrderStatus status, ScrollPosition position,
+                                                                 Sort sort, int limit) {
+        Window<OrderSummary> window = status == null
+                ? orderSummaryRepository.findByUserId(userId, position, sort, Limit.of(limit))
+                : orderSummaryRepository.findByUserIdAndStatus(userId, status, position, sort, Limit.of(limit));
+        return window.map(orderMapper::toSummaryResponse);
+    }
+
+    @Override
+    public Window<OrderResponse> scrollOrders(Predicate predicate, ScrollPosition position, Sort sort, int limit) {
+        return orderRepository.findBy(predicate, query -> query
+                        .sortBy(sort)
+                        .limit(limit)
+                        .scroll(position))
+                .map(orderMapper::toResponse);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,293 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.stats;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.Order;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderStats;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.PaymentStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order statistics kept in memory instead of aggregated per request.
+ *
+ * <p>The totals per status and payment status are seeded from one GROUP BY
+ * scan at startup. After that every order write reports the order through
+ * {@link #record}: the difference between what the order contributed when it
+ * was loaded ({@link Order#getTally()}) and what it contributes now is
+ * applied once the transaction commits, in O(1). Reads only sum a few dozen
+ * cells.
+ *
+ * <p>Every {@code orders.stats.reconcile-minutes} the scan runs again and is
+ * compared with the totals. Writes that bypass {@link #record} (bulk
+ * UPDATEs, other nodes, manual SQL) show up as drift: it is logged and
+ * counted ({@code orders.stats.drift}) and the scanned totals replace the
+ * in-memory ones.
+ *
+ * <p>Writes keep committing while the scan runs, so the scan alone is not
+ * comparable with the totals. The scan runs in one REPEATABLE READ
+ * transaction, and every change applied meanwhile is buffered with the
+ * order's version as committed. In the same snapshot the buffered orders'
+ * versions are read back: a change whose version the snapshot already has
+ * is in the scan, and the others are added to it. The result is the scan
+ * moved forward to the moment the totals are replaced.
+ *
+ * <p>If the startup scan fails, the first read runs it instead of serving
+ * totals that were never seeded.
+ */
+@Slf4j
+@Component
+public class OrderStatistics {
+
+    /** Reconciliation state for the performance endpoints. */
+    public record Status(LocalDateTime reconciledAt, long reconciliations, long drifts, List<String> lastDrift) {}
+
+    /**
+     * One order's committed change. {@code version} is the order's version
+     * as committed, or null when the order was deleted.
+     */
+    private record Change(Long orderId, Long version, OrderTally before, OrderTally after) {}
+
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate snapshotTransaction;
+    private final long reconcileMinutes;
+
+    private final OrderTotals totals = new OrderTotals();
+    /** Changes applied while a reconciliation scans; null otherwise. Guarded by {@code totals}. */
+    private List<Change> buffered;
+    private LocalDateTime reconciledAt;
+    private List<String> lastDrift = List.of();
+    private final Object reconcileLock = new Object();
+
+    private final Timer reconcileTimer;
+    private final Counter driftCounter;
+
+    private final ScheduledExecutorService reconciler =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("order-stats-reconciler").daemon().factory());
+
+    public OrderStatistics(
+            OrderRepository orderRepository,
+            PlatformTransactionManager transactionManager,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${orders.stats.reconcile-minutes:10}") long reconcileMinutes) {
+        this.orderRepository = orderRepository;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransaction.setReadOnly(true);
+        this.reconcileMinutes = reconcileMinutes;
+
+        MeterRegistry meters = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.reconcileTimer = Timer.builder("orders.stats.reconcile").register(meters);
+        this.driftCounter = Counter.builder("orders.stats.drift").register(meters);
+    }
+
+    @PostConstruct
+    void seed() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.error("Could not seed order statistics; the first read will retry", e);
+        }
+        if (reconcileMinutes > 0) {
+            reconciler.scheduleWithFixedDelay(this::reconcileQuietly, reconcileMinutes, reconcileMinutes, TimeUnit.MINUTES);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        reconciler.shutdownNow();
+    }
+
+    /**
+     * Counts what the current transaction did to {@code order}: a new order,
+     * a transition, a changed total, or a deactivation. Call after the
+     * change, in the transaction that makes it.
+     */
+    public void record(Order order) {
+        OrderTally before = order.getTally();
+        OrderTally after = OrderTally.of(order);
+        order.setTally(after);
+        register(order, false, before, after);
+    }
+
+    /** Counts {@code order} as deleted, in the transaction that deletes it. */
+    public void recordRemoval(Order order) {
+        OrderTally before = order.getTally();
+        order.setTally(null);
+        register(order, true, before, null);
+    }
+
+    public OrderStats snapshot() {
+        if (!isSeeded()) {
+            reconcile();
+        }
+        OrderStats stats;
+        LocalDateTime at;
+        synchronized (totals) {
+            stats = totals.toStats();
+            at = reconciledAt;
+        }
+        stats.setReconciledAt(at);
+        return stats;
+    }
+
+    public Status status() {
+        synchronized (totals) {
+            return new Status(reconciledAt, reconcileTimer.count(), (long) driftCounter.count(), lastDrift);
+        }
+    }
+
+    /** Scans the database and replaces the totals with it, moved forward by the changes made meanwhile. */
+    public void reconcile() {
+        synchronized (reconcileLock) {
+            synchronized (totals) {
+                buffered = new ArrayList<>();
+            }
+            try {
+                long started = System.nanoTime();
+                snapshotTransaction.executeWithoutResult(status -> replaceWith(scan()));
+                reconcileTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            } finally {
+                synchronized (totals) {
+                    buffered = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds to {@code scanned} the buffered changes the scan's snapshot does
+     * not have, and swaps it in. Runs in the scan's transaction; changes keep
+     * arriving until the totals lock is held with none left unchecked.
+     */
+    private void replaceWith(OrderTotals scanned) {
+        Map<Long, Long> versions = new HashMap<>();
+        Set<Long> looked = new HashSet<>();
+        int checked = 0;
+        while (true) {
+            List<Long> unchecked = new ArrayList<>();
+            synchronized (totals) {
+                if (checked == buffered.size()) {
+                    Set<Long> removed = new HashSet<>();
+                    buffered.stream().filter(change -> change.version() == null)
+                            .forEach(change -> removed.add(change.orderId()));
+                    for (Change change : buffered) {
+                        if (!inSnapshot(change, versions, removed)) {
+                            scanned.apply(change.before(), change.after());
+                        }
+                    }
+                    List<String> drift = totals.differences(scanned);
+                    if (reconciledAt != null && !drift.isEmpty()) {
+                        driftCounter.increment();
+                        lastDrift = drift;
+                        log.warn("Order statistics drifted from the database; resetting {} cells: {}", drift.size(), drift);
+                    }
+                    totals.copyFrom(scanned);
+                    reconciledAt = LocalDateTime.now();
+                    return;
+                }
+                for (Change change : buffered.subList(checked, buffered.size())) {
+                    if (looked.add(change.orderId())) {
+                        unchecked.add(change.orderId());
+                    }
+                }
+                checked = buffered.size();
+            }
+            if (!unchecked.isEmpty()) {
+                for (Object[] row : orderRepository.findVersionsByIdIn(unchecked)) {
+                    versions.put((Long) row[0], (Long) row[1]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether the snapshot that produced the scan already has {@code change}.
+     * An order the snapshot does not have was either deleted, with the
+     * deletion among the changes, or not created yet.
+     */
+    private static boolean inSnapshot(Change change, Map<Long, Long> versions, Set<Long> removed) {
+        Long version = versions.get(change.orderId());
+        if (version == null) {
+            return removed.contains(change.orderId());
+        }
+        return change.version() != null && version >= change.version();
+    }
+
+    private boolean isSeeded() {
+        synchronized (totals) {
+            return reconciledAt != null;
+        }
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.error("Order statistics reconciliation failed", e);
+        }
+    }
+
+    private OrderTotals scan() {
+        OrderTotals scanned = new OrderTotals();
+        for (Object[] row : orderRepository.getOrderTotalsByStatusAndPaymentStatus()) {
+            scanned.add((OrderStatus) row[0], (PaymentStatus) row[1], ((Number) row[2]).longValue(),
+                    OrderTally.toCents((BigDecimal) row[3]), OrderTally.toCents((BigDecimal) row[4]));
+        }
+        return scanned;
+    }
+
+    private void register(Order order, boolean removed, OrderTally before, OrderTally after) {
+        if (before == null && after == null || before != null && before.equals(after)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(new Change(order.getId(), removed ? null : order.getVersion(), before, after));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    // The version is read now: flushes bump it up to the commit.
+                    apply(new Change(order.getId(), removed ? null : order.getVersion(), before, after));
+                }
+            }
+        });
+    }
+
+    private void apply(Change change) {
+        synchronized (totals) {
+            totals.apply(change.before(), change.after());
+            if (buffered != null) {
+                buffered.add(change);
+            }
+        }
+    }
+}
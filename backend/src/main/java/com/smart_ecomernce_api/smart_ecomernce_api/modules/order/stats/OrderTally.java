@@ -0,0 +1,32 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.stats;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.Order;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * What one order contributes to the order statistics: its status, payment
+ * status, total and refund, with amounts in cents.
+ */
+public record OrderTally(OrderStatus status, PaymentStatus paymentStatus, long totalCents, long refundCents) {
+
+    /** The order's current contribution, or {@code null} if it is inactive and so not counted. */
+    public static OrderTally of(Order order) {
+        if (!Boolean.TRUE.equals(order.getIsActive()) || order.getStatus() == null || order.getPaymentStatus() == null) {
+            return null;
+        }
+        return new OrderTally(order.getStatus(), order.getPaymentStatus(),
+                toCents(order.getTotalAmount()), toCents(order.getRefundAmount()));
+    }
+
+    static long toCents(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
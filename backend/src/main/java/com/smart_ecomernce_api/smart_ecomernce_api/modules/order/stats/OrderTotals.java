@@ -0,0 +1,153 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.stats;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderStats;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Order count, total and refund per (status, payment status) pair.
+ *
+ * <p>There are only a few dozen pairs, so the totals are three flat arrays
+ * and applying one order's change touches at most two cells. Totals per
+ * status and per payment status are summed from the cells when asked for.
+ *
+ * <p>Not thread-safe; the owner serialises access.
+ */
+final class OrderTotals {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final PaymentStatus[] PAYMENT_STATUSES = PaymentStatus.values();
+    private static final int CELLS = STATUSES.length * PAYMENT_STATUSES.length;
+
+    /** Payment statuses under which the order's total was collected. */
+    private static final Set<PaymentStatus> COLLECTED =
+            EnumSet.of(PaymentStatus.PAID, PaymentStatus.PARTIALLY_REFUNDED, PaymentStatus.REFUNDED);
+
+    private final long[] counts = new long[CELLS];
+    private final long[] totalCents = new long[CELLS];
+    private final long[] refundCents = new long[CELLS];
+
+    /** Moves one order from {@code before} to {@code after}; either may be {@code null} for none. */
+    void apply(OrderTally before, OrderTally after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (before != null) {
+            add(before.status(), before.paymentStatus(), -1, -before.totalCents(), -before.refundCents());
+        }
+        if (after != null) {
+            add(after.status(), after.paymentStatus(), 1, after.totalCents(), after.refundCents());
+        }
+    }
+
+    void add(OrderStatus status, PaymentStatus paymentStatus, long count, long total, long refund) {
+        int cell = cell(status, paymentStatus);
+        counts[cell] += count;
+        totalCents[cell] += total;
+        refundCents[cell] += refund;
+    }
+
+    void copyFrom(OrderTotals other) {
+        System.arraycopy(other.counts, 0, counts, 0, CELLS);
+        System.arraycopy(other.totalCents, 0, totalCents, 0, CELLS);
+        System.arraycopy(other.refundCents, 0, refundCents, 0, CELLS);
+    }
+
+    /** The cells that differ from {@code other}, described for the log; empty if none. */
+    List<String> differences(OrderTotals other) {
+        List<String> differences = new ArrayList<>();
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (counts[cell] != other.counts[cell] || totalCents[cell] != other.totalCents[cell]
+                    || refundCents[cell] != other.refundCents[cell]) {
+                differences.add(STATUSES[cell / PAYMENT_STATUSES.length] + "/" + PAYMENT_STATUSES[cell % PAYMENT_STATUSES.length]
+                        + ": " + counts[cell] + " orders, " + OrderTally.fromCents(totalCents[cell])
+                        + " refunded " + OrderTally.fromCents(refundCents[cell])
+                        + " (expected " + other.counts[cell] + ", " + OrderTally.fromCents(other.totalCents[cell])
+                        + ", " + OrderTally.fromCents(other.refundCents[cell]) + ")");
+            }
+        }
+        return differences;
+    }
+
+    OrderStats toStats() {
+        long[] statusCounts = new long[STATUSES.length];
+        long[] statusTotals = new long[STATUSES.length];
+        long[] statusRefunds = new long[STATUSES.length];
+        long[] paymentCounts = new long[PAYMENT_STATUSES.length];
+        long[] paymentTotals = new long[PAYMENT_STATUSES.length];
+        long[] paymentRefunds = new long[PAYMENT_STATUSES.length];
+        for (int cell = 0; cell < CELLS; cell++) {
+            int status = cell / PAYMENT_STATUSES.length;
+            int payment = cell % PAYMENT_STATUSES.length;
+            statusCounts[status] += counts[cell];
+            statusTotals[status] += totalCents[cell];
+            statusRefunds[status] += refundCents[cell];
+            paymentCounts[payment] += counts[cell];
+            paymentTotals[payment] += totalCents[cell];
+            paymentRefunds[payment] += refundCents[cell];
+        }
+
+        Map<OrderStatus, OrderStats.Totals> byStatus = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : STATUSES) {
+            int i = status.ordinal();
+            byStatus.put(status, totals(statusCounts[i], statusTotals[i], statusRefunds[i]));
+        }
+        Map<PaymentStatus, OrderStats.Totals> byPaymentStatus = new EnumMap<>(PaymentStatus.class);
+        long collectedOrders = 0;
+        long collectedCents = 0;
+        for (PaymentStatus paymentStatus : PAYMENT_STATUSES) {
+            int i = paymentStatus.ordinal();
+            byPaymentStatus.put(paymentStatus, totals(paymentCounts[i], paymentTotals[i], paymentRefunds[i]));
+            if (COLLECTED.contains(paymentStatus)) {
+                collectedOrders += paymentCounts[i];
+                collectedCents += paymentTotals[i];
+            }
+        }
+        long refunds = Arrays.stream(refundCents).sum();
+
+        return OrderStats.builder()
+                .totalOrders(Arrays.stream(counts).sum())
+                .pendingOrders(statusCounts[OrderStatus.PENDING.ordinal()])
+                .processingOrders(statusCounts[OrderStatus.PROCESSING.ordinal()])
+                .shippedOrders(statusCounts[OrderStatus.SHIPPED.ordinal()])
+                .deliveredOrders(statusCounts[OrderStatus.DELIVERED.ordinal()])
+                .cancelledOrders(statusCounts[OrderStatus.CANCELLED.ordinal()])
+                .refundedOrders(statusCounts[OrderStatus.REFUNDED.ordinal()])
+                .totalRevenue(OrderTally.fromCents(collectedCents - refunds))
+                .averageOrderValue(average(collectedCents, collectedOrders))
+                .totalRefunds(OrderTally.fromCents(refunds))
+                .byStatus(byStatus)
+                .byPaymentStatus(byPaymentStatus)
+                .build();
+    }
+
+    private static OrderStats.Totals totals(long count, long total, long refund) {
+        return OrderStats.Totals.builder()
+                .count(count)
+                .amount(OrderTally.fromCents(total))
+                .refunded(OrderTally.fromCents(refund))
+                .averageOrderValue(average(total, count))
+                .build();
+    }
+
+    private static BigDecimal average(long cents, long count) {
+        return count == 0
+                ? BigDecimal.ZERO.setScale(2)
+                : OrderTally.fromCents(cents).divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+    }
+
+    private static int cell(OrderStatus status, PaymentStatus paymentStatus) {
+        return status.ordinal() * PAYMENT_STATUSES.length + paymentStatus.ordinal();
+    }
+}
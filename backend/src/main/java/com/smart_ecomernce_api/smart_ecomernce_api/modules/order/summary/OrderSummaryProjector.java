@@ -0,0 +1,178 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.summary;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.Order;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderItem;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderSummary;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.OrderRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.OrderSummaryRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.Product;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps {@link OrderSummary} rows in step with their orders.
+ *
+ * <p>Order writes call {@link #project} or {@link #remove} inside their own
+ * transaction, so a summary commits or rolls back with the order it
+ * describes. Orders written before the read model existed are backfilled
+ * once after startup, in batches of {@code orders.summary.backfill-batch-size},
+ * on a background thread; listings simply miss them until it is done.
+ *
+ * <p>Summaries are created with {@code INSERT ... ON CONFLICT DO NOTHING}, so
+ * backfills on several nodes and a live write to the same order never fail
+ * on the primary key. When the backfill loses to a live write the live
+ * summary stays; when a live write loses to the backfill it updates the row
+ * the backfill wrote.
+ */
+@Slf4j
+@Component
+public class OrderSummaryProjector implements ApplicationRunner {
+
+    private final OrderSummaryRepository summaryRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean backfillOnStartup;
+    private final int backfillBatchSize;
+
+    private final ExecutorService backfiller =
+            Executors.newSingleThreadExecutor(Thread.ofPlatform().name("order-summary-backfill").daemon().factory());
+
+    public OrderSummaryProjector(
+            OrderSummaryRepository summaryRepository,
+            OrderRepository orderRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${orders.summary.backfill-on-startup:true}") boolean backfillOnStartup,
+            @Value("${orders.summary.backfill-batch-size:500}") int backfillBatchSize) {
+        this.summaryRepository = summaryRepository;
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.backfillOnStartup = backfillOnStartup;
+        this.backfillBatchSize = backfillBatchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (backfillOnStartup) {
+            backfiller.execute(this::backfill);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        backfiller.shutdownNow();
+    }
+
+    /** Writes the summary of {@code order} as it stands, in the current transaction. */
+    public void project(Order order) {
+        if (!Boolean.TRUE.equals(order.getIsActive())) {
+            remove(order.getId());
+            return;
+        }
+        OrderSummary summary = summaryRepository.findById(order.getId()).orElse(null);
+        if (summary == null) {
+            if (summaryRepository.insertIfAbsent(summaryOf(order)) > 0) {
+                return;
+            }
+            // The backfill wrote it meanwhile; bring it up to date.
+            summary = summaryRepository.findById(order.getId()).orElseThrow();
+        }
+        fill(summary, order);
+    }
+
+    private static OrderSummary summaryOf(Order order) {
+        OrderSummary summary = OrderSummary.builder()
+                .id(order.getId())
+                .userId(order.getUser().getId())
+                .createdAt(order.getCreatedAt() != null ? order.getCreatedAt() : LocalDateTime.now())
+                .build();
+        fill(summary, order);
+        return summary;
+    }
+
+    private static void fill(OrderSummary summary, Order order) {
+        summary.setOrderNumber(order.getOrderNumber());
+        summary.setStatus(order.getStatus());
+        summary.setPaymentStatus(order.getPaymentStatus());
+        summary.setTotalAmount(order.getTotalAmount());
+        summary.setItemCount(order.getItemCount());
+        OrderItem first = firstItem(order);
+        summary.setFirstItemName(first != null ? first.getProductName() : null);
+        summary.setFirstItemThumbnail(first != null ? thumbnail(first) : null);
+        summary.setUpdatedAt(LocalDateTime.now());
+    }
+
+    /**
+     * The item the listing shows: the lowest id, since the loaded item list
+     * has no defined order. Items not yet flushed come last, in list order.
+     */
+    private static OrderItem firstItem(Order order) {
+        return order.getOrderItems().stream()
+                .min(Comparator.comparing(OrderItem::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .orElse(null);
+    }
+
+    /** Deletes the summary of an order that was deleted or deactivated, in the current transaction. */
+    public void remove(Long orderId) {
+        summaryRepository.findById(orderId).ifPresent(summaryRepository::delete);
+    }
+
+    /**
+     * Writes summaries for every order that has none. Safe to run on several
+     * nodes at once, and alongside live order writes.
+     *
+     * @return the number of summaries written
+     */
+    public int backfill() {
+        int written = 0;
+        long afterId = 0;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<Long> ids = summaryRepository.findUnsummarisedOrderIds(afterId, Limit.of(backfillBatchSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                written += transactionTemplate.execute(status -> {
+                    int inserted = 0;
+                    for (Order order : orderRepository.findWithItemsByIdIn(ids)) {
+                        if (Boolean.TRUE.equals(order.getIsActive())) {
+                            inserted += summaryRepository.insertIfAbsent(summaryOf(order));
+                        }
+                    }
+                    return inserted;
+                });
+                afterId = ids.get(ids.size() - 1);
+            }
+        } catch (RuntimeException e) {
+            log.error("Order summary backfill stopped after {} summaries", written, e);
+            return written;
+        }
+        if (written > 0) {
+            log.info("Backfilled {} order summaries", written);
+        }
+        return written;
+    }
+
+    private static String thumbnail(OrderItem item) {
+        if (item.getProductImageUrl() != null) {
+            return item.getProductImageUrl();
+        }
+        Product product = item.getProduct();
+        if (product == null) {
+            return null;
+        }
+        return product.getThumbnailUrl() != null ? product.getThumbnailUrl() : product.getImageUrl();
+    }
+}
@@ -2,7 +2,10 @@ package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.controller;
 
 import com.querydsl.core.types.Predicate;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.ProductPredicates;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.pagination.CursorCodec;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.pagination.KeysetSort;
 import com.smart_ecomernce_api.smart_ecomernce_api.common.response.ApiResponse;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.response.CursorPage;
 import com.smart_ecomernce_api.smart_ecomernce_api.common.response.PaginatedResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.*;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.InventoryStatus;
@@ -42,7 +45,10 @@ import java.util.List;
 @Tag(name = "Product Management", description = "APIs for managing products with advanced filtering")
 public class ProductController {
 
+    private static final KeysetSort SCROLL_SORT = KeysetSort.of("createdAt", "name", "price");
+
     private final ProductService productService;
+    private final CursorCodec    cursorCodec;
 
     // ─────────────────────────────────────────────────────────────────────────
     //  CRUD – ADMIN / MANAGER only
@@ -189,6 +195,33 @@ public class ProductController {
                 || featured != null || isNew != null || isBestseller != null || hasDiscount != null;
     }
 
+    @GetMapping("/scroll")
+    @Operation(summary = "Scroll active products with a keyset cursor (no total count)")
+    public ResponseEntity<ApiResponse<CursorPage<ProductResponse>>> scrollProducts(
+            @RequestParam(required = false)            String          cursor,
+            @RequestParam(defaultValue = "20")         int             limit,
+            @RequestParam(defaultValue = "createdAt")  String          sortBy,
+            @RequestParam(defaultValue = "DESC")       Sort.Direction  direction,
+            @RequestParam(required = false) String          search,
+            @RequestParam(required = false) Long            categoryId,
+            @RequestParam(required = false) BigDecimal      minPrice,
+            @RequestParam(required = false) BigDecimal      maxPrice,
+            @RequestParam(required = false) InventoryStatus inventoryStatus,
+            @RequestParam(required = false) Boolean         featured) {
+        Sort sort = SCROLL_SORT.resolve(sortBy, direction);
+        Predicate predicate = ProductPredicates.builder()
+                .withActive(true)
+                .withSearch(search)
+                .withCategoryId(categoryId)
+                .withEffectivePriceBetween(minPrice, maxPrice)
+                .withInventoryStatus(inventoryStatus != null ? inventoryStatus.name() : null)
+                .withFeatured(featured)
+                .build();
+        return ResponseEntity.ok(ApiResponse.success(cursorCodec.toPage(
+                productService.scrollByPredicate(predicate, cursorCodec.decode(cursor, sort), sort,
+                        KeysetSort.limit(limit)))));
+    }
+
     @PostMapping("/filter")
 
     @Operation(summary = "Filter products using a request body")
@@ -200,8 +233,15 @@ public class ProductController {
             @RequestParam(defaultValue = "ASC") Sort.Direction direction) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
         return ResponseEntity.ok(ApiResponse.success(
-                PaginatedResponse.from(productService.findByPredicate(
-                        ProductPredicates.fromFilterRequest(filter), pageable))));
+                PaginatedResponse.from(productService.findByFilters(filter, pageable))));
+    }
+
+    @PostMapping("/filter/facets")
+
+    @Operation(summary = "Facet counts (category, price range, inventory status, flags) for a filter")
+    public ResponseEntity<ApiResponse<ProductFacetsResponse>> filterFacets(
+            @Valid @RequestBody ProductFilterRequest filter) {
+        return ResponseEntity.ok(ApiResponse.success(productService.getFacets(filter)));
     }
 
     @GetMapping("/search")
@@ -373,4 +413,20 @@ public class ProductController {
         return ResponseEntity.ok(ApiResponse.success("Reserved stock released successfully",
                 productService.getProductById(id)));
     }
-}
\ No newline at end of file
+
+    @PostMapping("/{id}/flash-sale")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @Operation(summary = "Enable flash-sale stock mode (Admin)")
+    public ResponseEntity<ApiResponse<ProductResponse>> enableFlashSale(@PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success("Flash-sale mode enabled",
+                productService.enableFlashSale(id)));
+    }
+
+    @DeleteMapping("/{id}/flash-sale")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @Operation(summary = "Disable flash-sale stock mode (Admin)")
+    public ResponseEntity<ApiResponse<ProductResponse>> disableFlashSale(@PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success("Flash-sale mode disabled",
+                productService.disableFlashSale(id)));
+    }
+}
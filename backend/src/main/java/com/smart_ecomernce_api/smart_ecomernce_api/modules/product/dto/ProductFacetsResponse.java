@@ -0,0 +1,41 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.InventoryStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Facet counts for a product filter. Each dimension is counted with every
+ * other constraint of the filter applied but not its own.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductFacetsResponse {
+    private Long total;
+    private Map<Long, Long> categories;
+    private Map<InventoryStatus, Long> inventoryStatuses;
+    private List<PriceRangeFacet> priceRanges;
+    private Long featured;
+    private Long isNew;
+    private Long bestseller;
+    private Long discounted;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class PriceRangeFacet {
+        private BigDecimal min;
+        /** Exclusive; null for the open-ended top range. */
+        private BigDecimal max;
+        private Long count;
+    }
+}
@@ -0,0 +1,36 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last hot-stock journal record applied to a product's stock columns.
+ * Written in the same transaction as the stock change, so replaying the
+ * journal after a crash skips records that already reached the database.
+ */
+@Entity
+@Table(name = "hot_stock_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotStockCheckpoint {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "journal_seq", nullable = false)
+    private Long journalSeq;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -13,6 +13,7 @@ import lombok.*;
 import lombok.experimental.SuperBuilder;
 import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.Formula;
 
 import java.math.BigDecimal;
@@ -109,6 +110,16 @@ public class Product extends BaseEntity {
     @Builder.Default
     private Integer reservedQuantity = 0;
 
+    /**
+     * Optimistic-lock version. The stock UPDATEs that bypass the entity
+     * (checkout, flash-sale flush, the bulk queries) bump it too, so an edit
+     * made from a stale copy fails instead of writing old stock back.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
     /**
      * Available quantity calculated by database formula
      */
@@ -0,0 +1,876 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.inventory;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CacheTagInvalidator;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CacheTags;
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.BadRequestException;
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.InsufficientStockException;
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.ResourceNotFoundException;
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.ServiceBusyException;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.HotStockCheckpoint;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.InventoryStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.Product;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.HotStockCheckpointRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.search.ProductFacetEngine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Flash-sale ("hot") stock mode for individual products.
+ *
+ * <p>While a product is hot, reservations, releases and checkouts change a
+ * {@link StripedStockCounter} in memory instead of locking its row. Every
+ * change is written to the {@link ReservationJournal} before it is
+ * acknowledged, and a background flusher applies the journalled deltas to
+ * {@code reserved_quantity} and {@code stock_quantity} in batches, together
+ * with a {@link HotStockCheckpoint} per product. On startup, journal records
+ * past each product's checkpoint are applied once and hot products come back
+ * with their counters rebuilt from the database.
+ *
+ * <p>The counters live in this node's memory: a hot product must be served
+ * by one node, and its stock columns in the database trail the counters by
+ * up to one flush interval. Stock edits through the product update endpoint
+ * are rejected while it is hot.
+ *
+ * <p>Checkout deductions belong to the order's transaction, so they are
+ * journalled just before it commits, as {@code PENDING} records naming the
+ * order, and flushed only once the commit outcome is known. A crash in
+ * between is settled on recovery by whether the order row exists.
+ */
+@Slf4j
+@Component
+public class HotStockService {
+
+    /** A hot product's stock as the counters see it. */
+    public record Snapshot(long available, long reserved, long stock) {}
+
+    /** Hot-stock state for the performance endpoints. */
+    public record Status(boolean enabled, int shards, Map<Long, Snapshot> products,
+                         long durableSeq, long flushedSeq, int pendingChanges, long journalBytes) {}
+
+    /**
+     * Applies summed deltas. Reserved never goes below zero, as in
+     * {@code Product.releaseReservedStock()}; the status follows the rules of
+     * {@code Product.updateInventoryStatus()}, evaluated on the new values.
+     */
+    private static final String FLUSH_SQL = """
+            UPDATE products
+               SET reserved_quantity = GREATEST(0, reserved_quantity + ?),
+                   stock_quantity = stock_quantity + ?,
+                   inventory_status = CASE
+                       WHEN track_inventory = false THEN 'IN_STOCK'
+                       WHEN stock_quantity + ? - GREATEST(0, reserved_quantity + ?) <= 0
+                           THEN CASE WHEN allow_backorder = true THEN 'BACKORDER' ELSE 'OUT_OF_STOCK' END
+                       WHEN stock_quantity + ? - GREATEST(0, reserved_quantity + ?) <= low_stock_threshold
+                           THEN 'LOW_STOCK'
+                       ELSE 'IN_STOCK' END,
+                   version = version + 1,
+                   updated_at = CURRENT_TIMESTAMP
+             WHERE id = ?
+            """;
+
+    private static final String CHECKPOINT_UPDATE_SQL =
+            "UPDATE hot_stock_checkpoints SET journal_seq = ?, updated_at = CURRENT_TIMESTAMP WHERE product_id = ?";
+
+    private static final String CHECKPOINT_INSERT_SQL =
+            "INSERT INTO hot_stock_checkpoints (product_id, journal_seq, updated_at) VALUES (?, ?, CURRENT_TIMESTAMP)";
+
+    private static final String STATUS_SQL = "SELECT id, inventory_status FROM products WHERE id IN (:ids)";
+
+    private static final String ORDERS_SQL = "SELECT id FROM orders WHERE id IN (:ids)";
+
+    private final ProductRepository productRepository;
+    private final HotStockCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final CacheTagInvalidator cacheTagInvalidator;
+    private final ProductFacetEngine facetEngine;
+    private final boolean enabled;
+    private final int shards;
+    private final Path journalPath;
+    private final long flushIntervalMs;
+    private final long rotateBytes;
+    private final long disableTimeoutMs;
+
+    private final Map<Long, HotProduct> products = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<ReservationJournal.Entry> unflushed = new ConcurrentLinkedQueue<>();
+    private final List<ReservationJournal.Entry> retry = new ArrayList<>();
+    /** Commit outcome of durable PENDING records, by sequence number, until the flusher takes them. */
+    private final Map<Long, Boolean> outcomes = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("hot-stock-flusher").daemon().factory());
+
+    private volatile long flushedSeq;
+    private ReservationJournal journal;
+
+    public HotStockService(
+            ProductRepository productRepository,
+            HotStockCheckpointRepository checkpointRepository,
+            TransactionTemplate transactionTemplate,
+            JdbcTemplate jdbcTemplate,
+            CacheTagInvalidator cacheTagInvalidator,
+            ProductFacetEngine facetEngine,
+            @Value("${inventory.hot-stock.enabled:false}") boolean enabled,
+            @Value("${inventory.hot-stock.shards:0}") int shards,
+            @Value("${inventory.hot-stock.journal-path:data/hot-stock.journal}") String journalPath,
+            @Value("${inventory.hot-stock.flush-interval-ms:200}") long flushIntervalMs,
+            @Value("${inventory.hot-stock.journal-rotate-bytes:67108864}") long rotateBytes,
+            @Value("${inventory.hot-stock.disable-timeout-ms:10000}") long disableTimeoutMs) {
+        this.productRepository = productRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.cacheTagInvalidator = cacheTagInvalidator;
+        this.facetEngine = facetEngine;
+        this.enabled = enabled;
+        this.shards = shards > 0 ? shards : Runtime.getRuntime().availableProcessors() * 2;
+        this.journalPath = Path.of(journalPath);
+        this.flushIntervalMs = flushIntervalMs;
+        this.rotateBytes = rotateBytes;
+        this.disableTimeoutMs = disableTimeoutMs;
+    }
+
+    /**
+     * Applies journal records that did not reach the database before the last
+     * shutdown, brings hot products back and starts the flusher. Runs before
+     * the application takes requests.
+     */
+    @PostConstruct
+    void recover() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        ReservationJournal.Replay replay = ReservationJournal.read(journalPath);
+        Map<Long, Long> checkpoints = new HashMap<>();
+        checkpointRepository.findAll().forEach(c -> checkpoints.put(c.getProductId(), c.getJournalSeq()));
+
+        long lastSeq = checkpoints.values().stream().mapToLong(Long::longValue).max().orElse(0);
+        List<ReservationJournal.Entry> pending = new ArrayList<>();
+        Set<Long> checkoutOrders = new HashSet<>();
+        Map<Long, ReservationJournal.Type> lastMarker = new LinkedHashMap<>();
+        for (ReservationJournal.Entry entry : replay.entries()) {
+            lastSeq = Math.max(lastSeq, entry.seq());
+            if (!isChange(entry)) {
+                lastMarker.put(entry.productId(), entry.type());
+            } else if (entry.seq() > checkpoints.getOrDefault(entry.productId(), 0L)) {
+                pending.add(entry);
+                if (entry.type() == ReservationJournal.Type.PENDING) {
+                    checkoutOrders.add(entry.orderId());
+                }
+            }
+        }
+        // A checkout's records count only if its order committed.
+        Set<Long> committed = existingOrders(checkoutOrders);
+        pending.removeIf(entry -> entry.type() == ReservationJournal.Type.PENDING
+                && !committed.contains(entry.orderId()));
+        if (!pending.isEmpty()) {
+            log.info("Applying {} hot-stock changes from journal {}", pending.size(), journalPath);
+            Set<Long> applied = apply(pending);
+            cacheTagInvalidator.evict(applied.stream().map(CacheTags::product).toList());
+            cacheTagInvalidator.evict(CacheTags.PRODUCT_LISTINGS);
+        }
+        flushedSeq = lastSeq;
+        journal = new ReservationJournal(journalPath, replay.validLength(), lastSeq + 1, unflushed::add);
+
+        List<Long> hot = lastMarker.entrySet().stream()
+                .filter(e -> e.getValue() == ReservationJournal.Type.ENABLE)
+                .map(Map.Entry::getKey)
+                .toList();
+        transactionTemplate.executeWithoutResult(tx -> hot.forEach(id -> productRepository
+                .findByIdAndIsActiveTrue(id)
+                .ifPresent(product -> products.put(id, new HotProduct(product, this.shards)))));
+        journal.rotate(() -> flushedSeq, List.copyOf(products.keySet())).join();
+        if (!products.isEmpty()) {
+            log.info("Hot-stock mode restored for products {}", products.keySet());
+        }
+
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (!enabled) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(10, TimeUnit.SECONDS)) {
+                // Whatever is left is in the journal and applied on the next start.
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            flushQuietly();
+            journal.close();
+        } catch (IOException e) {
+            log.warn("Could not close hot-stock journal {}", journalPath, e);
+        }
+    }
+
+    // ==================== Mode switching ====================
+
+    /**
+     * Puts a product into hot-stock mode, seeding its counters from the
+     * database row under a row lock.
+     */
+    public Snapshot enable(Long productId) {
+        if (!enabled) {
+            throw new BadRequestException("Flash-sale stock mode is disabled");
+        }
+        synchronized (products) {
+            HotProduct current = products.get(productId);
+            if (current != null) {
+                if (current.closed) {
+                    throw new BadRequestException("Product " + productId + " is leaving flash-sale mode");
+                }
+                return current.snapshot();
+            }
+            return transactionTemplate.execute(tx -> {
+                Product product = productRepository.findByIdWithLockAndIsActiveTrue(productId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + productId));
+                if (!Boolean.TRUE.equals(product.getTrackInventory())) {
+                    throw new BadRequestException("Flash-sale mode needs a product that tracks inventory");
+                }
+                await(journal.append(ReservationJournal.Type.ENABLE, productId, 0, 0));
+                HotProduct hot = new HotProduct(product, shards);
+                products.put(productId, hot);
+                log.info("Hot-stock mode enabled for product {} with {} available", productId, hot.available.sum());
+                return hot.snapshot();
+            });
+        }
+    }
+
+    /**
+     * Takes a product out of hot-stock mode: waits for operations in flight,
+     * flushes its changes and hands it back to the row-locking path.
+     *
+     * <p>The flusher applies records in sequence order, so a checkout of
+     * another hot product that is still committing holds this product's
+     * changes back too. If the journal cannot be flushed up to the disable
+     * record within {@code disable-timeout-ms}, the product stays hot and
+     * {@link ServiceBusyException} is thrown.
+     */
+    public void disable(Long productId) {
+        HotProduct hot;
+        synchronized (products) {
+            hot = products.get(productId);
+            if (hot == null || hot.closed) {
+                throw new BadRequestException("Product " + productId + " is not in flash-sale mode");
+            }
+            hot.closed = true;
+        }
+        // Checkouts hold their product until their transaction completes, which can
+        // take a while; wait for them without blocking enable/disable of other products.
+        try {
+            hot.awaitIdle();
+        } catch (InterruptedException e) {
+            hot.closed = false;
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for hot-stock operations on product " + productId, e);
+        }
+        synchronized (products) {
+            ReservationJournal.Entry marker;
+            boolean flushed;
+            try {
+                marker = await(journal.append(ReservationJournal.Type.DISABLE, productId, 0, 0));
+                flushed = flushThrough(marker.seq());
+            } catch (RuntimeException e) {
+                hot.closed = false;
+                throw e;
+            }
+            if (!flushed) {
+                // The row still trails the counters; handing it back now could oversell.
+                hot.closed = false;
+                await(journal.append(ReservationJournal.Type.ENABLE, productId, 0, 0));
+                log.warn("Hot-stock mode for product {} stays on: journal flushed to {}, disable record is {}",
+                        productId, flushedSeq, marker.seq());
+                throw new ServiceBusyException("Product " + productId
+                        + " has checkouts still committing; try leaving flash-sale mode again shortly",
+                        Math.max(1, TimeUnit.MILLISECONDS.toSeconds(disableTimeoutMs)));
+            }
+            products.remove(productId);
+            cacheTagInvalidator.evict(CacheTags.product(productId), CacheTags.PRODUCT_LISTINGS);
+            facetEngine.reindexAfterCommit(List.of(productId));
+            log.info("Hot-stock mode disabled for product {}", productId);
+        }
+    }
+
+    public boolean isHot(Long productId) {
+        return products.containsKey(productId);
+    }
+
+    public Optional<Snapshot> snapshot(Long productId) {
+        return Optional.ofNullable(products.get(productId)).map(HotProduct::snapshot);
+    }
+
+    // ==================== Stock operations ====================
+    // Each returns false, without doing anything, when the product is not hot.
+
+    public boolean reserve(Long productId, int quantity) {
+        HotProduct hot = enter(productId);
+        if (hot == null) {
+            return false;
+        }
+        try {
+            take(hot, quantity);
+            hot.reserved.addAndGet(quantity);
+            journal(hot, quantity, 0, () -> {
+                hot.reserved.addAndGet(-quantity);
+                hot.available.add(quantity);
+            });
+            return true;
+        } finally {
+            hot.exit();
+        }
+    }
+
+    public boolean release(Long productId, int quantity) {
+        HotProduct hot = enter(productId);
+        if (hot == null) {
+            return false;
+        }
+        try {
+            long released = hot.takeReserved(quantity);
+            journal(hot, (int) -released, 0, () -> hot.reserved.addAndGet(released));
+            hot.available.add(released);
+            return true;
+        } finally {
+            hot.exit();
+        }
+    }
+
+    /** Deducts sold stock, consuming this product's reservation first, as {@code Product.deductStock()} does. */
+    public boolean deduct(Long productId, int quantity) {
+        HotProduct hot = enter(productId);
+        if (hot == null) {
+            return false;
+        }
+        try {
+            long fromReserved = hot.takeReserved(quantity);
+            long fromAvailable = quantity - fromReserved;
+            if (!hot.available.tryTake(fromAvailable)) {
+                hot.reserved.addAndGet(fromReserved);
+                throw new InsufficientStockException(hot.name, (int) hot.available.sum(), quantity);
+            }
+            hot.stock.addAndGet(-quantity);
+            journal(hot, (int) -fromReserved, -quantity, () -> {
+                hot.stock.addAndGet(quantity);
+                hot.reserved.addAndGet(fromReserved);
+                hot.available.add(fromAvailable);
+            });
+            return true;
+        } finally {
+            hot.exit();
+        }
+    }
+
+    public boolean restore(Long productId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        HotProduct hot = enter(productId);
+        if (hot == null) {
+            return false;
+        }
+        try {
+            journal(hot, 0, quantity, () -> { });
+            hot.stock.addAndGet(quantity);
+            hot.available.add(quantity);
+            return true;
+        } finally {
+            hot.exit();
+        }
+    }
+
+    /**
+     * Takes the hot lines of order {@code orderId}'s checkout out of stock and
+     * returns the lines left for the database. Must run inside the transaction
+     * that saves the order: the deductions are journalled as it commits, and
+     * if it rolls back the units go back to the counters.
+     */
+    public Map<Long, Integer> checkout(Long orderId, Map<Long, Integer> quantities) {
+        if (products.isEmpty()) {
+            return quantities;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Hot-stock checkout requires a transaction");
+        }
+        Map<Long, Integer> cold = new HashMap<>();
+        List<HotProduct> taken = new ArrayList<>();
+        List<Integer> takenQuantities = new ArrayList<>();
+        try {
+            for (Map.Entry<Long, Integer> line : new TreeMap<>(quantities).entrySet()) {
+                HotProduct hot = enter(line.getKey());
+                if (hot == null) {
+                    cold.put(line.getKey(), line.getValue());
+                    continue;
+                }
+                try {
+                    take(hot, line.getValue());
+                } catch (RuntimeException e) {
+                    hot.exit();
+                    throw e;
+                }
+                hot.stock.addAndGet(-line.getValue());
+                taken.add(hot);
+                takenQuantities.add(line.getValue());
+            }
+        } catch (RuntimeException e) {
+            for (int i = 0; i < taken.size(); i++) {
+                giveBack(taken.get(i), takenQuantities.get(i));
+                taken.get(i).exit();
+            }
+            throw e;
+        }
+
+        if (!taken.isEmpty()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private final List<ReservationJournal.Entry> journalled = new ArrayList<>();
+
+                /** Journals the deductions; a failed write fails the commit. */
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    // Queue every line before waiting, so they share one group commit.
+                    List<CompletableFuture<ReservationJournal.Entry>> appends = new ArrayList<>(taken.size());
+                    for (int i = 0; i < taken.size(); i++) {
+                        appends.add(journal.append(ReservationJournal.Type.PENDING, taken.get(i).productId,
+                                0, -takenQuantities.get(i), orderId));
+                    }
+                    RuntimeException failure = null;
+                    for (CompletableFuture<ReservationJournal.Entry> append : appends) {
+                        try {
+                            journalled.add(await(append));
+                        } catch (RuntimeException e) {
+                            failure = e;
+                        }
+                    }
+                    if (failure != null) {
+                        throw failure;
+                    }
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    boolean committed = status == STATUS_COMMITTED
+                            || (status == STATUS_UNKNOWN && !journalled.isEmpty() && orderCommitted(orderId));
+                    journalled.forEach(entry -> outcomes.put(entry.seq(), committed));
+                    for (int i = 0; i < taken.size(); i++) {
+                        HotProduct hot = taken.get(i);
+                        try {
+                            if (!committed) {
+                                giveBack(hot, takenQuantities.get(i));
+                            }
+                        } finally {
+                            // Held until the checkout completes so disable() waits for its outcome.
+                            hot.exit();
+                        }
+                    }
+                }
+            });
+        }
+        return cold;
+    }
+
+    /**
+     * Queues the hot lines of {@code quantities} to go back into their
+     * counters when the surrounding transaction commits, and returns the
+     * lines left for the database. The products stay hot until then.
+     */
+    public Map<Long, Integer> restoreOnCommit(Map<Long, Integer> quantities) {
+        if (products.isEmpty()) {
+            return quantities;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Hot-stock restore requires a transaction");
+        }
+        Map<Long, Integer> cold = new HashMap<>();
+        Map<HotProduct, Integer> held = new LinkedHashMap<>();
+        quantities.forEach((productId, quantity) -> {
+            HotProduct hot = enter(productId);
+            if (hot == null) {
+                cold.put(productId, quantity);
+            } else {
+                held.put(hot, quantity);
+            }
+        });
+
+        if (!held.isEmpty()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    held.forEach((hot, quantity) -> {
+                        try {
+                            if (status == STATUS_COMMITTED) {
+                                compensate(hot, quantity);
+                            }
+                        } finally {
+                            hot.exit();
+                        }
+                    });
+                }
+            });
+        }
+        return cold;
+    }
+
+    public Status status() {
+        Map<Long, Snapshot> snapshots = new TreeMap<>();
+        products.forEach((id, hot) -> snapshots.put(id, hot.snapshot()));
+        long journalBytes = 0;
+        if (journal != null) {
+            try {
+                journalBytes = journal.size();
+            } catch (IOException ignored) {
+                // reported as 0
+            }
+        }
+        return new Status(enabled, shards, snapshots, journal != null ? journal.durableSeq() : 0,
+                flushedSeq, unflushed.size() + retry.size(), journalBytes);
+    }
+
+    private HotProduct enter(Long productId) {
+        HotProduct hot = products.get(productId);
+        if (hot == null) {
+            return null;
+        }
+        hot.inflight.incrementAndGet();
+        if (hot.closed) {
+            hot.exit();
+            return null;
+        }
+        return hot;
+    }
+
+    private static void take(HotProduct hot, int quantity) {
+        if (!hot.available.tryTake(quantity)) {
+            throw new InsufficientStockException(hot.name, (int) Math.max(hot.available.sum(), 0), quantity);
+        }
+    }
+
+    /** Journals a change, running {@code undo} on the in-memory state if the write fails. */
+    private void journal(HotProduct hot, int reservedDelta, int stockDelta, Runnable undo) {
+        try {
+            await(journal.append(ReservationJournal.Type.CHANGE, hot.productId, reservedDelta, stockDelta));
+        } catch (RuntimeException e) {
+            undo.run();
+            throw e;
+        }
+    }
+
+    private static void giveBack(HotProduct hot, int quantity) {
+        hot.stock.addAndGet(quantity);
+        hot.available.add(quantity);
+    }
+
+    private void compensate(HotProduct hot, int quantity) {
+        try {
+            await(journal.append(ReservationJournal.Type.CHANGE, hot.productId, 0, quantity));
+            hot.stock.addAndGet(quantity);
+            hot.available.add(quantity);
+        } catch (RuntimeException e) {
+            // The deduction stays journalled; the stock is short until corrected by hand.
+            log.error("Could not return {} units of product {} to its counter",
+                    quantity, hot.productId, e);
+        }
+    }
+
+    private static ReservationJournal.Entry await(CompletableFuture<ReservationJournal.Entry> write) {
+        try {
+            return write.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Hot-stock journal unavailable", e.getCause());
+        }
+    }
+
+    // ==================== Flushing ====================
+
+    /**
+     * Flushes until every record up to {@code seq} is in the database,
+     * returning false if that takes longer than {@code disableTimeoutMs}.
+     */
+    private boolean flushThrough(long seq) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(disableTimeoutMs);
+        try {
+            while (true) {
+                try {
+                    flusher.submit(this::flush).get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Could not flush hot stock", e.getCause());
+                }
+                if (flushedSeq >= seq) {
+                    return true;
+                }
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return false;
+                }
+                Thread.sleep(Math.min(flushIntervalMs, remaining));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while flushing hot stock", e);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Hot-stock flush failed; retrying on the next run", e);
+        }
+    }
+
+    /**
+     * Applies every durable change not yet in the database, in sequence order.
+     * A checkout's PENDING records are applied once its transaction committed
+     * and dropped if it rolled back; while it is still committing, they and
+     * every later record wait for the next run. Runs on the flusher thread.
+     */
+    private void flush() {
+        long drainedSeq = -1;
+        ReservationJournal.Entry entry;
+        while ((entry = unflushed.peek()) != null) {
+            if (entry.type() == ReservationJournal.Type.PENDING) {
+                Boolean committed = outcomes.remove(entry.seq());
+                if (committed == null) {
+                    break;
+                }
+                if (committed) {
+                    retry.add(entry);
+                }
+            } else {
+                retry.add(entry);
+            }
+            unflushed.poll();
+            drainedSeq = entry.seq();
+        }
+        if (retry.isEmpty()) {
+            if (drainedSeq >= 0) {
+                flushedSeq = drainedSeq;
+            }
+            return;
+        }
+        List<ReservationJournal.Entry> batch = List.copyOf(retry);
+        Set<Long> changed = apply(batch);
+        retry.clear();
+        flushedSeq = Math.max(batch.get(batch.size() - 1).seq(), drainedSeq);
+
+        List<String> tags = new ArrayList<>();
+        changed.forEach(id -> tags.add(CacheTags.product(id)));
+        if (!changed.isEmpty()) {
+            Set<Long> statusChanged = refreshStatuses(changed);
+            if (!statusChanged.isEmpty()) {
+                tags.add(CacheTags.PRODUCT_LISTINGS);
+                facetEngine.reindexAfterCommit(statusChanged);
+            }
+        }
+        cacheTagInvalidator.evict(tags);
+
+        try {
+            if (journal.size() > rotateBytes) {
+                journal.rotate(() -> flushedSeq, List.copyOf(products.keySet()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Sums the changes per product and applies them, with each product's
+     * checkpoint, in one transaction and in ascending id order.
+     *
+     * @return ids of the products whose stock columns were updated
+     */
+    private Set<Long> apply(List<ReservationJournal.Entry> entries) {
+        Map<Long, long[]> deltas = new TreeMap<>();
+        for (ReservationJournal.Entry entry : entries) {
+            if (!isChange(entry)) {
+                continue;
+            }
+            long[] delta = deltas.computeIfAbsent(entry.productId(), id -> new long[3]);
+            delta[0] += entry.reservedDelta();
+            delta[1] += entry.stockDelta();
+            delta[2] = Math.max(delta[2], entry.seq());
+        }
+        if (deltas.isEmpty()) {
+            return Set.of();
+        }
+        List<Map.Entry<Long, long[]>> rows = List.copyOf(deltas.entrySet());
+        transactionTemplate.executeWithoutResult(tx -> {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch(rows, (ps, id, delta) -> {
+                ps.setLong(1, delta[0]);
+                ps.setLong(2, delta[1]);
+                ps.setLong(3, delta[1]);
+                ps.setLong(4, delta[0]);
+                ps.setLong(5, delta[1]);
+                ps.setLong(6, delta[0]);
+                ps.setLong(7, id);
+            }));
+            int[] updated = jdbcTemplate.batchUpdate(CHECKPOINT_UPDATE_SQL, batch(rows, (ps, id, delta) -> {
+                ps.setLong(1, delta[2]);
+                ps.setLong(2, id);
+            }));
+            List<Map.Entry<Long, long[]>> missing = new ArrayList<>();
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 0) {
+                    missing.add(rows.get(i));
+                }
+            }
+            if (!missing.isEmpty()) {
+                jdbcTemplate.batchUpdate(CHECKPOINT_INSERT_SQL, batch(missing, (ps, id, delta) -> {
+                    ps.setLong(1, id);
+                    ps.setLong(2, delta[2]);
+                }));
+            }
+        });
+        return deltas.keySet();
+    }
+
+    private static boolean isChange(ReservationJournal.Entry entry) {
+        return entry.type() == ReservationJournal.Type.CHANGE || entry.type() == ReservationJournal.Type.PENDING;
+    }
+
+    /** Ids among {@code orderIds} with a committed order row. */
+    private Set<Long> existingOrders(Set<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(namedJdbcTemplate.queryForList(ORDERS_SQL, Map.of("ids", orderIds), Long.class));
+    }
+
+    /** Settles a checkout whose commit outcome the transaction manager could not report. */
+    private boolean orderCommitted(Long orderId) {
+        try {
+            return !existingOrders(Set.of(orderId)).isEmpty();
+        } catch (RuntimeException e) {
+            // Keep the deduction: short stock can be corrected, an oversold product cannot.
+            log.error("Could not tell whether order {} committed; keeping its hot-stock deduction", orderId, e);
+            return true;
+        }
+    }
+
+    private Set<Long> refreshStatuses(Set<Long> productIds) {
+        Set<Long> statusChanged = new HashSet<>();
+        namedJdbcTemplate.query(STATUS_SQL, Map.of("ids", productIds), rs -> {
+            long id = rs.getLong("id");
+            InventoryStatus status = InventoryStatus.valueOf(rs.getString("inventory_status"));
+            HotProduct hot = products.get(id);
+            if (hot == null || hot.status != status) {
+                statusChanged.add(id);
+                if (hot != null) {
+                    hot.status = status;
+                }
+            }
+        });
+        return statusChanged;
+    }
+
+    private interface RowSetter {
+        void set(PreparedStatement ps, Long productId, long[] delta) throws SQLException;
+    }
+
+    private static BatchPreparedStatementSetter batch(List<Map.Entry<Long, long[]>> rows, RowSetter setter) {
+        return new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                setter.set(ps, rows.get(i).getKey(), rows.get(i).getValue());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        };
+    }
+
+    /** In-memory stock of one hot product. */
+    private static final class HotProduct {
+
+        final long productId;
+        final String name;
+        final StripedStockCounter available;
+        final AtomicLong reserved;
+        final AtomicLong stock;
+        final AtomicInteger inflight = new AtomicInteger();
+        volatile boolean closed;
+        volatile InventoryStatus status;
+
+        HotProduct(Product product, int shards) {
+            this.productId = product.getId();
+            this.name = product.getName();
+            this.reserved = new AtomicLong(product.getReservedQuantity());
+            this.stock = new AtomicLong(product.getStockQuantity());
+            this.available = new StripedStockCounter(shards, stock.get() - reserved.get());
+            this.status = product.getInventoryStatus();
+        }
+
+        /** Takes up to {@code quantity} from the reservation, returning how much it took. */
+        long takeReserved(long quantity) {
+            long current;
+            long taken;
+            do {
+                current = reserved.get();
+                taken = Math.min(quantity, Math.max(current, 0));
+            } while (!reserved.compareAndSet(current, current - taken));
+            return taken;
+        }
+
+        void exit() {
+            if (inflight.decrementAndGet() == 0 && closed) {
+                synchronized (this) {
+                    notifyAll();
+                }
+            }
+        }
+
+        /** Blocks until no operation holds this product; call after setting {@link #closed}. */
+        synchronized void awaitIdle() throws InterruptedException {
+            while (inflight.get() > 0) {
+                wait();
+            }
+        }
+
+        Snapshot snapshot() {
+            return new Snapshot(available.sum(), reserved.get(), stock.get());
+        }
+    }
+}
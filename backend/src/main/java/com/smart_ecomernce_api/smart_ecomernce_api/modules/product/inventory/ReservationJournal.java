@@ -0,0 +1,327 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.inventory;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of hot-stock changes, written before a change is
+ * acknowledged so that changes not yet flushed to the database survive a
+ * crash.
+ *
+ * <p>A single writer thread group-commits: it drains every append queued
+ * while the previous {@code fsync} ran, writes them in one go and forces the
+ * file once for all of them. Each record is fixed-size and carries a CRC, so
+ * a record torn by a crash is detected and the log is cut there on recovery.
+ * Durable records are handed to {@code onDurable} in sequence order.
+ *
+ * <p>{@link Type#PENDING} records are changes made by a transaction that had
+ * not committed when they were written; they carry the id of the order that
+ * transaction saves, so recovery can tell whether it committed.
+ */
+@Slf4j
+public class ReservationJournal implements Closeable {
+
+    public enum Type { ENABLE, DISABLE, CHANGE, PENDING }
+
+    /**
+     * One journalled change: deltas to apply to a product's reserved and stock
+     * quantities. {@code orderId} is set on {@link Type#PENDING} records only.
+     */
+    public record Entry(long seq, Type type, long productId, int reservedDelta, int stockDelta, long orderId) {
+
+        public Entry(long seq, Type type, long productId, int reservedDelta, int stockDelta) {
+            this(seq, type, productId, reservedDelta, stockDelta, 0);
+        }
+    }
+
+    /** Records read back from a journal file, and the length of its intact prefix. */
+    public record Replay(List<Entry> entries, long validLength) {}
+
+    static final int RECORD_SIZE = Long.BYTES + 1 + Long.BYTES + Integer.BYTES * 2 + Long.BYTES + Integer.BYTES;
+    private static final int MAX_BATCH = 1024;
+    private static final Object STOP = new Object();
+
+    private record Append(Type type, long productId, int reservedDelta, int stockDelta, long orderId,
+                          CompletableFuture<Entry> done) {}
+
+    private record Rotate(LongSupplier flushedSeq, List<Long> carriedProducts, CompletableFuture<Boolean> done) {}
+
+    private final Path path;
+    private final Consumer<Entry> onDurable;
+    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(RECORD_SIZE * MAX_BATCH);
+    private final Thread writer;
+
+    private FileChannel channel;
+    private long nextSeq;
+    private volatile long durableSeq;
+
+    /**
+     * Opens {@code path} for appending after its intact prefix, numbering new
+     * records from {@code firstSeq}.
+     */
+    public ReservationJournal(Path path, long validLength, long firstSeq, Consumer<Entry> onDurable) throws IOException {
+        this.path = path;
+        this.onDurable = onDurable;
+        this.nextSeq = firstSeq;
+        this.durableSeq = firstSeq - 1;
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.truncate(validLength);
+        channel.position(validLength);
+        this.writer = Thread.ofPlatform().name("hot-stock-journal").daemon().start(this::writeLoop);
+    }
+
+    /** Queues a record; the future completes once it is on disk. */
+    public CompletableFuture<Entry> append(Type type, long productId, int reservedDelta, int stockDelta) {
+        return append(type, productId, reservedDelta, stockDelta, 0);
+    }
+
+    /** Queues a record made on behalf of {@code orderId}; the future completes once it is on disk. */
+    public CompletableFuture<Entry> append(Type type, long productId, int reservedDelta, int stockDelta, long orderId) {
+        CompletableFuture<Entry> done = new CompletableFuture<>();
+        queue.add(new Append(type, productId, reservedDelta, stockDelta, orderId, done));
+        return done;
+    }
+
+    /**
+     * Replaces the file with one holding only an {@link Type#ENABLE} record per
+     * product in {@code carriedProducts}, provided every durable record has
+     * been flushed ({@code flushedSeq} has caught up). Completes with whether
+     * the journal was rotated.
+     */
+    public CompletableFuture<Boolean> rotate(LongSupplier flushedSeq, List<Long> carriedProducts) {
+        CompletableFuture<Boolean> done = new CompletableFuture<>();
+        queue.add(new Rotate(flushedSeq, List.copyOf(carriedProducts), done));
+        return done;
+    }
+
+    public long size() throws IOException {
+        return channel.size();
+    }
+
+    public long durableSeq() {
+        return durableSeq;
+    }
+
+    @Override
+    public void close() throws IOException {
+        queue.add(STOP);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    /** Reads the intact prefix of a journal file; a missing file is empty. */
+    public static Replay read(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return new Replay(List.of(), 0);
+        }
+        List<Entry> entries = new ArrayList<>();
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        long valid = 0;
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (true) {
+                record.clear();
+                while (record.hasRemaining() && in.read(record) >= 0) {
+                    // keep reading until the record is complete or the file ends
+                }
+                if (record.hasRemaining()) {
+                    break;
+                }
+                record.flip();
+                Entry entry = decode(record);
+                if (entry == null) {
+                    log.warn("Hot-stock journal {} is corrupt after {} records; discarding the rest", path, entries.size());
+                    break;
+                }
+                entries.add(entry);
+                valid += RECORD_SIZE;
+            }
+        }
+        return new Replay(entries, valid);
+    }
+
+    private void writeLoop() {
+        List<Object> batch = new ArrayList<>(MAX_BATCH);
+        List<Append> appends = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+            for (Object item : batch) {
+                if (item instanceof Append append) {
+                    appends.add(append);
+                    continue;
+                }
+                commit(appends);
+                if (item == STOP) {
+                    failAll(new IOException("Hot-stock journal closed"));
+                    return;
+                }
+                rotateNow((Rotate) item);
+            }
+            commit(appends);
+            batch.clear();
+        }
+    }
+
+    private void commit(List<Append> appends) {
+        if (appends.isEmpty()) {
+            return;
+        }
+        List<Entry> entries = new ArrayList<>(appends.size());
+        long position = -1;
+        try {
+            position = channel.position();
+            buffer.clear();
+            for (Append append : appends) {
+                Entry entry = new Entry(nextSeq++, append.type(), append.productId(),
+                        append.reservedDelta(), append.stockDelta(), append.orderId());
+                encode(entry, buffer);
+                entries.add(entry);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            log.error("Hot-stock journal write failed; rejecting {} changes", appends.size(), e);
+            nextSeq -= entries.size();
+            try {
+                if (position >= 0) {
+                    channel.truncate(position);
+                    channel.position(position);
+                }
+            } catch (IOException ignored) {
+                // the next write fails the same way
+            }
+            appends.forEach(append -> append.done().completeExceptionally(e));
+            appends.clear();
+            return;
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            durableSeq = entry.seq();
+            onDurable.accept(entry);
+            appends.get(i).done().complete(entry);
+        }
+        appends.clear();
+    }
+
+    private void rotateNow(Rotate rotate) {
+        if (rotate.flushedSeq().getAsLong() < durableSeq) {
+            rotate.done().complete(false);
+            return;
+        }
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            List<Entry> carried = new ArrayList<>();
+            buffer.clear();
+            for (Long productId : rotate.carriedProducts()) {
+                if (!buffer.hasRemaining()) {
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                Entry entry = new Entry(nextSeq++, Type.ENABLE, productId, 0, 0);
+                encode(entry, buffer);
+                carried.add(entry);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(false);
+            channel.close();
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(path, StandardOpenOption.WRITE);
+            channel.position(channel.size());
+            carried.forEach(entry -> {
+                durableSeq = entry.seq();
+                onDurable.accept(entry);
+            });
+            rotate.done().complete(true);
+        } catch (IOException e) {
+            log.error("Hot-stock journal rotation failed", e);
+            try {
+                if (!channel.isOpen()) {
+                    channel = FileChannel.open(path, StandardOpenOption.WRITE);
+                    channel.position(channel.size());
+                }
+            } catch (IOException reopen) {
+                log.error("Could not reopen hot-stock journal {}", path, reopen);
+            }
+            rotate.done().completeExceptionally(e);
+        }
+    }
+
+    private void failAll(IOException cause) {
+        Object item;
+        while ((item = queue.poll()) != null) {
+            if (item instanceof Append append) {
+                append.done().completeExceptionally(cause);
+            } else if (item instanceof Rotate rotate) {
+                rotate.done().complete(false);
+            }
+        }
+    }
+
+    private static void encode(Entry entry, ByteBuffer out) {
+        int start = out.position();
+        out.putLong(entry.seq());
+        out.put((byte) entry.type().ordinal());
+        out.putLong(entry.productId());
+        out.putInt(entry.reservedDelta());
+        out.putInt(entry.stockDelta());
+        out.putLong(entry.orderId());
+        CRC32 crc = new CRC32();
+        crc.update(out.duplicate().position(start).limit(out.position()));
+        out.putInt((int) crc.getValue());
+    }
+
+    private static Entry decode(ByteBuffer in) {
+        CRC32 crc = new CRC32();
+        crc.update(in.duplicate().limit(RECORD_SIZE - Integer.BYTES));
+        long seq = in.getLong();
+        int type = in.get();
+        long productId = in.getLong();
+        int reservedDelta = in.getInt();
+        int stockDelta = in.getInt();
+        long orderId = in.getLong();
+        if (in.getInt() != (int) crc.getValue() || type < 0 || type >= Type.values().length) {
+            return null;
+        }
+        return new Entry(seq, Type.values()[type], productId, reservedDelta, stockDelta, orderId);
+    }
+}
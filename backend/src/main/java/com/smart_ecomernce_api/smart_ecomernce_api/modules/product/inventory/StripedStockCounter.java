@@ -0,0 +1,127 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.inventory;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Available stock of one product split over independent shards, so that
+ * concurrent reservations decrement different memory words instead of all
+ * contending on one.
+ *
+ * <p>A caller starts at the shard picked by its thread and takes the whole
+ * quantity from the first shard that has it, with a compare-and-set. Only
+ * when no single shard can cover the request (near sell-out, or for large
+ * quantities) is it gathered from several shards, and given back if the
+ * total falls short. The sum over shards never goes below zero, so stock
+ * cannot be oversold.
+ */
+public final class StripedStockCounter {
+
+    /** Longs between two shards, keeping each on its own 128-byte cache line. */
+    private static final int STRIDE = 16;
+    /** Gathering can fail spuriously while another gatherer holds units; retry this often. */
+    private static final int GATHER_ATTEMPTS = 3;
+
+    private final AtomicLongArray cells;
+    private final int shards;
+
+    public StripedStockCounter(int shards, long available) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("shards must be positive");
+        }
+        this.shards = shards;
+        this.cells = new AtomicLongArray(shards * STRIDE);
+        long share = Math.max(available, 0) / shards;
+        long remainder = Math.max(available, 0) % shards;
+        for (int shard = 0; shard < shards; shard++) {
+            cells.set(shard * STRIDE, share + (shard < remainder ? 1 : 0));
+        }
+    }
+
+    /** Takes {@code quantity} units if that many are available. */
+    public boolean tryTake(long quantity) {
+        if (quantity <= 0) {
+            return true;
+        }
+        int home = home();
+        for (int i = 0; i < shards; i++) {
+            if (tryTakeFrom((home + i) % shards, quantity)) {
+                return true;
+            }
+        }
+        for (int attempt = 0; attempt < GATHER_ATTEMPTS; attempt++) {
+            if (gather(home, quantity)) {
+                return true;
+            }
+            if (sum() < quantity) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /** Returns {@code quantity} units, to the caller's home shard. */
+    public void add(long quantity) {
+        cells.getAndAdd(home() * STRIDE, quantity);
+    }
+
+    /** Units available across all shards; a moment-in-time estimate under concurrency. */
+    public long sum() {
+        long sum = 0;
+        for (int shard = 0; shard < shards; shard++) {
+            sum += cells.get(shard * STRIDE);
+        }
+        return sum;
+    }
+
+    public int shards() {
+        return shards;
+    }
+
+    private boolean tryTakeFrom(int shard, long quantity) {
+        int index = shard * STRIDE;
+        long current;
+        do {
+            current = cells.get(index);
+            if (current < quantity) {
+                return false;
+            }
+        } while (!cells.compareAndSet(index, current, current - quantity));
+        return true;
+    }
+
+    private boolean gather(int home, long quantity) {
+        long[] taken = new long[shards];
+        long total = 0;
+        for (int i = 0; i < shards && total < quantity; i++) {
+            int shard = (home + i) % shards;
+            int index = shard * STRIDE;
+            long current;
+            long part;
+            do {
+                current = cells.get(index);
+                part = Math.min(current, quantity - total);
+                if (part <= 0) {
+                    break;
+                }
+            } while (!cells.compareAndSet(index, current, current - part));
+            if (part > 0) {
+                taken[shard] = part;
+                total += part;
+            }
+        }
+        if (total == quantity) {
+            return true;
+        }
+        for (int shard = 0; shard < shards; shard++) {
+            if (taken[shard] > 0) {
+                cells.getAndAdd(shard * STRIDE, taken[shard]);
+            }
+        }
+        return false;
+    }
+
+    private int home() {
+        long hash = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+        return (int) ((hash >>> 33) % shards);
+    }
+}
@@ -54,11 +54,13 @@ public interface ProductMapper {
     @Mapping(target = "updatedAt", source = "updatedAt")
     ProductResponse toDto(Product product);
 
+    @Mapping(target = "version", ignore = true)
     Product toEntity(ProductCreateRequest request);
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "discountPrice", source = "discountedPrice")
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void update(ProductUpdateRequest request, @MappingTarget Product product);
 
     default ProductResponse.CategoryInfo toCategoryInfo(Category category) {
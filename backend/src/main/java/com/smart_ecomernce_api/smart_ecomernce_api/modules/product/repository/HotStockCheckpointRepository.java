@@ -0,0 +1,9 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.HotStockCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface HotStockCheckpointRepository extends JpaRepository<HotStockCheckpoint, Long> {
+}
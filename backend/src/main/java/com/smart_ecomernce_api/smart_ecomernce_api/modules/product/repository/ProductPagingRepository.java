@@ -0,0 +1,44 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Predicate;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Two-phase (ids, then category and images) paging for {@link ProductRepository}.
+ */
+public interface ProductPagingRepository {
+
+    /**
+     * Loads a page of product ids with category and images, keeping the order.
+     */
+    Page<Product> hydrate(Page<Long> ids);
+
+    List<Product> hydrate(Collection<Long> ids);
+
+    /**
+     * Ids of the products matching {@code predicate}, at most {@code limit} of them
+     */
+    List<Long> findIds(Predicate predicate, int limit);
+
+    /**
+     * Products matching {@code predicate} per value of {@code group}, in one {@code GROUP BY} query
+     */
+    <K> Map<K, Long> countGroupedBy(Predicate predicate, Expression<K> group);
+
+    /**
+     * For each of {@code cases}, the products matching both {@code predicate} and that case, in one query
+     */
+    List<Long> countEach(Predicate predicate, List<Predicate> cases);
+
+    /**
+     * Find all products matching a QueryDSL Predicate (for advanced filtering)
+     */
+    Page<Product> findAll(Predicate predicate, Pageable pageable);
+}
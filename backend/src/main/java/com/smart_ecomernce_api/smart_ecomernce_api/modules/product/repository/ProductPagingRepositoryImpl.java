@@ -0,0 +1,22 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository;
+
+import com.querydsl.core.types.Predicate;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.base.HydratingPagingSupport;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Product paging fragment: hydrates pages with category and images.
+ */
+public class ProductPagingRepositoryImpl extends HydratingPagingSupport<Product> implements ProductPagingRepository {
+
+    public ProductPagingRepositoryImpl() {
+        super(Product.class, "category", "images");
+    }
+
+    @Override
+    public Page<Product> findAll(Predicate predicate, Pageable pageable) {
+        return findAllHydrated(predicate, pageable);
+    }
+}
@@ -1,12 +1,14 @@
 package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository;
 
-import com.querydsl.core.types.Predicate;
 import com.smart_ecomernce_api.smart_ecomernce_api.common.base.BaseRepository;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.InventoryStatus;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.Product;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -14,14 +16,32 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Spring Data JPA repository for Product entity with QueryDSL Predicate support
+ *
+ * Paged listings select ids only and are hydrated with category and images by
+ * {@link ProductPagingRepository}: an entity graph with a collection on a paged
+ * query would make Hibernate page in memory. Checkout stock deduction is
+ * batched over JDBC by {@link ProductStockRepository}.
  */
 @Repository
-public interface ProductRepository extends BaseRepository<Product, Long> {
+public interface ProductRepository extends BaseRepository<Product, Long>, ProductPagingRepository,
+                ProductStockRepository {
+
+        /**
+         * Find active products. Paged over ids, then hydrated with category and images.
+         */
+        @Query("SELECT p.id FROM Product p WHERE p.isActive = true")
+        Page<Long> findIdsByIsActiveTrue(Pageable pageable);
+
+        @Override
+        default Page<Product> findByIsActiveTrue(Pageable pageable) {
+                return hydrate(findIdsByIsActiveTrue(pageable));
+        }
 
         /**
          * Find product by slug
@@ -52,56 +72,77 @@ public interface ProductRepository extends BaseRepository<Product, Long> {
         /**
          * Find products by category ID
          */
-        @EntityGraph(attributePaths = { "category", "images" })
-        @Query("SELECT p FROM Product p WHERE p.category.id = :categoryId AND p.isActive = true")
-        Page<Product> findByCategoryIdAndIsActiveTrue(@Param("categoryId") Long categoryId, Pageable pageable);
+        @Query("SELECT p.id FROM Product p WHERE p.category.id = :categoryId AND p.isActive = true")
+        Page<Long> findIdsByCategoryIdAndIsActiveTrue(@Param("categoryId") Long categoryId, Pageable pageable);
+
+        default Page<Product> findByCategoryIdAndIsActiveTrue(Long categoryId, Pageable pageable) {
+                return hydrate(findIdsByCategoryIdAndIsActiveTrue(categoryId, pageable));
+        }
 
         /**
          * Find products by category name
          */
-        @EntityGraph(attributePaths = { "category", "images" })
-        @Query("SELECT p FROM Product p WHERE p.category.name = :categoryName AND p.isActive = true")
-        Page<Product> findByCategoryNameAndIsActiveTrue(@Param("categoryName") String categoryName,
+        @Query("SELECT p.id FROM Product p WHERE p.category.name = :categoryName AND p.isActive = true")
+        Page<Long> findIdsByCategoryNameAndIsActiveTrue(@Param("categoryName") String categoryName,
                         Pageable pageable);
 
+        default Page<Product> findByCategoryNameAndIsActiveTrue(String categoryName, Pageable pageable) {
+                return hydrate(findIdsByCategoryNameAndIsActiveTrue(categoryName, pageable));
+        }
+
         /**
          * Find products by inventory status
          */
-        @EntityGraph(attributePaths = { "category", "images" })
-        @Query("SELECT p FROM Product p WHERE p.inventoryStatus = :status AND p.isActive = true")
-        Page<Product> findByInventoryStatusAndIsActiveTrue(@Param("status") InventoryStatus status, Pageable pageable);
+        @Query("SELECT p.id FROM Product p WHERE p.inventoryStatus = :status AND p.isActive = true")
+        Page<Long> findIdsByInventoryStatusAndIsActiveTrue(@Param("status") InventoryStatus status, Pageable pageable);
+
+        default Page<Product> findByInventoryStatusAndIsActiveTrue(InventoryStatus status, Pageable pageable) {
+                return hydrate(findIdsByInventoryStatusAndIsActiveTrue(status, pageable));
+        }
 
         /**
          * Find featured products
          */
-        @EntityGraph(attributePaths = { "category", "images" })
-        @Query("SELECT p FROM Product p WHERE p.featured = true AND p.isActive = true")
-        Page<Product> findByFeaturedTrueAndIsActiveTrue(Pageable pageable);
+        @Query("SELECT p.id FROM Product p WHERE p.featured = true AND p.isActive = true")
+        Page<Long> findIdsByFeaturedTrueAndIsActiveTrue(Pageable pageable);
+
+        default Page<Product> findByFeaturedTrueAndIsActiveTrue(Pageable pageable) {
+                return hydrate(findIdsByFeaturedTrueAndIsActiveTrue(pageable));
+        }
 
         /**
          * Find new products
          */
-        @EntityGraph(attributePaths = { "category", "images" })
-        @Query("SELECT p FROM Product p WHERE p.isNew = true AND p.isActive = true")
-        Page<Product> findByIsNewTrueAndIsActiveTrue(Pageable pageable);
+        @Query("SELECT p.id FROM Product p WHERE p.isNew = true AND p.isActive = true")
+        Page<Long> findIdsByIsNewTrueAndIsActiveTrue(Pageable pageable);
+
+        default Page<Product> findByIsNewTrueAndIsActiveTrue(Pageable pageable) {
+                return hydrate(findIdsByIsNewTrueAndIsActiveTrue(pageable));
+        }
 
         /**
          * Find bestseller products
          */
-        @EntityGraph(attributePaths = { "category", "images" })
-        @Query("SELECT p FROM Product p WHERE p.isBestseller = true AND p.isActive = true")
-        Page<Product> findByIsBestsellerTrueAndIsActiveTrue(Pageable pageable);
+        @Query("SELECT p.id FROM Product p WHERE p.isBestseller = true AND p.isActive = true")
+        Page<Long> findIdsByIsBestsellerTrueAndIsActiveTrue(Pageable pageable);
+
+        default Page<Product> findByIsBestsellerTrueAndIsActiveTrue(Pageable pageable) {
+                return hydrate(findIdsByIsBestsellerTrueAndIsActiveTrue(pageable));
+        }
 
         /**
          * Find products by price range (considers discount price)
          */
-        @EntityGraph(attributePaths = { "category", "images" })
-        @Query("SELECT p FROM Product p WHERE p.isActive = true AND " +
+        @Query("SELECT p.id FROM Product p WHERE p.isActive = true AND " +
                         "COALESCE(p.discountPrice, p.price) BETWEEN :minPrice AND :maxPrice")
-        Page<Product> findByPriceRangeAndIsActiveTrue(@Param("minPrice") BigDecimal minPrice,
+        Page<Long> findIdsByPriceRangeAndIsActiveTrue(@Param("minPrice") BigDecimal minPrice,
                         @Param("maxPrice") BigDecimal maxPrice,
                         Pageable pageable);
 
+        default Page<Product> findByPriceRangeAndIsActiveTrue(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
+                return hydrate(findIdsByPriceRangeAndIsActiveTrue(minPrice, maxPrice, pageable));
+        }
+
         /**
          * Alias for findByPriceRangeAndIsActiveTrue for service compatibility
          */
@@ -120,29 +161,86 @@ public interface ProductRepository extends BaseRepository<Product, Long> {
         /**
          * Find discounted products
          */
-        @EntityGraph(attributePaths = { "category", "images" })
-        @Query("SELECT p FROM Product p WHERE p.isActive = true AND " +
+        @Query("SELECT p.id FROM Product p WHERE p.isActive = true AND " +
                         "p.discountPrice IS NOT NULL AND p.discountPrice > 0 AND p.discountPrice < p.price")
-        Page<Product> findDiscountedProductsAndIsActiveTrue(Pageable pageable);
+        Page<Long> findIdsOfDiscountedProductsAndIsActiveTrue(Pageable pageable);
+
+        default Page<Product> findDiscountedProductsAndIsActiveTrue(Pageable pageable) {
+                return hydrate(findIdsOfDiscountedProductsAndIsActiveTrue(pageable));
+        }
 
         /**
          * Search products by keyword (name, description, SKU)
          */
-        @EntityGraph(attributePaths = { "category", "images" })
-        @Query("SELECT p FROM Product p WHERE p.isActive = true AND " +
+        @Query("SELECT p.id FROM Product p WHERE p.isActive = true AND " +
                         "(p.name LIKE CONCAT('%', :keyword, '%') OR " +
                         "p.sku LIKE CONCAT('%', :keyword, '%'))")
-        Page<Product> searchProductsAndIsActiveTrue(@Param("keyword") String keyword, Pageable pageable);
+        Page<Long> searchIdsProductsAndIsActiveTrue(@Param("keyword") String keyword, Pageable pageable);
+
+        default Page<Product> searchProductsAndIsActiveTrue(String keyword, Pageable pageable) {
+                return hydrate(searchIdsProductsAndIsActiveTrue(keyword, pageable));
+        }
+
+        /**
+         * Page over a set of product ids (search index hits) in the requested sort order
+         */
+        @Query("SELECT p.id FROM Product p WHERE p.id IN :ids AND p.isActive = true")
+        Page<Long> findIdsByIdInAndIsActiveTrue(@Param("ids") Collection<Long> ids, Pageable pageable);
+
+        /**
+         * Text fields of active products after {@code afterId}, in id order, for building the search index.
+         * Columns: id, name, sku, slug, description, updatedAt, isActive
+         */
+        @Query("SELECT p.id, p.name, p.sku, p.slug, p.description, p.updatedAt, p.isActive FROM Product p " +
+                        "WHERE p.isActive = true AND p.id > :afterId ORDER BY p.id")
+        List<Object[]> findSearchFieldsAfterIdAndIsActiveTrue(@Param("afterId") Long afterId, Limit limit);
+
+        /**
+         * Text fields of products changed after {@code since}, active or not, for catching the search index up.
+         * Columns: id, name, sku, slug, description, updatedAt, isActive
+         */
+        @Query("SELECT p.id, p.name, p.sku, p.slug, p.description, p.updatedAt, p.isActive FROM Product p " +
+                        "WHERE p.updatedAt > :since")
+        List<Object[]> findSearchFieldsUpdatedAfter(@Param("since") LocalDateTime since);
+
+        /**
+         * Facet attributes of active products after {@code afterId}, in id order, for building the facet index.
+         * Columns: id, categoryId, price, discountPrice, inventoryStatus, featured, isNew, isBestseller,
+         * updatedAt, isActive
+         */
+        @Query("SELECT p.id, c.id, p.price, p.discountPrice, p.inventoryStatus, p.featured, p.isNew, p.isBestseller, " +
+                        "p.updatedAt, p.isActive FROM Product p LEFT JOIN p.category c " +
+                        "WHERE p.isActive = true AND p.id > :afterId ORDER BY p.id")
+        List<Object[]> findFacetFieldsAfterIdAndIsActiveTrue(@Param("afterId") Long afterId, Limit limit);
+
+        /**
+         * Facet attributes of products changed after {@code since}, active or not, for catching the facet index up.
+         * Same columns as {@link #findFacetFieldsAfterIdAndIsActiveTrue}
+         */
+        @Query("SELECT p.id, c.id, p.price, p.discountPrice, p.inventoryStatus, p.featured, p.isNew, p.isBestseller, " +
+                        "p.updatedAt, p.isActive FROM Product p LEFT JOIN p.category c WHERE p.updatedAt > :since")
+        List<Object[]> findFacetFieldsUpdatedAfter(@Param("since") LocalDateTime since);
+
+        /**
+         * Facet attributes of the given products, active or not.
+         * Same columns as {@link #findFacetFieldsAfterIdAndIsActiveTrue}
+         */
+        @Query("SELECT p.id, c.id, p.price, p.discountPrice, p.inventoryStatus, p.featured, p.isNew, p.isBestseller, " +
+                        "p.updatedAt, p.isActive FROM Product p LEFT JOIN p.category c WHERE p.id IN :ids")
+        List<Object[]> findFacetFieldsByIdIn(@Param("ids") Collection<Long> ids);
 
         /**
          * Find products created between dates
          */
-        @EntityGraph(attributePaths = { "category", "images" })
-        @Query("SELECT p FROM Product p WHERE p.isActive = true AND p.createdAt BETWEEN :startDate AND :endDate")
-        Page<Product> findByCreatedAtBetweenAndIsActiveTrue(@Param("startDate") LocalDateTime startDate,
+        @Query("SELECT p.id FROM Product p WHERE p.isActive = true AND p.createdAt BETWEEN :startDate AND :endDate")
+        Page<Long> findIdsByCreatedAtBetweenAndIsActiveTrue(@Param("startDate") LocalDateTime startDate,
                         @Param("endDate") LocalDateTime endDate,
                         Pageable pageable);
 
+        default Page<Product> findByCreatedAtBetweenAndIsActiveTrue(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
+                return hydrate(findIdsByCreatedAtBetweenAndIsActiveTrue(startDate, endDate, pageable));
+        }
+
         /**
          * Find recently created products
          */
@@ -153,41 +251,56 @@ public interface ProductRepository extends BaseRepository<Product, Long> {
         /**
          * Find recently created products with pagination
          */
-        @EntityGraph(attributePaths = { "category", "images" })
-        @Query("SELECT p FROM Product p WHERE p.isActive = true AND p.createdAt >= :sinceDate ORDER BY p.createdAt DESC")
-        Page<Product> findRecentProductsAndIsActiveTrue(@Param("sinceDate") LocalDateTime sinceDate, Pageable pageable);
+        @Query("SELECT p.id FROM Product p WHERE p.isActive = true AND p.createdAt >= :sinceDate ORDER BY p.createdAt DESC")
+        Page<Long> findIdsOfRecentProductsAndIsActiveTrue(@Param("sinceDate") LocalDateTime sinceDate, Pageable pageable);
+
+        default Page<Product> findRecentProductsAndIsActiveTrue(LocalDateTime sinceDate, Pageable pageable) {
+                return hydrate(findIdsOfRecentProductsAndIsActiveTrue(sinceDate, pageable));
+        }
 
         /**
          * Find top-rated products
          */
-        @EntityGraph(attributePaths = { "category", "images" })
-        @Query("SELECT p FROM Product p WHERE p.isActive = true AND p.ratingAverage >= :minRating " +
+        @Query("SELECT p.id FROM Product p WHERE p.isActive = true AND p.ratingAverage >= :minRating " +
                         "ORDER BY p.ratingAverage DESC")
-        Page<Product> findTopRatedProductsAndIsActiveTrue(@Param("minRating") BigDecimal minRating, Pageable pageable);
+        Page<Long> findIdsOfTopRatedProductsAndIsActiveTrue(@Param("minRating") BigDecimal minRating, Pageable pageable);
+
+        default Page<Product> findTopRatedProductsAndIsActiveTrue(BigDecimal minRating, Pageable pageable) {
+                return hydrate(findIdsOfTopRatedProductsAndIsActiveTrue(minRating, pageable));
+        }
 
         /**
          * Find products needing reorder
          */
-        @EntityGraph(attributePaths = { "category", "images" })
-        @Query("SELECT p FROM Product p WHERE p.isActive = true AND p.trackInventory = true AND " +
+        @Query("SELECT p.id FROM Product p WHERE p.isActive = true AND p.trackInventory = true AND " +
                         "p.stockQuantity <= p.reorderPoint")
-        Page<Product> findProductsNeedingReorderAndIsActiveTrue(Pageable pageable);
+        Page<Long> findIdsOfProductsNeedingReorderAndIsActiveTrue(Pageable pageable);
+
+        default Page<Product> findProductsNeedingReorderAndIsActiveTrue(Pageable pageable) {
+                return hydrate(findIdsOfProductsNeedingReorderAndIsActiveTrue(pageable));
+        }
 
         /**
          * Find low stock products
          */
-        @EntityGraph(attributePaths = { "category", "images" })
-        @Query("SELECT p FROM Product p WHERE p.isActive = true AND p.trackInventory = true AND " +
+        @Query("SELECT p.id FROM Product p WHERE p.isActive = true AND p.trackInventory = true AND " +
                         "p.inventoryStatus = 'LOW_STOCK'")
-        Page<Product> findLowStockProductsAndIsActiveTrue(Pageable pageable);
+        Page<Long> findIdsOfLowStockProductsAndIsActiveTrue(Pageable pageable);
+
+        default Page<Product> findLowStockProductsAndIsActiveTrue(Pageable pageable) {
+                return hydrate(findIdsOfLowStockProductsAndIsActiveTrue(pageable));
+        }
 
         /**
          * Find out of stock products
          */
-        @EntityGraph(attributePaths = { "category", "images" })
-        @Query("SELECT p FROM Product p WHERE p.isActive = true AND p.trackInventory = true AND " +
+        @Query("SELECT p.id FROM Product p WHERE p.isActive = true AND p.trackInventory = true AND " +
                         "p.inventoryStatus = 'OUT_OF_STOCK'")
-        Page<Product> findOutOfStockProductsAndIsActiveTrue(Pageable pageable);
+        Page<Long> findIdsOfOutOfStockProductsAndIsActiveTrue(Pageable pageable);
+
+        default Page<Product> findOutOfStockProductsAndIsActiveTrue(Pageable pageable) {
+                return hydrate(findIdsOfOutOfStockProductsAndIsActiveTrue(pageable));
+        }
 
         /**
          * Count products by category
@@ -264,7 +377,7 @@ public interface ProductRepository extends BaseRepository<Product, Long> {
          * Update stock quantity
          */
         @Modifying
-        @Query("UPDATE Product p SET p.stockQuantity = :quantity, " +
+        @Query("UPDATE Product p SET p.stockQuantity = :quantity, p.version = p.version + 1, " +
                         "p.updatedAt = CURRENT_TIMESTAMP WHERE p.id = :productId AND p.isActive = true")
         int updateStockAndIsActiveTrue(@Param("productId") Long productId, @Param("quantity") Integer quantity);
 
@@ -272,7 +385,7 @@ public interface ProductRepository extends BaseRepository<Product, Long> {
          * Reserve stock
          */
         @Modifying
-        @Query("UPDATE Product p SET p.reservedQuantity = p.reservedQuantity + :quantity, " +
+        @Query("UPDATE Product p SET p.reservedQuantity = p.reservedQuantity + :quantity, p.version = p.version + 1, " +
                         "p.updatedAt = CURRENT_TIMESTAMP " +
                         "WHERE p.id = :productId AND (p.stockQuantity - p.reservedQuantity) >= :quantity AND p.isActive = true")
         int reserveStockAndIsActiveTrue(@Param("productId") Long productId, @Param("quantity") Integer quantity);
@@ -281,7 +394,7 @@ public interface ProductRepository extends BaseRepository<Product, Long> {
          * Release reserved stock
          */
         @Modifying
-        @Query("UPDATE Product p SET p.reservedQuantity = GREATEST(0, p.reservedQuantity - :quantity), " +
+        @Query("UPDATE Product p SET p.reservedQuantity = GREATEST(0, p.reservedQuantity - :quantity), p.version = p.version + 1, " +
                         "p.updatedAt = CURRENT_TIMESTAMP WHERE p.id = :productId AND p.isActive = true")
         int releaseReservedStockAndIsActiveTrue(@Param("productId") Long productId,
                         @Param("quantity") Integer quantity);
@@ -290,7 +403,7 @@ public interface ProductRepository extends BaseRepository<Product, Long> {
          * Deduct stock
          */
         @Modifying
-        @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity, " +
+        @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity, p.version = p.version + 1, " +
                         "p.reservedQuantity = GREATEST(0, p.reservedQuantity - :quantity), " +
                         "p.updatedAt = CURRENT_TIMESTAMP " +
                         "WHERE p.id = :productId AND p.stockQuantity >= :quantity AND p.isActive = true")
@@ -300,7 +413,7 @@ public interface ProductRepository extends BaseRepository<Product, Long> {
          * Bulk update featured status
          */
         @Modifying
-        @Query("UPDATE Product p SET p.featured = :featured, " +
+        @Query("UPDATE Product p SET p.featured = :featured, p.version = p.version + 1, " +
                         "p.updatedAt = CURRENT_TIMESTAMP WHERE p.id IN :productIds AND p.isActive = true")
         int bulkUpdateFeaturedAndIsActiveTrue(@Param("productIds") List<Long> productIds,
                         @Param("featured") Boolean featured);
@@ -309,7 +422,7 @@ public interface ProductRepository extends BaseRepository<Product, Long> {
          * Bulk soft delete
          */
         @Modifying
-        @Query("UPDATE Product p SET p.isActive = false, " +
+        @Query("UPDATE Product p SET p.isActive = false, p.version = p.version + 1, " +
                         "p.updatedAt = CURRENT_TIMESTAMP WHERE p.id IN :productIds")
         int bulkSoftDelete(@Param("productIds") List<Long> productIds);
 
@@ -325,32 +438,32 @@ public interface ProductRepository extends BaseRepository<Product, Long> {
         /**
          * Find products by multiple category IDs
          */
-        @EntityGraph(attributePaths = { "category", "images" })
-        @Query("SELECT p FROM Product p WHERE p.category.id IN :categoryIds AND p.isActive = true")
-        Page<Product> findByCategoryIdInAndIsActiveTrue(@Param("categoryIds") List<Long> categoryIds,
+        @Query("SELECT p.id FROM Product p WHERE p.category.id IN :categoryIds AND p.isActive = true")
+        Page<Long> findIdsByCategoryIdInAndIsActiveTrue(@Param("categoryIds") List<Long> categoryIds,
                         Pageable pageable);
 
+        default Page<Product> findByCategoryIdInAndIsActiveTrue(List<Long> categoryIds, Pageable pageable) {
+                return hydrate(findIdsByCategoryIdInAndIsActiveTrue(categoryIds, pageable));
+        }
+
         /**
          * Find trending products (high sales and ratings)
          */
-        @EntityGraph(attributePaths = { "category", "images" })
-        @Query("SELECT p FROM Product p WHERE p.isActive = true " +
+        @Query("SELECT p.id FROM Product p WHERE p.isActive = true " +
                         "ORDER BY p.salesCount DESC, p.ratingAverage DESC, p.viewCount DESC")
-        Page<Product> findTrendingProductsAndIsActiveTrue(Pageable pageable);
+        Page<Long> findIdsOfTrendingProductsAndIsActiveTrue(Pageable pageable);
+
+        default Page<Product> findTrendingProductsAndIsActiveTrue(Pageable pageable) {
+                return hydrate(findIdsOfTrendingProductsAndIsActiveTrue(pageable));
+        }
 
         /**
          * Find products with lock for update
          */
+        @Lock(LockModeType.PESSIMISTIC_WRITE)
         @Query("SELECT p FROM Product p WHERE p.id = :id AND p.isActive = true")
         Optional<Product> findByIdWithLockAndIsActiveTrue(@Param("id") Long id);
 
-        /**
-         * Find all products matching a QueryDSL Predicate (for advanced filtering)
-         */
-        @EntityGraph(attributePaths = {"category", "images"})
-        Page<Product> findAll(Predicate predicate, Pageable pageable);
-
-
         /**
          * Find product by ID with category and images eagerly loaded (solves N+1)
          */
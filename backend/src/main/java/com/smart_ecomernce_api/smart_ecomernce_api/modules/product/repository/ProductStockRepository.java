@@ -0,0 +1,36 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.InsufficientStockException;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.InventoryStatus;
+
+import java.util.Map;
+
+/**
+ * Checkout stock deduction and restore for {@link ProductRepository}.
+ */
+public interface ProductStockRepository {
+
+    /**
+     * Takes {@code quantities} (product id to quantity) out of stock for a
+     * checkout, as one JDBC batch of guarded UPDATEs in ascending product id
+     * order. Each UPDATE only applies while the product is active and has the
+     * quantity available, so concurrent checkouts cannot oversell.
+     *
+     * <p>Must run inside a transaction: if any product falls short this throws
+     * {@link InsufficientStockException} and the caller's rollback undoes the
+     * rows already updated.
+     *
+     * @return the inventory status of each product after the deduction
+     */
+    Map<Long, InventoryStatus> deductForCheckout(Map<Long, Integer> quantities);
+
+    /**
+     * Puts {@code quantities} (product id to quantity) back into stock, for
+     * checkouts that were cancelled, as one JDBC batch of UPDATEs in
+     * ascending product id order. Products that do not track inventory are
+     * left as they are, as on deduction.
+     *
+     * @return the inventory status of each product after the restore
+     */
+    Map<Long, InventoryStatus> restoreForCheckout(Map<Long, Integer> quantities);
+}
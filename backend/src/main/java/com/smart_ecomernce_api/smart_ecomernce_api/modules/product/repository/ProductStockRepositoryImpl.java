@@ -0,0 +1,156 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.InsufficientStockException;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.InventoryStatus;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * JDBC implementation of {@link ProductStockRepository}.
+ *
+ * <p>Each line is the existing reserve guard ({@code available >= quantity},
+ * see {@link ProductRepository#reserveStockAndIsActiveTrue}) and deduction
+ * ({@link ProductRepository#deductStockAndIsActiveTrue}) fused into one
+ * statement: reserving and then deducting the same quantity leaves
+ * {@code reserved_quantity} unchanged and lowers {@code stock_quantity}. The
+ * inventory status is recomputed in the same statement, with the rules of
+ * {@code Product.updateInventoryStatus()}; products that do not track
+ * inventory keep their stock, as in {@code Product.deductStock()}.
+ */
+public class ProductStockRepositoryImpl implements ProductStockRepository {
+
+    private static final String DEDUCT_SQL = """
+            UPDATE products
+               SET stock_quantity = CASE WHEN track_inventory = false
+                       THEN stock_quantity ELSE stock_quantity - ? END,
+                   inventory_status = CASE
+                       WHEN track_inventory = false THEN 'IN_STOCK'
+                       WHEN stock_quantity - reserved_quantity - ? <= 0
+                           THEN CASE WHEN allow_backorder = true THEN 'BACKORDER' ELSE 'OUT_OF_STOCK' END
+                       WHEN stock_quantity - reserved_quantity - ? <= low_stock_threshold THEN 'LOW_STOCK'
+                       ELSE 'IN_STOCK' END,
+                   version = version + 1,
+                   updated_at = CURRENT_TIMESTAMP
+             WHERE id = ?
+               AND is_active = true
+               AND (track_inventory = false OR stock_quantity - reserved_quantity >= ?)
+            """;
+
+    private static final String RESTORE_SQL = """
+            UPDATE products
+               SET stock_quantity = CASE WHEN track_inventory = false
+                       THEN stock_quantity ELSE stock_quantity + ? END,
+                   inventory_status = CASE
+                       WHEN track_inventory = false THEN 'IN_STOCK'
+                       WHEN stock_quantity - reserved_quantity + ? <= 0
+                           THEN CASE WHEN allow_backorder = true THEN 'BACKORDER' ELSE 'OUT_OF_STOCK' END
+                       WHEN stock_quantity - reserved_quantity + ? <= low_stock_threshold THEN 'LOW_STOCK'
+                       ELSE 'IN_STOCK' END,
+                   version = version + 1,
+                   updated_at = CURRENT_TIMESTAMP
+             WHERE id = ?
+            """;
+
+    private static final String STATUS_SQL = """
+            SELECT id, name, stock_quantity - reserved_quantity AS available, inventory_status
+              FROM products WHERE id IN (:ids)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public ProductStockRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @Override
+    public Map<Long, InventoryStatus> deductForCheckout(Map<Long, Integer> quantities) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Checkout stock deduction requires a transaction");
+        }
+        if (quantities.isEmpty()) {
+            return Map.of();
+        }
+        // Ascending id order: two checkouts sharing products lock them in the same order.
+        List<Map.Entry<Long, Integer>> lines = List.copyOf(new TreeMap<>(quantities).entrySet());
+        List<Long> ids = lines.stream().map(Map.Entry::getKey).toList();
+
+        int[] updated = jdbcTemplate.batchUpdate(DEDUCT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Map.Entry<Long, Integer> line = lines.get(i);
+                int quantity = line.getValue();
+                ps.setInt(1, quantity);
+                ps.setInt(2, quantity);
+                ps.setInt(3, quantity);
+                ps.setLong(4, line.getKey());
+                ps.setInt(5, quantity);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return lines.size();
+            }
+        });
+
+        Map<Long, ProductStock> after = new HashMap<>();
+        namedJdbcTemplate.query(STATUS_SQL, Map.of("ids", ids), rs -> {
+            after.put(rs.getLong("id"), new ProductStock(rs.getString("name"), rs.getInt("available"),
+                    InventoryStatus.valueOf(rs.getString("inventory_status"))));
+        });
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] != 1) {
+                Map.Entry<Long, Integer> line = lines.get(i);
+                ProductStock stock = after.get(line.getKey());
+                throw new InsufficientStockException(stock != null ? stock.name() : "#" + line.getKey(),
+                        stock != null ? Math.max(stock.available(), 0) : 0, line.getValue());
+            }
+        }
+
+        Map<Long, InventoryStatus> statuses = new HashMap<>();
+        after.forEach((id, stock) -> statuses.put(id, stock.status()));
+        return statuses;
+    }
+
+    @Override
+    public Map<Long, InventoryStatus> restoreForCheckout(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return Map.of();
+        }
+        List<Map.Entry<Long, Integer>> lines = List.copyOf(new TreeMap<>(quantities).entrySet());
+        jdbcTemplate.batchUpdate(RESTORE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Map.Entry<Long, Integer> line = lines.get(i);
+                int quantity = line.getValue();
+                ps.setInt(1, quantity);
+                ps.setInt(2, quantity);
+                ps.setInt(3, quantity);
+                ps.setLong(4, line.getKey());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return lines.size();
+            }
+        });
+
+        Map<Long, InventoryStatus> statuses = new HashMap<>();
+        namedJdbcTemplate.query(STATUS_SQL, Map.of("ids", List.copyOf(quantities.keySet())), rs -> {
+            statuses.put(rs.getLong("id"), InventoryStatus.valueOf(rs.getString("inventory_status")));
+        });
+        return statuses;
+    }
+
+    private record ProductStock(String name, int available, InventoryStatus status) {}
+}
@@ -0,0 +1,65 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.sales;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.outbox.OutboxEvent;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.outbox.OutboxSubscriber;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.event.OrderEvent;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.OrderItemRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Adds the units of each delivered order to its products' sales counts,
+ * which rank the trending and best-seller listings.
+ *
+ * <p>Runs from the outbox, so delivering an order does not wait for it.
+ * Delivery is at-least-once: an event handed over twice after a crash
+ * counts twice, which is acceptable for a ranking signal.
+ */
+@Slf4j
+@Component
+public class ProductSalesCounter implements OutboxSubscriber {
+
+    private final OrderItemRepository orderItemRepository;
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public ProductSalesCounter(OrderItemRepository orderItemRepository,
+                               ProductRepository productRepository,
+                               ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager) {
+        this.orderItemRepository = orderItemRepository;
+        this.productRepository = productRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public boolean accepts(OutboxEvent event) {
+        return OrderEvent.STATUS_CHANGED.equals(event.getEventType());
+    }
+
+    @Override
+    public void handle(OutboxEvent event) throws Exception {
+        OrderEvent order = objectMapper.readValue(event.getPayload(), OrderEvent.class);
+        if (order.status() != OrderStatus.DELIVERED) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            // Product id order, like the checkout UPDATEs, so concurrent counters lock rows in one order.
+            Map<Long, Integer> units = new TreeMap<>();
+            orderItemRepository.findByOrderId(order.orderId()).forEach(item ->
+                    units.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum));
+            units.forEach(productRepository::incrementSalesCountAndIsActiveTrue);
+        });
+        log.debug("Counted sales of delivered order {}", order.orderNumber());
+    }
+}
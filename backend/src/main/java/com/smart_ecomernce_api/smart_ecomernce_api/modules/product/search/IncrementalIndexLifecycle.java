@@ -0,0 +1,270 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Loads an in-memory product index and keeps it in step with the products
+ * table. The engines supply only how their rows are read and applied.
+ *
+ * <ul>
+ *   <li>{@link #start} loads the index in the background: restored from its
+ *       snapshot and caught up, or, without a usable snapshot, rebuilt from the
+ *       database in id-ordered batches and swapped in at once. Until then
+ *       {@link #isReady} is false and the engines fall back to SQL.</li>
+ *   <li>Writes on this node are applied by the engines after commit and
+ *       reported through {@link #advanceWatermark}. Writes on other nodes
+ *       arrive with the periodic catch-up, which re-reads rows whose
+ *       {@code updatedAt} moved past the watermark.</li>
+ *   <li>An index with a snapshot file is written to it after each load and
+ *       catch-up and on shutdown, through a temporary file moved into place.</li>
+ * </ul>
+ */
+@Slf4j
+final class IncrementalIndexLifecycle {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    /** Catch-up re-reads this far behind the watermark to absorb commit-order and clock skew. */
+    private static final Duration CATCH_UP_OVERLAP = Duration.ofMinutes(5);
+
+    /** How an engine reads and applies its rows; {@code row[0]} is always the product id. */
+    interface Binding {
+
+        /** The next batch of active products with an id above {@code afterId}, in id order. */
+        List<Object[]> findActiveAfterId(long afterId, Limit limit);
+
+        /** Every product, active or not, updated after {@code since}. */
+        List<Object[]> findUpdatedAfter(LocalDateTime since);
+
+        LocalDateTime updatedAt(Object[] row);
+
+        /** Indexes a re-read product, or removes it if inactive. */
+        void apply(Object[] row);
+
+        /** Starts collecting the documents of a rebuild. */
+        Rebuild startRebuild();
+    }
+
+    /** The documents of a rebuild, swapped into the index at once by {@link #publish}. */
+    interface Rebuild {
+
+        void add(Object[] row);
+
+        /** Replaces the index contents and returns the number of documents. */
+        int publish();
+    }
+
+    /** An index that can be written to and restored from a snapshot. */
+    interface Snapshottable {
+
+        void writeTo(DataOutput out) throws IOException;
+
+        void readFrom(DataInput in) throws IOException;
+    }
+
+    /** Lower-case index name for logs and the maintenance thread, e.g. "product search". */
+    private final String name;
+    private final Binding binding;
+    private final Snapshottable snapshottable;
+    private final Path snapshotPath;
+    private final int snapshotMagic;
+    private final ScheduledExecutorService maintenance;
+
+    private volatile boolean ready;
+    private volatile LocalDateTime watermark = LocalDateTime.MIN;
+
+    /** A lifecycle without snapshots: the index is rebuilt from the database at every start. */
+    IncrementalIndexLifecycle(String name, Binding binding) {
+        this(name, binding, null, null, 0);
+    }
+
+    /**
+     * A lifecycle that restores the index from {@code snapshotPath} when it
+     * holds a snapshot starting with {@code snapshotMagic}.
+     */
+    IncrementalIndexLifecycle(String name, Binding binding, Snapshottable snapshottable,
+                              Path snapshotPath, int snapshotMagic) {
+        this.name = name;
+        this.binding = binding;
+        this.snapshottable = snapshottable;
+        this.snapshotPath = snapshotPath;
+        this.snapshotMagic = snapshotMagic;
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name(name.replace(' ', '-') + "-index").daemon().factory());
+    }
+
+    /** Loads the index in the background, then catches up every {@code catchUpIntervalSeconds}. */
+    void start(long catchUpIntervalSeconds) {
+        maintenance.execute(this::load);
+        maintenance.scheduleWithFixedDelay(this::maintain,
+                catchUpIntervalSeconds, catchUpIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    void shutdown() {
+        maintenance.shutdownNow();
+        if (ready) {
+            writeSnapshot();
+        }
+    }
+
+    /** Drops the index and rebuilds it from the database in the background. */
+    void rebuild() {
+        maintenance.execute(() -> {
+            try {
+                rebuildFromDatabase();
+                writeSnapshot();
+            } catch (RuntimeException e) {
+                log.error("Rebuild of the {} index failed", name, e);
+            }
+        });
+    }
+
+    boolean isReady() {
+        return ready;
+    }
+
+    /** The newest {@code updatedAt} applied, or null before the first load. */
+    LocalDateTime watermark() {
+        LocalDateTime current = watermark;
+        return current.equals(LocalDateTime.MIN) ? null : current;
+    }
+
+    /** Records a write applied to the index. */
+    synchronized void advanceWatermark(LocalDateTime updatedAt) {
+        if (updatedAt != null && updatedAt.isAfter(watermark)) {
+            watermark = updatedAt;
+        }
+    }
+
+    /** Applies re-read rows, e.g. after a bulk update. */
+    void apply(List<Object[]> rows) {
+        for (Object[] row : rows) {
+            binding.apply(row);
+            advanceWatermark(binding.updatedAt(row));
+        }
+    }
+
+    private void load() {
+        long start = System.nanoTime();
+        try {
+            if (restoreSnapshot()) {
+                catchUp();
+            } else {
+                rebuildFromDatabase();
+            }
+            ready = true;
+            writeSnapshot();
+            log.info("Loaded the {} index in {} ms", name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            log.error("Could not load the {} index; requests use the database", name, e);
+        }
+    }
+
+    private void maintain() {
+        if (!ready) {
+            return;
+        }
+        try {
+            catchUp();
+            writeSnapshot();
+        } catch (RuntimeException e) {
+            log.warn("Catch-up of the {} index failed: {}", name, e.getMessage());
+        }
+    }
+
+    private void catchUp() {
+        LocalDateTime since = watermark.equals(LocalDateTime.MIN) ? watermark : watermark.minus(CATCH_UP_OVERLAP);
+        List<Object[]> rows = binding.findUpdatedAfter(since);
+        apply(rows);
+        log.debug("Caught up the {} index: {} products changed since {}", name, rows.size(), since);
+    }
+
+    private void rebuildFromDatabase() {
+        Rebuild rebuild = binding.startRebuild();
+        LocalDateTime newest = LocalDateTime.MIN;
+        long afterId = 0;
+        List<Object[]> batch;
+        do {
+            batch = binding.findActiveAfterId(afterId, Limit.of(REBUILD_BATCH_SIZE));
+            for (Object[] row : batch) {
+                rebuild.add(row);
+                LocalDateTime updatedAt = binding.updatedAt(row);
+                if (updatedAt != null && updatedAt.isAfter(newest)) {
+                    newest = updatedAt;
+                }
+                afterId = (Long) row[0];
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+
+        int documents = rebuild.publish();
+        synchronized (this) {
+            watermark = newest;
+        }
+        // Pick up writes that committed while the batches were being read.
+        catchUp();
+        log.info("Rebuilt the {} index from database: {} products", name, documents);
+    }
+
+    private boolean restoreSnapshot() {
+        if (snapshottable == null || !Files.isReadable(snapshotPath)) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(snapshotPath))))) {
+            if (in.readInt() != snapshotMagic) {
+                throw new IOException("not a " + name + " index snapshot");
+            }
+            LocalDateTime snapshotWatermark = LocalDateTime.parse(in.readUTF());
+            snapshottable.readFrom(in);
+            synchronized (this) {
+                watermark = snapshotWatermark;
+            }
+            log.info("Restored the {} index from {} (watermark {})", name, snapshotPath, snapshotWatermark);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable {} index snapshot {}: {}", name, snapshotPath, e.getMessage());
+            return false;
+        }
+    }
+
+    private void writeSnapshot() {
+        if (snapshottable == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(snapshotPath.toAbsolutePath().getParent());
+            Path tmp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(tmp))))) {
+                out.writeInt(snapshotMagic);
+                // The watermark is written first: a write racing the snapshot is then at
+                // worst re-read by the next catch-up, never skipped.
+                out.writeUTF(watermark.toString());
+                snapshottable.writeTo(out);
+            }
+            Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Wrote {} index snapshot to {}", name, snapshotPath);
+        } catch (IOException e) {
+            log.warn("Could not write {} index snapshot {}: {}", name, snapshotPath, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,410 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.search;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.EnumPath;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductFilterRequest;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.InventoryStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.Product;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.ProductPredicates;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Answers {@link ProductFilterRequest} listings and facet counts from a
+ * {@link ProductFacetIndex} instead of a query per combination and a count
+ * query per facet.
+ *
+ * <p>The index covers category, price, inventory status and the featured,
+ * new, bestseller and discount flags. Listings whose filter uses anything
+ * else go to the database as before; facet counts for such filters take the
+ * ids matching the remaining constraints from one query and intersect them
+ * with the bitmaps.
+ *
+ * <p>The index is loaded and caught up by an {@link IncrementalIndexLifecycle},
+ * without a snapshot: it is rebuilt from the database at every start. Product
+ * writes on this node are applied after their transaction commits.
+ */
+@Component
+public class ProductFacetEngine implements ApplicationRunner {
+
+    private static final NumberPath<Long> CATEGORY_ID = Expressions.numberPath(Long.class, "category.id");
+    private static final EnumPath<InventoryStatus> INVENTORY_STATUS = Expressions.enumPath(InventoryStatus.class, "inventoryStatus");
+    private static final NumberPath<BigDecimal> PRICE = Expressions.numberPath(BigDecimal.class, "price");
+
+    /** Index state for the performance endpoints. */
+    public record Status(boolean enabled, boolean ready, ProductFacetIndex.Stats stats, LocalDateTime watermark) {}
+
+    private final ProductFacetIndex index = new ProductFacetIndex();
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+    private final int maxHits;
+    private final long catchUpIntervalSeconds;
+    private final IncrementalIndexLifecycle lifecycle = new IncrementalIndexLifecycle("product facet", new Rows());
+
+    public ProductFacetEngine(
+            ProductRepository productRepository,
+            @Value("${search.facets.enabled:false}") boolean enabled,
+            @Value("${search.facets.max-hits:10000}") int maxHits,
+            @Value("${search.facets.catch-up-interval-seconds:60}") long catchUpIntervalSeconds) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+        this.maxHits = maxHits;
+        this.catchUpIntervalSeconds = catchUpIntervalSeconds;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            lifecycle.start(catchUpIntervalSeconds);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        lifecycle.shutdown();
+    }
+
+    /** Drops the index and rebuilds it from the database in the background. */
+    public void rebuild() {
+        if (enabled) {
+            lifecycle.rebuild();
+        }
+    }
+
+    // ==================== Queries ====================
+
+    /**
+     * Pages the ids of the active products matching {@code filter}, or returns
+     * empty when the index is not ready or the filter needs the database.
+     *
+     * <p>Sorts on id or price are applied in memory; any other sort is applied
+     * by the database to the matching ids, at most {@code search.facets.max-hits}
+     * of them.
+     */
+    public Optional<Page<Long>> filter(ProductFilterRequest filter, Pageable pageable) {
+        if (!enabled || !lifecycle.isReady() || residual(filter).hasFilters()) {
+            return Optional.empty();
+        }
+        ProductFacetIndex.Query query = query(filter, null);
+        Sort sort = pageable.getSort();
+        Sort.Order first = sort.stream().findFirst().orElse(Sort.Order.asc("id"));
+        ProductFacetIndex.SortKey key = sortKey(sort, first);
+        if (key != null) {
+            List<Long> ids = index.search(query, key, first.isAscending());
+            if (pageable.isUnpaged()) {
+                return Optional.of(new PageImpl<>(ids));
+            }
+            int from = (int) Math.min(pageable.getOffset(), ids.size());
+            int to = Math.min(from + pageable.getPageSize(), ids.size());
+            return Optional.of(new PageImpl<>(ids.subList(from, to), pageable, ids.size()));
+        }
+        if (index.count(query) > maxHits) {
+            return Optional.empty();
+        }
+        List<Long> ids = index.search(query, ProductFacetIndex.SortKey.ID, true);
+        return Optional.of(ids.isEmpty()
+                ? Page.empty(pageable)
+                : productRepository.findIdsByIdInAndIsActiveTrue(ids, pageable));
+    }
+
+    /** Id or price, optionally followed by id, can be sorted from the index. */
+    private static ProductFacetIndex.SortKey sortKey(Sort sort, Sort.Order first) {
+        List<Sort.Order> orders = sort.toList();
+        if (orders.size() > 2 || (orders.size() == 2
+                && (!"id".equals(orders.get(1).getProperty()) || orders.get(1).getDirection() != first.getDirection()))) {
+            return null;
+        }
+        return switch (first.getProperty()) {
+            case "id" -> ProductFacetIndex.SortKey.ID;
+            case "price" -> ProductFacetIndex.SortKey.PRICE;
+            default -> null;
+        };
+    }
+
+    /**
+     * Facet counts for {@code filter}. Answered from the index when it is
+     * ready and the constraints it does not cover match at most
+     * {@code search.facets.max-hits} products; otherwise by grouped count
+     * queries in the database.
+     */
+    public ProductFacetIndex.Facets facets(ProductFilterRequest filter) {
+        if (enabled && lifecycle.isReady()) {
+            ProductFilterRequest residual = residual(filter);
+            if (!residual.hasFilters()) {
+                return index.facets(query(filter, null));
+            }
+            List<Long> restrictTo = productRepository.findIds(ProductPredicates.fromFilterRequest(residual), maxHits + 1);
+            if (restrictTo.size() <= maxHits) {
+                return index.facets(query(filter, restrictTo));
+            }
+        }
+        return facetsFromDatabase(filter);
+    }
+
+    /**
+     * The same disjunctive counts as {@link ProductFacetIndex#facets}, from
+     * eight aggregate queries: each dimension is counted under every
+     * constraint except its own.
+     */
+    ProductFacetIndex.Facets facetsFromDatabase(ProductFilterRequest filter) {
+        int total = (int) productRepository.count(ProductPredicates.fromFilterRequest(filter));
+
+        ProductFilterRequest anyCategory = copy(filter);
+        anyCategory.setCategoryId(null);
+        anyCategory.setCategoryIds(null);
+        Map<Long, Integer> categories = new TreeMap<>();
+        productRepository.countGroupedBy(ProductPredicates.fromFilterRequest(anyCategory), CATEGORY_ID)
+                .forEach((categoryId, count) -> {
+                    if (categoryId != null) {
+                        categories.put(categoryId, count.intValue());
+                    }
+                });
+
+        ProductFilterRequest anyStatus = copy(filter);
+        anyStatus.setInventoryStatus(null);
+        anyStatus.setInventoryStatuses(null);
+        Map<InventoryStatus, Integer> statuses = new EnumMap<>(InventoryStatus.class);
+        productRepository.countGroupedBy(ProductPredicates.fromFilterRequest(anyStatus), INVENTORY_STATUS)
+                .forEach((status, count) -> {
+                    if (status != null) {
+                        statuses.put(status, count.intValue());
+                    }
+                });
+
+        ProductFilterRequest anyPrice = copy(filter);
+        anyPrice.setMinPrice(null);
+        anyPrice.setMaxPrice(null);
+        List<BigDecimal> bounds = ProductFacetIndex.priceBucketBounds();
+        List<Predicate> buckets = new ArrayList<>(bounds.size());
+        for (int bucket = 0; bucket < bounds.size(); bucket++) {
+            // As in the index, the first bucket also takes products without a price.
+            BooleanBuilder range = new BooleanBuilder();
+            if (bucket > 0) {
+                range.and(PRICE.goe(bounds.get(bucket)));
+            }
+            if (bucket + 1 < bounds.size()) {
+                range.and(bucket > 0 ? PRICE.lt(bounds.get(bucket + 1)) : PRICE.isNull().or(PRICE.lt(bounds.get(1))));
+            }
+            buckets.add(range.getValue());
+        }
+        List<Long> bucketCounts = productRepository.countEach(ProductPredicates.fromFilterRequest(anyPrice), buckets);
+        List<ProductFacetIndex.PriceRange> priceRanges = new ArrayList<>(bounds.size());
+        for (int bucket = 0; bucket < bounds.size(); bucket++) {
+            priceRanges.add(new ProductFacetIndex.PriceRange(bounds.get(bucket),
+                    bucket + 1 < bounds.size() ? bounds.get(bucket + 1) : null, bucketCounts.get(bucket).intValue()));
+        }
+
+        Map<ProductFacetIndex.Flag, Integer> flags = new EnumMap<>(ProductFacetIndex.Flag.class);
+        for (ProductFacetIndex.Flag flag : ProductFacetIndex.Flag.values()) {
+            ProductFilterRequest flagged = copy(filter);
+            switch (flag) {
+                case FEATURED -> flagged.setFeatured(true);
+                case NEW -> flagged.setIsNew(true);
+                case BESTSELLER -> flagged.setIsBestseller(true);
+                case DISCOUNTED -> flagged.setHasDiscount(true);
+            }
+            flags.put(flag, (int) productRepository.count(ProductPredicates.fromFilterRequest(flagged)));
+        }
+        return new ProductFacetIndex.Facets(total, categories, statuses, priceRanges, flags);
+    }
+
+    private static ProductFilterRequest copy(ProductFilterRequest filter) {
+        ProductFilterRequest copy = new ProductFilterRequest();
+        BeanUtils.copyProperties(filter, copy);
+        return copy;
+    }
+
+    /**
+     * The index-covered part of {@code filter}. Category and status given both
+     * singly and as a list must match both, as in {@link ProductPredicates#fromFilterRequest}.
+     */
+    static ProductFacetIndex.Query query(ProductFilterRequest filter, Collection<Long> restrictTo) {
+        Set<Long> categoryIds = both(
+                filter.getCategoryId() != null ? Set.of(filter.getCategoryId()) : null,
+                filter.getCategoryIds() != null && !filter.getCategoryIds().isEmpty() ? Set.copyOf(filter.getCategoryIds()) : null);
+        Set<InventoryStatus> statuses = both(
+                filter.getInventoryStatus() != null ? Set.of(filter.getInventoryStatus()) : null,
+                filter.getInventoryStatuses() != null && !filter.getInventoryStatuses().isEmpty()
+                        ? Set.copyOf(filter.getInventoryStatuses()) : null);
+        Map<ProductFacetIndex.Flag, Boolean> flags = new EnumMap<>(ProductFacetIndex.Flag.class);
+        if (filter.getFeatured() != null) {
+            flags.put(ProductFacetIndex.Flag.FEATURED, filter.getFeatured());
+        }
+        if (filter.getIsNew() != null) {
+            flags.put(ProductFacetIndex.Flag.NEW, filter.getIsNew());
+        }
+        if (filter.getIsBestseller() != null) {
+            flags.put(ProductFacetIndex.Flag.BESTSELLER, filter.getIsBestseller());
+        }
+        if (filter.getHasDiscount() != null) {
+            flags.put(ProductFacetIndex.Flag.DISCOUNTED, filter.getHasDiscount());
+        }
+        return new ProductFacetIndex.Query(categoryIds, filter.getMinPrice(), filter.getMaxPrice(),
+                statuses, flags, restrictTo);
+    }
+
+    private static <T> Set<T> both(Set<T> a, Set<T> b) {
+        if (a == null || b == null) {
+            return a != null ? a : b;
+        }
+        Set<T> intersection = new HashSet<>(a);
+        intersection.retainAll(b);
+        return intersection;
+    }
+
+    /** {@code filter} without the constraints the index covers. */
+    static ProductFilterRequest residual(ProductFilterRequest filter) {
+        ProductFilterRequest residual = copy(filter);
+        residual.setCategoryId(null);
+        residual.setCategoryIds(null);
+        residual.setMinPrice(null);
+        residual.setMaxPrice(null);
+        residual.setInventoryStatus(null);
+        residual.setInventoryStatuses(null);
+        residual.setFeatured(null);
+        residual.setIsNew(null);
+        residual.setIsBestseller(null);
+        residual.setHasDiscount(null);
+        return residual;
+    }
+
+    // ==================== Incremental updates ====================
+
+    /** Indexes {@code product} once the current transaction commits; removes it if inactive. */
+    public void indexAfterCommit(Product product) {
+        if (enabled) {
+            ProductFacetIndex.Document document = document(product.getId(),
+                    product.getCategory() != null ? product.getCategory().getId() : null, product.getPrice(),
+                    product.getDiscountPrice(), product.getInventoryStatus(), product.getFeatured(),
+                    product.getIsNew(), product.getIsBestseller());
+            boolean active = !Boolean.FALSE.equals(product.getIsActive());
+            LocalDateTime updatedAt = product.getUpdatedAt();
+            AfterCommit.run(() -> {
+                if (active) {
+                    index.put(document);
+                } else {
+                    index.remove(document.id());
+                }
+                lifecycle.advanceWatermark(updatedAt);
+            });
+        }
+    }
+
+    /** Removes {@code productIds} once the current transaction commits. */
+    public void removeAfterCommit(Collection<Long> productIds) {
+        if (enabled) {
+            List<Long> ids = List.copyOf(productIds);
+            AfterCommit.run(() -> ids.forEach(index::remove));
+        }
+    }
+
+    /** Re-reads {@code productIds} once the current transaction commits, for bulk updates. */
+    public void reindexAfterCommit(Collection<Long> productIds) {
+        if (enabled) {
+            List<Long> ids = List.copyOf(productIds);
+            AfterCommit.run(() -> lifecycle.apply(productRepository.findFacetFieldsByIdIn(ids)));
+        }
+    }
+
+    private static ProductFacetIndex.Document document(Object[] row) {
+        return document((Long) row[0], (Long) row[1], (BigDecimal) row[2], (BigDecimal) row[3],
+                (InventoryStatus) row[4], (Boolean) row[5], (Boolean) row[6], (Boolean) row[7]);
+    }
+
+    private static ProductFacetIndex.Document document(Long id, Long categoryId, BigDecimal price,
+                                                       BigDecimal discountPrice, InventoryStatus status,
+                                                       Boolean featured, Boolean isNew, Boolean bestseller) {
+        Set<ProductFacetIndex.Flag> flags = EnumSet.noneOf(ProductFacetIndex.Flag.class);
+        if (Boolean.TRUE.equals(featured)) {
+            flags.add(ProductFacetIndex.Flag.FEATURED);
+        }
+        if (Boolean.TRUE.equals(isNew)) {
+            flags.add(ProductFacetIndex.Flag.NEW);
+        }
+        if (Boolean.TRUE.equals(bestseller)) {
+            flags.add(ProductFacetIndex.Flag.BESTSELLER);
+        }
+        if (discountPrice != null && discountPrice.signum() > 0) {
+            flags.add(ProductFacetIndex.Flag.DISCOUNTED);
+        }
+        return new ProductFacetIndex.Document(id, categoryId, price, status, flags);
+    }
+
+    /**
+     * Facet rows: id, category id, price, discount price, inventory status,
+     * featured, new, bestseller, updatedAt, isActive.
+     */
+    private final class Rows implements IncrementalIndexLifecycle.Binding {
+
+        @Override
+        public List<Object[]> findActiveAfterId(long afterId, Limit limit) {
+            return productRepository.findFacetFieldsAfterIdAndIsActiveTrue(afterId, limit);
+        }
+
+        @Override
+        public List<Object[]> findUpdatedAfter(LocalDateTime since) {
+            return productRepository.findFacetFieldsUpdatedAfter(since);
+        }
+
+        @Override
+        public LocalDateTime updatedAt(Object[] row) {
+            return (LocalDateTime) row[8];
+        }
+
+        @Override
+        public void apply(Object[] row) {
+            if (Boolean.TRUE.equals(row[9])) {
+                index.put(document(row));
+            } else {
+                index.remove((Long) row[0]);
+            }
+        }
+
+        @Override
+        public IncrementalIndexLifecycle.Rebuild startRebuild() {
+            List<ProductFacetIndex.Document> documents = new ArrayList<>();
+            return new IncrementalIndexLifecycle.Rebuild() {
+                @Override
+                public void add(Object[] row) {
+                    documents.add(document(row));
+                }
+
+                @Override
+                public int publish() {
+                    index.replaceAll(documents);
+                    return documents.size();
+                }
+            };
+        }
+    }
+
+    public Status status() {
+        return new Status(enabled, lifecycle.isReady(), index.stats(), lifecycle.watermark());
+    }
+}
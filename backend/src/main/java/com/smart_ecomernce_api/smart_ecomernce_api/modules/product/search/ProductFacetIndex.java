@@ -0,0 +1,364 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.search;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.InventoryStatus;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory bitmap index over the facetable attributes of active products:
+ * category, inventory status, price bucket and the featured, new, bestseller
+ * and discounted flags.
+ *
+ * <p>Each product gets a dense ordinal, and every attribute value is a
+ * {@link BitSet} over ordinals, so a filter is a handful of word-wise ANDs
+ * and a facet count is a cardinality. Prices are also kept per ordinal:
+ * buckets wholly inside a price range are taken as-is, and only the two edge
+ * buckets are checked product by product.
+ *
+ * <p>Facet counts are disjunctive: the counts of one dimension apply every
+ * constraint except that dimension's own, so selecting a category still
+ * shows how many products the other categories would give.
+ *
+ * <p>Thread-safe: queries share a read lock, updates take the write lock.
+ */
+public class ProductFacetIndex {
+
+    /** Lower bounds of the price buckets, in cents; the last bucket is open-ended. */
+    private static final long[] PRICE_BOUNDS =
+            {0, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000, 250_000, 500_000};
+
+    public enum Flag { FEATURED, NEW, BESTSELLER, DISCOUNTED }
+
+    public enum SortKey { ID, PRICE }
+
+    /** Facet attributes of one active product. */
+    public record Document(long id, Long categoryId, BigDecimal price, InventoryStatus status, Set<Flag> flags) {}
+
+    /**
+     * A filter over the index. Null fields are unconstrained; an empty set
+     * matches nothing. {@code restrictTo}, when set, limits matches to those
+     * product ids (the result of constraints the index does not cover).
+     */
+    public record Query(Set<Long> categoryIds,
+                        BigDecimal minPrice,
+                        BigDecimal maxPrice,
+                        Set<InventoryStatus> statuses,
+                        Map<Flag, Boolean> flags,
+                        Collection<Long> restrictTo) {}
+
+    public record PriceRange(BigDecimal min, BigDecimal max, int count) {}
+
+    public record Facets(int total,
+                         Map<Long, Integer> categories,
+                         Map<InventoryStatus, Integer> inventoryStatuses,
+                         List<PriceRange> priceRanges,
+                         Map<Flag, Integer> flags) {}
+
+    public record Stats(int documents, int ordinals, int categories) {}
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private State state = new State();
+
+    /** Adds or replaces a product. */
+    public void put(Document document) {
+        lock.writeLock().lock();
+        try {
+            state.put(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            state.remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Replaces the contents of this index, compacting ordinals freed by removals. */
+    public void replaceAll(Collection<Document> documents) {
+        State rebuilt = new State();
+        documents.forEach(rebuilt::put);
+        lock.writeLock().lock();
+        try {
+            state = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int count(Query query) {
+        lock.readLock().lock();
+        try {
+            return state.match(query, null).cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Ids of the matching products, ordered by {@code key} with id as the tie-breaker. */
+    public List<Long> search(Query query, SortKey key, boolean ascending) {
+        lock.readLock().lock();
+        try {
+            return state.sorted(state.match(query, null), key, ascending);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Facets facets(Query query) {
+        lock.readLock().lock();
+        try {
+            return state.facets(query);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Stats stats() {
+        lock.readLock().lock();
+        try {
+            return new Stats(state.live.cardinality(), state.ordinals.size(), state.byCategory.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Lower bounds of the price buckets reported in {@link Facets#priceRanges()}, in order. */
+    static List<BigDecimal> priceBucketBounds() {
+        return Arrays.stream(PRICE_BOUNDS).mapToObj(bound -> BigDecimal.valueOf(bound, 2)).toList();
+    }
+
+    static long cents(BigDecimal amount, RoundingMode rounding) {
+        return amount.movePointRight(2).setScale(0, rounding).longValueExact();
+    }
+
+    /** Constraint left out when counting a facet dimension. */
+    private enum Dimension { CATEGORY, STATUS, PRICE, FLAG }
+
+    private static final class State {
+
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+        private long[] ids = new long[1024];
+        private long[] prices = new long[1024];
+
+        private final BitSet live = new BitSet();
+        private final Map<Long, BitSet> byCategory = new HashMap<>();
+        private final Map<InventoryStatus, BitSet> byStatus = new EnumMap<>(InventoryStatus.class);
+        private final BitSet[] byPrice = new BitSet[PRICE_BOUNDS.length];
+        private final Map<Flag, BitSet> byFlag = new EnumMap<>(Flag.class);
+
+        State() {
+            Arrays.setAll(byPrice, i -> new BitSet());
+            for (Flag flag : Flag.values()) {
+                byFlag.put(flag, new BitSet());
+            }
+        }
+
+        void put(Document document) {
+            int ordinal = ordinals.computeIfAbsent(document.id(), id -> ordinals.size());
+            if (ordinal >= ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+                prices = Arrays.copyOf(prices, prices.length * 2);
+            }
+            clear(ordinal);
+            long price = document.price() != null ? cents(document.price(), RoundingMode.HALF_UP) : 0;
+            ids[ordinal] = document.id();
+            prices[ordinal] = price;
+            live.set(ordinal);
+            if (document.categoryId() != null) {
+                byCategory.computeIfAbsent(document.categoryId(), c -> new BitSet()).set(ordinal);
+            }
+            if (document.status() != null) {
+                byStatus.computeIfAbsent(document.status(), s -> new BitSet()).set(ordinal);
+            }
+            byPrice[bucket(price)].set(ordinal);
+            document.flags().forEach(flag -> byFlag.get(flag).set(ordinal));
+        }
+
+        void remove(long id) {
+            Integer ordinal = ordinals.get(id);
+            if (ordinal != null) {
+                clear(ordinal);
+            }
+        }
+
+        private void clear(int ordinal) {
+            if (!live.get(ordinal)) {
+                return;
+            }
+            live.clear(ordinal);
+            byCategory.values().removeIf(bits -> {
+                bits.clear(ordinal);
+                return bits.isEmpty();
+            });
+            byStatus.values().forEach(bits -> bits.clear(ordinal));
+            byPrice[bucket(prices[ordinal])].clear(ordinal);
+            byFlag.values().forEach(bits -> bits.clear(ordinal));
+        }
+
+        /** Matches of {@code query}, leaving out the constraint on {@code without} (or on {@code withoutFlag}). */
+        BitSet match(Query query, Dimension without) {
+            return match(query, without, null);
+        }
+
+        BitSet match(Query query, Dimension without, Flag withoutFlag) {
+            BitSet result = (BitSet) live.clone();
+            if (without != Dimension.CATEGORY && query.categoryIds() != null) {
+                result.and(union(query.categoryIds(), byCategory));
+            }
+            if (without != Dimension.STATUS && query.statuses() != null) {
+                result.and(union(query.statuses(), byStatus));
+            }
+            if (without != Dimension.PRICE && (query.minPrice() != null || query.maxPrice() != null)) {
+                result.and(priceRange(query.minPrice(), query.maxPrice()));
+            }
+            if (query.flags() != null) {
+                query.flags().forEach((flag, value) -> {
+                    if (flag == withoutFlag) {
+                        return;
+                    }
+                    if (value) {
+                        result.and(byFlag.get(flag));
+                    } else {
+                        result.andNot(byFlag.get(flag));
+                    }
+                });
+            }
+            if (query.restrictTo() != null) {
+                BitSet allowed = new BitSet();
+                for (Long id : query.restrictTo()) {
+                    Integer ordinal = ordinals.get(id);
+                    if (ordinal != null) {
+                        allowed.set(ordinal);
+                    }
+                }
+                result.and(allowed);
+            }
+            return result;
+        }
+
+        private static <K> BitSet union(Collection<K> keys, Map<K, BitSet> bitmaps) {
+            BitSet union = new BitSet();
+            for (K key : keys) {
+                BitSet bits = bitmaps.get(key);
+                if (bits != null) {
+                    union.or(bits);
+                }
+            }
+            return union;
+        }
+
+        private BitSet priceRange(BigDecimal min, BigDecimal max) {
+            long low = min != null ? cents(min, RoundingMode.CEILING) : Long.MIN_VALUE;
+            long high = max != null ? cents(max, RoundingMode.FLOOR) : Long.MAX_VALUE;
+            BitSet result = new BitSet();
+            for (int bucket = 0; bucket < byPrice.length; bucket++) {
+                long bucketLow = PRICE_BOUNDS[bucket];
+                long bucketHigh = bucket + 1 < PRICE_BOUNDS.length ? PRICE_BOUNDS[bucket + 1] - 1 : Long.MAX_VALUE;
+                if (bucketHigh < low || bucketLow > high) {
+                    continue;
+                }
+                BitSet bits = byPrice[bucket];
+                if (bucketLow >= low && bucketHigh <= high) {
+                    result.or(bits);
+                } else {
+                    for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+                        if (prices[i] >= low && prices[i] <= high) {
+                            result.set(i);
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+
+        List<Long> sorted(BitSet matches, SortKey key, boolean ascending) {
+            long[] matched = new long[matches.cardinality()];
+            int n = 0;
+            if (key == SortKey.ID) {
+                for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+                    matched[n++] = ids[i];
+                }
+                Arrays.sort(matched);
+            } else {
+                Integer[] order = new Integer[matched.length];
+                for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+                    order[n++] = i;
+                }
+                Arrays.sort(order, (a, b) -> prices[a] != prices[b]
+                        ? Long.compare(prices[a], prices[b])
+                        : Long.compare(ids[a], ids[b]));
+                for (int i = 0; i < order.length; i++) {
+                    matched[i] = ids[order[i]];
+                }
+            }
+            List<Long> result = new ArrayList<>(matched.length);
+            for (int i = 0; i < matched.length; i++) {
+                result.add(matched[ascending ? i : matched.length - 1 - i]);
+            }
+            return result;
+        }
+
+        Facets facets(Query query) {
+            int total = match(query, null).cardinality();
+
+            BitSet base = match(query, Dimension.CATEGORY);
+            Map<Long, Integer> categories = new LinkedHashMap<>();
+            byCategory.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .forEach(entry -> {
+                        int count = intersection(base, entry.getValue());
+                        if (count > 0) {
+                            categories.put(entry.getKey(), count);
+                        }
+                    });
+
+            BitSet statusBase = match(query, Dimension.STATUS);
+            Map<InventoryStatus, Integer> statuses = new EnumMap<>(InventoryStatus.class);
+            byStatus.forEach((status, bits) -> statuses.put(status, intersection(statusBase, bits)));
+
+            BitSet priceBase = match(query, Dimension.PRICE);
+            List<PriceRange> priceRanges = new ArrayList<>(byPrice.length);
+            for (int bucket = 0; bucket < byPrice.length; bucket++) {
+                priceRanges.add(new PriceRange(
+                        BigDecimal.valueOf(PRICE_BOUNDS[bucket], 2),
+                        bucket + 1 < PRICE_BOUNDS.length ? BigDecimal.valueOf(PRICE_BOUNDS[bucket + 1], 2) : null,
+                        intersection(priceBase, byPrice[bucket])));
+            }
+
+            Map<Flag, Integer> flags = new EnumMap<>(Flag.class);
+            for (Flag flag : Flag.values()) {
+                flags.put(flag, intersection(match(query, Dimension.FLAG, flag), byFlag.get(flag)));
+            }
+            return new Facets(total, categories, statuses, priceRanges, flags);
+        }
+
+        private static int intersection(BitSet a, BitSet b) {
+            BitSet copy = (BitSet) a.clone();
+            copy.and(b);
+            return copy.cardinality();
+        }
+
+        private static int bucket(long cents) {
+            int bucket = Arrays.binarySearch(PRICE_BOUNDS, cents);
+            return bucket >= 0 ? bucket : Math.max(0, -bucket - 2);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.search;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.Product;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps a {@link ProductSearchIndex} in step with the products table and
+ * answers keyword searches from it, replacing {@code LIKE '%keyword%'} scans.
+ *
+ * <ul>
+ *   <li>The index is loaded and caught up by an {@link IncrementalIndexLifecycle};
+ *       until it is ready {@link #search} declines and callers fall back to SQL.</li>
+ *   <li>Product writes on this node are applied after their transaction commits.</li>
+ *   <li>The index is snapshotted to {@code search.index.snapshot-path}, so a
+ *       restart restores it and only catches up instead of rebuilding.</li>
+ * </ul>
+ */
+@Component
+public class ProductSearchEngine implements ApplicationRunner {
+
+    private static final int SNAPSHOT_MAGIC = 0x50534958;
+
+    /** Index state for the performance endpoints. */
+    public record Status(boolean enabled, boolean ready, int documents, int terms, LocalDateTime watermark) {}
+
+    private final ProductSearchIndex index = new ProductSearchIndex();
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+    private final int maxHits;
+    private final long catchUpIntervalSeconds;
+    private final IncrementalIndexLifecycle lifecycle;
+
+    public ProductSearchEngine(
+            ProductRepository productRepository,
+            @Value("${search.index.enabled:false}") boolean enabled,
+            @Value("${search.index.snapshot-path:data/product-search.idx}") Path snapshotPath,
+            @Value("${search.index.max-hits:10000}") int maxHits,
+            @Value("${search.index.catch-up-interval-seconds:60}") long catchUpIntervalSeconds) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+        this.maxHits = maxHits;
+        this.catchUpIntervalSeconds = catchUpIntervalSeconds;
+        this.lifecycle = new IncrementalIndexLifecycle("product search", new Rows(), index, snapshotPath, SNAPSHOT_MAGIC);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            lifecycle.start(catchUpIntervalSeconds);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        lifecycle.shutdown();
+    }
+
+    /** Drops the index and rebuilds it from the database in the background. */
+    public void rebuild() {
+        if (enabled) {
+            lifecycle.rebuild();
+        }
+    }
+
+    // ==================== Search ====================
+    /**
+     * Pages the products matching {@code keyword}, or returns empty when the
+     * index is disabled or still loading.
+     *
+     * <p>Unsorted pages, and pages sorted by id only (the GraphQL default), are
+     * ordered by relevance. Any other sort is applied by the database to the
+     * matching ids, at most {@code search.index.max-hits} of them.
+     */
+    public Optional<Page<Long>> search(String keyword, Pageable pageable) {
+        if (!enabled || !lifecycle.isReady()) {
+            return Optional.empty();
+        }
+        List<Long> ranked = index.search(keyword, maxHits);
+        if (ranked.isEmpty()) {
+            return Optional.of(Page.empty(pageable));
+        }
+        if (!byRelevance(pageable.getSort())) {
+            return Optional.of(productRepository.findIdsByIdInAndIsActiveTrue(ranked, pageable));
+        }
+        if (pageable.isUnpaged()) {
+            return Optional.of(new PageImpl<>(ranked));
+        }
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        int to = Math.min(from + pageable.getPageSize(), ranked.size());
+        return Optional.of(new PageImpl<>(ranked.subList(from, to), pageable, ranked.size()));
+    }
+
+    private static boolean byRelevance(Sort sort) {
+        return sort.stream().allMatch(order -> "id".equals(order.getProperty()));
+    }
+
+    // ==================== Incremental updates ====================
+
+    /** Indexes {@code product} once the current transaction commits; removes it if inactive. */
+    public void indexAfterCommit(Product product) {
+        if (enabled) {
+            AfterCommit.run(() -> apply(product.getId(), product.getName(), product.getSku(), product.getSlug(),
+                    product.getDescription(), product.getUpdatedAt(), product.getIsActive()));
+        }
+    }
+
+    /** Removes {@code productIds} once the current transaction commits. */
+    public void removeAfterCommit(Collection<Long> productIds) {
+        if (enabled) {
+            List<Long> ids = List.copyOf(productIds);
+            AfterCommit.run(() -> ids.forEach(index::remove));
+        }
+    }
+
+    private void apply(Long id, String name, String sku, String slug, String description,
+                       LocalDateTime updatedAt, Boolean active) {
+        if (Boolean.FALSE.equals(active)) {
+            index.remove(id);
+        } else {
+            index.put(id, ProductTextAnalyzer.analyze(name, sku, slug, description));
+        }
+        lifecycle.advanceWatermark(updatedAt);
+    }
+
+    /** Search rows: id, name, sku, slug, description, updatedAt, isActive. */
+    private final class Rows implements IncrementalIndexLifecycle.Binding {
+
+        @Override
+        public List<Object[]> findActiveAfterId(long afterId, Limit limit) {
+            return productRepository.findSearchFieldsAfterIdAndIsActiveTrue(afterId, limit);
+        }
+
+        @Override
+        public List<Object[]> findUpdatedAfter(LocalDateTime since) {
+            return productRepository.findSearchFieldsUpdatedAfter(since);
+        }
+
+        @Override
+        public LocalDateTime updatedAt(Object[] row) {
+            return (LocalDateTime) row[5];
+        }
+
+        @Override
+        public void apply(Object[] row) {
+            if (Boolean.FALSE.equals(row[6])) {
+                index.remove((Long) row[0]);
+            } else {
+                index.put((Long) row[0], terms(row));
+            }
+        }
+
+        @Override
+        public IncrementalIndexLifecycle.Rebuild startRebuild() {
+            Map<Long, Map<String, Float>> documents = new HashMap<>();
+            return new IncrementalIndexLifecycle.Rebuild() {
+                @Override
+                public void add(Object[] row) {
+                    documents.put((Long) row[0], terms(row));
+                }
+
+                @Override
+                public int publish() {
+                    index.replaceAll(documents);
+                    return documents.size();
+                }
+            };
+        }
+
+        private static Map<String, Float> terms(Object[] row) {
+            return ProductTextAnalyzer.analyze((String) row[1], (String) row[2], (String) row[3], (String) row[4]);
+        }
+    }
+
+    public Status status() {
+        ProductSearchIndex.Stats stats = index.stats();
+        return new Status(enabled, lifecycle.isReady(), stats.documents(), stats.terms(), lifecycle.watermark());
+    }
+}
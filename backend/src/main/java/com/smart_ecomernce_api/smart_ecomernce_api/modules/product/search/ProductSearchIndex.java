@@ -0,0 +1,240 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.search;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product text.
+ *
+ * <p>Postings map each term to the products containing it, with the
+ * field-weighted term frequency from {@link ProductTextAnalyzer}. Terms are
+ * kept sorted, so a query term also matches every indexed term it is a prefix
+ * of ("lap" finds "laptop") at a discount. Every query term must match; the
+ * product's score is the sum over query terms of a BM25-style saturated,
+ * idf-weighted frequency. Ties go to the newer (higher) id.
+ *
+ * <p>Thread-safe: searches share a read lock, updates take the write lock.
+ */
+public class ProductSearchIndex implements IncrementalIndexLifecycle.Snapshottable {
+
+    private static final int SNAPSHOT_VERSION = 1;
+    /** Snapshot sanity limits: a corrupt or foreign file is rejected before it is allocated for. */
+    private static final int MAX_SNAPSHOT_DOCUMENTS = 10_000_000;
+    private static final int MAX_SNAPSHOT_TERMS_PER_DOCUMENT = 10_000;
+    /** Initial map capacity is capped so the declared sizes alone never reserve memory. */
+    private static final int MAX_PRESIZE = 1 << 16;
+
+    /** Score factor for a prefix match relative to an exact one. */
+    private static final double PREFIX_FACTOR = 0.7;
+    /** Indexed terms a single query term may expand to. */
+    private static final int MAX_EXPANSIONS = 64;
+    /** Query terms shorter than this only match exactly. */
+    private static final int MIN_PREFIX_LENGTH = 2;
+    /** BM25 term-frequency saturation. */
+    private static final double K1 = 1.2;
+
+    public record Stats(int documents, int terms) {}
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private Map<Long, Map<String, Float>> documents = new HashMap<>();
+
+    /** Adds or replaces a product. */
+    public void put(long id, Map<String, Float> terms) {
+        lock.writeLock().lock();
+        try {
+            unlink(id);
+            if (terms.isEmpty()) {
+                return;
+            }
+            Map<String, Float> copy = Map.copyOf(terms);
+            documents.put(id, copy);
+            copy.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, weight));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            unlink(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void unlink(long id) {
+        Map<String, Float> previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.keySet()) {
+            Map<Long, Float> products = postings.get(term);
+            if (products != null) {
+                products.remove(id);
+                if (products.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the ids of products matching every term of {@code query}, best
+     * first, at most {@code limit}.
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> queryTerms = ProductTextAnalyzer.queryTerms(query);
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Double> scores = null;
+        lock.readLock().lock();
+        try {
+            for (String queryTerm : queryTerms) {
+                Map<Long, Double> termScores = score(queryTerm);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /** Best match per product for one query term, exact or by prefix. */
+    private Map<Long, Double> score(String queryTerm) {
+        Map<Long, Double> best = new HashMap<>();
+        NavigableMap<String, Map<Long, Float>> candidates = queryTerm.length() >= MIN_PREFIX_LENGTH
+                ? postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false)
+                : postings.subMap(queryTerm, true, queryTerm, true);
+        int expansions = 0;
+        for (Map.Entry<String, Map<Long, Float>> entry : candidates.entrySet()) {
+            if (expansions++ == MAX_EXPANSIONS) {
+                break;
+            }
+            double factor = entry.getKey().equals(queryTerm) ? 1.0 : PREFIX_FACTOR;
+            double idf = idf(entry.getValue().size());
+            entry.getValue().forEach((id, weight) -> {
+                double score = factor * idf * weight * (K1 + 1) / (weight + K1);
+                best.merge(id, score, Math::max);
+            });
+        }
+        return best;
+    }
+
+    private double idf(int documentFrequency) {
+        return Math.log(1 + (documents.size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    public Stats stats() {
+        lock.readLock().lock();
+        try {
+            return new Stats(documents.size(), postings.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Writes every document with its terms; postings are rebuilt on read. */
+    @Override
+    public void writeTo(DataOutput out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(documents.size());
+            for (Map.Entry<Long, Map<String, Float>> document : documents.entrySet()) {
+                out.writeLong(document.getKey());
+                out.writeInt(document.getValue().size());
+                for (Map.Entry<String, Float> term : document.getValue().entrySet()) {
+                    out.writeUTF(term.getKey());
+                    out.writeFloat(term.getValue());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the contents of this index with a snapshot written by {@link #writeTo}.
+     * Sizes, terms and weights are validated as they are read; on any violation
+     * an {@link IOException} is thrown and the index is left unchanged.
+     */
+    @Override
+    public void readFrom(DataInput in) throws IOException {
+        int version = in.readInt();
+        if (version != SNAPSHOT_VERSION) {
+            throw new IOException("Unsupported search index snapshot version " + version);
+        }
+        int count = checkSize(in.readInt(), MAX_SNAPSHOT_DOCUMENTS, "document count");
+        Map<Long, Map<String, Float>> loaded = new HashMap<>(Math.min(count, MAX_PRESIZE) * 2);
+        for (int i = 0; i < count; i++) {
+            long id = in.readLong();
+            int termCount = checkSize(in.readInt(), MAX_SNAPSHOT_TERMS_PER_DOCUMENT, "term count");
+            Map<String, Float> terms = new HashMap<>(Math.min(termCount, MAX_PRESIZE) * 2);
+            for (int j = 0; j < termCount; j++) {
+                String term = in.readUTF();
+                float weight = in.readFloat();
+                if (term.isEmpty() || term.length() > ProductTextAnalyzer.MAX_TOKEN_LENGTH
+                        || !Float.isFinite(weight) || weight <= 0) {
+                    throw new IOException("Invalid term in search index snapshot for product " + id);
+                }
+                terms.put(term, weight);
+            }
+            if (loaded.put(id, terms) != null) {
+                throw new IOException("Duplicate product " + id + " in search index snapshot");
+            }
+        }
+        replaceAll(loaded);
+    }
+
+    private static int checkSize(int size, int max, String what) throws IOException {
+        if (size < 0 || size > max) {
+            throw new IOException("Search index snapshot " + what + " " + size + " outside 0.." + max);
+        }
+        return size;
+    }
+
+    /** Replaces the contents of this index with {@code replacement}, product id to terms. */
+    public void replaceAll(Map<Long, Map<String, Float>> replacement) {
+        NavigableMap<String, Map<Long, Float>> rebuilt = new TreeMap<>();
+        Map<Long, Map<String, Float>> copies = new HashMap<>(replacement.size() * 2);
+        replacement.forEach((id, terms) -> {
+            if (!terms.isEmpty()) {
+                Map<String, Float> copy = Map.copyOf(terms);
+                copies.put(id, copy);
+                copy.forEach((term, weight) -> rebuilt.computeIfAbsent(term, t -> new HashMap<>()).put(id, weight));
+            }
+        });
+        lock.writeLock().lock();
+        try {
+            documents = copies;
+            postings = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
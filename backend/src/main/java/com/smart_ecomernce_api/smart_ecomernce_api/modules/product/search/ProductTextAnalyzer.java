@@ -0,0 +1,82 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Turns product text into index terms and search text into query terms.
+ *
+ * <p>Text is accent-folded, lower-cased and split on anything that is not a
+ * letter or digit, so "Café-Noir 2L" yields {@code cafe}, {@code noir},
+ * {@code 2l}. A SKU is also indexed in compact form ({@code AB-123} as
+ * {@code ab123}) so it matches whether or not the user types the dash.
+ */
+public final class ProductTextAnalyzer {
+
+    /** Field weights: a hit in the name counts three times one in the description. */
+    static final float NAME_WEIGHT = 3.0f;
+    static final float SKU_WEIGHT = 2.5f;
+    static final float SLUG_WEIGHT = 1.5f;
+    static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    static final int MAX_TOKEN_LENGTH = 40;
+    static final int MAX_DESCRIPTION_TOKENS = 300;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private ProductTextAnalyzer() {
+    }
+
+    /** Weighted term frequencies of one product, over all indexed fields. */
+    public static Map<String, Float> analyze(String name, String sku, String slug, String description) {
+        Map<String, Float> terms = new HashMap<>();
+        add(terms, tokens(name, Integer.MAX_VALUE), NAME_WEIGHT);
+        add(terms, tokens(slug, Integer.MAX_VALUE), SLUG_WEIGHT);
+        add(terms, tokens(description, MAX_DESCRIPTION_TOKENS), DESCRIPTION_WEIGHT);
+        List<String> skuTokens = tokens(sku, Integer.MAX_VALUE);
+        add(terms, skuTokens, SKU_WEIGHT);
+        if (skuTokens.size() > 1) {
+            add(terms, List.of(truncate(String.join("", skuTokens))), SKU_WEIGHT);
+        }
+        return terms;
+    }
+
+    /** Distinct query terms, in the order typed. */
+    public static List<String> queryTerms(String query) {
+        return tokens(query, Integer.MAX_VALUE).stream().distinct().toList();
+    }
+
+    static List<String> tokens(String text, int limit) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(truncate(token));
+                if (tokens.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return tokens;
+    }
+
+    private static void add(Map<String, Float> terms, List<String> tokens, float weight) {
+        for (String token : tokens) {
+            terms.merge(token, weight, Float::sum);
+        }
+    }
+
+    private static String truncate(String token) {
+        return token.length() > MAX_TOKEN_LENGTH ? token.substring(0, MAX_TOKEN_LENGTH) : token;
+    }
+}
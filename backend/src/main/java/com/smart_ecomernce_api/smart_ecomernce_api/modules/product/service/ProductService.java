@@ -2,12 +2,17 @@ package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service;
 
 import com.querydsl.core.types.Predicate;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductCreateRequest;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductFacetsResponse;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductFilterRequest;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductStatisticsResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductUpdateRequest;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.InventoryStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -38,6 +43,24 @@ public interface ProductService {
      */
     Page<ProductResponse> findByPredicate(Predicate predicate, Pageable pageable);
 
+    /**
+     * Keyset-paginated variant of {@link #findByPredicate}: seeks past
+     * {@code position} instead of counting and skipping rows.
+     */
+    Window<ProductResponse> scrollByPredicate(Predicate predicate, ScrollPosition position, Sort sort, int limit);
+
+    /**
+     * Find products matching a filter request. Category, price, inventory
+     * status and flag filters are served from the in-memory facet index.
+     */
+    Page<ProductResponse> findByFilters(ProductFilterRequest filter, Pageable pageable);
+
+    /**
+     * Per-facet product counts (category, price range, inventory status,
+     * flags) for a filter request.
+     */
+    ProductFacetsResponse getFacets(ProductFilterRequest filter);
+
 
 
     Page<ProductResponse> getAllProducts(Pageable pageable);
@@ -79,6 +102,15 @@ public interface ProductService {
 
     void releaseReservedStock(Long productId, Integer quantity);
 
+    /**
+     * Moves the product's stock into in-memory flash-sale counters; stock
+     * operations then no longer lock its row.
+     */
+    ProductResponse enableFlashSale(Long productId);
+
+    /** Flushes the flash-sale counters and returns the product to row-locked stock. */
+    ProductResponse disableFlashSale(Long productId);
+
     // ==================== Bulk Operations ====================
 
     void bulkUpdateFeatured(List<Long> productIds, Boolean featured);
@@ -1,6 +1,11 @@
 /**
  * ProductServiceImpl with consistent caching.
  *
+ * Mutations invalidate by tag through {@link CacheTagInvalidator}: an update
+ * evicts only the entries containing the product (and its category listings),
+ * and the generic product listings are dropped only when membership or
+ * ordering can actually change.
+ *
  * Caches used:
  * - products
  * - products-page
@@ -25,6 +30,12 @@
 package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.impl;
 
 import com.querydsl.core.types.Predicate;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.retry.RetryOnConflict;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CanonicalKeyGenerator;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CacheTagInvalidator;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CacheTagged;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CacheTags;
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.BadRequestException;
 import com.smart_ecomernce_api.smart_ecomernce_api.exception.DuplicateResourceException;
 import com.smart_ecomernce_api.smart_ecomernce_api.exception.InvalidDataException;
 import com.smart_ecomernce_api.smart_ecomernce_api.exception.ResourceNotFoundException;
@@ -34,45 +45,63 @@ import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.*;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.InventoryStatus;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.Product;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.ProductPredicates;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.inventory.HotStockService;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.mapper.ProductMapper;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.search.ProductFacetEngine;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.search.ProductFacetIndex;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.search.ProductSearchEngine;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.ProductService;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
 @AllArgsConstructor
 @Service
 @Transactional(readOnly = true)
+@RetryOnConflict
 public class ProductServiceImpl implements ProductService {
 
         private final ProductMapper productMapper;
         private final ProductRepository productRepository;
         private final CategoryRepository categoryRepository;
+        private final CacheTagInvalidator cacheTagInvalidator;
+        private final ProductSearchEngine searchEngine;
+        private final ProductFacetEngine facetEngine;
+        private final CacheManager cacheManager;
+        private final HotStockService hotStock;
 
         // ==================== CRUD Operations ====================
 
         @Override
         @Transactional
         @CachePut(value = "products", key = "#result.id")
-        @CacheEvict(value = {
-                "products-page", "products-search", "products-predicate", "products-filter",
-                "products-category", "products-category-name", "products-status",
-                "products-featured", "products-discounted", "products-new", "products-bestseller"
-        }, allEntries = true)
         public ProductResponse createProduct(ProductCreateRequest request) {
                 // Validate category exists
                 Category category = categoryRepository.findById(request.getCategoryId())
@@ -103,12 +132,16 @@ public class ProductServiceImpl implements ProductService {
                 Product savedProduct = productRepository.save(product);
                 log.info("Product created with id: {}", savedProduct.getId());
 
+                searchEngine.indexAfterCommit(savedProduct);
+                facetEngine.indexAfterCommit(savedProduct);
+                cacheTagInvalidator.evict(CacheTags.category(category.getId()), CacheTags.PRODUCT_LISTINGS);
+
                 return productMapper.toDto(savedProduct);
         }
 
         @Override
         @Transactional(readOnly = true)
-        @Cacheable(value = "products", key = "#id")
+        @Cacheable(value = "products", key = "#id", sync = true)
         public ProductResponse getProductById(Long id) {
                 Product product = productRepository.findByIdWithCategoryAndImagesAndIsActiveTrue(id)
                         .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + id));
@@ -121,7 +154,7 @@ public class ProductServiceImpl implements ProductService {
 
         @Override
         @Transactional(readOnly = true)
-        @Cacheable(value = "products", key = "'slug:' + #slug")
+        @Cacheable(value = "products", key = "'slug:' + #slug", sync = true)
         public ProductResponse getProductBySlug(String slug) {
                 Product product = productRepository.findBySlugAndIsActiveTrue(slug)
                         .orElseThrow(() -> new ResourceNotFoundException(
@@ -135,7 +168,7 @@ public class ProductServiceImpl implements ProductService {
 
         @Override
         @Transactional(readOnly = true)
-        @Cacheable(value = "products", key = "'sku:' + #sku")
+        @Cacheable(value = "products", key = "'sku:' + #sku", sync = true)
         public ProductResponse getProductBySku(String sku) {
                 Product product = productRepository.findBySkuAndIsActiveTrue(sku)
                         .orElseThrow(() -> new ResourceNotFoundException("Product not found with SKU: " + sku));
@@ -148,15 +181,19 @@ public class ProductServiceImpl implements ProductService {
 
         @Override
         @Transactional
-        @CachePut(value = "products", key = "#id")
-        @CacheEvict(value = {
-                "products-page", "products-search", "products-predicate", "products-filter",
-                "products-category", "products-category-name", "products-status",
-                "products-featured", "products-discounted", "products-new", "products-bestseller"
-        }, allEntries = true)
+        @RetryOnConflict(maxAttempts = 1)
         public ProductResponse updateProduct(Long id, ProductUpdateRequest request) {
                 Product product = productRepository.findByIdAndIsActiveTrue(id)
                         .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + id));
+                Long previousCategoryId = product.getCategory().getId();
+                boolean previouslyActive = Boolean.TRUE.equals(product.getIsActive());
+                List<Object> previousListingState = listingState(product);
+
+                // Stock of a flash-sale product is owned by its in-memory counters.
+                if ((request.getStockQuantity() != null || Boolean.FALSE.equals(request.getIsActive()))
+                        && hotStock.isHot(id)) {
+                        throw new BadRequestException("Disable flash-sale mode before changing stock or deactivating product " + id);
+                }
 
                 // Validate SKU uniqueness when changed.
                 if (request.getSku() != null
@@ -191,40 +228,81 @@ public class ProductServiceImpl implements ProductService {
                 Product updatedProduct = productRepository.save(product);
                 log.info("Product updated with id: {}", id);
 
+                searchEngine.indexAfterCommit(updatedProduct);
+                facetEngine.indexAfterCommit(updatedProduct);
+                List<String> tags = productTags(updatedProduct, previousListingState);
+                boolean categoryChanged = !previousCategoryId.equals(updatedProduct.getCategory().getId());
+                if (categoryChanged || previouslyActive != Boolean.TRUE.equals(updatedProduct.getIsActive())) {
+                        // Listing membership changed, not just what a listed product shows.
+                        if (!tags.contains(CacheTags.PRODUCT_LISTINGS)) {
+                                tags.add(CacheTags.PRODUCT_LISTINGS);
+                        }
+                        tags.add(CacheTags.PRODUCT_CATEGORY_LISTINGS);
+                }
+                if (categoryChanged) {
+                        tags.add(CacheTags.category(previousCategoryId));
+                        tags.add(CacheTags.category(updatedProduct.getCategory().getId()));
+                }
+                cacheTagInvalidator.evict(tags);
+
                 return productMapper.toDto(updatedProduct);
         }
 
         @Override
         @Transactional
-        @CacheEvict(value = {
-                "products", "products-page", "products-search", "products-predicate",
-                "products-filter", "products-category", "products-category-name",
-                "products-status", "products-featured", "products-discounted",
-                "products-new", "products-bestseller"
-        }, allEntries = true)
         public void deleteProduct(Long id) {
                 Product product = productRepository.findByIdAndIsActiveTrue(id)
                         .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + id));
+                if (hotStock.isHot(id)) {
+                        throw new BadRequestException("Disable flash-sale mode before deleting product " + id);
+                }
 
                 product.setIsActive(false);
                 productRepository.save(product);
                 log.info("Product soft deleted with id: {}", id);
+
+                searchEngine.removeAfterCommit(List.of(id));
+                facetEngine.removeAfterCommit(List.of(id));
+                cacheTagInvalidator.evict(CacheTags.product(id),
+                        CacheTags.category(product.getCategory().getId()),
+                        CacheTags.PRODUCT_LISTINGS);
         }
 
         // ==================== Predicate-based Queries ====================
 
         @Override
         @Transactional(readOnly = true)
-        @Cacheable(value = "products-predicate", key = "T(org.springframework.util.DigestUtils).md5DigestAsHex(('#predicate=' + #predicate.toString() + '&page=' + #pageable.pageNumber + '&size=' + #pageable.pageSize + '&sort=' + #pageable.sort).getBytes())")
+        @Cacheable(value = "products-predicate", keyGenerator = CanonicalKeyGenerator.NAME)
         public Page<ProductResponse> findByPredicate(Predicate predicate, Pageable pageable) {
                 return productRepository.findAll(predicate, pageable)
                         .map(productMapper::toDto);
         }
 
+        @Override
+        @Transactional(readOnly = true)
+        public Window<ProductResponse> scrollByPredicate(Predicate predicate, ScrollPosition position, Sort sort, int limit) {
+                Window<Product> window = productRepository.findBy(predicate, query -> query
+                                .sortBy(sort)
+                                .limit(limit)
+                                .scroll(position));
+                // Load category and images for the whole window in one query instead of per row
+                Map<Long, Product> hydrated = productRepository.hydrate(window.stream().map(Product::getId).toList())
+                        .stream()
+                        .collect(Collectors.toMap(Product::getId, Function.identity()));
+                return window.map(product -> productMapper.toDto(hydrated.getOrDefault(product.getId(), product)));
+        }
+
+        @Override
         @Transactional(readOnly = true)
-        @Cacheable(value = "products-filter", key = "T(org.springframework.util.DigestUtils).md5DigestAsHex(('#filter=' + #filter.toString() + '&page=' + #pageable.pageNumber + '&size=' + #pageable.pageSize + '&sort=' + #pageable.sort).getBytes())")
+        @Cacheable(value = "products-filter", keyGenerator = CanonicalKeyGenerator.NAME)
         public Page<ProductResponse> findByFilters(ProductFilterRequest filter, Pageable pageable) {
-                filter.validate();
+                validate(filter);
+
+                // Category/price/status/flag filters are answered by the bitmap index once it is loaded
+                Optional<Page<Long>> ids = facetEngine.filter(filter, pageable);
+                if (ids.isPresent()) {
+                        return hydrateFromCache(ids.get());
+                }
 
                 // Convert filter to predicate using our ProductPredicates utility
                 Predicate predicate = ProductPredicates
@@ -236,7 +314,71 @@ public class ProductServiceImpl implements ProductService {
 
         @Override
         @Transactional(readOnly = true)
-        @Cacheable(value = "products-page", key = "T(org.springframework.util.DigestUtils).md5DigestAsHex(('#page=' + #pageable.pageNumber + '&size=' + #pageable.pageSize + '&sort=' + #pageable.sort).getBytes())")
+        public ProductFacetsResponse getFacets(ProductFilterRequest filter) {
+                validate(filter);
+
+                ProductFacetIndex.Facets facets = facetEngine.facets(filter);
+                Map<ProductFacetIndex.Flag, Integer> flags = facets.flags();
+                return ProductFacetsResponse.builder()
+                        .total((long) facets.total())
+                        .categories(facets.categories().entrySet().stream()
+                                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().longValue(),
+                                        (a, b) -> a, LinkedHashMap::new)))
+                        .inventoryStatuses(facets.inventoryStatuses().entrySet().stream()
+                                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().longValue(),
+                                        (a, b) -> a, () -> new EnumMap<>(InventoryStatus.class))))
+                        .priceRanges(facets.priceRanges().stream()
+                                .map(range -> ProductFacetsResponse.PriceRangeFacet.builder()
+                                        .min(range.min()).max(range.max()).count((long) range.count()).build())
+                                .toList())
+                        .featured(flags.get(ProductFacetIndex.Flag.FEATURED).longValue())
+                        .isNew(flags.get(ProductFacetIndex.Flag.NEW).longValue())
+                        .bestseller(flags.get(ProductFacetIndex.Flag.BESTSELLER).longValue())
+                        .discounted(flags.get(ProductFacetIndex.Flag.DISCOUNTED).longValue())
+                        .build();
+        }
+
+        private static void validate(ProductFilterRequest filter) {
+                try {
+                        filter.validate();
+                } catch (IllegalArgumentException e) {
+                        throw new BadRequestException(e.getMessage());
+                }
+        }
+
+        /**
+         * Resolves a page of product ids through the {@code products} cache,
+         * loading and caching only the misses in one query.
+         */
+        private Page<ProductResponse> hydrateFromCache(Page<Long> ids) {
+                Cache cache = cacheManager.getCache("products");
+                Map<Long, ProductResponse> found = new HashMap<>();
+                List<Long> missing = new ArrayList<>();
+                for (Long id : ids.getContent()) {
+                        ProductResponse cached = cache != null ? cache.get(id, ProductResponse.class) : null;
+                        if (cached != null) {
+                                found.put(id, cached);
+                        } else {
+                                missing.add(id);
+                        }
+                }
+                for (Product product : productRepository.hydrate(missing)) {
+                        ProductResponse response = productMapper.toDto(product);
+                        found.put(product.getId(), response);
+                        if (cache != null) {
+                                cache.put(product.getId(), response);
+                        }
+                }
+                List<ProductResponse> content = ids.getContent().stream()
+                        .map(found::get)
+                        .filter(Objects::nonNull)
+                        .toList();
+                return new PageImpl<>(content, ids.getPageable(), ids.getTotalElements());
+        }
+
+        @Override
+        @Transactional(readOnly = true)
+        @Cacheable(value = "products-page", keyGenerator = CanonicalKeyGenerator.NAME)
         public Page<ProductResponse> getAllProducts(Pageable pageable) {
                 return productRepository.findByIsActiveTrue(pageable)
                         .map(productMapper::toDto);
@@ -246,7 +388,8 @@ public class ProductServiceImpl implements ProductService {
 
         @Override
         @Transactional(readOnly = true)
-        @Cacheable(value = "products-category", key = "T(org.springframework.util.DigestUtils).md5DigestAsHex(('#categoryId=' + #categoryId + '&page=' + #pageable.pageNumber + '&size=' + #pageable.pageSize + '&sort=' + #pageable.sort).getBytes())")
+        @Cacheable(value = "products-category", keyGenerator = CanonicalKeyGenerator.NAME)
+        @CacheTagged("category(#categoryId)")
         public Page<ProductResponse> getProductsByCategory(Long categoryId, Pageable pageable) {
                 return productRepository.findByCategoryIdAndIsActiveTrue(categoryId, pageable)
                         .map(productMapper::toDto);
@@ -254,7 +397,7 @@ public class ProductServiceImpl implements ProductService {
 
         @Override
         @Transactional(readOnly = true)
-        @Cacheable(value = "products-category-name", key = "T(org.springframework.util.DigestUtils).md5DigestAsHex(('#categoryName=' + #categoryName + '&page=' + #pageable.pageNumber + '&size=' + #pageable.pageSize + '&sort=' + #pageable.sort).getBytes())")
+        @Cacheable(value = "products-category-name", keyGenerator = CanonicalKeyGenerator.NAME)
         public Page<ProductResponse> getProductsByCategoryName(String categoryName, Pageable pageable) {
                 return productRepository.findByCategoryName(categoryName, pageable)
                         .map(productMapper::toDto);
@@ -262,7 +405,7 @@ public class ProductServiceImpl implements ProductService {
 
         @Override
         @Transactional(readOnly = true)
-        @Cacheable(value = "products-price-range", key = "T(org.springframework.util.DigestUtils).md5DigestAsHex(('#minPrice=' + #minPrice + '&maxPrice=' + #maxPrice + '&page=' + #pageable.pageNumber + '&size=' + #pageable.pageSize + '&sort=' + #pageable.sort).getBytes())")
+        @Cacheable(value = "products-price-range", keyGenerator = CanonicalKeyGenerator.NAME)
         public Page<ProductResponse> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice,
                                                              Pageable pageable) {
                 return productRepository.findByPriceRange(minPrice, maxPrice, pageable)
@@ -271,7 +414,7 @@ public class ProductServiceImpl implements ProductService {
 
         @Override
         @Transactional(readOnly = true)
-        @Cacheable(value = "products-discounted", key = "T(org.springframework.util.DigestUtils).md5DigestAsHex(('#page=' + #pageable.pageNumber + '&size=' + #pageable.pageSize + '&sort=' + #pageable.sort).getBytes())")
+        @Cacheable(value = "products-discounted", keyGenerator = CanonicalKeyGenerator.NAME)
         public Page<ProductResponse> getDiscountedProducts(Pageable pageable) {
                 return productRepository.findDiscountedProductsAndIsActiveTrue(pageable)
                         .map(productMapper::toDto);
@@ -279,18 +422,21 @@ public class ProductServiceImpl implements ProductService {
 
         @Override
         @Transactional(readOnly = true)
-        @Cacheable(value = "products-search", key = "T(org.springframework.util.DigestUtils).md5DigestAsHex(('#keyword=' + #keyword + '&page=' + #pageable.pageNumber + '&size=' + #pageable.pageSize + '&sort=' + #pageable.sort).getBytes())")
+        @Cacheable(value = "products-search", keyGenerator = CanonicalKeyGenerator.NAME)
         public Page<ProductResponse> searchProducts(String keyword, Pageable pageable) {
                 if (keyword == null || keyword.isBlank()) {
                         return getAllProducts(pageable);
                 }
-                return productRepository.searchProductsAndIsActiveTrue(keyword, pageable)
+                // The in-memory index answers once loaded; until then (or when disabled) use the LIKE query.
+                return searchEngine.search(keyword, pageable)
+                        .map(productRepository::hydrate)
+                        .orElseGet(() -> productRepository.searchProductsAndIsActiveTrue(keyword, pageable))
                         .map(productMapper::toDto);
         }
 
         @Override
         @Transactional(readOnly = true)
-        @Cacheable(value = "products-featured", key = "T(org.springframework.util.DigestUtils).md5DigestAsHex(('#page=' + #pageable.pageNumber + '&size=' + #pageable.pageSize + '&sort=' + #pageable.sort).getBytes())")
+        @Cacheable(value = "products-featured", keyGenerator = CanonicalKeyGenerator.NAME, sync = true)
         public Page<ProductResponse> getFeaturedProducts(Pageable pageable) {
                 return productRepository.findByFeaturedTrueAndIsActiveTrue(pageable)
                         .map(productMapper::toDto);
@@ -298,7 +444,7 @@ public class ProductServiceImpl implements ProductService {
 
         @Override
         @Transactional(readOnly = true)
-        @Cacheable(value = "products-new", key = "T(org.springframework.util.DigestUtils).md5DigestAsHex(('#page=' + #pageable.pageNumber + '&size=' + #pageable.pageSize + '&sort=' + #pageable.sort).getBytes())")
+        @Cacheable(value = "products-new", keyGenerator = CanonicalKeyGenerator.NAME)
         public Page<ProductResponse> getNewProducts(Pageable pageable) {
                 return productRepository.findByIsNewTrueAndIsActiveTrue(pageable)
                         .map(productMapper::toDto);
@@ -306,7 +452,7 @@ public class ProductServiceImpl implements ProductService {
 
         @Override
         @Transactional(readOnly = true)
-        @Cacheable(value = "products-bestseller", key = "T(org.springframework.util.DigestUtils).md5DigestAsHex(('#page=' + #pageable.pageNumber + '&size=' + #pageable.pageSize + '&sort=' + #pageable.sort).getBytes())")
+        @Cacheable(value = "products-bestseller", keyGenerator = CanonicalKeyGenerator.NAME, sync = true)
         public Page<ProductResponse> getBestsellerProducts(Pageable pageable) {
                 return productRepository.findByIsBestsellerTrueAndIsActiveTrue(pageable)
                         .map(productMapper::toDto);
@@ -314,7 +460,7 @@ public class ProductServiceImpl implements ProductService {
 
         @Override
         @Transactional(readOnly = true)
-        @Cacheable(value = "products-top-rated", key = "T(org.springframework.util.DigestUtils).md5DigestAsHex(('#page=' + #pageable.pageNumber + '&size=' + #pageable.pageSize + '&sort=' + #pageable.sort).getBytes())")
+        @Cacheable(value = "products-top-rated", keyGenerator = CanonicalKeyGenerator.NAME)
         public Page<ProductResponse> getTopRatedProducts(Pageable pageable) {
                 return productRepository.findTopRatedProductsAndIsActiveTrue(BigDecimal.valueOf(4.0), pageable)
                         .map(productMapper::toDto);
@@ -322,7 +468,7 @@ public class ProductServiceImpl implements ProductService {
 
         @Override
         @Transactional(readOnly = true)
-        @Cacheable(value = "products-trending", key = "T(org.springframework.util.DigestUtils).md5DigestAsHex(('#categoryId=' + #categoryId + '&limit=' + #limit).getBytes())")
+        @Cacheable(value = "products-trending", keyGenerator = CanonicalKeyGenerator.NAME, sync = true)
         public List<ProductResponse> getTrendingProducts(Long categoryId, int limit) {
                 Pageable pageable = PageRequest.of(0, limit);
                 Page<Product> productPage = productRepository.findTrendingProductsAndIsActiveTrue(pageable);
@@ -333,7 +479,7 @@ public class ProductServiceImpl implements ProductService {
 
         @Override
         @Transactional(readOnly = true)
-        @Cacheable(value = "products-status", key = "T(org.springframework.util.DigestUtils).md5DigestAsHex(('#status=' + #status + '&page=' + #pageable.pageNumber + '&size=' + #pageable.pageSize + '&sort=' + #pageable.sort).getBytes())")
+        @Cacheable(value = "products-status", keyGenerator = CanonicalKeyGenerator.NAME)
         public Page<ProductResponse> findByInventoryStatus(InventoryStatus status, Pageable pageable) {
                 return productRepository.findByInventoryStatusAndIsActiveTrue(status, pageable)
                         .map(productMapper::toDto);
@@ -341,7 +487,7 @@ public class ProductServiceImpl implements ProductService {
 
         @Override
         @Transactional(readOnly = true)
-        @Cacheable(value = "products-reorder", key = "T(org.springframework.util.DigestUtils).md5DigestAsHex(('#page=' + #pageable.pageNumber + '&size=' + #pageable.pageSize + '&sort=' + #pageable.sort).getBytes())")
+        @Cacheable(value = "products-reorder", keyGenerator = CanonicalKeyGenerator.NAME)
         public Page<ProductResponse> getProductsNeedingReorder(Pageable pageable) {
                 return productRepository.findProductsNeedingReorderAndIsActiveTrue(pageable)
                         .map(productMapper::toDto);
@@ -351,16 +497,23 @@ public class ProductServiceImpl implements ProductService {
 
         @Override
         @Transactional
-        @CacheEvict(value = {
-                "products", "products-status", "products-reorder", "products-trending"
-        }, allEntries = true)
         public ProductResponse reduceStock(Long productId, Integer quantity) {
+                if (hotStock.deduct(productId, quantity)) {
+                        return hotStockResponse(productId);
+                }
                 Product product = productRepository.findByIdWithLockAndIsActiveTrue(productId)
                         .orElseThrow(() -> new ResourceNotFoundException(
                                 "Product not found with ID: " + productId));
+                // Checked again under the row lock: the product may have gone hot meanwhile.
+                if (hotStock.deduct(productId, quantity)) {
+                        return hotStockResponse(productId);
+                }
 
+                List<Object> previousListingState = listingState(product);
                 product.deductStock(quantity);
                 Product updatedProduct = productRepository.save(product);
+                facetEngine.indexAfterCommit(updatedProduct);
+                cacheTagInvalidator.evict(productTags(updatedProduct, previousListingState));
 
                 log.info("Stock reduced for product {} by {}", productId, quantity);
                 return productMapper.toDto(updatedProduct);
@@ -368,73 +521,124 @@ public class ProductServiceImpl implements ProductService {
 
         @Override
         @Transactional
-        @CacheEvict(value = {
-                "products", "products-status", "products-reorder", "products-trending"
-        }, allEntries = true)
         public void restoreStock(Long productId, Integer quantity) {
+                if (hotStock.restore(productId, quantity)) {
+                        return;
+                }
                 Product product = productRepository.findByIdWithLockAndIsActiveTrue(productId)
                         .orElseThrow(() -> new ResourceNotFoundException(
                                 "Product not found with ID: " + productId));
+                if (hotStock.restore(productId, quantity)) {
+                        return;
+                }
 
+                List<Object> previousListingState = listingState(product);
                 product.addStock(quantity);
                 productRepository.save(product);
+                facetEngine.indexAfterCommit(product);
+                cacheTagInvalidator.evict(productTags(product, previousListingState));
 
                 log.info("Stock restored for product {} by {}", productId, quantity);
         }
 
         @Override
         @Transactional
-        @CacheEvict(value = {
-                "products", "products-status", "products-reorder", "products-trending"
-        }, allEntries = true)
         public void reserveStock(Long productId, Integer quantity) {
+                if (hotStock.reserve(productId, quantity)) {
+                        return;
+                }
                 Product product = productRepository.findByIdWithLockAndIsActiveTrue(productId)
                         .orElseThrow(() -> new ResourceNotFoundException(
                                 "Product not found with ID: " + productId));
+                if (hotStock.reserve(productId, quantity)) {
+                        return;
+                }
 
+                List<Object> previousListingState = listingState(product);
                 product.reserveStock(quantity);
                 productRepository.save(product);
+                facetEngine.indexAfterCommit(product);
+                cacheTagInvalidator.evict(productTags(product, previousListingState));
 
                 log.info("Stock reserved for product {} by {}", productId, quantity);
         }
 
         @Override
         @Transactional
-        @CacheEvict(value = {
-                "products", "products-status", "products-reorder", "products-trending"
-        }, allEntries = true)
         public void releaseReservedStock(Long productId, Integer quantity) {
+                if (hotStock.release(productId, quantity)) {
+                        return;
+                }
                 Product product = productRepository.findByIdWithLockAndIsActiveTrue(productId)
                         .orElseThrow(() -> new ResourceNotFoundException(
                                 "Product not found with ID: " + productId));
+                if (hotStock.release(productId, quantity)) {
+                        return;
+                }
 
+                List<Object> previousListingState = listingState(product);
                 product.releaseReservedStock(quantity);
                 productRepository.save(product);
+                facetEngine.indexAfterCommit(product);
+                cacheTagInvalidator.evict(productTags(product, previousListingState));
 
                 log.info("Reserved stock released for product {} by {}", productId, quantity);
         }
 
+        @Override
+        @Transactional
+        public ProductResponse enableFlashSale(Long productId) {
+                hotStock.enable(productId);
+                cacheTagInvalidator.evict(CacheTags.product(productId));
+                return hotStockResponse(productId);
+        }
+
+        @Override
+        @Transactional
+        public ProductResponse disableFlashSale(Long productId) {
+                hotStock.disable(productId);
+                return getProductById(productId);
+        }
+
+        /** The product with its stock fields taken from the hot-stock counters, which lead the row. */
+        private ProductResponse hotStockResponse(Long productId) {
+                ProductResponse response = getProductById(productId);
+                hotStock.snapshot(productId).ifPresent(snapshot -> {
+                        response.setStockQuantity((int) snapshot.stock());
+                        response.setReservedQuantity((int) snapshot.reserved());
+                        response.setAvailableQuantity((int) snapshot.available());
+                });
+                return response;
+        }
+
         // ==================== Bulk Operations ====================
 
         @Override
         @Transactional
-        @CacheEvict(value = {
-                "products", "products-status", "products-reorder", "products-trending"
-        }, allEntries = true)
         public void bulkUpdateFeatured(List<Long> productIds, Boolean featured) {
                 int updatedCount = productRepository.bulkUpdateFeaturedAndIsActiveTrue(productIds, featured);
                 log.info("Bulk updated featured status for {} products to {}", updatedCount, featured);
+                facetEngine.reindexAfterCommit(productIds);
+
+                List<String> tags = new ArrayList<>(productIds.size() + 1);
+                productIds.forEach(productId -> tags.add(CacheTags.product(productId)));
+                tags.add(CacheTags.PRODUCT_LISTINGS);
+                cacheTagInvalidator.evict(tags);
         }
 
         @Override
         @Transactional
-        @CacheEvict(value = {
-                "products", "products-search", "products-predicate", "products-filter",
-                "products-category", "products-category-name", "products-page"
-        }, allEntries = true)
         public void bulkDelete(List<Long> productIds) {
                 int deletedCount = productRepository.bulkSoftDelete(productIds);
                 log.info("Bulk soft deleted {} products", deletedCount);
+
+                searchEngine.removeAfterCommit(productIds);
+                facetEngine.removeAfterCommit(productIds);
+                List<String> tags = new ArrayList<>(productIds.size() + 2);
+                productIds.forEach(productId -> tags.add(CacheTags.product(productId)));
+                tags.add(CacheTags.PRODUCT_LISTINGS);
+                tags.add(CacheTags.PRODUCT_CATEGORY_LISTINGS);
+                cacheTagInvalidator.evict(tags);
         }
 
         // ==================== Statistics ====================
@@ -508,6 +712,35 @@ public class ProductServiceImpl implements ProductService {
                 }
         }
 
+        // ==================== Cache Invalidation ====================
+
+        /**
+         * Tags to evict after {@code product} changed. Entries containing the
+         * product always go; listings only go when a field that decides
+         * membership or ordering in some listing changed.
+         */
+        private List<String> productTags(Product product, List<Object> previousListingState) {
+                List<String> tags = new ArrayList<>(4);
+                tags.add(CacheTags.product(product.getId()));
+                if (!previousListingState.equals(listingState(product))) {
+                        tags.add(CacheTags.PRODUCT_LISTINGS);
+                }
+                return tags;
+        }
+
+        /**
+         * Fields that listing queries filter, search or sort on. Stock levels only
+         * matter through the inventory status and reorder point they drive.
+         */
+        private static List<Object> listingState(Product product) {
+                return Arrays.asList(
+                        product.getName(), product.getSlug(), product.getSku(), product.getDescription(),
+                        product.getPrice(), product.getDiscountPrice(),
+                        product.getFeatured(), product.getIsNew(), product.getIsBestseller(),
+                        product.getInventoryStatus(), product.getRatingAverage(), product.getSalesCount(),
+                        product.getStockQuantity() <= product.getReorderPoint());
+        }
+
         // ==================== Validation Methods ====================
 
         @Transactional(readOnly = true)
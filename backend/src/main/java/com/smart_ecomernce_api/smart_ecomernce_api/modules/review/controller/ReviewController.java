@@ -2,7 +2,10 @@ package com.smart_ecomernce_api.smart_ecomernce_api.modules.review.controller;
 
 import com.querydsl.core.types.Predicate;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.review.entity.ReviewPredicates;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.pagination.CursorCodec;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.pagination.KeysetSort;
 import com.smart_ecomernce_api.smart_ecomernce_api.common.response.ApiResponse;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.response.CursorPage;
 import com.smart_ecomernce_api.smart_ecomernce_api.common.response.PaginatedResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.review.dto.*;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.review.entity.Review;
@@ -41,7 +44,10 @@ import java.time.LocalDateTime;
 @Tag(name = "Product Reviews", description = "APIs for managing product reviews, ratings and analytics")
 public class ReviewController {
 
+    private static final KeysetSort SCROLL_SORT = KeysetSort.of("createdAt", "rating", "helpfulCount");
+
     private final ReviewService reviewService;
+    private final CursorCodec   cursorCodec;
 
     // ─────────────────────────────────────────────────────────────────────────
     //  Public reads
@@ -135,6 +141,20 @@ public class ReviewController {
                 PaginatedResponse.from(reviewService.getProductReviews(productId, pageable))));
     }
 
+    @GetMapping("/product/{productId}/scroll")
+    @Operation(summary = "Scroll reviews for a product with a keyset cursor (no total count)")
+    public ResponseEntity<ApiResponse<CursorPage<ReviewResponse>>> scrollProductReviews(
+            @PathVariable Long productId,
+            @RequestParam(required = false)           String cursor,
+            @RequestParam(defaultValue = "10")        int    limit,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "DESC")      String direction) {
+        Sort sort = SCROLL_SORT.resolve(sortBy, Sort.Direction.fromString(direction));
+        return ResponseEntity.ok(ApiResponse.success(cursorCodec.toPage(
+                reviewService.scrollProductReviews(productId, cursorCodec.decode(cursor, sort), sort,
+                        KeysetSort.limit(limit)))));
+    }
+
     @PostMapping("/product/{productId}/filter")
     
     @Operation(summary = "Get filtered reviews for a product")
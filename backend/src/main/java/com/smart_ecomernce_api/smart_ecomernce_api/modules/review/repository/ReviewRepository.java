@@ -3,7 +3,11 @@ package com.smart_ecomernce_api.smart_ecomernce_api.modules.review.repository;
 import com.smart_ecomernce_api.smart_ecomernce_api.common.base.BaseRepository;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.review.entity.Review;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -26,6 +30,13 @@ public interface ReviewRepository extends BaseRepository<Review, Long> {
         @EntityGraph(attributePaths = {"user", "product"})
         Page<Review> findByProductIdAndApproved(Long productId, Boolean approved, Pageable pageable);
 
+        /**
+         * Keyset-paginated variant of {@link #findByProductIdAndApproved(Long, Boolean, Pageable)}
+         */
+        @EntityGraph(attributePaths = {"user", "product"})
+        Window<Review> findByProductIdAndApproved(Long productId, Boolean approved,
+                                                  ScrollPosition position, Sort sort, Limit limit);
+
         /**
          * Find reviews by user
          */
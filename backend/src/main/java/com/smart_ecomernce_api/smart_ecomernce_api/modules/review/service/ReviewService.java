@@ -4,6 +4,9 @@ import com.querydsl.core.types.Predicate;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.review.dto.*;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
 import java.util.List;
 
@@ -29,6 +32,8 @@ public interface ReviewService {
 
     Page<ReviewResponse> getProductReviews(Long productId, Pageable pageable);
 
+    Window<ReviewResponse> scrollProductReviews(Long productId, ScrollPosition position, Sort sort, int limit);
+
     Page<ReviewResponse> getProductReviewsWithFilters(Long productId, ReviewFilterRequest filters, Pageable pageable);
 
     // ==================== Statistics & Analytics ====================
@@ -1,6 +1,9 @@
 package com.smart_ecomernce_api.smart_ecomernce_api.modules.review.service.impl;
 
 import com.querydsl.core.types.Predicate;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CacheTagInvalidator;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CacheTagged;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CacheTags;
 import com.smart_ecomernce_api.smart_ecomernce_api.exception.InvalidDataException;
 import com.smart_ecomernce_api.smart_ecomernce_api.exception.ResourceNotFoundException;
 import com.smart_ecomernce_api.smart_ecomernce_api.exception.UnauthorizedException;
@@ -17,14 +20,17 @@ import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.entity.User;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -32,6 +38,9 @@ import java.util.Map;
 /**
  * Implementation of ReviewService
  * Handles all business logic for product reviews
+ *
+ * Writes evict by tag (the review, its product's and user's review listings)
+ * instead of clearing whole caches.
  */
 @Service
 @RequiredArgsConstructor
@@ -44,21 +53,13 @@ public class ReviewServiceImpl implements ReviewService {
     private final UserRepository userRepository;
     private final OrderRepository orderRepository;
     private final ReviewMapper reviewMapper;
+    private final CacheTagInvalidator cacheTagInvalidator;
 
     private static final String REVIEW_ID_LITERAL = "Review id";
 
     // ==================== Basic CRUD Operations ====================
 
     @Override
-    @CacheEvict(value = {
-            "reviews",
-            "reviews-predicate",
-            "review-stats",
-            "rating-distribution",
-            "review-trends",
-            "top-rated-products",
-            "most-reviewed-products"
-    }, allEntries = true)
     public ReviewResponse createReview(ReviewCreateRequest request, Long userId) {
         log.info("Creating review for product {} by user {}", request.getProductId(), userId);
 
@@ -89,20 +90,13 @@ public class ReviewServiceImpl implements ReviewService {
 
         // Save review
         Review savedReview = reviewRepository.save(review);
+        evictReview(savedReview);
         log.info("Review created successfully with ID: {}", savedReview.getId());
 
         return reviewMapper.toDto(savedReview);
     }
 
     @Override
-    @CacheEvict(value = {
-            "reviews",
-            "reviews-predicate",
-            "review-stats",
-            "rating-distribution",
-            "review-trends"
-    }, allEntries = true)
-    @CachePut(value = "review", key = "#reviewId")
     public ReviewResponse updateReview(Long reviewId, ReviewUpdateRequest request, Long userId) {
         log.info("Updating review {} by user {}", reviewId, userId);
 
@@ -123,21 +117,13 @@ public class ReviewServiceImpl implements ReviewService {
         }
 
         Review updatedReview = reviewRepository.save(review);
+        evictReview(updatedReview);
         log.info("Review {} updated successfully", reviewId);
 
         return reviewMapper.toDto(updatedReview);
     }
 
     @Override
-    @CacheEvict(value = {
-            "reviews",
-            "reviews-predicate",
-            "review-stats",
-            "rating-distribution",
-            "review-trends",
-            "top-rated-products",
-            "most-reviewed-products"
-    }, allEntries = true)
     public void deleteReview(Long reviewId, Long userId) {
         log.info("Deleting review {} by user {}", reviewId, userId);
 
@@ -150,6 +136,7 @@ public class ReviewServiceImpl implements ReviewService {
 
         review.softDelete();
         reviewRepository.save(review);
+        evictReview(review);
         log.info("Review {} deleted successfully", reviewId);
     }
 
@@ -164,15 +151,6 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     @Override
-    @CacheEvict(value = {
-            "reviews",
-            "reviews-predicate",
-            "review-stats",
-            "rating-distribution",
-            "review-trends",
-            "top-rated-products",
-            "most-reviewed-products"
-    }, allEntries = true)
     public ReviewResponse restoreReview(Long reviewId, Long userId) {
         log.info("Restoring review {} by user {}", reviewId, userId);
 
@@ -185,6 +163,7 @@ public class ReviewServiceImpl implements ReviewService {
 
         review.restore();
         Review restoredReview = reviewRepository.save(review);
+        evictReview(restoredReview);
         log.info("Review {} restored successfully", reviewId);
 
         return reviewMapper.toDto(restoredReview);
@@ -195,6 +174,7 @@ public class ReviewServiceImpl implements ReviewService {
     @Override
     @Transactional(readOnly = true)
     @Cacheable(value = "reviews", key = "'product:' + #productId + ':' + #pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort")
+    @CacheTagged("productReviews(#productId)")
     public Page<ReviewResponse> getProductReviews(Long productId, Pageable pageable) {
         log.debug("Fetching reviews for product {}", productId);
 
@@ -207,9 +187,23 @@ public class ReviewServiceImpl implements ReviewService {
         return reviews.map(reviewMapper::toDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Window<ReviewResponse> scrollProductReviews(Long productId, ScrollPosition position, Sort sort, int limit) {
+        log.debug("Scrolling reviews for product {}", productId);
+
+        if (!productRepository.existsById(productId)) {
+            throw ResourceNotFoundException.forResource("Product id", productId);
+        }
+
+        return reviewRepository.findByProductIdAndApproved(productId, true, position, sort, Limit.of(limit))
+                .map(reviewMapper::toDto);
+    }
+
     @Override
     @Transactional(readOnly = true)
     @Cacheable(value = "reviews", key = "'filtered-product:' + #productId + ':' + T(org.springframework.util.DigestUtils).md5DigestAsHex((#filters.toString() + ':' + #pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort).getBytes())")
+    @CacheTagged("productReviews(#productId)")
     public Page<ReviewResponse> getProductReviewsWithFilters(Long productId, ReviewFilterRequest filters, Pageable pageable) {
         log.debug("Fetching filtered reviews for product {}", productId);
 
@@ -232,6 +226,7 @@ public class ReviewServiceImpl implements ReviewService {
 
     @Transactional(readOnly = true)
     @Cacheable(value = "reviews", key = "'verified-product:' + #productId + ':' + #pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort")
+    @CacheTagged("productReviews(#productId)")
     public Page<ReviewResponse> getVerifiedReviews(Long productId, Pageable pageable) {
         Page<Review> reviews = reviewRepository.findByProductIdAndVerifiedPurchase(productId, true, pageable);
         return reviews.map(reviewMapper::toDto);
@@ -239,6 +234,7 @@ public class ReviewServiceImpl implements ReviewService {
 
     @Transactional(readOnly = true)
     @Cacheable(value = "user-reviews", key = "'user:' + #userId + ':' + #pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort")
+    @CacheTagged("userReviews(#userId)")
     public Page<ReviewResponse> getUserReviews(Long userId, Pageable pageable) {
         log.debug("Fetching reviews for user {}", userId);
 
@@ -252,6 +248,7 @@ public class ReviewServiceImpl implements ReviewService {
 
     @Transactional(readOnly = true)
     @Cacheable(value = "reviews", key = "'product-rating:' + #productId + ':' + #rating + ':' + #pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort")
+    @CacheTagged("productReviews(#productId)")
     public Page<ReviewResponse> getReviewsByRating(Long productId, Integer rating, Pageable pageable) {
         if (rating < 1 || rating > 5) {
             throw new InvalidDataException("Rating must be between 1 and 5");
@@ -264,6 +261,7 @@ public class ReviewServiceImpl implements ReviewService {
 
     @Transactional(readOnly = true)
     @Cacheable(value = "review-lists", key = "'most-helpful:' + #productId + ':' + #limit")
+    @CacheTagged("productReviews(#productId)")
     public List<ReviewResponse> getMostHelpfulReviews(Long productId, int limit) {
         List<Review> reviews = reviewRepository.findMostHelpfulReviews(productId, limit);
         return reviews.stream()
@@ -273,6 +271,7 @@ public class ReviewServiceImpl implements ReviewService {
 
     @Transactional(readOnly = true)
     @Cacheable(value = "review-lists", key = "'recent:' + #productId + ':' + #limit")
+    @CacheTagged("productReviews(#productId)")
     public List<ReviewResponse> getRecentReviews(Long productId, int limit) {
         List<Review> reviews = reviewRepository.findRecentReviews(productId, limit);
         return reviews.stream()
@@ -282,6 +281,7 @@ public class ReviewServiceImpl implements ReviewService {
 
     @Transactional(readOnly = true)
     @Cacheable(value = "reviews", key = "'with-images:' + #productId + ':' + #pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort")
+    @CacheTagged("REVIEW_LISTINGS")
     public Page<ReviewResponse> getReviewsWithImages(Long productId, Pageable pageable) {
         Page<Review> reviews = reviewRepository.findByHasImagesTrueAndIsActiveTrue(pageable);
         return reviews.map(reviewMapper::toDto);
@@ -304,6 +304,7 @@ public class ReviewServiceImpl implements ReviewService {
     @Override
     @Transactional(readOnly = true)
     @Cacheable(value = "review-stats", key = "'product:' + #productId")
+    @CacheTagged("productReviews(#productId)")
     public ReviewSummaryResponse getProductRatingStats(Long productId) {
         log.debug("Fetching rating statistics for product {}", productId);
 
@@ -372,18 +373,15 @@ public class ReviewServiceImpl implements ReviewService {
     // ==================== Voting Operations ====================
 
     @Override
-    @CacheEvict(value = {
-            "review",
-            "reviews",
-            "reviews-predicate",
-            "review-lists"
-    }, allEntries = true)
     public void markHelpful(Long reviewId) {
         Review review = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> ResourceNotFoundException.forResource(REVIEW_ID_LITERAL, reviewId));
 
         review.incrementHelpful();
         reviewRepository.save(review);
+        cacheTagInvalidator.evict(
+                CacheTags.review(review.getId()),
+                CacheTags.productReviews(review.getProduct().getId()));
         log.debug("Review {} marked as helpful", reviewId);
     }
 
@@ -392,14 +390,6 @@ public class ReviewServiceImpl implements ReviewService {
     // ==================== Admin Operations ====================
 
     @Override
-    @CacheEvict(value = {
-            "reviews",
-            "reviews-predicate",
-            "review-stats",
-            "rating-distribution",
-            "review-trends"
-    }, allEntries = true)
-    @CachePut(value = "review", key = "#reviewId")
     public ReviewResponse approveReview(Long reviewId) {
         log.info("Approving review {}", reviewId);
 
@@ -408,19 +398,12 @@ public class ReviewServiceImpl implements ReviewService {
 
         review.approve();
         Review approvedReview = reviewRepository.save(review);
+        evictReview(approvedReview);
 
         return reviewMapper.toDto(approvedReview);
     }
 
     @Override
-    @CacheEvict(value = {
-            "reviews",
-            "reviews-predicate",
-            "review-stats",
-            "rating-distribution",
-            "review-trends"
-    }, allEntries = true)
-    @CachePut(value = "review", key = "#reviewId")
     public ReviewResponse rejectReview(Long reviewId, String reason) {
         log.info("Rejecting review {} with reason: {}", reviewId, reason);
 
@@ -429,16 +412,12 @@ public class ReviewServiceImpl implements ReviewService {
 
         review.reject(reason);
         Review rejectedReview = reviewRepository.save(review);
+        evictReview(rejectedReview);
 
         return reviewMapper.toDto(rejectedReview);
     }
 
     @Override
-    @CacheEvict(value = {
-            "review",
-            "reviews",
-            "reviews-predicate"
-    }, allEntries = true)
     public ReviewResponse addAdminResponse(Long reviewId, AdminResponseRequest request, Long adminId) {
         log.info("Adding admin response to review {}", reviewId);
 
@@ -447,16 +426,12 @@ public class ReviewServiceImpl implements ReviewService {
 
         review.addAdminResponse(request.getResponse(), adminId);
         Review updatedReview = reviewRepository.save(review);
+        cacheTagInvalidator.evict(CacheTags.review(reviewId));
 
         return reviewMapper.toDto(updatedReview);
     }
 
     @Override
-    @CacheEvict(value = {
-            "review",
-            "reviews",
-            "reviews-predicate"
-    }, allEntries = true)
     public ReviewResponse removeAdminResponse(Long reviewId) {
         log.info("Removing admin response from review {}", reviewId);
 
@@ -467,38 +442,43 @@ public class ReviewServiceImpl implements ReviewService {
         review.setAdminResponseAt(null);
         review.setAdminResponseBy(null);
         Review updatedReview = reviewRepository.save(review);
+        cacheTagInvalidator.evict(CacheTags.review(reviewId));
 
         return reviewMapper.toDto(updatedReview);
     }
 
 
     @Override
-    @CacheEvict(value = {
-            "reviews",
-            "reviews-predicate",
-            "review-stats",
-            "rating-distribution",
-            "review-trends",
-            "admin-reviews"
-    }, allEntries = true)
     public int bulkApproveReviews(List<Long> reviewIds) {
         log.info("Bulk approving {} reviews", reviewIds.size());
-        return reviewRepository.approveReviews(reviewIds);
+        int updated = reviewRepository.approveReviews(reviewIds);
+        evictBulk(reviewIds);
+        return updated;
     }
 
     @Override
-    @CacheEvict(value = {
-            "reviews",
-            "reviews-predicate",
-            "review-stats",
-            "rating-distribution",
-            "review-trends",
-            "admin-reviews"
-    }, allEntries = true)
     public int bulkRejectReviews(List<Long> reviewIds, String reason) {
         log.info("Bulk rejecting {} reviews", reviewIds.size());
-        return reviewRepository.rejectReviews(reviewIds, reason);
+        int updated = reviewRepository.rejectReviews(reviewIds, reason);
+        evictBulk(reviewIds);
+        return updated;
     }
 
+    // ==================== Cache Invalidation ====================
 
+    private void evictReview(Review review) {
+        cacheTagInvalidator.evict(
+                CacheTags.review(review.getId()),
+                CacheTags.productReviews(review.getProduct().getId()),
+                CacheTags.userReviews(review.getUser().getId()),
+                CacheTags.REVIEW_LISTINGS);
+    }
+
+    private void evictBulk(List<Long> reviewIds) {
+        List<String> tags = new ArrayList<>();
+        reviewIds.forEach(id -> tags.add(CacheTags.review(id)));
+        tags.add(CacheTags.REVIEW_LISTINGS);
+        tags.add(CacheTags.REVIEW_PRODUCT_LISTINGS);
+        cacheTagInvalidator.evict(tags);
+    }
 }
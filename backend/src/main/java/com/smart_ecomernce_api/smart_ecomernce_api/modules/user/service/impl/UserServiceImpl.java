@@ -1,5 +1,6 @@
 package com.smart_ecomernce_api.smart_ecomernce_api.modules.user.service.impl;
 
+import com.smart_ecomernce_api.smart_ecomernce_api.config.cache.CanonicalKeyGenerator;
 import com.smart_ecomernce_api.smart_ecomernce_api.exception.DuplicateResourceException;
 import com.smart_ecomernce_api.smart_ecomernce_api.exception.ResourceNotFoundException;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.dto.*;
@@ -8,6 +9,7 @@ import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.entity.User;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.mapper.UserMapper;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.repository.UserRepository;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.service.UserService;
+import com.smart_ecomernce_api.smart_ecomernce_api.security.PrincipalCache;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
@@ -33,6 +35,7 @@ public class UserServiceImpl implements UserService {
     private final UserMapper userMapper;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
     private static final String USER_NOT_FOUND = "User not found with id: ";
 
     private User getCurrentUser() {
@@ -99,7 +102,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "users", key = "#id")
+    @Cacheable(value = "users", key = "#id", sync = true)
     public Optional<UserDto> getUserById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(USER_NOT_FOUND + id));
@@ -108,7 +111,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "users-page", key = "T(org.springframework.util.DigestUtils).md5DigestAsHex(('#page=' + #pageable.pageNumber + '&size=' + #pageable.pageSize + '&sort=' + #pageable.sort).getBytes())")
+    @Cacheable(value = "users-page", keyGenerator = CanonicalKeyGenerator.NAME)
     public Page<UserDto> getAllUsers(Pageable pageable) {
         return userRepository.findAll(pageable).map(userMapper::toDto);
     }
@@ -133,6 +136,7 @@ public class UserServiceImpl implements UserService {
             }
         }
         userRepository.save(user);
+        principalCache.evict(userId);
         log.info("User updated with id: {}", userId);
         return userMapper.toDto(user);
     }
@@ -150,6 +154,7 @@ public class UserServiceImpl implements UserService {
             throw new ResourceNotFoundException(USER_NOT_FOUND + id);
         }
         userRepository.deleteById(id);
+        principalCache.evict(id);
         log.info("User deleted with id: {}", id);
     }
 
@@ -166,6 +171,7 @@ public class UserServiceImpl implements UserService {
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         user.setLastPasswordChange(LocalDateTime.now());
         userRepository.save(user);
+        principalCache.evict(userId);
         log.info("Password changed for user with id: {}", userId);
     }
 
@@ -187,6 +193,7 @@ public class UserServiceImpl implements UserService {
             }
         }
         userRepository.save(user);
+        principalCache.evict(userId);
         log.info("User role updated for user with id: {}", userId);
         return userMapper.toDto(user);
     }
@@ -207,13 +214,14 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new ResourceNotFoundException(USER_NOT_FOUND + userId));
         user.setIsActive(request.getIsActive());
         userRepository.save(user);
+        principalCache.evict(userId);
         log.info("User status updated for user with id: {} to isActive={}", userId, request.getIsActive());
         return userMapper.toDto(user);
     }
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "users-predicate", key = "T(org.springframework.util.DigestUtils).md5DigestAsHex(('#predicate=' + #predicate.toString() + '&page=' + #pageable.pageNumber + '&size=' + #pageable.pageSize + '&sort=' + #pageable.sort).getBytes())")
+    @Cacheable(value = "users-predicate", keyGenerator = CanonicalKeyGenerator.NAME)
     public Page<UserDto> findUsersWithPredicate(com.querydsl.core.types.Predicate predicate, Pageable pageable) {
         return userRepository.findAll(predicate, pageable).map(userMapper::toDto);
     }
@@ -1,7 +1,5 @@
 package com.smart_ecomernce_api.smart_ecomernce_api.security;
 
-import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.entity.User;
-import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.repository.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,25 +8,22 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtTokenProvider jwtTokenProvider;
-    private final CustomUserDetailsService customUserDetailsService;
+    private final JwtVerifier jwtVerifier;
     private final TokenBlacklistService tokenBlacklistService;
-    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
 
     @Override
@@ -38,8 +33,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             String jwt = getJwtFromRequest(request);
+            VerifiedToken token = StringUtils.hasText(jwt) ? jwtVerifier.verifyOrNull(jwt) : null;
 
-            if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
+            if (token != null) {
                 if (tokenBlacklistService.isTokenBlacklisted(jwt)) {
                     log.warn("Blacklisted token attempted: {}", jwt.substring(0, Math.min(20, jwt.length())));
                     SecurityContextHolder.clearContext();
@@ -48,12 +44,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     return;
                 }
 
-                Long userId = jwtTokenProvider.getUserIdFromToken(jwt);
-                Long tokenPasswordChangedAt = jwtTokenProvider.getPasswordChangedAtFromToken(jwt);
+                Long userId = token.userId();
+                PrincipalSnapshot user = principalCache.get(userId);
 
-                User user = userRepository.findById(userId).orElse(null);
+                if (user == null) {
+                    throw new UsernameNotFoundException("User not found with id: " + userId);
+                }
 
-                if (user != null && user.getIsLocked()) {
+                if (user.locked()) {
                     log.warn("Locked account attempted: {}", userId);
                     SecurityContextHolder.clearContext();
                     response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
@@ -61,22 +59,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     return;
                 }
 
-                if (tokenPasswordChangedAt != null && user != null && user.getLastPasswordChange() != null) {
-                    long userPasswordChangedAt = user.getLastPasswordChange()
-                            .atZone(ZoneId.systemDefault())
-                            .toInstant()
-                            .toEpochMilli();
-                    if (tokenPasswordChangedAt < userPasswordChangedAt) {
-                        log.warn("Token issued before password change for user: {}", userId);
-                        SecurityContextHolder.clearContext();
-                        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                        response.getWriter().write("{\"error\": \"Password has been changed. Please login again.\"}");
-                        return;
-                    }
+                if (user.predates(token)) {
+                    log.warn("Token issued before password change for user: {}", userId);
+                    SecurityContextHolder.clearContext();
+                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                    response.getWriter().write("{\"error\": \"Password has been changed. Please login again.\"}");
+                    return;
                 }
 
-                Long userTokenVersion = tokenBlacklistService.getUserTokenVersion(userId);
-                if (userTokenVersion != null && !tokenBlacklistService.isUserTokenVersionValid(userId, userTokenVersion)) {
+                // iat has second precision; round it up so a token issued in the same second
+                // as the invalidation, but after it, still passes.
+                if (!tokenBlacklistService.isUserTokenVersionValid(userId, token.issuedAtMillis() + 999)) {
                     log.warn("Token version invalid for user: {}", userId);
                     SecurityContextHolder.clearContext();
                     response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
@@ -84,7 +77,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     return;
                 }
 
-                UserDetails userDetails = customUserDetailsService.loadUserById(userId);
+                UserPrincipal userDetails = UserPrincipal.create(user);
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails,
@@ -95,6 +88,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                request.setAttribute(JwtVerifier.VERIFIED_TOKEN_ATTRIBUTE, token);
                 log.debug("Set authentication for user: {}", userId);
             }
         } catch (Exception ex) {
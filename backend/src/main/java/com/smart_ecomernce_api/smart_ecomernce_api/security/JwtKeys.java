@@ -0,0 +1,74 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.security;
+
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The HMAC keys tokens are signed and verified with, derived once at
+ * startup and looked up by the {@code kid} header.
+ *
+ * <p>New tokens are signed with {@code jwt.secret} under {@code jwt.key-id}.
+ * To rotate, move the old secret to {@code jwt.retired-keys}
+ * ({@code kid:secret}, comma separated) and set a new one: tokens issued
+ * before the switch keep verifying until they expire, after which the
+ * retired key can be dropped. Tokens without a {@code kid}, issued before
+ * key ids were introduced, are verified with the current key.
+ */
+@Slf4j
+@Component
+public class JwtKeys {
+
+    private final String currentKeyId;
+    private final SecretKey currentKey;
+    private final Map<String, SecretKey> keys;
+
+    public JwtKeys(
+            @Value("${jwt.secret}") String secret,
+            @Value("${jwt.key-id:k1}") String keyId,
+            @Value("${jwt.retired-keys:}") String[] retiredKeys) {
+        this.currentKeyId = keyId;
+        this.currentKey = derive(secret);
+
+        Map<String, SecretKey> byId = new HashMap<>();
+        for (String entry : retiredKeys) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int colon = entry.indexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("jwt.retired-keys entries must be kid:secret");
+            }
+            byId.put(entry.substring(0, colon).trim(), derive(entry.substring(colon + 1).trim()));
+        }
+        byId.put(keyId, currentKey);
+        this.keys = Map.copyOf(byId);
+        log.info("JWT keys loaded: signing with '{}', verifying {}", keyId, keys.keySet());
+    }
+
+    public String currentKeyId() {
+        return currentKeyId;
+    }
+
+    public SecretKey currentKey() {
+        return currentKey;
+    }
+
+    /**
+     * @return the key for {@code keyId}, the current key when it is null, or
+     *         null when the id is unknown
+     */
+    public SecretKey find(String keyId) {
+        return keyId == null ? currentKey : keys.get(keyId);
+    }
+
+    private static SecretKey derive(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -2,22 +2,18 @@ package com.smart_ecomernce_api.smart_ecomernce_api.security;
 
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.entity.User;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
-import io.jsonwebtoken.security.SignatureException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
 import java.util.Date;
 
 @Component
 @Slf4j
 public class JwtTokenProvider {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    private final JwtKeys jwtKeys;
+    private final JwtVerifier jwtVerifier;
 
     @Value("${jwt.access-token.expiration:3600000}")
     private Long accessTokenExpiration;
@@ -25,22 +21,19 @@ public class JwtTokenProvider {
     @Value("${jwt.refresh-token.expiration:604800000}")
     private Long refreshTokenExpiration;
 
-    /**
-     * Get signing key from secret
-     */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public JwtTokenProvider(JwtKeys jwtKeys, JwtVerifier jwtVerifier) {
+        this.jwtKeys = jwtKeys;
+        this.jwtVerifier = jwtVerifier;
     }
 
     /**
-     * Generate access token for user
+     * Generate access token for user, signed with the current key
      */
     public String generateAccessToken(User user) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + accessTokenExpiration);
 
-        return Jwts.builder().subject(user.getId().toString()).claim("email", user.getEmail()).claim("username", user.getUsername()).claim("role", user.getRole().name()).claim("passwordChangedAt", user.getLastPasswordChange() != null ? user.getLastPasswordChange().atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli() : null).issuedAt(now).expiration(expiryDate).signWith(getSigningKey(), Jwts.SIG.HS512).compact();
+        return Jwts.builder().header().keyId(jwtKeys.currentKeyId()).and().subject(user.getId().toString()).claim("email", user.getEmail()).claim("username", user.getUsername()).claim("role", user.getRole().name()).claim("passwordChangedAt", user.getLastPasswordChange() != null ? user.getLastPasswordChange().atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli() : null).issuedAt(now).expiration(expiryDate).signWith(jwtKeys.currentKey(), Jwts.SIG.HS512).compact();
     }
 
 
@@ -48,8 +41,7 @@ public class JwtTokenProvider {
      * Get user ID from JWT token
      */
     public Long getUserIdFromToken(String token) {
-        Claims claims = getClaims(token);
-        return Long.parseLong(claims.getSubject());
+        return jwtVerifier.verify(token).userId();
     }
 
 
@@ -57,49 +49,25 @@ public class JwtTokenProvider {
      * Get role from JWT token
      */
     public String getRoleFromToken(String token) {
-        Claims claims = getClaims(token);
-        return claims.get("role", String.class);
+        return jwtVerifier.verify(token).role();
     }
 
     public Long getPasswordChangedAtFromToken(String token) {
-        Claims claims = getClaims(token);
-        return claims.get("passwordChangedAt", Long.class);
-    }
-
-    /**
-     * Get claims from token
-     */
-    private Claims getClaims(String token) {
-        return Jwts.parser().verifyWith(getSigningKey()).build().parseSignedClaims(token).getPayload();
+        return jwtVerifier.verify(token).passwordChangedAt();
     }
 
     /**
      * Validate JWT token
      */
     public boolean validateToken(String token) {
-        try {
-            Jwts.parser().verifyWith(getSigningKey()).build().parseSignedClaims(token);
-            return true;
-        } catch (SignatureException ex) {
-            log.error("Invalid JWT signature: {}", ex.getMessage());
-        } catch (MalformedJwtException ex) {
-            log.error("Invalid JWT token: {}", ex.getMessage());
-        } catch (ExpiredJwtException ex) {
-            log.error("Expired JWT token: {}", ex.getMessage());
-        } catch (UnsupportedJwtException ex) {
-            log.error("Unsupported JWT token: {}", ex.getMessage());
-        } catch (IllegalArgumentException ex) {
-            log.error("JWT claims string is empty: {}", ex.getMessage());
-        }
-        return false;
+        return jwtVerifier.verifyOrNull(token) != null;
     }
 
     /**
      * Get expiration date from token
      */
     public Date getExpirationDateFromToken(String token) {
-        Claims claims = getClaims(token);
-        return claims.getExpiration();
+        return new Date(jwtVerifier.verify(token).expiresAtMillis());
     }
 
 
@@ -110,12 +78,11 @@ public class JwtTokenProvider {
      */
     public long getTokenRemainingTime(String token) {
         try {
-            Date expiration = getExpirationDateFromToken(token);
-            return expiration.getTime() - new Date().getTime();
+            return jwtVerifier.verify(token).remainingMillis();
         } catch (Exception e) {
             log.error("Error getting token remaining time: {}", e.getMessage());
             return 0;
         }
     }
 
-}
\ No newline at end of file
+}
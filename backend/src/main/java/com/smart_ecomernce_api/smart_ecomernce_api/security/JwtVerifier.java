@@ -0,0 +1,145 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies access tokens once and remembers the result.
+ *
+ * <p>The parser is built once against {@link JwtKeys}, which picks the key
+ * by the token's {@code kid}. A verified token's claims are kept, keyed by
+ * the SHA-256 of the whole token, until the token expires, so a client
+ * sending the same token on every request pays for the HMAC and JSON
+ * parsing only the first time; {@code jwt.verified-cache.max-size} bounds
+ * the entries. Only successful verifications are cached, and a hit says no
+ * more than a fresh parse would: revocation, locking and password changes
+ * are still checked by the caller on every request.
+ *
+ * <p>The cache is reported under {@code jwt.verified} with Micrometer's
+ * Caffeine metrics.
+ */
+@Slf4j
+@Component
+public class JwtVerifier {
+
+    /** Request attribute holding the {@link VerifiedToken} of the current request. */
+    public static final String VERIFIED_TOKEN_ATTRIBUTE = JwtVerifier.class.getName() + ".VERIFIED_TOKEN";
+
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> verified;
+
+    public JwtVerifier(
+            JwtKeys keys,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${jwt.verified-cache.max-size:10000}") long maxSize) {
+        this.parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        SecretKey key = keys.find(header.getKeyId());
+                        if (key == null) {
+                            throw new UnsupportedJwtException("Unknown JWT key id: " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, token.remainingMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry.getIfAvailable(SimpleMeterRegistry::new), verified, "jwt.verified");
+    }
+
+    /**
+     * @throws JwtException             if the signature, key id or expiry do not check out
+     * @throws IllegalArgumentException if the token is empty
+     */
+    public VerifiedToken verify(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("JWT is empty");
+        }
+        String key = hash(token);
+        VerifiedToken cached = verified.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        VerifiedToken fresh = parse(token);
+        verified.put(key, fresh);
+        return fresh;
+    }
+
+    /** Checks the signature and expiry, bypassing the cache. */
+    VerifiedToken parse(String token) {
+        return VerifiedToken.of(parser.parseSignedClaims(token).getPayload());
+    }
+
+    /**
+     * Like {@link #verify}, but logs why a token was rejected and returns null.
+     */
+    public VerifiedToken verifyOrNull(String token) {
+        try {
+            return verify(token);
+        } catch (ExpiredJwtException ex) {
+            log.debug("Expired JWT token: {}", ex.getMessage());
+        } catch (JwtException ex) {
+            log.warn("Invalid JWT token: {}", ex.getMessage());
+        } catch (IllegalArgumentException ex) {
+            log.warn("JWT claims string is empty: {}", ex.getMessage());
+        }
+        return null;
+    }
+
+    /** Forgets every verified token, e.g. after a key was withdrawn. */
+    public void invalidateAll() {
+        verified.invalidateAll();
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
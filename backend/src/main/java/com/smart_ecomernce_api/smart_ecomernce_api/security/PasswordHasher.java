@@ -0,0 +1,183 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.security;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The application's {@link PasswordEncoder}: BCrypt, run on a small pool of
+ * its own so that login storms cannot occupy every request thread with
+ * hashing.
+ *
+ * <p>At most {@code threads} hashes run at once and {@code queue-capacity}
+ * more wait; anything beyond that, or anything that waits longer than
+ * {@code timeout-ms}, fails fast with {@link ServiceBusyException} (503 and
+ * {@code Retry-After}). The calling thread only parks while its hash runs.
+ *
+ * <p>Unless {@code cost} is set, the BCrypt cost is calibrated at startup:
+ * the highest cost between {@code min-cost} and {@code max-cost} whose hash
+ * takes no longer than {@code target-millis} on this machine. Stored hashes
+ * of a lower cost report {@link #upgradeEncoding}, and login re-hashes them.
+ *
+ * <p>Meters: {@code password.hash} (hashing time by {@code op}),
+ * {@code password.hash.wait} (time queued), {@code password.hash.queue} and
+ * {@code password.hash.active} (gauges), {@code password.hash.cost} and
+ * {@code password.hash.rejected}.
+ */
+@Slf4j
+@Component
+public class PasswordHasher implements PasswordEncoder {
+
+    private final BCryptPasswordEncoder encoder;
+    private final int cost;
+    private final long timeoutMillis;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHasher(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${security.password-hashing.threads:0}") int threads,
+            @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${security.password-hashing.timeout-ms:5000}") long timeoutMillis,
+            @Value("${security.password-hashing.cost:0}") int cost,
+            @Value("${security.password-hashing.target-millis:250}") long targetMillis,
+            @Value("${security.password-hashing.min-cost:10}") int minCost,
+            @Value("${security.password-hashing.max-cost:14}") int maxCost) {
+        this.cost = cost > 0 ? cost : calibrate(targetMillis, minCost, maxCost);
+        this.encoder = new BCryptPasswordEncoder(this.cost);
+        this.timeoutMillis = timeoutMillis;
+
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-hash-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        MeterRegistry meters = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.encodeTimer = Timer.builder("password.hash").tag("op", "encode")
+                .publishPercentiles(0.5, 0.95, 0.99).register(meters);
+        this.matchTimer = Timer.builder("password.hash").tag("op", "matches")
+                .publishPercentiles(0.5, 0.95, 0.99).register(meters);
+        this.waitTimer = Timer.builder("password.hash.wait").register(meters);
+        this.rejectedCounter = Counter.builder("password.hash.rejected").register(meters);
+        Gauge.builder("password.hash.queue", executor, e -> e.getQueue().size()).register(meters);
+        Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount).register(meters);
+        Gauge.builder("password.hash.cost", this, PasswordHasher::getCost).register(meters);
+
+        log.info("Password hashing on {} threads (queue {}), BCrypt cost {}", poolSize, queueCapacity, this.cost);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTimer, () -> encoder.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchTimer, () -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    /** True when the hash is BCrypt of a lower cost than the current one. */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        try {
+            return encoder.upgradeEncoding(encodedPassword);
+        } catch (IllegalArgumentException notBCrypt) {
+            return false;
+        }
+    }
+
+    private <T> T run(Timer timer, Callable<T> hash) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                waitTimer.record(started - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    return hash.call();
+                } finally {
+                    timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw busy();
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw busy();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private ServiceBusyException busy() {
+        return new ServiceBusyException("Too many sign-in requests are being processed. Please try again shortly.", 1);
+    }
+
+    /**
+     * Times a hash at {@code minCost} and picks the highest cost whose hash,
+     * doubling per step, stays within {@code targetMillis}.
+     */
+    static int calibrate(long targetMillis, int minCost, int maxCost) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minCost);
+        probe.encode("calibration");
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        long targetNanos = TimeUnit.MILLISECONDS.toNanos(targetMillis);
+        int chosen = minCost;
+        while (chosen < maxCost && best << (chosen + 1 - minCost) <= targetNanos) {
+            chosen++;
+        }
+        log.info("BCrypt cost {} takes {} ms here; calibrated cost {} for a {} ms target",
+                minCost, TimeUnit.NANOSECONDS.toMillis(best), chosen, targetMillis);
+        return chosen;
+    }
+}
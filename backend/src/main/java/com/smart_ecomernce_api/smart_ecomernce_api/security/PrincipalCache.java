@@ -0,0 +1,69 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * {@link PrincipalSnapshot}s by user id, so an authenticated request with a
+ * warm entry does not touch the database.
+ *
+ * <p>Services that change what a snapshot holds (lock state, password,
+ * role, active flag, deletion) call {@link #evict}. Eviction happens at once
+ * and again after the surrounding transaction commits, so a request that
+ * reloaded the old row in between does not keep it. Entries also expire
+ * after {@code security.principal-cache.ttl-minutes}, which bounds how long
+ * a change made elsewhere (another node, a manual update) goes unnoticed.
+ *
+ * <p>Reported under {@code security.principals} with Micrometer's Caffeine
+ * metrics.
+ */
+@Component
+public class PrincipalCache {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, PrincipalSnapshot> snapshots;
+
+    public PrincipalCache(
+            UserRepository userRepository,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${security.principal-cache.max-size:10000}") long maxSize,
+            @Value("${security.principal-cache.ttl-minutes:10}") long ttlMinutes) {
+        this.userRepository = userRepository;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry.getIfAvailable(SimpleMeterRegistry::new), snapshots, "security.principals");
+    }
+
+    /**
+     * @return the user's snapshot, loaded on a miss, or null if there is no such user
+     */
+    public PrincipalSnapshot get(Long userId) {
+        return snapshots.get(userId, id -> userRepository.findById(id).map(PrincipalSnapshot::of).orElse(null));
+    }
+
+    public void evict(Long userId) {
+        snapshots.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    snapshots.invalidate(userId);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.security;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.entity.Role;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.entity.User;
+
+import java.time.ZoneId;
+
+/**
+ * What request authentication needs to know about a user, copied out of the
+ * entity so it can be cached and shared between threads.
+ *
+ * @param passwordChangedAt epoch millis of the last password change, as in the token's claim
+ */
+public record PrincipalSnapshot(Long id, String email, Role role, boolean active, boolean locked,
+                                Long passwordChangedAt) {
+
+    public static PrincipalSnapshot of(User user) {
+        return new PrincipalSnapshot(
+                user.getId(),
+                user.getEmail(),
+                user.getRole(),
+                Boolean.TRUE.equals(user.getIsActive()),
+                Boolean.TRUE.equals(user.getIsLocked()),
+                user.getLastPasswordChange() == null ? null
+                        : user.getLastPasswordChange().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    /** True when the token was issued before the user's last password change. */
+    public boolean predates(VerifiedToken token) {
+        return token.passwordChangedAt() != null && passwordChangedAt != null
+                && token.passwordChangedAt() < passwordChangedAt;
+    }
+}
@@ -2,36 +2,102 @@ package com.smart_ecomernce_api.smart_ecomernce_api.security;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.smart_ecomernce_api.smart_ecomernce_api.security.revocation.CountingBloomFilter;
+import com.smart_ecomernce_api.smart_ecomernce_api.security.revocation.Revocation;
+import com.smart_ecomernce_api.smart_ecomernce_api.security.revocation.RevocationBus;
+import com.smart_ecomernce_api.smart_ecomernce_api.security.revocation.RevocationLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Revoked access tokens and per-user token invalidations.
+ *
+ * <p>Almost no token presented is revoked, so a {@link CountingBloomFilter}
+ * sits in front of the exact set and answers most checks with one cheap
+ * hash of the token; only a possible match pays for the SHA-256 and the
+ * map lookup. Entries leave both when the token expires.
+ *
+ * <p>Revocations are appended to a memory-mapped {@link RevocationLog}
+ * ({@code jwt.blacklist.log.*}), replayed at startup and compacted by
+ * expiry during nightly maintenance, so a restart does not bring revoked
+ * tokens back. They are also published on the {@link RevocationBus}, and
+ * what peers publish is applied and logged here in turn.
+ */
 @Service
 @Slf4j
 public class TokenBlacklistService {
 
-    private final Cache<String, Boolean> tokenBlacklist;
-    private final Cache<String, Long> tokenExpiryCache;
-    private final Cache<String, Long> userTokenVersion;
+    private record Revoked(long bloomHash, long expiresAt) {}
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final CountingBloomFilter bloomFilter;
+    private final Cache<String, Revoked> tokenBlacklist;
+    private final Cache<Long, Long> userTokenVersion;
+    private final LongAdder bloomRejections = new LongAdder();
+    private final long userVersionTtlMillis;
+
+    private final RevocationBus revocationBus;
+    private final boolean logEnabled;
+    private final Path logPath;
+    private final long logCapacityBytes;
+    private final boolean logFsync;
+    private RevocationLog revocationLog;
 
     public TokenBlacklistService(
+            RevocationBus revocationBus,
             @Value("${jwt.blacklist.max-size:10000}") int maxSize,
-            @Value("${jwt.blacklist.expire-after-write-hours:24}") int expireAfterWriteHours) {
-        
+            @Value("${jwt.blacklist.expire-after-write-hours:24}") int expireAfterWriteHours,
+            @Value("${jwt.blacklist.bloom-false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${jwt.blacklist.log.enabled:true}") boolean logEnabled,
+            @Value("${jwt.blacklist.log.path:data/token-revocations.log}") String logPath,
+            @Value("${jwt.blacklist.log.capacity-bytes:1048576}") long logCapacityBytes,
+            @Value("${jwt.blacklist.log.fsync:true}") boolean logFsync) {
+        this.revocationBus = revocationBus;
+        this.logEnabled = logEnabled;
+        this.logPath = Path.of(logPath);
+        this.logCapacityBytes = logCapacityBytes;
+        this.logFsync = logFsync;
+        this.userVersionTtlMillis = TimeUnit.HOURS.toMillis(expireAfterWriteHours);
+
+        this.bloomFilter = new CountingBloomFilter(maxSize, falsePositiveRate);
         this.tokenBlacklist = Caffeine.newBuilder()
                 .maximumSize(maxSize)
-                .expireAfterWrite(expireAfterWriteHours, TimeUnit.HOURS)
-                .recordStats()
-                .build();
-        
-        this.tokenExpiryCache = Caffeine.newBuilder()
-                .maximumSize(maxSize)
-                .expireAfterWrite(expireAfterWriteHours, TimeUnit.HOURS)
+                .expireAfter(new Expiry<String, Revoked>() {
+                    @Override
+                    public long expireAfterCreate(String key, Revoked revoked, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, revoked.expiresAt() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Revoked revoked, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, revoked, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Revoked revoked, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .executor(Runnable::run)
+                .removalListener((String key, Revoked revoked, RemovalCause cause) -> {
+                    if (revoked != null && cause != RemovalCause.REPLACED) {
+                        bloomFilter.remove(revoked.bloomHash());
+                    }
+                })
                 .recordStats()
                 .build();
 
@@ -39,26 +105,59 @@ public class TokenBlacklistService {
                 .maximumSize(10000)
                 .expireAfterWrite(expireAfterWriteHours, TimeUnit.HOURS)
                 .build();
-        
-        log.info("Token blacklist initialized with maxSize={}, expireAfterWriteHours={}", 
-                maxSize, expireAfterWriteHours);
+
+        log.info("Token blacklist initialized with maxSize={}, expireAfterWriteHours={}, bloom filter {} bytes / {} hashes",
+                maxSize, expireAfterWriteHours, bloomFilter.sizeInBytes(), bloomFilter.hashFunctions());
+    }
+
+    @PostConstruct
+    void start() {
+        if (logEnabled) {
+            revocationLog = new RevocationLog(logPath, logCapacityBytes, logFsync);
+            long now = System.currentTimeMillis();
+            int replayed = 0;
+            for (Revocation revocation : revocationLog.readAll()) {
+                if (!revocation.expired(now)) {
+                    apply(revocation);
+                    replayed++;
+                }
+            }
+            log.info("Replayed {} revocations from {}", replayed, logPath);
+        }
+        revocationBus.subscribe(revocation -> {
+            apply(revocation);
+            persist(revocation);
+        });
+    }
+
+    @PreDestroy
+    synchronized void stop() {
+        if (revocationLog != null) {
+            revocationLog.close();
+            revocationLog = null;
+        }
     }
 
+    /**
+     * @param expirationTime epoch millis at which the token expires anyway
+     */
     public void blacklistToken(String token, long expirationTime) {
-        String tokenKey = hashToken(token);
-        tokenBlacklist.put(tokenKey, true);
-        
-        long remainingTime = Math.max(expirationTime - System.currentTimeMillis(), 0);
-        tokenExpiryCache.put(tokenKey, remainingTime);
-        
-        log.debug("Token blacklisted. Key: {}, remaining time: {}ms", tokenKey, remainingTime);
+        Revocation revocation = Revocation.token(hashToken(token), CountingBloomFilter.hash(token), expirationTime);
+        apply(revocation);
+        persist(revocation);
+        revocationBus.publish(revocation);
+
+        log.debug("Token blacklisted. Key: {}, remaining time: {}ms", revocation.tokenHash(),
+                Math.max(expirationTime - System.currentTimeMillis(), 0));
     }
 
     public boolean isTokenBlacklisted(String token) {
+        if (!bloomFilter.mightContain(CountingBloomFilter.hash(token))) {
+            bloomRejections.increment();
+            return false;
+        }
         String tokenKey = hashToken(token);
-        Boolean isBlacklisted = tokenBlacklist.getIfPresent(tokenKey);
-        
-        if (isBlacklisted != null && isBlacklisted) {
+        if (tokenBlacklist.getIfPresent(tokenKey) != null) {
             log.debug("Blacklisted token detected: {}", tokenKey.substring(0, 8) + "...");
             return true;
         }
@@ -66,15 +165,16 @@ public class TokenBlacklistService {
     }
 
     public void invalidateUserTokens(Long userId) {
-        String userKey = "user_" + userId;
         long newVersion = System.currentTimeMillis();
-        userTokenVersion.put(userKey, newVersion);
+        Revocation revocation = Revocation.user(userId, newVersion, newVersion + userVersionTtlMillis);
+        apply(revocation);
+        persist(revocation);
+        revocationBus.publish(revocation);
         log.info("Invalidated all tokens for user: {}", userId);
     }
 
     public boolean isUserTokenVersionValid(Long userId, Long tokenVersion) {
-        String userKey = "user_" + userId;
-        Long currentVersion = userTokenVersion.getIfPresent(userKey);
+        Long currentVersion = userTokenVersion.getIfPresent(userId);
         if (currentVersion == null) {
             return true;
         }
@@ -82,13 +182,18 @@ public class TokenBlacklistService {
     }
 
     public Long getUserTokenVersion(Long userId) {
-        String userKey = "user_" + userId;
-        return userTokenVersion.getIfPresent(userKey);
+        return userTokenVersion.getIfPresent(userId);
     }
 
+    /** Drops expired entries from memory and from the revocation log. */
     public void clearExpiredTokens() {
         tokenBlacklist.cleanUp();
-        tokenExpiryCache.cleanUp();
+        userTokenVersion.cleanUp();
+        synchronized (this) {
+            if (revocationLog != null) {
+                revocationLog.compact(System.currentTimeMillis());
+            }
+        }
         log.debug("Expired tokens cleared from blacklist");
     }
 
@@ -97,24 +202,46 @@ public class TokenBlacklistService {
                 tokenBlacklist.estimatedSize(),
                 tokenBlacklist.stats().hitRate(),
                 tokenBlacklist.stats().missRate(),
-                tokenExpiryCache.estimatedSize()
+                bloomRejections.sum(),
+                bloomFilter.sizeInBytes(),
+                persistedRevocations()
         );
     }
 
+    private void apply(Revocation revocation) {
+        if (revocation.type() == Revocation.Type.USER) {
+            userTokenVersion.asMap().merge(revocation.userId(), revocation.version(), Math::max);
+            return;
+        }
+        // Into the filter first, so a check never sees the set entry without the filter bits.
+        bloomFilter.add(revocation.bloomHash());
+        if (tokenBlacklist.asMap().putIfAbsent(revocation.tokenHash(),
+                new Revoked(revocation.bloomHash(), revocation.expiresAt())) != null) {
+            bloomFilter.remove(revocation.bloomHash());
+        }
+    }
+
+    private synchronized void persist(Revocation revocation) {
+        if (revocationLog == null) {
+            return;
+        }
+        try {
+            revocationLog.append(revocation);
+        } catch (RuntimeException e) {
+            log.error("Could not persist {} revocation; it holds until restart only", revocation.type(), e);
+        }
+    }
+
+    private synchronized long persistedRevocations() {
+        return revocationLog == null ? 0 : revocationLog.size();
+    }
+
     private String hashToken(String token) {
         try {
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(token.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
-            }
-            return hexString.toString();
+            return HEX.formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
         } catch (NoSuchAlgorithmException e) {
-            log.error("SHA-256 algorithm not available, falling back to hashCode", e);
-            return String.valueOf(token.hashCode());
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
         }
     }
 
@@ -122,6 +249,8 @@ public class TokenBlacklistService {
             long currentSize,
             double hitRate,
             double missRate,
-            long expiryCacheSize
+            long bloomFilterRejections,
+            long bloomFilterBytes,
+            long persistedRevocations
     ) {}
 }
@@ -37,10 +37,26 @@ public class UserPrincipal implements UserDetails {
         );
     }
 
+    /** Built from a cached snapshot; carries no password, as a token-authenticated request needs none. */
+    public UserPrincipal(PrincipalSnapshot snapshot) {
+        this.id = snapshot.id();
+        this.email = snapshot.email();
+        this.password = null;
+        this.isActive = snapshot.active();
+        this.role = snapshot.role();
+        this.authorities = Collections.singletonList(
+                new SimpleGrantedAuthority("ROLE_" + snapshot.role().name())
+        );
+    }
+
     public static UserPrincipal create(User user) {
         return new UserPrincipal(user);
     }
 
+    public static UserPrincipal create(PrincipalSnapshot snapshot) {
+        return new UserPrincipal(snapshot);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
@@ -0,0 +1,27 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.security;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * The claims of an access token whose signature and expiry have been
+ * checked. Immutable, so one instance is shared by every request that
+ * presents the same token.
+ */
+public record VerifiedToken(Long userId, String email, String username, String role,
+                            Long passwordChangedAt, long issuedAtMillis, long expiresAtMillis) {
+
+    static VerifiedToken of(Claims claims) {
+        return new VerifiedToken(
+                Long.parseLong(claims.getSubject()),
+                claims.get("email", String.class),
+                claims.get("username", String.class),
+                claims.get("role", String.class),
+                claims.get("passwordChangedAt", Long.class),
+                claims.getIssuedAt() == null ? 0 : claims.getIssuedAt().getTime(),
+                claims.getExpiration().getTime());
+    }
+
+    public long remainingMillis() {
+        return expiresAtMillis - System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,109 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.security.revocation;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counting Bloom filter over 64-bit hashes, with 4-bit counters packed
+ * sixteen to a {@code long}.
+ *
+ * <p>{@link #mightContain} never answers false for an element that was
+ * added and not removed, so a false answer is definitive; a true answer is
+ * wrong with about the configured probability while the filter holds no more
+ * than its expected number of elements. Counters make {@link #remove}
+ * possible; one that reaches 15 sticks there and is never decremented, which
+ * can only add false positives. Safe for concurrent use: updates CAS their
+ * word, reads are plain volatile loads.
+ */
+public class CountingBloomFilter {
+
+    private static final int COUNTER_BITS = 4;
+    private static final int COUNTERS_PER_WORD = Long.SIZE / COUNTER_BITS;
+    private static final long MAX_COUNT = (1L << COUNTER_BITS) - 1;
+
+    private final AtomicLongArray words;
+    private final int counters;
+    private final int hashes;
+
+    public CountingBloomFilter(long expectedElements, double falsePositiveRate) {
+        long n = Math.max(1, expectedElements);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.counters = (int) Math.min(Integer.MAX_VALUE - COUNTERS_PER_WORD, Math.max(COUNTERS_PER_WORD, m));
+        this.hashes = Math.max(1, (int) Math.round((double) counters / n * Math.log(2)));
+        this.words = new AtomicLongArray((counters + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD);
+    }
+
+    public void add(long hash) {
+        for (int i = 0; i < hashes; i++) {
+            update(index(hash, i), 1);
+        }
+    }
+
+    public void remove(long hash) {
+        for (int i = 0; i < hashes; i++) {
+            update(index(hash, i), -1);
+        }
+    }
+
+    public boolean mightContain(long hash) {
+        for (int i = 0; i < hashes; i++) {
+            int index = index(hash, i);
+            if (count(words.get(index / COUNTERS_PER_WORD), index) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Size of the counter array in bytes. */
+    public long sizeInBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    public int hashFunctions() {
+        return hashes;
+    }
+
+    private void update(int index, int delta) {
+        int word = index / COUNTERS_PER_WORD;
+        int shift = (index % COUNTERS_PER_WORD) * COUNTER_BITS;
+        while (true) {
+            long current = words.get(word);
+            long count = (current >>> shift) & MAX_COUNT;
+            if (count == MAX_COUNT || (delta < 0 && count == 0)) {
+                return;
+            }
+            long next = current + ((long) delta << shift);
+            if (words.compareAndSet(word, current, next)) {
+                return;
+            }
+        }
+    }
+
+    private static long count(long word, int index) {
+        return (word >>> ((index % COUNTERS_PER_WORD) * COUNTER_BITS)) & MAX_COUNT;
+    }
+
+    /** Kirsch–Mitzenmacher double hashing: probe i is h1 + i * h2. */
+    private int index(long hash, int i) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return Math.floorMod(h1 + i * h2, counters);
+    }
+
+    /**
+     * 64-bit FNV-1a over the characters, finished with the MurmurHash3 mixer.
+     * Much cheaper than a cryptographic digest; only used to pick counters.
+     */
+    public static long hash(CharSequence value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0, length = value.length(); i < length; i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,58 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.security.revocation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process {@link RevocationBus}. A single instance is a one-node cluster,
+ * so publishing is a no-op; {@link #join()} adds another node to the same
+ * group, which is how tests wire up several blacklists in one JVM. Delivery
+ * is synchronous on the publishing thread.
+ */
+@Slf4j
+public class LoopbackRevocationBus implements RevocationBus {
+
+    private final List<LoopbackRevocationBus> group;
+    private final List<Consumer<Revocation>> listeners = new CopyOnWriteArrayList<>();
+
+    public LoopbackRevocationBus() {
+        this(new CopyOnWriteArrayList<>());
+    }
+
+    private LoopbackRevocationBus(List<LoopbackRevocationBus> group) {
+        this.group = group;
+        group.add(this);
+    }
+
+    /** Creates another node attached to the same group. */
+    public LoopbackRevocationBus join() {
+        return new LoopbackRevocationBus(group);
+    }
+
+    @Override
+    public void publish(Revocation revocation) {
+        for (LoopbackRevocationBus node : group) {
+            if (node != this) {
+                node.deliver(revocation);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<Revocation> listener) {
+        listeners.add(listener);
+    }
+
+    private void deliver(Revocation revocation) {
+        for (Consumer<Revocation> listener : listeners) {
+            try {
+                listener.accept(revocation);
+            } catch (RuntimeException e) {
+                log.warn("Revocation listener failed for {}: {}", revocation.type(), e.getMessage());
+            }
+        }
+    }
+}
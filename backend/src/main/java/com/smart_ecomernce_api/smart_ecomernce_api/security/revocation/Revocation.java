@@ -0,0 +1,30 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.security.revocation;
+
+/**
+ * A revocation as persisted in the {@link RevocationLog} and shipped to peers
+ * over the {@link RevocationBus}. Raw tokens are never stored: a token is
+ * identified by its SHA-256 and by the cheap hash that places it in the
+ * Bloom filter.
+ *
+ * @param tokenHash hex SHA-256 of the token, for {@link Type#TOKEN}
+ * @param bloomHash {@link CountingBloomFilter#hash} of the token, for {@link Type#TOKEN}
+ * @param userId    user whose tokens were invalidated, for {@link Type#USER}
+ * @param version   tokens of the user issued before this epoch millis are invalid, for {@link Type#USER}
+ * @param expiresAt epoch millis after which the revocation no longer matters
+ */
+public record Revocation(Type type, String tokenHash, long bloomHash, Long userId, long version, long expiresAt) {
+
+    public enum Type { TOKEN, USER }
+
+    public static Revocation token(String tokenHash, long bloomHash, long expiresAt) {
+        return new Revocation(Type.TOKEN, tokenHash, bloomHash, null, 0, expiresAt);
+    }
+
+    public static Revocation user(Long userId, long version, long expiresAt) {
+        return new Revocation(Type.USER, null, 0, userId, version, expiresAt);
+    }
+
+    public boolean expired(long now) {
+        return expiresAt <= now;
+    }
+}
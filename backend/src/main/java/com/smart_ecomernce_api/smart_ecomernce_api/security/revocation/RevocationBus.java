@@ -0,0 +1,17 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.security.revocation;
+
+import java.util.function.Consumer;
+
+/**
+ * Ships token revocations to the other nodes of the cluster, so a token
+ * revoked on one node is refused by all of them.
+ *
+ * <p>Implementations deliver a published message to every node except the
+ * publisher itself.
+ */
+public interface RevocationBus {
+
+    void publish(Revocation revocation);
+
+    void subscribe(Consumer<Revocation> listener);
+}
@@ -0,0 +1,199 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.security.revocation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Append-only, memory-mapped file of {@link Revocation}s.
+ *
+ * <p>After an 8-byte magic and padding to {@value #RECORD_SIZE} bytes, the
+ * file holds fixed-size records:
+ * <pre>
+ *   0  type       1 = token, 2 = user; 0 marks the end of the log
+ *   8  expiresAt  epoch millis
+ *  16  bloomHash  (token) or version (user)
+ *  24  SHA-256    32 bytes (token), or the user id in the first 8 (user)
+ * </pre>
+ * The type byte is written last, so a record cut short by a crash reads as
+ * the end of the log. The mapping is created larger than the data; unused
+ * space reads as zeros.
+ *
+ * <p>{@link #compact} rewrites only the records that have not expired into
+ * a new file and swaps it in with an atomic rename. It runs when the mapping
+ * is full and whenever the owner asks (nightly maintenance). Not
+ * thread-safe on its own; callers synchronise.
+ */
+@Slf4j
+public class RevocationLog implements Closeable {
+
+    static final int RECORD_SIZE = 64;
+    private static final byte[] MAGIC = "JWTREVL1".getBytes(StandardCharsets.US_ASCII);
+    private static final byte TOKEN = 1;
+    private static final byte USER = 2;
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final Path path;
+    private final long minCapacity;
+    private final boolean fsync;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int writePosition;
+
+    /**
+     * Opens the log, creating it if missing. A file that does not start with
+     * the expected magic is moved aside and a new log started.
+     *
+     * @param capacityBytes initial size of the mapping; it grows as needed
+     * @param fsync         force every append to disk rather than leaving it to the page cache
+     */
+    public RevocationLog(Path path, long capacityBytes, boolean fsync) {
+        this.path = path;
+        this.minCapacity = Math.max(RECORD_SIZE * 16L, capacityBytes);
+        this.fsync = fsync;
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            if (Files.exists(path) && Files.size(path) > 0 && !hasMagic(path)) {
+                Path aside = path.resolveSibling(path.getFileName() + ".corrupt-" + System.currentTimeMillis());
+                Files.move(path, aside);
+                log.warn("Revocation log {} is not a revocation log; moved it to {}", path, aside);
+            }
+            map(path, Math.max(minCapacity, Files.exists(path) ? Files.size(path) : 0));
+            writePosition = scanEnd();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open revocation log " + path, e);
+        }
+    }
+
+    /** Every record in the log, oldest first, including expired ones not yet compacted away. */
+    public List<Revocation> readAll() {
+        List<Revocation> records = new ArrayList<>((writePosition - RECORD_SIZE) / RECORD_SIZE);
+        for (int position = RECORD_SIZE; position < writePosition; position += RECORD_SIZE) {
+            records.add(read(position));
+        }
+        return records;
+    }
+
+    public void append(Revocation revocation) {
+        if (writePosition + RECORD_SIZE > buffer.capacity()) {
+            compact(System.currentTimeMillis());
+        }
+        write(buffer, writePosition, revocation);
+        if (fsync) {
+            buffer.force(writePosition, RECORD_SIZE);
+        }
+        writePosition += RECORD_SIZE;
+    }
+
+    /**
+     * Drops the records that expired by {@code now}.
+     *
+     * @return the number of records kept
+     */
+    public int compact(long now) {
+        List<Revocation> live = readAll().stream().filter(revocation -> !revocation.expired(now)).toList();
+        long capacity = Math.max(minCapacity, (long) (live.size() + 1) * RECORD_SIZE * 2);
+        Path next = path.resolveSibling(path.getFileName() + ".compact");
+        try {
+            Files.deleteIfExists(next);
+            try (FileChannel out = FileChannel.open(next, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer target = out.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+                target.put(0, MAGIC);
+                int position = RECORD_SIZE;
+                for (Revocation revocation : live) {
+                    write(target, position, revocation);
+                    position += RECORD_SIZE;
+                }
+                target.force();
+            }
+            channel.close();
+            Files.move(next, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            map(path, capacity);
+            writePosition = RECORD_SIZE + live.size() * RECORD_SIZE;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot compact revocation log " + path, e);
+        }
+        log.debug("Compacted revocation log {} to {} records", path, live.size());
+        return live.size();
+    }
+
+    public int size() {
+        return (writePosition - RECORD_SIZE) / RECORD_SIZE;
+    }
+
+    @Override
+    public void close() {
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Closing revocation log {} failed: {}", path, e.getMessage());
+        }
+    }
+
+    private void map(Path file, long capacity) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        if (buffer.get(0) == 0) {
+            buffer.put(0, MAGIC);
+        }
+    }
+
+    private int scanEnd() {
+        int position = RECORD_SIZE;
+        while (position + RECORD_SIZE <= buffer.capacity() && buffer.get(position) != 0) {
+            position += RECORD_SIZE;
+        }
+        return position;
+    }
+
+    private Revocation read(int position) {
+        byte type = buffer.get(position);
+        long expiresAt = buffer.getLong(position + 8);
+        long value = buffer.getLong(position + 16);
+        if (type == USER) {
+            return Revocation.user(buffer.getLong(position + 24), value, expiresAt);
+        }
+        byte[] hash = new byte[32];
+        buffer.get(position + 24, hash);
+        return Revocation.token(HEX.formatHex(hash), value, expiresAt);
+    }
+
+    private static void write(MappedByteBuffer target, int position, Revocation revocation) {
+        target.putLong(position + 8, revocation.expiresAt());
+        if (revocation.type() == Revocation.Type.USER) {
+            target.putLong(position + 16, revocation.version());
+            target.putLong(position + 24, revocation.userId());
+        } else {
+            target.putLong(position + 16, revocation.bloomHash());
+            target.put(position + 24, HEX.parseHex(revocation.tokenHash()));
+        }
+        target.put(position, revocation.type() == Revocation.Type.USER ? USER : TOKEN);
+    }
+
+    private static boolean hasMagic(Path file) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(MAGIC.length);
+            in.read(head, 0);
+            return Arrays.equals(head.array(), MAGIC);
+        }
+    }
+}
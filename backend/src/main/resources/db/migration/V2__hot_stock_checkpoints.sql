@@ -0,0 +1,7 @@
+-- Last hot-stock journal record applied to each product's stock columns
+-- (HotStockCheckpoint). Written in the same transaction as the flushed deltas.
+CREATE TABLE IF NOT EXISTS hot_stock_checkpoints (
+    product_id  BIGINT    NOT NULL PRIMARY KEY,
+    journal_seq BIGINT    NOT NULL,
+    updated_at  TIMESTAMP NOT NULL
+);
@@ -0,0 +1,6 @@
+-- Stock held by PENDING orders until they are paid, cancelled or expire
+-- (OrderReservation). Loaded into the in-memory expiry wheel on startup.
+CREATE TABLE IF NOT EXISTS order_reservations (
+    order_id   BIGINT    NOT NULL PRIMARY KEY,
+    expires_at TIMESTAMP NOT NULL
+);
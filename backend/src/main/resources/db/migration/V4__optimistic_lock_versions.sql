@@ -0,0 +1,5 @@
+-- Optimistic-lock versions for Product, Order and Cart (@Version). Existing
+-- rows start at 0.
+ALTER TABLE IF EXISTS products ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE IF EXISTS orders ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE IF EXISTS carts ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
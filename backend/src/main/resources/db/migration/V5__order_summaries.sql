@@ -0,0 +1,17 @@
+-- Order-history read model (OrderSummary): one flat row per order, written
+-- with the order and backfilled for orders that predate it.
+CREATE TABLE IF NOT EXISTS order_summaries (
+    order_id             BIGINT         NOT NULL PRIMARY KEY,
+    user_id              BIGINT         NOT NULL,
+    order_number         VARCHAR(50)    NOT NULL,
+    status               VARCHAR(30)    NOT NULL,
+    payment_status       VARCHAR(30)    NOT NULL,
+    total_amount         NUMERIC(10, 2) NOT NULL,
+    item_count           INTEGER        NOT NULL,
+    first_item_name      VARCHAR(255),
+    first_item_thumbnail VARCHAR(500),
+    created_at           TIMESTAMP      NOT NULL,
+    updated_at           TIMESTAMP      NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_summary_user_created ON order_summaries (user_id, created_at, order_id);
@@ -0,0 +1,18 @@
+-- Transactional outbox: events written with the business change and delivered
+-- to subscribers by OutboxDispatcher.
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    aggregate_type  VARCHAR(50)   NOT NULL,
+    aggregate_id    VARCHAR(64)   NOT NULL,
+    event_type      VARCHAR(100)  NOT NULL,
+    payload         TEXT          NOT NULL,
+    created_at      TIMESTAMP     NOT NULL,
+    published_at    TIMESTAMP,
+    attempts        INT           NOT NULL DEFAULT 0,
+    last_error      VARCHAR(1000),
+    -- Failed deliveries wait out an exponential backoff before the next attempt.
+    next_attempt_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_published ON outbox_events (published_at, id);
+CREATE INDEX IF NOT EXISTS idx_outbox_aggregate ON outbox_events (aggregate_type, aggregate_id, id);
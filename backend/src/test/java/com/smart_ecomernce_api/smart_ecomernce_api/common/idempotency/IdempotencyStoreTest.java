@@ -0,0 +1,121 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.idempotency;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.BadRequestException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyStoreTest {
+
+    private final IdempotencyStore store = new IdempotencyStore(1_000, 60);
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @AfterEach
+    void clearPrincipal() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private String action() {
+        return "order-" + runs.incrementAndGet();
+    }
+
+    private static void signIn(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(username, null));
+    }
+
+    @Test
+    @DisplayName("A repeated key replays the first result without running again")
+    void replaysCompletedResult() {
+        IdempotencyStore.Outcome<String> first = store.execute("checkout", "k1", "cart-1", this::action);
+        IdempotencyStore.Outcome<String> second = store.execute("checkout", "k1", "cart-1", this::action);
+
+        assertThat(first).isEqualTo(new IdempotencyStore.Outcome<>("order-1", false));
+        assertThat(second).isEqualTo(new IdempotencyStore.Outcome<>("order-1", true));
+        assertThat(store.<String>completed("checkout", "k1", "cart-1")).contains("order-1");
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Requests without a key always run")
+    void noKeyAlwaysRuns() {
+        store.execute("checkout", null, "cart-1", this::action);
+        store.execute("checkout", null, "cart-1", this::action);
+
+        assertThat(runs).hasValue(2);
+        assertThat(store.completed("checkout", null, "cart-1")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Keys are scoped by operation and principal, and reuse for another request is rejected")
+    void keysAreScoped() {
+        signIn("alice");
+        store.execute("checkout", "k1", "cart-1", this::action);
+
+        assertThatThrownBy(() -> store.execute("checkout", "k1", "cart-2", this::action))
+                .isInstanceOf(BadRequestException.class);
+        assertThat(store.execute("cancel", "k1", "cart-1", this::action).replayed()).isFalse();
+
+        signIn("bob");
+        assertThat(store.execute("checkout", "k1", "cart-1", this::action).replayed()).isFalse();
+        assertThat(runs).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("A failed request is not stored, so the same key can be retried")
+    void failureIsNotStored() {
+        assertThatThrownBy(() -> store.execute("checkout", "k1", "cart-1", () -> {
+            throw new IllegalStateException("out of stock");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(store.completed("checkout", "k1", "cart-1")).isEmpty();
+        assertThat(store.execute("checkout", "k1", "cart-1", this::action))
+                .isEqualTo(new IdempotencyStore.Outcome<>("order-1", false));
+    }
+
+    @Test
+    @DisplayName("A duplicate arriving mid-request waits for the first result instead of running")
+    void concurrentDuplicateWaits() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<IdempotencyStore.Outcome<String>> first = CompletableFuture.supplyAsync(() ->
+                store.execute("checkout", "k1", "cart-1", () -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return action();
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<IdempotencyStore.Outcome<String>> duplicate =
+                CompletableFuture.supplyAsync(() -> store.execute("checkout", "k1", "cart-1", this::action));
+        assertThat(store.completed("checkout", "k1", "cart-1")).isEmpty();
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).replayed()).isFalse();
+        assertThat(duplicate.get(5, TimeUnit.SECONDS)).isEqualTo(new IdempotencyStore.Outcome<>("order-1", true));
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Blank and oversized keys are rejected")
+    void rejectsInvalidKeys() {
+        assertThatThrownBy(() -> store.execute("checkout", " ", "cart-1", this::action))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> store.execute("checkout", "k".repeat(256), "cart-1", this::action))
+                .isInstanceOf(BadRequestException.class);
+        assertThat(runs).hasValue(0);
+    }
+}
@@ -0,0 +1,119 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.outbox;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OutboxDispatcherTest {
+
+    /** Keeps what it receives per aggregate; fails the events listed in {@code failOnce} the first time. */
+    static class Recorder implements OutboxSubscriber {
+
+        final String aggregateType = "Test-" + System.nanoTime();
+        final Map<String, List<String>> received = new ConcurrentHashMap<>();
+        final Set<String> failOnce = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public boolean accepts(OutboxEvent event) {
+            return aggregateType.equals(event.getAggregateType());
+        }
+
+        @Override
+        public void handle(OutboxEvent event) {
+            if (failOnce.remove(event.getEventType())) {
+                throw new IllegalStateException("subscriber down");
+            }
+            received.computeIfAbsent(event.getAggregateId(), id -> new ArrayList<>()).add(event.getEventType());
+        }
+
+        List<String> received(String aggregateId) {
+            return received.getOrDefault(aggregateId, List.of());
+        }
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        Recorder recorder() {
+            return new Recorder();
+        }
+    }
+
+    @Autowired
+    private Outbox outbox;
+
+    @Autowired
+    private OutboxDispatcher dispatcher;
+
+    @Autowired
+    private Recorder recorder;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${outbox.retry-backoff-ms}")
+    private long retryBackoffMs;
+
+    @Test
+    @DisplayName("Events reach subscribers in order per aggregate; a failure holds back only its aggregate")
+    void deliversInOrderPerAggregate() throws InterruptedException {
+        append("a", "a1", "a2", "a3");
+        append("b", "b1", "b2");
+        recorder.failOnce.add("b1");
+
+        dispatcher.poll();
+        assertThat(recorder.received("a")).containsExactly("a1", "a2", "a3");
+        assertThat(recorder.received("b")).isEmpty();
+
+        // b1 backs off, and b2 waits behind it.
+        append("b", "b3");
+        dispatcher.poll();
+        assertThat(recorder.received("b")).isEmpty();
+
+        Thread.sleep(retryBackoffMs + 100);
+        dispatcher.poll();
+        assertThat(recorder.received("b")).containsExactly("b1", "b2", "b3");
+
+        dispatcher.poll();
+        assertThat(recorder.received("a")).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Replay delivers published events again")
+    void replaysPublishedEvents() {
+        append("c", "c1", "c2");
+        dispatcher.poll();
+        assertThat(recorder.received("c")).containsExactly("c1", "c2");
+
+        int requeued = dispatcher.replay(0, Long.MAX_VALUE, recorder.aggregateType, "c", "c2");
+        dispatcher.poll();
+
+        assertThat(requeued).isEqualTo(1);
+        assertThat(recorder.received("c")).containsExactly("c1", "c2", "c2");
+    }
+
+    private void append(String aggregateId, String... eventTypes) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (String eventType : eventTypes) {
+                outbox.append(recorder.aggregateType, aggregateId, eventType, Map.of("type", eventType));
+            }
+        });
+    }
+}
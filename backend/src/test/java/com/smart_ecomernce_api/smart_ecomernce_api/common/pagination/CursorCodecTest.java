@@ -0,0 +1,122 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.pagination;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.response.CursorPage;
+import com.smart_ecomernce_api.smart_ecomernce_api.config.PaginationConfig;
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.BadRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.graphql.data.pagination.CursorStrategy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorCodecTest {
+
+    private static final KeysetSort SORTS = KeysetSort.of("createdAt", "price");
+    private static final Sort BY_CREATED = SORTS.resolve("createdAt", Sort.Direction.DESC);
+    private static final Sort BY_PRICE = SORTS.resolve("price", Sort.Direction.ASC);
+
+    private final CursorStrategy<ScrollPosition> cursorStrategy = new PaginationConfig().cursorStrategy();
+    private final CursorCodec codec = new CursorCodec(cursorStrategy);
+
+    private static KeysetScrollPosition createdPosition(long id) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("createdAt", LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+        keys.put("id", id);
+        return ScrollPosition.forward(keys);
+    }
+
+    /** A cursor as a client could forge it: Base64 of the keyset JSON. */
+    private static String forged(String json) {
+        return Base64.getEncoder().encodeToString(("K_" + json).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("The next cursor of a page decodes back to the last row's keys")
+    void roundTrip() {
+        Window<String> window = Window.from(List.of("a", "b"), i -> createdPosition(i + 1L), true);
+
+        CursorPage<String> page = codec.toPage(window);
+        KeysetScrollPosition next = codec.decode(page.getNextCursor(), BY_CREATED);
+
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(next.getKeys()).isEqualTo(createdPosition(2L).getKeys());
+        assertThat(next.scrollsForward()).isTrue();
+        assertThat(codec.decode(null, BY_CREATED).isInitial()).isTrue();
+    }
+
+    @Test
+    @DisplayName("The last page has no next cursor")
+    void lastPageHasNoCursor() {
+        Window<String> window = Window.from(List.of("a"), i -> createdPosition(1L), false);
+
+        assertThat(codec.toPage(window).getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("A cursor issued for one sort is rejected under another")
+    void rejectsCursorFromOtherSort() {
+        String cursor = cursorStrategy.toCursor(createdPosition(1L));
+
+        assertThatThrownBy(() -> codec.decode(cursor, BY_PRICE)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> codec.verify(createdPosition(1L), BY_PRICE)).isInstanceOf(BadRequestException.class);
+        assertThat(codec.verify(ScrollPosition.keyset(), BY_PRICE).isInitial()).isTrue();
+        assertThatThrownBy(() -> codec.verify(ScrollPosition.offset(10), BY_CREATED))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    @DisplayName("Tampered and non-Base64 cursors are bad requests, from the codec and from the strategy itself")
+    void rejectsMalformedCursors() {
+        String cursor = cursorStrategy.toCursor(createdPosition(1L));
+        String truncated = cursor.substring(0, cursor.length() / 2);
+
+        for (String malformed : List.of("!!!not-base64", truncated, forged("{\"id\":"), forged("[]"))) {
+            assertThatThrownBy(() -> codec.decode(malformed, BY_CREATED))
+                    .as(malformed).isInstanceOf(BadRequestException.class);
+            // Spring GraphQL decodes ScrollSubrange cursors through the strategy directly.
+            assertThatThrownBy(() -> cursorStrategy.fromCursor(malformed))
+                    .as(malformed).isInstanceOf(BadRequestException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("Key types outside the allow-list are rejected; java.time and numbers are accepted")
+    void rejectsTypesOutsideAllowList() {
+        String allowed = forged("[\"java.util.HashMap\",{\"createdAt\":[\"java.time.LocalDateTime\",[2024,1,2,3,4,5]],"
+                + "\"id\":[\"java.lang.Long\",7]}]");
+        assertThat(codec.decode(allowed, BY_CREATED).getKeys()).containsEntry("id", 7L);
+
+        String url = forged("[\"java.util.HashMap\",{\"createdAt\":[\"java.net.URL\",\"http://example.com\"],"
+                + "\"id\":[\"java.lang.Long\",7]}]");
+        String process = forged("[\"java.util.HashMap\",{\"createdAt\":[\"java.lang.ProcessBuilder\",{}],"
+                + "\"id\":[\"java.lang.Long\",7]}]");
+        assertThatThrownBy(() -> codec.decode(url, BY_CREATED)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> codec.decode(process, BY_CREATED)).isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    @DisplayName("Only whitelisted properties can be scrolled by, always with the id tie-breaker")
+    void resolvesOnlyWhitelistedSorts() {
+        assertThat(BY_PRICE).containsExactly(Sort.Order.asc("price"), Sort.Order.asc("id"));
+        assertThat(SORTS.resolve("id", Sort.Direction.DESC)).containsExactly(Sort.Order.desc("id"));
+
+        assertThatThrownBy(() -> SORTS.resolve("password", Sort.Direction.ASC))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> SORTS.resolve("price desc, id", Sort.Direction.ASC))
+                .isInstanceOf(BadRequestException.class);
+        assertThat(KeysetSort.limit(0)).isEqualTo(1);
+        assertThat(KeysetSort.limit(1_000)).isEqualTo(KeysetSort.MAX_LIMIT);
+    }
+}
@@ -0,0 +1,72 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one {@link RateLimiter#tryAcquire} against 10,000 warm buckets, on
+ * one thread and with four threads contending for the same buckets. Limits
+ * are high so that the allowed path is measured. Run with {@code main} from
+ * the IDE or after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final int CALLERS = 10_000;
+
+    private RateLimiter limiter;
+    private Long[] callers;
+
+    @Setup
+    public void setUp() {
+        RateLimiter.Limit unlimited = new RateLimiter.Limit(1_000_000, 1_000_000_000);
+        limiter = new RateLimiter(new SimpleMeterRegistry(), true, 100_000, Duration.ofMinutes(10),
+                Map.of(RouteClass.AUTH, unlimited, RouteClass.SEARCH, unlimited,
+                        RouteClass.WRITE, unlimited, RouteClass.READ, unlimited),
+                System::nanoTime);
+        callers = new Long[CALLERS];
+        for (int i = 0; i < CALLERS; i++) {
+            callers[i] = (long) i;
+            limiter.tryAcquire(RouteClass.READ, callers[i]);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long singleThread() {
+        return limiter.tryAcquire(RouteClass.READ, callers[ThreadLocalRandom.current().nextInt(CALLERS)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long fourThreads() {
+        return limiter.tryAcquire(RouteClass.READ, callers[ThreadLocalRandom.current().nextInt(CALLERS)]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RateLimiterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,91 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.ratelimit;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.config.GraphQLJwtInterceptor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.annotation.OrderUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private final RateLimiter limiter = new RateLimiter(meters, true, 1000, Duration.ofMinutes(1),
+            Map.of(RouteClass.AUTH, new RateLimiter.Limit(3, 1),
+                    RouteClass.SEARCH, new RateLimiter.Limit(5, 5),
+                    RouteClass.WRITE, new RateLimiter.Limit(10, 10),
+                    RouteClass.READ, new RateLimiter.Limit(100, 50)),
+            now::get);
+
+    @Test
+    @DisplayName("A bucket allows its capacity at once, then one request per refill interval")
+    void limitsBurstAndRate() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(RouteClass.AUTH, "10.0.0.1")).isZero();
+        }
+        long wait = limiter.tryAcquire(RouteClass.AUTH, "10.0.0.1");
+        assertThat(wait).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+        assertThat(RateLimiter.retryAfterSeconds(wait)).isEqualTo(1);
+
+        // Other callers and other route classes have their own buckets.
+        assertThat(limiter.tryAcquire(RouteClass.AUTH, "10.0.0.2")).isZero();
+        assertThat(limiter.tryAcquire(RouteClass.READ, "10.0.0.1")).isZero();
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(limiter.tryAcquire(RouteClass.AUTH, "10.0.0.1")).isZero();
+        assertThat(limiter.tryAcquire(RouteClass.AUTH, "10.0.0.1")).isPositive();
+
+        assertThat(meters.get("ratelimit.rejected").tag("route", "AUTH").counter().count()).isEqualTo(2);
+        assertThat(meters.get("ratelimit.allowed").tag("route", "AUTH").counter().count()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Requests are classified by path, method and GraphQL document")
+    void classifiesRoutes() {
+        assertThat(RateLimitFilter.classify("POST", "/v1/auth/login")).isEqualTo(RouteClass.AUTH);
+        assertThat(RateLimitFilter.classify("GET", "/v1/auth/security/stats")).isEqualTo(RouteClass.READ);
+        assertThat(RateLimitFilter.classify("GET", "/v1/products/search")).isEqualTo(RouteClass.SEARCH);
+        assertThat(RateLimitFilter.classify("POST", "/v1/orders/filter")).isEqualTo(RouteClass.SEARCH);
+        assertThat(RateLimitFilter.classify("POST", "/v1/carts/items")).isEqualTo(RouteClass.WRITE);
+        assertThat(RateLimitFilter.classify("GET", "/v1/products/7")).isEqualTo(RouteClass.READ);
+
+        assertThat(GraphQLRateLimitInterceptor.classify("mutation { createOrder(input: {}) { id } }", null))
+                .isEqualTo(RouteClass.WRITE);
+        assertThat(GraphQLRateLimitInterceptor.classify("query Q { searchProducts(keyword: \"x\") { id } }", null))
+                .isEqualTo(RouteClass.SEARCH);
+        assertThat(GraphQLRateLimitInterceptor.classify("{ filteredOrders(filter: {}) { totalElements } }", null))
+                .isEqualTo(RouteClass.SEARCH);
+        assertThat(GraphQLRateLimitInterceptor.classify("{ product(id: 1) { name } }", null)).isEqualTo(RouteClass.READ);
+    }
+
+    @Test
+    @DisplayName("GraphQL requests are classified by the operation that runs, not the document's first word")
+    void classifiesSelectedGraphQLOperation() {
+        assertThat(GraphQLRateLimitInterceptor.classify("# place the order\nmutation { createOrder(input: {}) { id } }", null))
+                .isEqualTo(RouteClass.WRITE);
+
+        String document = "query Look { product(id: 1) { name } } mutation Buy { createOrder(input: {}) { id } }";
+        assertThat(GraphQLRateLimitInterceptor.classify(document, "Buy")).isEqualTo(RouteClass.WRITE);
+        assertThat(GraphQLRateLimitInterceptor.classify(document, "Look")).isEqualTo(RouteClass.READ);
+
+        assertThat(GraphQLRateLimitInterceptor.classify(
+                "query { ...Found } fragment Found on Query { found: searchProducts(keyword: \"x\") { id } }", null))
+                .isEqualTo(RouteClass.SEARCH);
+        assertThat(GraphQLRateLimitInterceptor.classify("{ product(id: 1) { reviews(filter: {}) { id } } }", null))
+                .isEqualTo(RouteClass.READ);
+    }
+
+    @Test
+    @DisplayName("The GraphQL limiter runs after the JWT interceptor, so it sees the signed-in user")
+    void graphQLLimiterRunsAfterAuthentication() {
+        assertThat(OrderUtils.getOrder(GraphQLRateLimitInterceptor.class))
+                .isGreaterThan(OrderUtils.getOrder(GraphQLJwtInterceptor.class));
+    }
+}
@@ -0,0 +1,162 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.retry;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.aspect.ConflictRetryAspect;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.category.entity.Category;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.category.repository.CategoryRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.Product;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RetryOnConflictTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        Renamer renamer(ProductRepository productRepository, PlatformTransactionManager transactionManager) {
+            return new Renamer(productRepository, new TransactionTemplate(transactionManager));
+        }
+    }
+
+    /** Renames a product, letting a concurrent writer commit in between the first {@code racedAttempts} times. */
+    static class Renamer {
+
+        private final ProductRepository productRepository;
+        private final TransactionTemplate concurrentWriter;
+        private final AtomicInteger attempts = new AtomicInteger();
+        private volatile int racedAttempts;
+
+        Renamer(ProductRepository productRepository, TransactionTemplate concurrentWriter) {
+            this.productRepository = productRepository;
+            this.concurrentWriter = concurrentWriter;
+        }
+
+        @RetryOnConflict(maxAttempts = 3, initialBackoffMs = 1)
+        @Transactional
+        public void rename(Long productId, String name) {
+            Product product = productRepository.findById(productId).orElseThrow();
+            if (attempts.incrementAndGet() <= racedAttempts) {
+                CompletableFuture.runAsync(() -> concurrentWriter.executeWithoutResult(
+                        status -> productRepository.updateStockAndIsActiveTrue(productId, 7))).join();
+            }
+            product.setName(name);
+            productRepository.saveAndFlush(product);
+        }
+
+        /** Like {@link #rename}, but opted out of retry the way request-driven edits are. */
+        @RetryOnConflict(maxAttempts = 1)
+        @Transactional
+        public void overwrite(Long productId, String name) {
+            rename(productId, name);
+        }
+
+        public void reset(int racedAttempts) {
+            this.racedAttempts = racedAttempts;
+            attempts.set(0);
+        }
+
+        public int attempts() {
+            return attempts.get();
+        }
+    }
+
+    @Autowired
+    private Renamer renamer;
+
+    @Autowired
+    private ConflictRetryAspect conflictRetryAspect;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Category category;
+    private Product product;
+
+    @BeforeEach
+    void seed() {
+        String slug = "retry-test-" + System.nanoTime();
+        category = categoryRepository.save(Category.builder().name("Retry").slug(slug).build());
+        product = productRepository.save(Product.builder()
+                .name(slug)
+                .slug(slug)
+                .sku(slug.toUpperCase())
+                .price(BigDecimal.TEN)
+                .stockQuantity(5)
+                .category(category)
+                .build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteById(product.getId());
+        categoryRepository.deleteById(category.getId());
+    }
+
+    @Test
+    @DisplayName("A stale write conflicts on the version and succeeds when re-run")
+    void retriesStaleWrite() {
+        renamer.reset(1);
+        long conflictsBefore = conflicts();
+
+        renamer.rename(product.getId(), "renamed");
+
+        Product after = productRepository.findById(product.getId()).orElseThrow();
+        assertThat(renamer.attempts()).isEqualTo(2);
+        assertThat(after.getName()).isEqualTo("renamed");
+        assertThat(after.getStockQuantity()).isEqualTo(7);
+        assertThat(conflicts()).isEqualTo(conflictsBefore + 1);
+    }
+
+    @Test
+    @DisplayName("A method that keeps conflicting gives up after maxAttempts")
+    void givesUpAfterMaxAttempts() {
+        renamer.reset(Integer.MAX_VALUE);
+
+        assertThatThrownBy(() -> renamer.rename(product.getId(), "renamed"))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(renamer.attempts()).isEqualTo(3);
+        assertThat(conflictRetryAspect.stats().get("Renamer.rename").exhausted()).isPositive();
+    }
+
+    @Test
+    @DisplayName("A method opted out with maxAttempts = 1 fails on its first conflict instead of overwriting")
+    void optedOutMethodIsNotRetried() {
+        renamer.reset(1);
+
+        assertThatThrownBy(() -> renamer.overwrite(product.getId(), "renamed"))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+
+        Product after = productRepository.findById(product.getId()).orElseThrow();
+        assertThat(renamer.attempts()).isEqualTo(1);
+        assertThat(after.getName()).isNotEqualTo("renamed");
+        assertThat(after.getStockQuantity()).isEqualTo(7);
+    }
+
+    private long conflicts() {
+        ConflictRetryAspect.Stats stats = conflictRetryAspect.stats().get("Renamer.rename");
+        return stats == null ? 0 : stats.conflicts();
+    }
+}
@@ -0,0 +1,128 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config.cache;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductFilterRequest;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.InventoryStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the former SpEL + MD5 key of {@code products-filter} with
+ * {@link CanonicalKeyGenerator}, for key construction alone and for a cache
+ * hit against a populated map.
+ *
+ * <p>The SpEL expression is parsed once up front, as Spring's cache
+ * interceptor does, so only evaluation is measured. Run with
+ * {@code main} from the IDE or after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheKeyBenchmark {
+
+    private static final String SPEL_MD5_KEY =
+            "T(org.springframework.util.DigestUtils).md5DigestAsHex(('#filter=' + #filter.toString()"
+                    + " + '&page=' + #pageable.pageNumber + '&size=' + #pageable.pageSize"
+                    + " + '&sort=' + #pageable.sort).getBytes())";
+
+    private final ParameterNameDiscoverer parameterNames = new DefaultParameterNameDiscoverer();
+    private final CanonicalKeyGenerator generator = new CanonicalKeyGenerator();
+
+    private Expression spelKey;
+    private Method method;
+    private Object[] args;
+    private Map<Object, Object> spelCache;
+    private Map<Object, Object> canonicalCache;
+
+    /** Stand-in for {@code ProductServiceImpl#findByFilters}. */
+    @SuppressWarnings("unused")
+    public Object findByFilters(ProductFilterRequest filter, Pageable pageable) {
+        return null;
+    }
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        spelKey = new SpelExpressionParser().parseExpression(SPEL_MD5_KEY);
+        method = CacheKeyBenchmark.class.getMethod("findByFilters", ProductFilterRequest.class, Pageable.class);
+
+        ProductFilterRequest filter = ProductFilterRequest.builder()
+                .categoryIds(List.of(7L, 3L, 12L))
+                .minPrice(new BigDecimal("10.00"))
+                .maxPrice(new BigDecimal("250.00"))
+                .keyword("wireless headphones")
+                .inventoryStatuses(List.of(InventoryStatus.IN_STOCK))
+                .build();
+        args = new Object[]{filter, PageRequest.of(2, 20, Sort.by("price").descending())};
+
+        spelCache = new HashMap<>();
+        canonicalCache = new HashMap<>();
+        for (int i = 0; i < 1_000; i++) {
+            Object[] other = {filter, PageRequest.of(i, 20)};
+            spelCache.put(spelKey(other), i);
+            canonicalCache.put(canonicalKey(other), i);
+        }
+        spelCache.put(spelKey(args), "hit");
+        canonicalCache.put(canonicalKey(args), "hit");
+    }
+
+    @Benchmark
+    public Object spelMd5Key() {
+        return spelKey(args);
+    }
+
+    @Benchmark
+    public Object canonicalKey() {
+        return canonicalKey(args);
+    }
+
+    @Benchmark
+    public void spelMd5Hit(Blackhole blackhole) {
+        blackhole.consume(spelCache.get(spelKey(args)));
+    }
+
+    @Benchmark
+    public void canonicalHit(Blackhole blackhole) {
+        blackhole.consume(canonicalCache.get(canonicalKey(args)));
+    }
+
+    private Object spelKey(Object[] arguments) {
+        return spelKey.getValue(new MethodBasedEvaluationContext(this, method, arguments, parameterNames));
+    }
+
+    private Object canonicalKey(Object[] arguments) {
+        return generator.generate(this, method, arguments);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CacheKeyBenchmark.class.getSimpleName()).build()).run();
+    }
+}
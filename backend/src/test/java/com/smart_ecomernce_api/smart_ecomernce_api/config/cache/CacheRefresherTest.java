@@ -0,0 +1,201 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smart_ecomernce_api.smart_ecomernce_api.aspect.CacheRefreshAspect;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheRefresherTest {
+
+    private static final Duration REFRESH_AFTER = Duration.ofMinutes(1);
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final CacheRefresher refresher = new CacheRefresher(new SimpleMeterRegistry(), 4);
+    private final TaggedCaffeineCache cache = refreshAhead("products", nanos, refresher);
+    private final AtomicInteger reloads = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        refresher.destroy();
+    }
+
+    /** A refresh-ahead cache built like {@code CacheConfig} builds one, on a test clock. */
+    private static TaggedCaffeineCache refreshAhead(String name, AtomicLong nanos, CacheRefresher refresher) {
+        TaggedCaffeineCache cache = new TaggedCaffeineCache(name, Caffeine.newBuilder()
+                .maximumSize(100)
+                .expireAfterWrite(Duration.ofMinutes(10))
+                .ticker(nanos::get)
+                .executor(Runnable::run)
+                .build(), new CacheTagIndex(), Set.of());
+        cache.enableRefresh(REFRESH_AFTER, refresher);
+        return cache;
+    }
+
+    /** Stores {@code value} as a cached call bound to {@code reloader} would. */
+    private void put(Object key, Object value, CacheRefresher.Reloader reloader) {
+        CacheRefresher.Reloader previous = CacheRefresher.bind(reloader);
+        try {
+            cache.put(key, value);
+        } finally {
+            CacheRefresher.restore(previous);
+        }
+    }
+
+    /** A reloader that waits for {@link #release}, then stores {@code value} or throws {@code failure}. */
+    private CacheRefresher.Reloader gatedReloader(Object key, Object value, RuntimeException failure) {
+        return () -> {
+            reloads.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            cache.put(key, value);
+        };
+    }
+
+    private static void awaitStats(CacheRefresher refresher, Predicate<CacheRefresher.Stats> condition)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.test(refresher.stats().get("products"))) {
+            assertThat(System.nanoTime()).as("refresh finishing").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    @DisplayName("A stale entry is served while exactly one background reload runs, then replaced")
+    void staleEntryServedWhileOneReloadRuns() throws Exception {
+        put("p1", "v1", gatedReloader("p1", "v2", null));
+
+        // Young entries are served without a refresh.
+        assertThat(cache.get("p1").get()).isEqualTo("v1");
+        assertThat(refresher.stats().get("products").staleReads()).isZero();
+
+        nanos.addAndGet(REFRESH_AFTER.plusSeconds(1).toNanos());
+        for (int i = 0; i < 20; i++) {
+            assertThat(cache.get("p1").get()).isEqualTo("v1");
+            assertThat(cache.get("p1", () -> "loaded")).isEqualTo("v1");
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (reloads.get() == 0) {
+            assertThat(System.nanoTime()).as("reload starting").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+        assertThat(reloads).hasValue(1);
+        assertThat(refresher.stats().get("products").staleReads()).isEqualTo(40);
+
+        release.countDown();
+        awaitStats(refresher, stats -> stats.refreshed() == 1);
+
+        assertThat(cache.get("p1").get()).isEqualTo("v2");
+        assertThat(reloads).hasValue(1);
+        // The reloaded entry is young again.
+        assertThat(refresher.stats().get("products").staleReads()).isEqualTo(40);
+    }
+
+    @Test
+    @DisplayName("A failed reload keeps the current entry and a later stale read retries")
+    void failedReloadKeepsEntry() throws Exception {
+        put("p1", "v1", gatedReloader("p1", "v2", new IllegalStateException("database unavailable")));
+        release.countDown();
+
+        nanos.addAndGet(REFRESH_AFTER.plusSeconds(1).toNanos());
+        assertThat(cache.get("p1").get()).isEqualTo("v1");
+        awaitStats(refresher, stats -> stats.failed() == 1);
+
+        assertThat(cache.getNativeCache().getIfPresent("p1")).isEqualTo("v1");
+        assertThat(cache.get("p1").get()).isEqualTo("v1");
+        awaitStats(refresher, stats -> stats.failed() == 2);
+        assertThat(reloads).hasValue(2);
+        assertThat(refresher.stats().get("products").refreshed()).isZero();
+    }
+
+    @Test
+    @DisplayName("The aspect reloads a stale @Cacheable entry through the proxy with the original arguments")
+    void aspectReloadsThroughProxy() throws Exception {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.registerBean(AtomicLong.class, () -> nanos);
+            context.registerBean(CacheRefresher.class, () -> refresher);
+            context.register(RefreshConfig.class);
+            context.refresh();
+            CatalogService catalog = context.getBean(CatalogService.class);
+
+            assertThat(catalog.name(7L)).isEqualTo("product-7#1");
+            assertThat(catalog.name(7L)).isEqualTo("product-7#1");
+
+            nanos.addAndGet(REFRESH_AFTER.plusSeconds(1).toNanos());
+            assertThat(catalog.name(7L)).isEqualTo("product-7#1");
+            awaitStats(refresher, stats -> stats.refreshed() == 1);
+
+            assertThat(catalog.name(7L)).isEqualTo("product-7#2");
+            assertThat(catalog.calls()).isEqualTo(List.of(7L, 7L));
+        }
+    }
+
+    @Configuration
+    @EnableCaching
+    @EnableAspectJAutoProxy
+    static class RefreshConfig {
+
+        @Bean
+        CacheManager cacheManager(AtomicLong nanos, CacheRefresher refresher) {
+            SimpleCacheManager manager = new SimpleCacheManager();
+            manager.setCaches(List.of(refreshAhead("products", nanos, refresher)));
+            return manager;
+        }
+
+        @Bean
+        CacheRefreshAspect cacheRefreshAspect(CacheRefresher refresher) {
+            return new CacheRefreshAspect(refresher);
+        }
+
+        @Bean
+        CatalogService catalogService() {
+            return new CatalogService();
+        }
+    }
+
+    static class CatalogService {
+
+        private final List<Long> calls = new CopyOnWriteArrayList<>();
+
+        @Cacheable("products")
+        public String name(Long id) {
+            calls.add(id);
+            return "product-" + id + "#" + calls.size();
+        }
+
+        public List<Long> calls() {
+            return List.copyOf(calls);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smart_ecomernce_api.smart_ecomernce_api.aspect.CacheTaggingAspect;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheTagIndexTest {
+
+    private static final String LISTING = CacheTags.PRODUCT_LISTINGS;
+
+    private final CacheTagIndex tagIndex = new CacheTagIndex();
+    private final AtomicLong nanos = new AtomicLong();
+
+    @AfterEach
+    void unbind() {
+        CacheTagContext.restore(null);
+    }
+
+    /** A cache built like {@code CacheConfig} builds one, on a test clock with listeners run inline. */
+    private TaggedCaffeineCache cache(String name, int maxSize) {
+        return new TaggedCaffeineCache(name, Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(10))
+                .ticker(nanos::get)
+                .executor(Runnable::run)
+                .evictionListener((key, value, cause) -> tagIndex.unregister(name, key))
+                .build(), tagIndex, Set.of(LISTING));
+    }
+
+    /** Stores {@code value} as a call tagged with {@code tags} would. */
+    private static void put(TaggedCaffeineCache cache, Object key, Object value, String... tags) {
+        Set<String> previous = CacheTagContext.bind(Set.of(tags));
+        try {
+            cache.put(key, value);
+        } finally {
+            CacheTagContext.restore(previous);
+        }
+    }
+
+    @Test
+    @DisplayName("A put registers the cache's static tags and the call's tags")
+    void putRegistersTags() {
+        TaggedCaffeineCache products = cache("products", 100);
+
+        put(products, "p1", "v1", CacheTags.product(1L));
+        put(products, "p2", "v2", CacheTags.product(2L));
+
+        assertThat(tagIndex.isRegistered("products", "p1")).isTrue();
+        assertThat(tagIndex.stats().taggedEntries()).isEqualTo(2);
+        assertThat(tagIndex.stats().tags()).isEqualTo(3);
+
+        // Overwriting with other tags drops the old ones.
+        put(products, "p1", "v1", CacheTags.product(2L));
+        assertThat(tagIndex.evict(List.of(CacheTags.product(1L)))).isZero();
+        assertThat(products.get("p1")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("A tag eviction removes every key carrying the tag, across caches, and nothing else")
+    void tagEvictionRemovesEveryTaggedKey() {
+        TaggedCaffeineCache products = cache("products", 100);
+        TaggedCaffeineCache featured = cache("products-featured", 100);
+        put(products, "p1", "v1", CacheTags.product(1L));
+        put(featured, "page-0", "page", CacheTags.product(1L), CacheTags.product(2L));
+        put(products, "p2", "v2", CacheTags.product(2L));
+
+        assertThat(tagIndex.evict(List.of(CacheTags.product(1L)))).isEqualTo(2);
+
+        assertThat(products.get("p1")).isNull();
+        assertThat(featured.get("page-0")).isNull();
+        assertThat(products.get("p2")).isNotNull();
+        // The evicted page also left the product:2 set it belonged to.
+        assertThat(tagIndex.evict(List.of(CacheTags.product(2L)))).isEqualTo(1);
+        assertThat(tagIndex.stats().taggedEntries()).isZero();
+        assertThat(tagIndex.stats().tags()).isZero();
+    }
+
+    @Test
+    @DisplayName("A tag eviction clears the tagged keys from both tiers")
+    void tagEvictionClearsBothTiers() {
+        InMemoryRemoteCacheStore store = new InMemoryRemoteCacheStore();
+        LoopbackCacheInvalidationBus bus = new LoopbackCacheInvalidationBus();
+        RemoteCacheLoader loader = new RemoteCacheLoader(store, 16, 1);
+        try {
+            TwoTierCache products = new TwoTierCache("products", Caffeine.newBuilder().maximumSize(100).build(),
+                    tagIndex, Set.of(LISTING), store, loader, bus, Duration.ofMinutes(5), 1000);
+            CacheTagInvalidator invalidator = new CacheTagInvalidator(tagIndex, bus, store, true);
+            put(products, "p1", "v1", CacheTags.product(1L));
+            put(products, "p2", "v2", CacheTags.product(1L));
+            put(products, "p3", "v3", CacheTags.product(3L));
+
+            assertThat(invalidator.evictNow(List.of(CacheTags.product(1L)))).isEqualTo(2);
+
+            assertThat(products.getNativeCache().asMap()).containsOnlyKeys("p3");
+            Map<Object, Object> remote = store.getAll("products", List.of("p1", "p2", "p3")).join();
+            assertThat(remote).containsOnlyKeys("p3");
+        } finally {
+            loader.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Size eviction and expiry drop entries from the index, so it does not outgrow the cache")
+    void evictionAndExpiryCleanTheIndex() {
+        TaggedCaffeineCache products = cache("products", 10);
+
+        for (long id = 0; id < 1_000; id++) {
+            put(products, id, "v" + id, CacheTags.product(id));
+        }
+        products.getNativeCache().cleanUp();
+        assertThat(tagIndex.stats().taggedEntries()).isEqualTo(products.getNativeCache().estimatedSize());
+        assertThat(tagIndex.stats().tags()).isLessThanOrEqualTo(11);
+
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(11));
+        products.getNativeCache().cleanUp();
+        assertThat(products.getNativeCache().estimatedSize()).isZero();
+        assertThat(tagIndex.stats().taggedEntries()).isZero();
+        assertThat(tagIndex.stats().tags()).isZero();
+    }
+
+    @Test
+    @DisplayName("A put racing an eviction of its tag never leaves an entry the next eviction cannot reach")
+    void putRacingInvalidateStaysReachable() throws Exception {
+        TaggedCaffeineCache products = cache("products", 100);
+        String tag = CacheTags.product(1L);
+
+        for (int round = 0; round < 2_000; round++) {
+            CyclicBarrier start = new CyclicBarrier(2);
+            String value = "v" + round;
+            CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+                await(start);
+                put(products, "p1", value, tag);
+            });
+            await(start);
+            tagIndex.evict(List.of(tag));
+            writer.get(5, TimeUnit.SECONDS);
+
+            // Whichever won, a stored value is indexed under its tag.
+            if (products.getNativeCache().getIfPresent("p1") != null) {
+                assertThat(tagIndex.isRegistered("products", "p1")).as("round %d", round).isTrue();
+                tagIndex.evict(List.of(tag));
+                assertThat(products.getNativeCache().getIfPresent("p1")).as("round %d", round).isNull();
+            }
+        }
+        assertThat(tagIndex.stats().taggedEntries()).isZero();
+    }
+
+    @Test
+    @DisplayName("@CacheTagged tags the entry its @Cacheable method stores through the proxy")
+    void aspectTagsCachedCalls() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.registerBean(CacheTagIndex.class, () -> tagIndex);
+            context.register(TaggingConfig.class);
+            context.refresh();
+            CatalogService catalog = context.getBean(CatalogService.class);
+
+            catalog.name(7L);
+            catalog.name(8L);
+
+            assertThat(tagIndex.evict(List.of(CacheTags.product(7L)))).isEqualTo(1);
+            assertThat(tagIndex.isRegistered("products", 7L)).isFalse();
+            assertThat(tagIndex.isRegistered("products", 8L)).isTrue();
+        }
+    }
+
+    @Configuration
+    @EnableCaching
+    @EnableAspectJAutoProxy
+    static class TaggingConfig {
+
+        @Bean
+        CacheManager cacheManager(CacheTagIndex tagIndex) {
+            SimpleCacheManager manager = new SimpleCacheManager();
+            manager.setCaches(List.of(new TaggedCaffeineCache("products",
+                    Caffeine.newBuilder().maximumSize(100).build(), tagIndex, Set.of())));
+            return manager;
+        }
+
+        @Bean
+        CacheTaggingAspect cacheTaggingAspect() {
+            return new CacheTaggingAspect();
+        }
+
+        @Bean
+        CatalogService catalogService() {
+            return new CatalogService();
+        }
+    }
+
+    static class CatalogService {
+
+        @Cacheable("products")
+        @CacheTagged("product(#id)")
+        public String name(Long id) {
+            return "product-" + id;
+        }
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheWarmupServiceTest {
+
+    public static class Catalog {
+
+        private final AtomicInteger loads = new AtomicInteger();
+        private final AtomicInteger deletes = new AtomicInteger();
+
+        @Cacheable("products")
+        public String product(Long id) {
+            loads.incrementAndGet();
+            return "product-" + id;
+        }
+
+        public void delete(Long id) {
+            deletes.incrementAndGet();
+        }
+
+        public int loads() {
+            return loads.get();
+        }
+
+        public int deletes() {
+            return deletes.get();
+        }
+    }
+
+    @Configuration
+    @EnableCaching(proxyTargetClass = true)
+    static class Config {
+
+        @Bean
+        Catalog catalog() {
+            return new Catalog();
+        }
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private AnnotationConfigApplicationContext context;
+    private CacheWarmupRecorder recorder;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path snapshot = dir.resolve("warmup.json");
+        String catalog = Catalog.class.getName();
+        List<String> longParam = List.of(Long.class.getName());
+        objectMapper.writeValue(snapshot.toFile(), List.of(
+                entry("products", catalog, "product", longParam, 7L),
+                entry("products", catalog, "delete", longParam, 7L),
+                entry("products-featured", catalog, "product", longParam, 8L),
+                entry("products", "java.lang.Runtime", "exec", List.of(String.class.getName()), "touch /tmp/pwned")));
+
+        recorder = new CacheWarmupRecorder(objectMapper, Set.of("products", "products-featured"),
+                100, 1000, snapshot, 3600);
+        recorder.loadSnapshot();
+
+        context = new AnnotationConfigApplicationContext();
+        AutoConfigurationPackages.register(context, "com.smart_ecomernce_api.smart_ecomernce_api");
+        context.registerBean(ObjectMapper.class, () -> objectMapper);
+        context.registerBean(CacheWarmupRecorder.class, () -> recorder);
+        context.register(Config.class, CacheWarmupService.class);
+        context.refresh();
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    @DisplayName("Only @Cacheable methods of the cache an entry was recorded for are replayed")
+    void replaysOnlyAllowedEntries() throws InterruptedException {
+        CacheWarmupService service = context.getBean(CacheWarmupService.class);
+        Catalog catalog = context.getBean(Catalog.class);
+
+        service.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (service.status().state() != CacheWarmupStatus.State.COMPLETED && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+
+        CacheWarmupStatus status = service.status();
+        assertThat(status.state()).isEqualTo(CacheWarmupStatus.State.COMPLETED);
+        assertThat(status.completed()).isEqualTo(1);
+        assertThat(status.rejected()).isEqualTo(3);
+        assertThat(catalog.loads()).isEqualTo(1);
+        assertThat(catalog.deletes()).isZero();
+        assertThat(context.getBean(CacheManager.class).getCache("products").get(7L).get()).isEqualTo("product-7");
+    }
+
+    private CacheWarmupRecorder.Entry entry(String cache, String type, String method, List<String> parameterTypes,
+                                            Object arg) {
+        List<JsonNode> args = List.of(objectMapper.valueToTree(arg));
+        return new CacheWarmupRecorder.Entry(cache, type, method, parameterTypes, args, 10);
+    }
+}
@@ -0,0 +1,102 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config.cache;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductFilterRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CanonicalKeyGeneratorTest {
+
+    private final CanonicalKeyGenerator generator = new CanonicalKeyGenerator();
+    private final Method method = methodNamed("filter");
+
+    @SuppressWarnings("unused")
+    private void filter(ProductFilterRequest request, PageRequest page) {
+    }
+
+    @SuppressWarnings("unused")
+    private void other(ProductFilterRequest request, PageRequest page) {
+    }
+
+    private static Method methodNamed(String name) {
+        return Arrays.stream(CanonicalKeyGeneratorTest.class.getDeclaredMethods())
+                .filter(candidate -> candidate.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private Object key(Method target, ProductFilterRequest request, PageRequest page) {
+        return generator.generate(this, target, request, page);
+    }
+
+    private Object key(ProductFilterRequest request) {
+        return key(method, request, PageRequest.of(0, 20, Sort.by("name")));
+    }
+
+    @Test
+    @DisplayName("Equivalent filters share a key: list order, duplicates, empty lists and decimal scale are ignored")
+    void equivalentFiltersShareKey() {
+        ProductFilterRequest first = ProductFilterRequest.builder()
+                .categoryIds(List.of(3L, 1L, 2L))
+                .minPrice(new BigDecimal("10.00"))
+                .tags(List.of())
+                .build();
+        ProductFilterRequest second = ProductFilterRequest.builder()
+                .categoryIds(List.of(1L, 2L, 3L, 1L))
+                .minPrice(new BigDecimal("10"))
+                .build();
+
+        assertThat(key(first)).isEqualTo(key(second));
+        assertThat(key(first)).hasSameHashCodeAs(key(second));
+    }
+
+    @Test
+    @DisplayName("Filters that query different rows get different keys")
+    void differentFiltersDiffer() {
+        ProductFilterRequest base = ProductFilterRequest.builder().keyword("phone").build();
+
+        assertThat(key(base)).isNotEqualTo(key(ProductFilterRequest.builder().keyword("tablet").build()));
+        assertThat(key(base)).isNotEqualTo(key(ProductFilterRequest.builder().keyword("phone").featured(true).build()));
+        assertThat(key(ProductFilterRequest.builder().categoryIds(List.of(1L)).build()))
+                .isNotEqualTo(key(ProductFilterRequest.builder().categoryIds(List.of(1L, 2L)).build()));
+    }
+
+    @Test
+    @DisplayName("Strings are keyed as queried, so padded keywords do not share a key with trimmed ones")
+    void keywordsAreKeyedVerbatim() {
+        assertThat(key(ProductFilterRequest.builder().keyword(" phone ").build()))
+                .isNotEqualTo(key(ProductFilterRequest.builder().keyword("phone").build()));
+    }
+
+    @Test
+    @DisplayName("Null list elements are part of the key instead of failing the lookup")
+    void nullListElementsAreKeyed() {
+        ProductFilterRequest withNull = ProductFilterRequest.builder().categoryIds(Arrays.asList(2L, null, 1L)).build();
+        ProductFilterRequest reordered = ProductFilterRequest.builder().categoryIds(Arrays.asList(null, 1L, 2L)).build();
+        ProductFilterRequest withoutNull = ProductFilterRequest.builder().categoryIds(List.of(1L, 2L)).build();
+
+        assertThat(key(withNull)).isEqualTo(key(reordered));
+        assertThat(key(withNull)).isNotEqualTo(key(withoutNull));
+    }
+
+    @Test
+    @DisplayName("The method name and page are part of the key")
+    void methodAndPageArePartOfKey() {
+        ProductFilterRequest request = ProductFilterRequest.builder().keyword("phone").build();
+        PageRequest page = PageRequest.of(0, 20);
+
+        assertThat(key(method, request, page)).isEqualTo(key(method, request, PageRequest.of(0, 20)));
+        assertThat(key(method, request, page)).isNotEqualTo(key(methodNamed("other"), request, page));
+        assertThat(key(method, request, page)).isNotEqualTo(key(method, request, PageRequest.of(1, 20)));
+        assertThat(key(method, request, page))
+                .isNotEqualTo(key(method, request, PageRequest.of(0, 20, Sort.by("price"))));
+    }
+}
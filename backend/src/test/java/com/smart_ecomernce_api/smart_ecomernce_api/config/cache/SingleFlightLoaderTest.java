@@ -0,0 +1,104 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightLoaderTest {
+
+    private static final int CALLERS = 16;
+
+    private final SingleFlightLoader singleFlight = new SingleFlightLoader(new SimpleMeterRegistry());
+    private final TaggedCaffeineCache cache = new TaggedCaffeineCache("products",
+            Caffeine.newBuilder().maximumSize(100).build(), new CacheTagIndex(), Set.of());
+    private final ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    SingleFlightLoaderTest() {
+        cache.enableSingleFlight(singleFlight);
+    }
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        pool.shutdownNow();
+    }
+
+    /** Starts {@link #CALLERS} misses of one key and returns once all but the leader wait on its load. */
+    private List<Future<String>> concurrentMisses(RuntimeException failure) throws InterruptedException {
+        List<Future<String>> results = new ArrayList<>(CALLERS);
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(pool.submit(() -> cache.get("p1", () -> {
+                loads.incrementAndGet();
+                release.await();
+                if (failure != null) {
+                    throw failure;
+                }
+                return "loaded";
+            })));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (singleFlight.stats().get("products").collapsed() < CALLERS - 1) {
+            assertThat(System.nanoTime()).as("callers joining the load").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+        return results;
+    }
+
+    @Test
+    @DisplayName("Concurrent misses of one key run the loader once and all get its value")
+    void concurrentMissesLoadOnce() throws Exception {
+        List<Future<String>> results = concurrentMisses(null);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo("loaded");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(cache.get("p1").get()).isEqualTo("loaded");
+        assertThat(singleFlight.stats().get("products"))
+                .isEqualTo(new SingleFlightLoader.Stats(1, CALLERS - 1));
+    }
+
+    @Test
+    @DisplayName("A failed load reaches every waiter, is not cached, and the next call loads again")
+    void failureReachesWaitersAndIsNotCached() throws Exception {
+        IllegalStateException failure = new IllegalStateException("database unavailable");
+        List<Future<String>> results = concurrentMisses(failure);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThatThrownBy(() -> result.get(10, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(Cache.ValueRetrievalException.class)
+                    .hasRootCause(failure);
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(cache.get("p1")).isNull();
+
+        assertThat(cache.get("p1", () -> {
+            loads.incrementAndGet();
+            return "reloaded";
+        })).isEqualTo("reloaded");
+        assertThat(loads).hasValue(2);
+        assertThat(singleFlight.stats().get("products").loads()).isEqualTo(2);
+    }
+}
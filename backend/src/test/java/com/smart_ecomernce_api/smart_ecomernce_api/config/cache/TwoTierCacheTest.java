@@ -0,0 +1,100 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.config.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TwoTierCacheTest {
+
+    private static final String LISTING = CacheTags.PRODUCT_LISTINGS;
+
+    /** One application node: its own L1, tag index and invalidator, sharing L2 and the bus group. */
+    private static final class Node {
+        final CacheTagIndex tagIndex = new CacheTagIndex();
+        final TwoTierCache cache;
+        final CacheTagInvalidator invalidator;
+        final RemoteCacheLoader loader;
+
+        Node(RemoteCacheStore store, LoopbackCacheInvalidationBus bus) {
+            loader = new RemoteCacheLoader(store, 16, 1);
+            cache = new TwoTierCache("products", Caffeine.newBuilder().maximumSize(100).build(), tagIndex,
+                    Set.of(LISTING), store, loader, bus, Duration.ofMinutes(5), 1000);
+            TwoTierCacheManager manager = new TwoTierCacheManager(tagIndex, bus);
+            manager.setCaches(List.of(cache));
+            manager.afterPropertiesSet();
+            invalidator = new CacheTagInvalidator(tagIndex, bus, store, true);
+        }
+
+        Object get(String key) {
+            return cache.get(key) == null ? null : cache.get(key).get();
+        }
+    }
+
+    private final InMemoryRemoteCacheStore store = new InMemoryRemoteCacheStore();
+    private final LoopbackCacheInvalidationBus bus = new LoopbackCacheInvalidationBus();
+    private final Node a = new Node(store, bus);
+    private final Node b = new Node(store, bus.join());
+
+    @AfterEach
+    void tearDown() {
+        a.loader.destroy();
+        b.loader.destroy();
+    }
+
+    @Test
+    @DisplayName("A value written on one node is served to another from L2, and a key eviction clears both tiers")
+    void sharesAndEvictsAcrossNodes() {
+        a.cache.put("p1", "v1");
+        assertThat(b.get("p1")).isEqualTo("v1");
+
+        a.cache.evict("p1");
+
+        assertThat(b.cache.getNativeCache().getIfPresent("p1")).isNull();
+        assertThat(b.get("p1")).isNull();
+    }
+
+    @Test
+    @DisplayName("A tag eviction reaches L2 entries that have left every node's L1")
+    void tagEvictionReachesL2() {
+        a.cache.put("p1", "v1");
+        a.cache.evictLocal("p1");
+        assertThat(a.tagIndex.isRegistered("products", "p1")).isFalse();
+
+        a.invalidator.evictNow(List.of(LISTING));
+
+        assertThat(b.get("p1")).isNull();
+        assertThat(a.get("p1")).isNull();
+    }
+
+    @Test
+    @DisplayName("A tag eviction on one node drops the tagged L1 copies of its peers")
+    void tagEvictionReachesPeers() {
+        a.cache.put("p1", "v1");
+        assertThat(b.get("p1")).isEqualTo("v1");
+        assertThat(b.tagIndex.isRegistered("products", "p1")).isTrue();
+
+        a.invalidator.evictNow(List.of(LISTING));
+
+        assertThat(b.cache.getNativeCache().getIfPresent("p1")).isNull();
+        assertThat(b.get("p1")).isNull();
+    }
+
+    @Test
+    @DisplayName("An entry loaded through get(key, loader) is tagged and evicted with its tag")
+    void syncLoadsAreTagged() {
+        assertThat(a.cache.get("p2", () -> "loaded")).isEqualTo("loaded");
+        assertThat(a.tagIndex.isRegistered("products", "p2")).isTrue();
+
+        a.invalidator.evictNow(List.of(LISTING));
+
+        assertThat(a.get("p2")).isNull();
+        assertThat(a.cache.get("p2", () -> "reloaded")).isEqualTo("reloaded");
+    }
+}
@@ -0,0 +1,70 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.number;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the former {@code ORD-yyyyMMdd-NNNNNN} number (a new
+ * {@link Random} and {@code String.format} per order) with
+ * {@link SnowflakeOrderNumberGenerator}, on one thread and on eight threads
+ * sharing one generator. Run with {@code main} from the IDE or after
+ * {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderNumberBenchmark {
+
+    private final SnowflakeOrderNumberGenerator snowflake = new SnowflakeOrderNumberGenerator("ORD", 1);
+
+    @Benchmark
+    public String legacyRandom() {
+        return legacy();
+    }
+
+    @Benchmark
+    public String snowflake() {
+        return snowflake.next();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String legacyRandomContended() {
+        return legacy();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String snowflakeContended() {
+        return snowflake.next();
+    }
+
+    private static String legacy() {
+        String date = DateTimeFormatter.ofPattern("yyyyMMdd").format(LocalDateTime.now());
+        String random = String.format("%06d", new Random().nextInt(999999));
+        return "ORD-" + date + "-" + random;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(OrderNumberBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,104 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.number;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeOrderNumberGeneratorTest {
+
+    private static final int NODES = 4;
+    private static final int THREADS_PER_NODE = 8;
+    private static final int NUMBERS_PER_THREAD = 20_000;
+
+    @Test
+    @DisplayName("Numbers from many threads on several nodes are unique and increase per thread")
+    void uniqueAcrossThreadsAndNodes() throws Exception {
+        List<SnowflakeOrderNumberGenerator> nodes = new ArrayList<>();
+        for (int node = 0; node < NODES; node++) {
+            nodes.add(new SnowflakeOrderNumberGenerator("ORD", node * 257));
+        }
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(NODES * THREADS_PER_NODE);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> increasing = new ArrayList<>();
+        try {
+            for (SnowflakeOrderNumberGenerator generator : nodes) {
+                for (int t = 0; t < THREADS_PER_NODE; t++) {
+                    increasing.add(pool.submit(() -> {
+                        start.await();
+                        String previous = "";
+                        boolean ordered = true;
+                        for (int i = 0; i < NUMBERS_PER_THREAD; i++) {
+                            String number = generator.next();
+                            ordered &= number.compareTo(previous) > 0;
+                            seen.add(number);
+                            previous = number;
+                        }
+                        return ordered;
+                    }));
+                }
+            }
+            start.countDown();
+            for (Future<Boolean> result : increasing) {
+                assertThat(result.get(1, TimeUnit.MINUTES)).isTrue();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(seen).hasSize(NODES * THREADS_PER_NODE * NUMBERS_PER_THREAD);
+    }
+
+    @Test
+    @DisplayName("A frozen clock carries the sequence into the next millisecond")
+    void sequenceOverflowStaysUnique() {
+        SnowflakeOrderNumberGenerator generator =
+                new SnowflakeOrderNumberGenerator("ORD", 1, () -> SnowflakeOrderNumberGenerator.EPOCH_MILLIS + 1_000);
+
+        Set<Long> ids = new HashSet<>();
+        long previous = -1;
+        for (int i = 0; i < 3 * 4096; i++) {
+            long id = generator.nextId();
+            assertThat(id).isGreaterThan(previous);
+            ids.add(id);
+            previous = id;
+        }
+        assertThat(ids).hasSize(3 * 4096);
+    }
+
+    @Test
+    @DisplayName("A clock stepping backwards does not reorder or repeat numbers")
+    void clockGoingBackwards() {
+        AtomicLong now = new AtomicLong(SnowflakeOrderNumberGenerator.EPOCH_MILLIS + 10_000);
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator("ORD", 3, now::get);
+
+        String before = generator.next();
+        now.addAndGet(-5_000);
+        String after = generator.next();
+
+        assertThat(after).isGreaterThan(before);
+        assertThat(after).startsWith("ORD-").hasSize("ORD-".length() + 13);
+    }
+
+    @Test
+    @DisplayName("Node ids outside 0-1023 are rejected")
+    void rejectsInvalidNodeId() {
+        assertThatThrownBy(() -> new SnowflakeOrderNumberGenerator("ORD", 1024))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SnowflakeOrderNumberGenerator("ORD", -1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,124 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.queue;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.queue.CheckoutWaitingRoom.Admission;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CheckoutWaitingRoomTest {
+
+    private CheckoutWaitingRoom room;
+
+    private CheckoutWaitingRoom room(boolean enabled, int maxInFlight) {
+        room = new CheckoutWaitingRoom(new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class),
+                enabled, maxInFlight, 1_000, 1_000, 5, 30, 15);
+        room.start();
+        return room;
+    }
+
+    @AfterEach
+    void shutdown() {
+        if (room != null) {
+            room.shutdown();
+        }
+    }
+
+    /** Retries with the token, as a client would, until the checkout is admitted. */
+    private static Admission retryUntilAdmitted(CheckoutWaitingRoom room, Long userId, String token)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            Admission admission = room.enter(userId, token);
+            if (admission.admitted()) {
+                return admission;
+            }
+            assertThat(admission.ticket().getToken()).isEqualTo(token);
+            Thread.sleep(5);
+        }
+        throw new AssertionError("user " + userId + " was not admitted");
+    }
+
+    @Test
+    @DisplayName("A disabled room lets every checkout through")
+    void disabledPassesThrough() {
+        CheckoutWaitingRoom room = room(false, 1);
+
+        assertThat(room.enter(1L, null).admitted()).isTrue();
+        assertThat(room.enter(2L, null).admitted()).isTrue();
+        assertThat(room.status().inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Checkouts go straight through while slots are free and queue once they are full")
+    void queuesWhenFull() {
+        CheckoutWaitingRoom room = room(true, 2);
+
+        Admission first = room.enter(1L, null);
+        Admission second = room.enter(2L, null);
+        Admission third = room.enter(3L, null);
+
+        assertThat(first.admitted()).isTrue();
+        assertThat(second.admitted()).isTrue();
+        assertThat(third.admitted()).isFalse();
+        assertThat(third.ticket().getPosition()).isEqualTo(1);
+        assertThat(third.ticket().getRetryAfterSeconds()).isBetween(1L, 10L);
+        assertThat(room.status().inFlight()).isEqualTo(2);
+        assertThat(room.status().depth()).isEqualTo(1);
+
+        // Retrying without the token finds the same place in the queue.
+        assertThat(room.enter(3L, null).ticket().getToken()).isEqualTo(third.ticket().getToken());
+        assertThat(room.status().depth()).isEqualTo(1);
+
+        first.close();
+        second.close();
+    }
+
+    @Test
+    @DisplayName("Queued checkouts are admitted in arrival order as slots free up")
+    void admitsInArrivalOrder() throws InterruptedException {
+        CheckoutWaitingRoom room = room(true, 1);
+
+        Admission running = room.enter(1L, null);
+        String firstToken = room.enter(2L, null).ticket().getToken();
+        Admission waiting = room.enter(3L, null);
+        assertThat(waiting.ticket().getPosition()).isEqualTo(2);
+
+        running.close();
+        Admission first = retryUntilAdmitted(room, 2L, firstToken);
+
+        // The later arrival is still queued, now at the head, while the slot is taken.
+        Admission stillWaiting = room.enter(3L, waiting.ticket().getToken());
+        assertThat(stillWaiting.admitted()).isFalse();
+        assertThat(stillWaiting.ticket().getPosition()).isEqualTo(1);
+
+        first.close();
+        retryUntilAdmitted(room, 3L, waiting.ticket().getToken()).close();
+
+        CheckoutWaitingRoom.Status status = room.status();
+        assertThat(status.depth()).isZero();
+        assertThat(status.inFlight()).isZero();
+        assertThat(status.admitted()).isEqualTo(2);
+        assertThat(status.meanCheckoutMillis()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Closing an admission twice gives back only one slot")
+    void closeIsIdempotent() {
+        CheckoutWaitingRoom room = room(true, 1);
+
+        Admission admission = room.enter(1L, null);
+        admission.close();
+        admission.close();
+
+        Admission next = room.enter(2L, null);
+        assertThat(next.admitted()).isTrue();
+        assertThat(room.enter(3L, null).admitted()).isFalse();
+        next.close();
+    }
+}
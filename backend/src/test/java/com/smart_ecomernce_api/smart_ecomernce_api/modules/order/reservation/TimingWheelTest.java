@@ -0,0 +1,78 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.reservation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private static final long TICK = 1_000;
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    @DisplayName("Timers across every level fire on the first tick at or after their deadline")
+    void firesEachTimerOnTime() {
+        TimingWheel wheel = new TimingWheel(TICK, 3, START);
+        Random random = new Random(42);
+        Map<Long, Long> deadlines = new HashMap<>();
+        for (long id = 0; id < 5_000; id++) {
+            // Up to ~5 days: past the 64^3-tick horizon, so top-level timers cascade more than once.
+            long deadline = START + (long) (random.nextDouble() * 5 * 24 * 3_600_000L);
+            deadlines.put(id, deadline);
+            wheel.schedule(id, deadline);
+        }
+
+        Map<Long, Long> firedAt = new HashMap<>();
+        for (long now = START; now <= START + 6 * 24 * 3_600_000L; now += 7 * TICK) {
+            long at = now;
+            wheel.advance(now, (id, deadline) -> {
+                assertThat(deadline).isEqualTo(deadlines.get(id));
+                assertThat(firedAt.put(id, at)).isNull();
+            });
+        }
+
+        assertThat(firedAt).hasSize(deadlines.size());
+        assertThat(wheel.size()).isZero();
+        firedAt.forEach((id, at) -> assertThat(at)
+                .isGreaterThanOrEqualTo(deadlines.get(id))
+                .isLessThan(deadlines.get(id) + 8 * TICK));
+    }
+
+    @Test
+    @DisplayName("Cancelled and rescheduled timers fire only as last scheduled")
+    void cancelAndReschedule() {
+        TimingWheel wheel = new TimingWheel(TICK, 3, START);
+        wheel.schedule(1, START + 10 * TICK);
+        wheel.schedule(2, START + 10 * TICK);
+        wheel.schedule(3, START + 10 * TICK);
+        assertThat(wheel.cancel(1)).isTrue();
+        wheel.schedule(2, START + 100 * TICK);
+
+        List<Long> fired = new ArrayList<>();
+        wheel.advance(START + 50 * TICK, (id, deadline) -> fired.add(id));
+        assertThat(fired).containsExactly(3L);
+        assertThat(wheel.contains(2)).isTrue();
+
+        wheel.advance(START + 100 * TICK, (id, deadline) -> fired.add(id));
+        assertThat(fired).containsExactly(3L, 2L);
+        assertThat(wheel.cancel(2)).isFalse();
+    }
+
+    @Test
+    @DisplayName("A deadline already passed fires on the next advance")
+    void overdueFiresImmediately() {
+        TimingWheel wheel = new TimingWheel(TICK, 3, START);
+        wheel.schedule(7, START - 60_000);
+
+        List<Long> fired = new ArrayList<>();
+        wheel.advance(START, (id, deadline) -> fired.add(id));
+        assertThat(fired).containsExactly(7L);
+    }
+}
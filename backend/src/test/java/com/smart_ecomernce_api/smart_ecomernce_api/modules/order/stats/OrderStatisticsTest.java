@@ -0,0 +1,190 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.stats;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.Order;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderStats;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.PaymentStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.OrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderStatisticsTest {
+
+    /** Stands in for the database: the scan's rows and versions, and a write to commit while it runs. */
+    private final List<Object[]> rows = new ArrayList<>();
+    private final Map<Long, Long> versions = new HashMap<>();
+    private Runnable duringScan = () -> { };
+    private RuntimeException scanFailure;
+
+    private final OrderRepository orderRepository = (OrderRepository) Proxy.newProxyInstance(
+            OrderRepository.class.getClassLoader(), new Class<?>[]{OrderRepository.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "getOrderTotalsByStatusAndPaymentStatus" -> {
+                    if (scanFailure != null) {
+                        RuntimeException failure = scanFailure;
+                        scanFailure = null;
+                        throw failure;
+                    }
+                    List<Object[]> scanned = List.copyOf(rows);
+                    Runnable write = duringScan;
+                    duringScan = () -> { };
+                    write.run();
+                    yield scanned;
+                }
+                case "findVersionsByIdIn" -> {
+                    List<Object[]> found = new ArrayList<>();
+                    for (Object id : (Iterable<?>) args[0]) {
+                        if (versions.containsKey(id)) {
+                            found.add(new Object[]{id, versions.get(id)});
+                        }
+                    }
+                    yield found;
+                }
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+
+    /** Runs the scan's transaction callbacks without a database. */
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+
+    private final OrderStatistics statistics = new OrderStatistics(orderRepository, new NoOpTransactionManager(),
+            new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class), 0);
+
+    @AfterEach
+    void shutdown() {
+        statistics.shutdown();
+    }
+
+    private static Object[] row(OrderStatus status, PaymentStatus paymentStatus, long count, String total) {
+        return new Object[]{status, paymentStatus, count, new BigDecimal(total), BigDecimal.ZERO};
+    }
+
+    /** Order 1 as loaded: PENDING, 10.00, at {@code version}. */
+    private static Order pendingOrder(long version) {
+        Order order = Order.builder()
+                .status(OrderStatus.PENDING)
+                .paymentStatus(PaymentStatus.PENDING)
+                .totalAmount(new BigDecimal("10.00"))
+                .refundAmount(BigDecimal.ZERO)
+                .version(version)
+                .build();
+        order.setId(1L);
+        order.setIsActive(true);
+        order.setTally(OrderTally.of(order));
+        return order;
+    }
+
+    /** Commits a confirmation of order 1 from another thread, as a request outside the scan would. */
+    private void confirmElsewhere() {
+        Order order = pendingOrder(0);
+        order.setStatus(OrderStatus.CONFIRMED);
+        order.setVersion(1L);
+        CompletableFuture.runAsync(() -> statistics.record(order)).join();
+    }
+
+    private static long count(OrderStats stats, OrderStatus status) {
+        OrderStats.Totals bucket = stats.getByStatus().get(status);
+        return bucket == null ? 0 : bucket.getCount();
+    }
+
+    @Test
+    @DisplayName("A write committed after the scan's snapshot is added to the scan")
+    void addsWritesTheSnapshotMissed() {
+        rows.add(row(OrderStatus.PENDING, PaymentStatus.PENDING, 1, "10.00"));
+        statistics.reconcile();
+
+        versions.put(1L, 0L);
+        duringScan = this::confirmElsewhere;
+        statistics.reconcile();
+
+        OrderStats stats = statistics.snapshot();
+        assertThat(count(stats, OrderStatus.PENDING)).isZero();
+        assertThat(count(stats, OrderStatus.CONFIRMED)).isEqualTo(1);
+        assertThat(statistics.status().drifts()).isZero();
+    }
+
+    @Test
+    @DisplayName("A write the scan's snapshot already has is not counted twice")
+    void skipsWritesTheSnapshotHas() {
+        rows.add(row(OrderStatus.PENDING, PaymentStatus.PENDING, 1, "10.00"));
+        statistics.reconcile();
+
+        rows.clear();
+        rows.add(row(OrderStatus.CONFIRMED, PaymentStatus.PENDING, 1, "10.00"));
+        versions.put(1L, 1L);
+        duringScan = this::confirmElsewhere;
+        statistics.reconcile();
+
+        OrderStats stats = statistics.snapshot();
+        assertThat(stats.getTotalOrders()).isEqualTo(1);
+        assertThat(count(stats, OrderStatus.CONFIRMED)).isEqualTo(1);
+        assertThat(statistics.status().drifts()).isZero();
+    }
+
+    @Test
+    @DisplayName("Changes that bypassed the statistics show up as drift and are replaced by the scan")
+    void resetsDrift() {
+        rows.add(row(OrderStatus.PENDING, PaymentStatus.PENDING, 1, "10.00"));
+        statistics.reconcile();
+
+        rows.add(row(OrderStatus.DELIVERED, PaymentStatus.PAID, 2, "30.00"));
+        statistics.reconcile();
+
+        assertThat(statistics.status().drifts()).isEqualTo(1);
+        assertThat(statistics.snapshot().getTotalOrders()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("A failed startup scan is retried by the first read instead of serving empty totals")
+    void firstReadSeedsAfterFailedStartup() {
+        rows.add(row(OrderStatus.PENDING, PaymentStatus.PENDING, 4, "40.00"));
+        scanFailure = new IllegalStateException("database unavailable");
+        statistics.seed();
+        assertThat(statistics.status().reconciledAt()).isNull();
+
+        assertThat(statistics.snapshot().getTotalOrders()).isEqualTo(4);
+        assertThat(statistics.status().reconciledAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("A read fails while the totals cannot be seeded")
+    void readFailsWhileUnseeded() {
+        scanFailure = new IllegalStateException("database unavailable");
+
+        assertThatThrownBy(statistics::snapshot).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,61 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.stats;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderStats;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.PaymentStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderTotalsTest {
+
+    @Test
+    @DisplayName("Transitions move orders between statuses and keep revenue net of refunds")
+    void appliesTransitions() {
+        OrderTotals totals = new OrderTotals();
+        OrderTally pending = new OrderTally(OrderStatus.PENDING, PaymentStatus.PENDING, 10_000, 0);
+        OrderTally paid = new OrderTally(OrderStatus.CONFIRMED, PaymentStatus.PAID, 10_000, 0);
+        OrderTally other = new OrderTally(OrderStatus.DELIVERED, PaymentStatus.PAID, 5_050, 0);
+        OrderTally refunded = new OrderTally(OrderStatus.REFUNDED, PaymentStatus.PARTIALLY_REFUNDED, 5_050, 2_000);
+
+        totals.apply(null, pending);
+        totals.apply(null, other);
+        totals.apply(pending, paid);
+        totals.apply(other, refunded);
+
+        OrderStats stats = totals.toStats();
+        assertThat(stats.getTotalOrders()).isEqualTo(2);
+        assertThat(stats.getPendingOrders()).isZero();
+        assertThat(stats.getRefundedOrders()).isEqualTo(1);
+        assertThat(stats.getTotalRevenue()).isEqualByComparingTo("130.50");
+        assertThat(stats.getTotalRefunds()).isEqualByComparingTo("20.00");
+        assertThat(stats.getAverageOrderValue()).isEqualByComparingTo("75.25");
+        assertThat(stats.getByStatus().get(OrderStatus.CONFIRMED).getCount()).isEqualTo(1);
+        assertThat(stats.getByPaymentStatus().get(PaymentStatus.PENDING).getAmount()).isEqualByComparingTo(BigDecimal.ZERO);
+
+        totals.apply(paid, null);
+        assertThat(totals.toStats().getTotalOrders()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Totals built incrementally match a scan of the same orders")
+    void detectsDrift() {
+        OrderTotals incremental = new OrderTotals();
+        incremental.apply(null, new OrderTally(OrderStatus.PENDING, PaymentStatus.PENDING, 1_000, 0));
+        incremental.apply(new OrderTally(OrderStatus.PENDING, PaymentStatus.PENDING, 1_000, 0),
+                new OrderTally(OrderStatus.CANCELLED, PaymentStatus.PENDING, 1_000, 0));
+
+        OrderTotals scanned = new OrderTotals();
+        scanned.add(OrderStatus.CANCELLED, PaymentStatus.PENDING, 1, 1_000, 0);
+        assertThat(incremental.differences(scanned)).isEmpty();
+
+        scanned.add(OrderStatus.SHIPPED, PaymentStatus.PAID, 1, 4_200, 0);
+        assertThat(incremental.differences(scanned)).singleElement().asString().startsWith("SHIPPED/PAID");
+
+        incremental.copyFrom(scanned);
+        assertThat(incremental.differences(scanned)).isEmpty();
+    }
+}
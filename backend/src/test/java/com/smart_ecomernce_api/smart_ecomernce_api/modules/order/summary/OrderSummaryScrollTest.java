@@ -0,0 +1,160 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.summary;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.pagination.KeysetSort;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.OrderSummaryResponse;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.Order;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderItem;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderSummary;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.PaymentStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.OrderSummaryRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.service.OrderService;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderSummaryScrollTest {
+
+    private static final Sort NEWEST_FIRST = KeysetSort.of("createdAt").resolve("createdAt", Sort.Direction.DESC);
+
+    @Autowired
+    private OrderSummaryRepository summaryRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderSummaryProjector projector;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final long userId = System.nanoTime();
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 12, 0);
+        for (int i = 0; i < 5; i++) {
+            long id = userId + i;
+            ids.add(id);
+            summaryRepository.save(OrderSummary.builder()
+                    .id(id)
+                    .userId(userId)
+                    .orderNumber("ORD-" + id)
+                    .status(i % 2 == 0 ? OrderStatus.PENDING : OrderStatus.DELIVERED)
+                    .paymentStatus(PaymentStatus.PENDING)
+                    .totalAmount(BigDecimal.TEN)
+                    .itemCount(i + 1)
+                    .firstItemName("Item " + i)
+                    .createdAt(start.plusMinutes(i))
+                    .updatedAt(start)
+                    .build());
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        summaryRepository.deleteAllById(ids);
+    }
+
+    @Test
+    @DisplayName("Order history scrolls newest first in keyset pages, optionally by status")
+    void scrollsUserHistory() {
+        Window<OrderSummaryResponse> first =
+                orderService.scrollUserOrderSummaries(userId, null, ScrollPosition.keyset(), NEWEST_FIRST, 2);
+        assertThat(first.getContent()).extracting(OrderSummaryResponse::getFirstItemName)
+                .containsExactly("Item 4", "Item 3");
+        assertThat(first.hasNext()).isTrue();
+
+        Window<OrderSummaryResponse> second = orderService.scrollUserOrderSummaries(
+                userId, null, first.positionAt(first.size() - 1), NEWEST_FIRST, 2);
+        assertThat(second.getContent()).extracting(OrderSummaryResponse::getFirstItemName)
+                .containsExactly("Item 2", "Item 1");
+
+        Window<OrderSummaryResponse> pending = orderService.scrollUserOrderSummaries(
+                userId, OrderStatus.PENDING, ScrollPosition.keyset(), NEWEST_FIRST, 10);
+        assertThat(pending.getContent()).extracting(OrderSummaryResponse::getItemCount).containsExactly(5, 3, 1);
+        assertThat(pending.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Inserting a summary an order already has keeps the existing row instead of failing")
+    void insertIfAbsentKeepsExistingSummary() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        OrderSummary existing = summaryRepository.findById(ids.get(0)).orElseThrow();
+        existing.setFirstItemName("Stale");
+        long newId = userId + ids.size();
+        ids.add(newId);
+        OrderSummary added = OrderSummary.builder()
+                .id(newId)
+                .userId(userId)
+                .orderNumber("ORD-" + newId)
+                .status(OrderStatus.CONFIRMED)
+                .paymentStatus(PaymentStatus.PAID)
+                .totalAmount(BigDecimal.ONE)
+                .itemCount(1)
+                .createdAt(LocalDateTime.of(2026, 2, 1, 12, 0))
+                .updatedAt(LocalDateTime.of(2026, 2, 1, 12, 0))
+                .build();
+
+        Integer keptExisting = transaction.execute(status -> summaryRepository.insertIfAbsent(existing));
+        Integer insertedNew = transaction.execute(status -> summaryRepository.insertIfAbsent(added));
+
+        assertThat(keptExisting).isZero();
+        assertThat(insertedNew).isEqualTo(1);
+
+        assertThat(summaryRepository.findById(ids.get(0)).orElseThrow().getFirstItemName()).isEqualTo("Item 0");
+        OrderSummary inserted = summaryRepository.findById(newId).orElseThrow();
+        assertThat(inserted.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+        assertThat(inserted.getTotalAmount()).isEqualByComparingTo("1.00");
+    }
+
+    @Test
+    @DisplayName("The summary shows the order's lowest-id item, whatever order the items were loaded in")
+    void firstItemIsLowestId() {
+        long orderId = userId + ids.size();
+        ids.add(orderId);
+        User user = new User();
+        user.setId(userId);
+        Order order = Order.builder().orderNumber("ORD-" + orderId).user(user).build();
+        order.setId(orderId);
+        order.setIsActive(true);
+        for (long itemId : List.of(9L, 3L, 5L)) {
+            OrderItem item = OrderItem.builder()
+                    .productName("Item " + itemId)
+                    .productImageUrl("/img/" + itemId + ".png")
+                    .quantity(1)
+                    .unitPrice(BigDecimal.ONE)
+                    .build();
+            item.setId(itemId);
+            order.getOrderItems().add(item);
+        }
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> projector.project(order));
+
+        OrderSummary summary = summaryRepository.findById(orderId).orElseThrow();
+        assertThat(summary.getFirstItemName()).isEqualTo("Item 3");
+        assertThat(summary.getFirstItemThumbnail()).isEqualTo("/img/3.png");
+        assertThat(summary.getItemCount()).isEqualTo(3);
+    }
+}
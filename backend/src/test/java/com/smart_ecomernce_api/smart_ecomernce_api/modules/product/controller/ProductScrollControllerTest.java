@@ -0,0 +1,69 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.graphql.data.pagination.CursorStrategy;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductScrollControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CursorStrategy<ScrollPosition> cursorStrategy;
+
+    @Test
+    @DisplayName("GET /v1/products/scroll starts a listing without a cursor")
+    void scrollsFromStart() throws Exception {
+        mockMvc.perform(get("/v1/products/scroll").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content").isArray());
+    }
+
+    @Test
+    @DisplayName("A malformed cursor is a 400, not a 500")
+    void malformedCursorIsBadRequest() throws Exception {
+        mockMvc.perform(get("/v1/products/scroll").param("cursor", "!!!not-base64"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v1/products/scroll").param("cursor", "S19bIm"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("A cursor issued for the price sort is a 400 under the default createdAt sort")
+    void cursorFromOtherSortIsBadRequest() throws Exception {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("price", new BigDecimal("9.99"));
+        keys.put("id", 3L);
+        String cursor = cursorStrategy.toCursor(ScrollPosition.forward(keys));
+
+        mockMvc.perform(get("/v1/products/scroll").param("cursor", cursor).param("sortBy", "price"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/v1/products/scroll").param("cursor", cursor))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Scrolling by a property that is not whitelisted is a 400")
+    void unknownSortIsBadRequest() throws Exception {
+        mockMvc.perform(get("/v1/products/scroll").param("sortBy", "costPrice"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,295 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.inventory;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.InsufficientStockException;
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.ServiceBusyException;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.category.entity.Category;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.category.repository.CategoryRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.InventoryStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.Product;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.HotStockCheckpointRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "inventory.hot-stock.enabled=true",
+        "inventory.hot-stock.shards=8",
+        "inventory.hot-stock.disable-timeout-ms=1000",
+        "inventory.hot-stock.journal-path=${java.io.tmpdir}/hot-stock-test-${random.uuid}.journal"
+})
+@ActiveProfiles("test")
+class HotStockServiceTest {
+
+    private static final int CHECKOUTS = 200;
+    private static final int STOCK = 50;
+
+    @Autowired
+    private HotStockService hotStockService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private HotStockCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Category category;
+    private Product product;
+
+    @BeforeEach
+    void seed() {
+        String slug = "hot-stock-test-" + System.nanoTime();
+        category = categoryRepository.save(Category.builder().name("Hot").slug(slug).build());
+        product = saveProduct(slug);
+    }
+
+    private Product saveProduct(String slug) {
+        Product draft = Product.builder()
+                .name(slug)
+                .slug(slug)
+                .sku(slug.toUpperCase())
+                .price(BigDecimal.TEN)
+                .stockQuantity(STOCK)
+                .category(category)
+                .build();
+        draft.updateInventoryStatus();
+        return productRepository.save(draft);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        if (hotStockService.isHot(product.getId())) {
+            hotStockService.disable(product.getId());
+        }
+        checkpointRepository.deleteById(product.getId());
+        productRepository.deleteById(product.getId());
+        categoryRepository.deleteById(category.getId());
+    }
+
+    @Test
+    @DisplayName("200 parallel hot checkouts sell exactly the stock, and the row catches up on disable")
+    void parallelHotCheckoutsDoNotOversell() throws Exception {
+        hotStockService.enable(product.getId());
+
+        AtomicLong orderIds = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>(CHECKOUTS);
+        try {
+            for (int i = 0; i < CHECKOUTS; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        transactionTemplate.executeWithoutResult(
+                                tx -> hotStockService.checkout(orderIds.incrementAndGet(), Map.of(product.getId(), 1)));
+                        return true;
+                    } catch (InsufficientStockException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int sold = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(2, TimeUnit.MINUTES)) {
+                    sold++;
+                }
+            }
+            assertThat(sold).isEqualTo(STOCK);
+            assertThat(hotStockService.snapshot(product.getId()).orElseThrow().available()).isZero();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        hotStockService.disable(product.getId());
+
+        Product after = productRepository.findById(product.getId()).orElseThrow();
+        assertThat(after.getStockQuantity()).isZero();
+        assertThat(after.getInventoryStatus()).isEqualTo(InventoryStatus.OUT_OF_STOCK);
+        assertThat(checkpointRepository.findById(product.getId())).isPresent();
+    }
+
+    @Test
+    @DisplayName("A rolled-back checkout and a release give their units back")
+    void rollbackAndReleaseReturnUnits() {
+        hotStockService.enable(product.getId());
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            hotStockService.checkout(1L, Map.of(product.getId(), 5));
+            tx.setRollbackOnly();
+        });
+        assertThat(hotStockService.reserve(product.getId(), 10)).isTrue();
+        assertThat(hotStockService.release(product.getId(), 4)).isTrue();
+        assertThat(hotStockService.snapshot(product.getId()).orElseThrow())
+                .isEqualTo(new HotStockService.Snapshot(STOCK - 6, 6, STOCK));
+
+        hotStockService.disable(product.getId());
+
+        Product after = productRepository.findById(product.getId()).orElseThrow();
+        assertThat(after.getStockQuantity()).isEqualTo(STOCK);
+        assertThat(after.getReservedQuantity()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("A checkout that fails to commit after it was journalled gives its units back and never reaches the row")
+    void checkoutFailingAtCommitIsNotFlushed() {
+        hotStockService.enable(product.getId());
+
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(tx -> {
+            hotStockService.checkout(1L, Map.of(product.getId(), 5));
+            // Runs after the hot-stock synchronization has journalled the checkout.
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    throw new IllegalStateException("commit failed");
+                }
+            });
+        })).hasMessage("commit failed");
+        assertThat(hotStockService.snapshot(product.getId()).orElseThrow())
+                .isEqualTo(new HotStockService.Snapshot(STOCK, 0, STOCK));
+
+        hotStockService.disable(product.getId());
+
+        Product after = productRepository.findById(product.getId()).orElseThrow();
+        assertThat(after.getStockQuantity()).isEqualTo(STOCK);
+    }
+
+    @Test
+    @DisplayName("disable() waits for a checkout still in its transaction, without blocking other products")
+    void disableWaitsForOpenCheckout() throws Exception {
+        hotStockService.enable(product.getId());
+        CountDownLatch checkedOut = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> checkout = pool.submit(() -> transactionTemplate.executeWithoutResult(tx -> {
+                hotStockService.checkout(1L, Map.of(product.getId(), 3));
+                checkedOut.countDown();
+                try {
+                    commit.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            checkedOut.await();
+            Future<?> disable = pool.submit(() -> hotStockService.disable(product.getId()));
+
+            Thread.sleep(200);
+            assertThat(disable).isNotDone();
+            assertThat(hotStockService.isHot(product.getId())).isTrue();
+
+            commit.countDown();
+            checkout.get(1, TimeUnit.MINUTES);
+            disable.get(1, TimeUnit.MINUTES);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(hotStockService.isHot(product.getId())).isFalse();
+        Product after = productRepository.findById(product.getId()).orElseThrow();
+        assertThat(after.getStockQuantity()).isEqualTo(STOCK - 3);
+    }
+
+    @Test
+    @DisplayName("disable() keeps a product hot while another product's committing checkout holds the flush back")
+    void disableFailsWhileFlushIsBlocked() throws Exception {
+        Product other = saveProduct("hot-stock-other-" + System.nanoTime());
+        hotStockService.enable(product.getId());
+        hotStockService.enable(other.getId());
+        CountDownLatch journalled = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            // The other product's checkout is journalled as PENDING, then waits before committing.
+            Future<?> checkout = pool.submit(() -> transactionTemplate.executeWithoutResult(tx -> {
+                hotStockService.checkout(1L, Map.of(other.getId(), 1));
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void beforeCommit(boolean readOnly) {
+                        journalled.countDown();
+                        try {
+                            commit.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                });
+            }));
+            assertThat(journalled.await(1, TimeUnit.MINUTES)).isTrue();
+            assertThat(hotStockService.reserve(product.getId(), 2)).isTrue();
+
+            assertThatThrownBy(() -> hotStockService.disable(product.getId()))
+                    .isInstanceOf(ServiceBusyException.class);
+            assertThat(hotStockService.isHot(product.getId())).isTrue();
+            assertThat(productRepository.findById(product.getId()).orElseThrow().getReservedQuantity()).isZero();
+            assertThat(hotStockService.reserve(product.getId(), 1)).isTrue();
+
+            commit.countDown();
+            checkout.get(1, TimeUnit.MINUTES);
+            hotStockService.disable(product.getId());
+            hotStockService.disable(other.getId());
+        } finally {
+            commit.countDown();
+            pool.shutdownNow();
+        }
+
+        assertThat(hotStockService.isHot(product.getId())).isFalse();
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getReservedQuantity()).isEqualTo(3);
+        assertThat(productRepository.findById(other.getId()).orElseThrow().getStockQuantity()).isEqualTo(STOCK - 1);
+        checkpointRepository.deleteById(other.getId());
+        productRepository.deleteById(other.getId());
+    }
+
+    @Test
+    @DisplayName("Reading a journal stops at a torn record")
+    void journalReadStopsAtTornRecord(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("hot-stock.journal");
+        try (ReservationJournal journal = new ReservationJournal(file, 0, 1, entry -> { })) {
+            journal.append(ReservationJournal.Type.ENABLE, 7L, 0, 0).join();
+            journal.append(ReservationJournal.Type.CHANGE, 7L, 2, -3).join();
+            journal.append(ReservationJournal.Type.PENDING, 7L, 0, -1, 42L).join();
+        }
+        Files.write(file, new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+
+        ReservationJournal.Replay replay = ReservationJournal.read(file);
+
+        assertThat(replay.entries()).containsExactly(
+                new ReservationJournal.Entry(1, ReservationJournal.Type.ENABLE, 7L, 0, 0),
+                new ReservationJournal.Entry(2, ReservationJournal.Type.CHANGE, 7L, 2, -3),
+                new ReservationJournal.Entry(3, ReservationJournal.Type.PENDING, 7L, 0, -1, 42L));
+        assertThat(replay.validLength()).isEqualTo(3L * ReservationJournal.RECORD_SIZE);
+    }
+}
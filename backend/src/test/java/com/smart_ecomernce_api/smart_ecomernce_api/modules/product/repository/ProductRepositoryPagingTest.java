@@ -0,0 +1,119 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.category.entity.Category;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.Product;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.ProductImage;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.ProductPredicates;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+class ProductRepositoryPagingTest {
+
+    private static final int PRODUCTS = 30;
+    private static final int IMAGES_PER_PRODUCT = 3;
+    private static final int PAGE_SIZE = 5;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Long categoryId;
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        Category category = Category.builder()
+                .name("Paging")
+                .slug("paging-test-" + System.nanoTime())
+                .build();
+        entityManager.persist(category);
+        categoryId = category.getId();
+
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = Product.builder()
+                    .name("Paging product " + i)
+                    .slug(category.getSlug() + "-" + i)
+                    .sku(category.getSlug() + "-SKU-" + i)
+                    .price(BigDecimal.valueOf(10 + i))
+                    .category(category)
+                    .build();
+            for (int j = 0; j < IMAGES_PER_PRODUCT; j++) {
+                product.getImages().add(ProductImage.builder()
+                        .product(product)
+                        .imageUrl("https://img.example/" + i + "/" + j + ".png")
+                        .build());
+            }
+            entityManager.persist(product);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Paged @Query method loads only the page, with images, in sort order")
+    void queryMethodLoadsOnlyThePage() {
+        Page<Product> page = productRepository.findByCategoryIdAndIsActiveTrue(categoryId,
+                PageRequest.of(1, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "price")));
+
+        assertBounded(page);
+        assertThat(page.getContent())
+                .extracting(Product::getPrice)
+                .isSortedAccordingTo((a, b) -> b.compareTo(a));
+    }
+
+    @Test
+    @DisplayName("Predicate findAll loads only the page, with images, in sort order")
+    void predicateFindAllLoadsOnlyThePage() {
+        Page<Product> page = productRepository.findAll(
+                ProductPredicates.builder().withCategoryId(categoryId).build(),
+                PageRequest.of(0, PAGE_SIZE, Sort.by("price")));
+
+        assertBounded(page);
+        assertThat(page.getContent())
+                .extracting(Product::getPrice)
+                .isSorted();
+    }
+
+    /**
+     * Id page + count + one hydrating fetch join, and no more product rows
+     * loaded than the page holds; in-memory paging would load every match.
+     */
+    private void assertBounded(Page<Product> page) {
+        List<Product> content = page.getContent();
+        assertThat(content).hasSize(PAGE_SIZE);
+        assertThat(page.getTotalElements()).isEqualTo(PRODUCTS);
+        assertThat(content).allSatisfy(product -> {
+            assertThat(Hibernate.isInitialized(product.getImages())).isTrue();
+            assertThat(product.getImages()).hasSize(IMAGES_PER_PRODUCT);
+        });
+
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+        assertThat(statistics.getEntityStatistics(Product.class.getName()).getLoadCount())
+                .isEqualTo(PAGE_SIZE);
+    }
+}
@@ -0,0 +1,142 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.InsufficientStockException;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.category.entity.Category;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.category.repository.CategoryRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.InventoryStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductStockRepositoryConcurrencyTest {
+
+    private static final int CHECKOUTS = 200;
+    private static final int SCARCE_STOCK = 50;
+    private static final int AMPLE_STOCK = 500;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Category category;
+    private Product scarce;
+    private Product ample;
+
+    @BeforeEach
+    void seed() {
+        String slug = "stock-test-" + System.nanoTime();
+        category = categoryRepository.save(Category.builder().name("Stock").slug(slug).build());
+        scarce = productRepository.save(product(slug + "-scarce", SCARCE_STOCK));
+        ample = productRepository.save(product(slug + "-ample", AMPLE_STOCK));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAllById(List.of(scarce.getId(), ample.getId()));
+        categoryRepository.deleteById(category.getId());
+    }
+
+    @Test
+    @DisplayName("200 parallel checkouts sell exactly the available stock and never oversell")
+    void parallelCheckoutsDoNotOversell() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(CHECKOUTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>(CHECKOUTS);
+        try {
+            for (int i = 0; i < CHECKOUTS; i++) {
+                // Alternate line order so checkouts would deadlock without id ordering.
+                Map<Long, Integer> lines = new LinkedHashMap<>();
+                if (i % 2 == 0) {
+                    lines.put(scarce.getId(), 1);
+                    lines.put(ample.getId(), 1);
+                } else {
+                    lines.put(ample.getId(), 1);
+                    lines.put(scarce.getId(), 1);
+                }
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        transactionTemplate.executeWithoutResult(tx -> productRepository.deductForCheckout(lines));
+                        return true;
+                    } catch (InsufficientStockException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int sold = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(2, TimeUnit.MINUTES)) {
+                    sold++;
+                }
+            }
+
+            Product scarceAfter = productRepository.findById(scarce.getId()).orElseThrow();
+            Product ampleAfter = productRepository.findById(ample.getId()).orElseThrow();
+            assertThat(sold).isEqualTo(SCARCE_STOCK);
+            assertThat(scarceAfter.getStockQuantity()).isZero();
+            assertThat(scarceAfter.getInventoryStatus()).isEqualTo(InventoryStatus.OUT_OF_STOCK);
+            // Failed checkouts rolled back their line on the ample product too.
+            assertThat(ampleAfter.getStockQuantity()).isEqualTo(AMPLE_STOCK - sold);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("A short line rolls back every line of the checkout")
+    void shortLineRollsBackWholeCheckout() {
+        Map<Long, Integer> lines = Map.of(ample.getId(), 3, scarce.getId(), SCARCE_STOCK + 1);
+
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(
+                tx -> productRepository.deductForCheckout(lines)))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining("Requested: " + (SCARCE_STOCK + 1));
+
+        assertThat(productRepository.findById(ample.getId()).orElseThrow().getStockQuantity())
+                .isEqualTo(AMPLE_STOCK);
+        assertThat(productRepository.findById(scarce.getId()).orElseThrow().getStockQuantity())
+                .isEqualTo(SCARCE_STOCK);
+    }
+
+    private Product product(String slug, int stock) {
+        Product product = Product.builder()
+                .name(slug)
+                .slug(slug)
+                .sku(slug.toUpperCase())
+                .price(BigDecimal.TEN)
+                .stockQuantity(stock)
+                .category(category)
+                .build();
+        product.updateInventoryStatus();
+        return product;
+    }
+}
@@ -0,0 +1,161 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Limit;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IncrementalIndexLifecycleTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @TempDir
+    Path dir;
+
+    private final List<IncrementalIndexLifecycle> started = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        started.forEach(IncrementalIndexLifecycle::shutdown);
+    }
+
+    /** A products table of rows {id, name, updatedAt, isActive}, indexed into a {@link ProductSearchIndex}. */
+    private static final class Table implements IncrementalIndexLifecycle.Binding {
+
+        final ConcurrentSkipListMap<Long, Object[]> rows = new ConcurrentSkipListMap<>();
+        final ProductSearchIndex index = new ProductSearchIndex();
+        final AtomicInteger batchReads = new AtomicInteger();
+        Runnable duringSecondBatch = () -> {};
+
+        void write(long id, String name, LocalDateTime updatedAt, boolean active) {
+            rows.put(id, new Object[]{id, name, updatedAt, active});
+        }
+
+        @Override
+        public List<Object[]> findActiveAfterId(long afterId, Limit limit) {
+            if (batchReads.incrementAndGet() == 2) {
+                duringSecondBatch.run();
+            }
+            return rows.tailMap(afterId, false).values().stream()
+                    .filter(row -> (Boolean) row[3])
+                    .limit(limit.max())
+                    .toList();
+        }
+
+        @Override
+        public List<Object[]> findUpdatedAfter(LocalDateTime since) {
+            return rows.values().stream().filter(row -> ((LocalDateTime) row[2]).isAfter(since)).toList();
+        }
+
+        @Override
+        public LocalDateTime updatedAt(Object[] row) {
+            return (LocalDateTime) row[2];
+        }
+
+        @Override
+        public void apply(Object[] row) {
+            if ((Boolean) row[3]) {
+                index.put((Long) row[0], ProductTextAnalyzer.analyze((String) row[1], null, null, null));
+            } else {
+                index.remove((Long) row[0]);
+            }
+        }
+
+        @Override
+        public IncrementalIndexLifecycle.Rebuild startRebuild() {
+            Map<Long, Map<String, Float>> documents = new HashMap<>();
+            return new IncrementalIndexLifecycle.Rebuild() {
+                @Override
+                public void add(Object[] row) {
+                    documents.put((Long) row[0], ProductTextAnalyzer.analyze((String) row[1], null, null, null));
+                }
+
+                @Override
+                public int publish() {
+                    index.replaceAll(documents);
+                    return documents.size();
+                }
+            };
+        }
+    }
+
+    private IncrementalIndexLifecycle start(Table table, Path snapshot) throws InterruptedException {
+        IncrementalIndexLifecycle lifecycle = new IncrementalIndexLifecycle("test", table, table.index, snapshot, 0x54455354);
+        started.add(lifecycle);
+        lifecycle.start(3600);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!lifecycle.isReady()) {
+            assertThat(System.nanoTime()).as("index loading").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+        return lifecycle;
+    }
+
+    @Test
+    @DisplayName("A rebuild reads active rows in batches and catches up writes made while it ran")
+    void rebuildCatchesUpConcurrentWrites() throws Exception {
+        Table table = new Table();
+        for (long id = 1; id <= 2_500; id++) {
+            table.write(id, "widget " + id, T0.plusSeconds(id), id != 7);
+        }
+        // Committed behind the first batch while the second is being read.
+        table.duringSecondBatch = () -> table.write(1, "gadget 1", T0.plusDays(1), true);
+
+        IncrementalIndexLifecycle lifecycle = start(table, dir.resolve("test.idx"));
+
+        assertThat(table.batchReads).hasValue(3);
+        assertThat(table.index.stats().documents()).isEqualTo(2_499);
+        assertThat(table.index.search("gadget", 10)).containsExactly(1L);
+        assertThat(lifecycle.watermark()).isEqualTo(T0.plusDays(1));
+    }
+
+    @Test
+    @DisplayName("A restart restores the snapshot and only catches up, without rebuilding")
+    void restartRestoresSnapshot() throws Exception {
+        Path snapshot = dir.resolve("test.idx");
+        Table table = new Table();
+        table.write(1, "widget one", T0, true);
+        table.write(2, "widget two", T0.plusMinutes(1), true);
+        start(table, snapshot).shutdown();
+        assertThat(snapshot).exists();
+
+        Table restarted = new Table();
+        restarted.rows.putAll(table.rows);
+        restarted.write(2, "widget two", T0.plusMinutes(2), false);
+        restarted.write(3, "gadget three", T0.plusMinutes(3), true);
+        IncrementalIndexLifecycle lifecycle = start(restarted, snapshot);
+
+        assertThat(restarted.batchReads).hasValue(0);
+        assertThat(restarted.index.search("widget", 10)).containsExactly(1L);
+        assertThat(restarted.index.search("gadget", 10)).containsExactly(3L);
+        assertThat(lifecycle.watermark()).isEqualTo(T0.plusMinutes(3));
+    }
+
+    @Test
+    @DisplayName("An unreadable snapshot is ignored and the index is rebuilt")
+    void unreadableSnapshotRebuilds() throws Exception {
+        Path snapshot = dir.resolve("test.idx");
+        Files.writeString(snapshot, "not a snapshot");
+        Table table = new Table();
+        table.write(1, "widget one", T0, true);
+
+        start(table, snapshot);
+
+        assertThat(table.batchReads).hasValue(1);
+        assertThat(table.index.search("widget", 10)).containsExactly(1L);
+    }
+}
@@ -0,0 +1,165 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.search;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.category.entity.Category;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductFilterRequest;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.InventoryStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.Product;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ProductFacetEngineTest {
+
+    @Autowired
+    private ProductFacetEngine facetEngine;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private String keyword;
+    private Category first;
+    private Category second;
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        keyword = "facettest" + System.nanoTime();
+        first = category("first");
+        second = category("second");
+        product(first, "5.00", null, true, false);
+        product(first, "15.00", "12.00", false, true);
+        product(first, "30.00", null, true, true);
+        product(second, "15.00", null, false, false);
+        product(second, "3000.00", "2500.00", true, false);
+        // Excluded from every count: inactive.
+        Product inactive = product(second, "20.00", null, true, true);
+        inactive.setIsActive(false);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Category category(String name) {
+        Category category = Category.builder()
+                .name(keyword + " " + name)
+                .slug(keyword + "-" + name)
+                .build();
+        entityManager.persist(category);
+        return category;
+    }
+
+    private Product product(Category category, String price, String discountPrice, boolean featured, boolean isNew) {
+        Product product = Product.builder()
+                .name(keyword + " product " + ids.size())
+                .slug(keyword + "-" + ids.size())
+                .sku(keyword + "-SKU-" + ids.size())
+                .price(new BigDecimal(price))
+                .discountPrice(discountPrice != null ? new BigDecimal(discountPrice) : null)
+                .stockQuantity(100)
+                .featured(featured)
+                .isNew(isNew)
+                .category(category)
+                .build();
+        entityManager.persist(product);
+        ids.add(product.getId());
+        return product;
+    }
+
+    /** The facet index over the seeded products, as the engine would build it from the same rows. */
+    private ProductFacetIndex.Facets fromIndex(ProductFilterRequest filter) {
+        ProductFacetIndex index = new ProductFacetIndex();
+        index.replaceAll(productRepository.findFacetFieldsByIdIn(ids).stream()
+                .filter(row -> Boolean.TRUE.equals(row[9]))
+                .map(row -> {
+                    Set<ProductFacetIndex.Flag> flags = EnumSet.noneOf(ProductFacetIndex.Flag.class);
+                    if (Boolean.TRUE.equals(row[5])) {
+                        flags.add(ProductFacetIndex.Flag.FEATURED);
+                    }
+                    if (Boolean.TRUE.equals(row[6])) {
+                        flags.add(ProductFacetIndex.Flag.NEW);
+                    }
+                    if (Boolean.TRUE.equals(row[7])) {
+                        flags.add(ProductFacetIndex.Flag.BESTSELLER);
+                    }
+                    if (row[3] != null && ((BigDecimal) row[3]).signum() > 0) {
+                        flags.add(ProductFacetIndex.Flag.DISCOUNTED);
+                    }
+                    return new ProductFacetIndex.Document((Long) row[0], (Long) row[1], (BigDecimal) row[2],
+                            (InventoryStatus) row[4], flags);
+                })
+                .toList());
+        return index.facets(ProductFacetEngine.query(filter, null));
+    }
+
+    private static Map<InventoryStatus, Integer> nonZero(Map<InventoryStatus, Integer> statuses) {
+        return statuses.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    private void assertSameCounts(ProductFilterRequest filter) {
+        ProductFacetIndex.Facets database = facetEngine.facetsFromDatabase(filter);
+        ProductFacetIndex.Facets index = fromIndex(filter);
+
+        assertThat(database.total()).isEqualTo(index.total());
+        assertThat(database.categories()).isEqualTo(index.categories());
+        assertThat(nonZero(database.inventoryStatuses())).isEqualTo(nonZero(index.inventoryStatuses()));
+        assertThat(database.priceRanges()).isEqualTo(index.priceRanges());
+        assertThat(database.flags()).isEqualTo(index.flags());
+    }
+
+    @Test
+    @DisplayName("The database fallback gives the index's disjunctive counts")
+    void databaseCountsMatchIndex() {
+        ProductFilterRequest filter = ProductFilterRequest.builder()
+                .keyword(keyword)
+                .categoryId(first.getId())
+                .featured(true)
+                .build();
+
+        ProductFacetIndex.Facets facets = facetEngine.facetsFromDatabase(filter);
+
+        assertThat(facets.total()).isEqualTo(2);
+        assertThat(facets.categories()).containsExactly(Map.entry(first.getId(), 2), Map.entry(second.getId(), 1));
+        assertThat(facets.flags()).containsEntry(ProductFacetIndex.Flag.FEATURED, 2)
+                .containsEntry(ProductFacetIndex.Flag.NEW, 1)
+                .containsEntry(ProductFacetIndex.Flag.DISCOUNTED, 0);
+        assertSameCounts(filter);
+    }
+
+    @Test
+    @DisplayName("Price and flag constraints are dropped only from their own dimension")
+    void priceAndFlagDimensions() {
+        assertSameCounts(ProductFilterRequest.builder()
+                .keyword(keyword)
+                .minPrice(new BigDecimal("10"))
+                .maxPrice(new BigDecimal("100"))
+                .isNew(true)
+                .build());
+        assertSameCounts(ProductFilterRequest.builder()
+                .keyword(keyword)
+                .hasDiscount(true)
+                .build());
+    }
+}
@@ -0,0 +1,106 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.search;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.InventoryStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductFacetIndexTest {
+
+    private final ProductFacetIndex index = new ProductFacetIndex();
+
+    private static ProductFacetIndex.Document document(long id, long categoryId, String price, InventoryStatus status,
+                                                       ProductFacetIndex.Flag... flags) {
+        Set<ProductFacetIndex.Flag> set = EnumSet.noneOf(ProductFacetIndex.Flag.class);
+        set.addAll(List.of(flags));
+        return new ProductFacetIndex.Document(id, categoryId, new BigDecimal(price), status, set);
+    }
+
+    private static ProductFacetIndex.Query query(Set<Long> categories, String min, String max,
+                                                 Map<ProductFacetIndex.Flag, Boolean> flags) {
+        return new ProductFacetIndex.Query(categories, min != null ? new BigDecimal(min) : null,
+                max != null ? new BigDecimal(max) : null, null, flags, null);
+    }
+
+    @BeforeEach
+    void seed() {
+        index.replaceAll(List.of(
+                document(1, 10, "5.00", InventoryStatus.IN_STOCK, ProductFacetIndex.Flag.FEATURED),
+                document(2, 10, "15.00", InventoryStatus.IN_STOCK),
+                document(3, 10, "30.00", InventoryStatus.LOW_STOCK, ProductFacetIndex.Flag.FEATURED),
+                document(4, 20, "15.00", InventoryStatus.OUT_OF_STOCK),
+                document(5, 20, "3000.00", InventoryStatus.IN_STOCK, ProductFacetIndex.Flag.DISCOUNTED)));
+    }
+
+    @Test
+    @DisplayName("Each dimension is counted under every constraint but its own")
+    void countsAreDisjunctive() {
+        ProductFacetIndex.Facets facets = index.facets(query(Set.of(10L), null, null,
+                Map.of(ProductFacetIndex.Flag.FEATURED, true)));
+
+        assertThat(facets.total()).isEqualTo(2);
+        // Category counts ignore the category constraint but keep the featured one.
+        assertThat(facets.categories()).containsExactly(Map.entry(10L, 2));
+        assertThat(facets.inventoryStatuses())
+                .containsEntry(InventoryStatus.IN_STOCK, 1)
+                .containsEntry(InventoryStatus.LOW_STOCK, 1)
+                .containsEntry(InventoryStatus.OUT_OF_STOCK, 0);
+        // The featured count ignores the featured constraint but keeps the category one.
+        assertThat(facets.flags())
+                .containsEntry(ProductFacetIndex.Flag.FEATURED, 2)
+                .containsEntry(ProductFacetIndex.Flag.DISCOUNTED, 0);
+    }
+
+    @Test
+    @DisplayName("Price ranges are bucketed, and a range query checks edge buckets product by product")
+    void priceRangesAndEdges() {
+        ProductFacetIndex.Facets facets = index.facets(query(null, null, null, Map.of()));
+
+        assertThat(facets.total()).isEqualTo(5);
+        assertThat(facets.priceRanges()).hasSize(ProductFacetIndex.priceBucketBounds().size());
+        assertThat(facets.priceRanges().get(0))
+                .isEqualTo(new ProductFacetIndex.PriceRange(new BigDecimal("0.00"), new BigDecimal("10.00"), 1));
+        assertThat(facets.priceRanges().get(1).count()).isEqualTo(2);
+        assertThat(facets.priceRanges().get(2).count()).isEqualTo(1);
+
+        assertThat(index.count(query(null, "14.99", "15.00", Map.of()))).isEqualTo(2);
+        assertThat(index.count(query(null, "15.01", "29.99", Map.of()))).isZero();
+        assertThat(index.count(query(null, "1000", null, Map.of()))).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Sorted search orders by price with id as the tie-breaker, and honours restrictTo")
+    void sortedSearch() {
+        ProductFacetIndex.Query all = query(null, null, null, Map.of());
+
+        assertThat(index.search(all, ProductFacetIndex.SortKey.PRICE, true)).containsExactly(1L, 2L, 4L, 3L, 5L);
+        assertThat(index.search(all, ProductFacetIndex.SortKey.ID, false)).containsExactly(5L, 4L, 3L, 2L, 1L);
+
+        ProductFacetIndex.Query restricted = new ProductFacetIndex.Query(null, null, null, null, Map.of(), List.of(2L, 5L, 99L));
+        assertThat(index.search(restricted, ProductFacetIndex.SortKey.ID, true)).containsExactly(2L, 5L);
+    }
+
+    @Test
+    @DisplayName("Replacing and removing products moves them between bitmaps")
+    void updates() {
+        index.put(document(2, 20, "15.00", InventoryStatus.IN_STOCK, ProductFacetIndex.Flag.FEATURED));
+        index.remove(5);
+
+        ProductFacetIndex.Facets facets = index.facets(query(null, null, null, Map.of()));
+
+        assertThat(facets.total()).isEqualTo(4);
+        assertThat(facets.categories()).containsExactly(Map.entry(10L, 2), Map.entry(20L, 2));
+        assertThat(facets.flags())
+                .containsEntry(ProductFacetIndex.Flag.FEATURED, 3)
+                .containsEntry(ProductFacetIndex.Flag.DISCOUNTED, 0);
+        assertThat(index.stats().documents()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,134 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductSearchIndexTest {
+
+    private final ProductSearchIndex index = new ProductSearchIndex();
+
+    private void put(long id, String name, String sku, String description) {
+        index.put(id, ProductTextAnalyzer.analyze(name, sku, null, description));
+    }
+
+    @Test
+    @DisplayName("A name hit outranks a description hit, and every query term must match")
+    void ranksByFieldWeightAndRequiresAllTerms() {
+        put(1, "Leather wallet", "WL-1", "A slim wallet for phones and cards");
+        put(2, "Phone case", "PC-2", "Protective case");
+        put(3, "Phone stand", "PS-3", "Aluminium desk stand");
+
+        assertThat(index.search("phone", 10)).containsExactly(3L, 2L, 1L);
+        assertThat(index.search("phone case", 10)).containsExactly(2L);
+        assertThat(index.search("phone tripod", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Rarer terms weigh more than common ones")
+    void rareTermsWeighMore() {
+        put(1, "Red cap", "C-1", "blue");
+        put(2, "Blue cap", "C-2", "red");
+        put(3, "Blue shirt", "S-3", null);
+        put(4, "Blue scarf", "S-4", null);
+
+        // Both caps match every term; the one naming the rare "red" beats the one naming the common "blue".
+        assertThat(index.search("red blue cap", 10)).containsExactly(1L, 2L);
+        assertThat(index.search("blue", 2)).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Prefixes match at a discount, SKUs match with or without the dash, and accents are folded")
+    void prefixSkuAndAccentMatching() {
+        put(1, "Laptop sleeve", "LS-100", null);
+        put(2, "Lap desk", "LD-200", null);
+        put(3, "Café grinder", "CG-300", null);
+
+        assertThat(index.search("lap", 10)).containsExactly(2L, 1L);
+        assertThat(index.search("ls100", 10)).containsExactly(1L);
+        assertThat(index.search("LS-100", 10)).containsExactly(1L);
+        assertThat(index.search("cafe", 10)).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Replacing or removing a product updates its postings")
+    void updatesAndRemovals() {
+        put(1, "Old name", "X-1", null);
+        put(1, "New name", "X-1", null);
+
+        assertThat(index.search("old", 10)).isEmpty();
+        assertThat(index.search("new", 10)).containsExactly(1L);
+
+        index.remove(1);
+
+        assertThat(index.search("new", 10)).isEmpty();
+        assertThat(index.stats().documents()).isZero();
+        assertThat(index.stats().terms()).isZero();
+    }
+
+    @Test
+    @DisplayName("A snapshot round-trips the index")
+    void snapshotRoundTrip() throws IOException {
+        put(1, "Phone case", "PC-1", "Protective case");
+        put(2, "Phone stand", "PS-2", null);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeTo(new DataOutputStream(bytes));
+        ProductSearchIndex restored = new ProductSearchIndex();
+        restored.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(restored.stats()).isEqualTo(index.stats());
+        assertThat(restored.search("phone", 10)).isEqualTo(index.search("phone", 10));
+    }
+
+    @Test
+    @DisplayName("A snapshot with out-of-range sizes or invalid terms is rejected and leaves the index unchanged")
+    void rejectsInvalidSnapshots() throws IOException {
+        put(1, "Phone case", "PC-1", null);
+
+        assertThatThrownBy(() -> index.readFrom(snapshot(Integer.MAX_VALUE, 0, null, 0)))
+                .isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> index.readFrom(snapshot(1, -1, null, 0)))
+                .isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> index.readFrom(snapshot(1, 1, "x".repeat(41), 1f)))
+                .isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> index.readFrom(snapshot(1, 1, "phone", Float.NaN)))
+                .isInstanceOf(IOException.class);
+
+        assertThat(index.search("phone", 10)).containsExactly(1L);
+        assertThat(index.stats().documents()).isEqualTo(1);
+    }
+
+    /** A version-1 snapshot header declaring {@code documents}, then one document with {@code terms}. */
+    private static DataInputStream snapshot(int documents, int terms, String term, float weight) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(1);
+        out.writeInt(documents);
+        out.writeLong(7);
+        out.writeInt(terms);
+        if (term != null) {
+            out.writeUTF(term);
+            out.writeFloat(weight);
+        }
+        return new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+    @Test
+    @DisplayName("Analysis weights a name term above the same term in the description")
+    void analyzerWeights() {
+        Map<String, Float> terms = ProductTextAnalyzer.analyze("Phone", "AB-12", null, "phone");
+
+        assertThat(terms.get("phone")).isEqualTo(ProductTextAnalyzer.NAME_WEIGHT + ProductTextAnalyzer.DESCRIPTION_WEIGHT);
+        assertThat(terms).containsKeys("ab", "12", "ab12");
+    }
+}
@@ -0,0 +1,99 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authentications per second on one thread (so per core) for the token
+ * handling of {@link JwtAuthenticationFilter}: the former three
+ * validate/get calls that each derived the key and parsed the token, one
+ * parse with the shared parser (a cache miss), and a verified-claims cache
+ * hit. Run with {@code main} from the IDE or after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "your-256-bit-secret-key-for-jwt-signing-must-be-at-least-32-chars";
+
+    private JwtVerifier verifier;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtKeys keys = new JwtKeys(SECRET, "k1", new String[0]);
+        verifier = new JwtVerifier(keys, meters(), 10_000);
+        token = Jwts.builder()
+                .header().keyId("k1").and()
+                .subject("42")
+                .claim("email", "jane@example.com")
+                .claim("username", "jane")
+                .claim("role", "CUSTOMER")
+                .claim("passwordChangedAt", 1_700_000_000_000L)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(keys.currentKey(), Jwts.SIG.HS512)
+                .compact();
+        verifier.verify(token);
+    }
+
+    @Benchmark
+    public void parsePerCall(Blackhole blackhole) {
+        blackhole.consume(legacyClaims(token));
+        blackhole.consume(Long.parseLong(legacyClaims(token).getSubject()));
+        blackhole.consume(legacyClaims(token).get("passwordChangedAt", Long.class));
+    }
+
+    @Benchmark
+    public VerifiedToken parseOnce() {
+        return verifier.parse(token);
+    }
+
+    @Benchmark
+    public VerifiedToken cachedClaims() {
+        return verifier.verify(token);
+    }
+
+    /** The former {@code JwtTokenProvider#getClaims}: a new key and parser every call. */
+    private static Claims legacyClaims(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+
+    private static ObjectProvider<MeterRegistry> meters() {
+        return new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtVerificationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
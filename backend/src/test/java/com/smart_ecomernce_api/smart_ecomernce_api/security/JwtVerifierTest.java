@@ -0,0 +1,64 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.security;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtVerifierTest {
+
+    private static final String OLD_SECRET = "old-secret-key-for-jwt-signing-must-be-at-least-64-characters-long!!";
+    private static final String NEW_SECRET = "new-secret-key-for-jwt-signing-must-be-at-least-64-characters-long!!";
+
+    private final JwtKeys keys = new JwtKeys(NEW_SECRET, "k2", new String[]{"k1:" + OLD_SECRET});
+    private final JwtVerifier verifier =
+            new JwtVerifier(keys, new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class), 100);
+
+    @Test
+    @DisplayName("Tokens signed with the current or a retired key verify, others are rejected")
+    void verifiesByKeyId() {
+        JwtKeys old = new JwtKeys(OLD_SECRET, "k1", new String[0]);
+
+        assertThat(verifier.verify(token("k2", keys.currentKey(), 60_000)).userId()).isEqualTo(7L);
+        assertThat(verifier.verify(token("k1", old.currentKey(), 60_000)).role()).isEqualTo("CUSTOMER");
+        assertThat(verifier.verify(token(null, keys.currentKey(), 60_000)).userId()).isEqualTo(7L);
+
+        assertThatThrownBy(() -> verifier.verify(token("k9", keys.currentKey(), 60_000)))
+                .isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> verifier.verify(token("k2", old.currentKey(), 60_000)))
+                .isInstanceOf(JwtException.class);
+        assertThat(verifier.verifyOrNull(token("k2", keys.currentKey(), -1_000))).isNull();
+    }
+
+    @Test
+    @DisplayName("A verified token is served from the cache until it is forgotten")
+    void cachesVerifiedClaims() {
+        String token = token("k2", keys.currentKey(), 60_000);
+
+        VerifiedToken first = verifier.verify(token);
+        assertThat(verifier.verify(token)).isSameAs(first);
+
+        verifier.invalidateAll();
+        assertThat(verifier.verify(token)).isNotSameAs(first).isEqualTo(first);
+    }
+
+    private static String token(String keyId, SecretKey key, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .header().keyId(keyId).and()
+                .subject("7")
+                .claim("role", "CUSTOMER")
+                .issuedAt(new Date(now - 5_000))
+                .expiration(new Date(now + ttlMillis))
+                .signWith(key, Jwts.SIG.HS512)
+                .compact();
+    }
+}
@@ -0,0 +1,71 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.security;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.ServiceBusyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHasherTest {
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+
+    private PasswordHasher hasher(int threads, int queue, long timeoutMillis, int cost) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("meters", meters));
+        return new PasswordHasher(beans.getBeanProvider(MeterRegistry.class),
+                threads, queue, timeoutMillis, cost, 250, 10, 14);
+    }
+
+    @Test
+    @DisplayName("Hashes at the configured cost and asks to upgrade weaker hashes")
+    void encodesAndUpgrades() {
+        PasswordHasher hasher = hasher(2, 8, 5000, 5);
+
+        String hash = hasher.encode("secret");
+        assertThat(hash).startsWith("$2a$05$");
+        assertThat(hasher.matches("secret", hash)).isTrue();
+        assertThat(hasher.matches("wrong", hash)).isFalse();
+
+        assertThat(hasher.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret"))).isTrue();
+        assertThat(hasher.upgradeEncoding(hash)).isFalse();
+        assertThat(hasher.upgradeEncoding("{noop}secret")).isFalse();
+        assertThat(meters.get("password.hash").tag("op", "matches").timer().count()).isEqualTo(2);
+        hasher.stop();
+    }
+
+    @Test
+    @DisplayName("A saturated pool rejects instead of queueing without bound")
+    void rejectsWhenSaturated() {
+        PasswordHasher hasher = hasher(1, 1, 10_000, 12);
+        String hash = new BCryptPasswordEncoder(12).encode("secret");
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> hasher.matches("secret", hash));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> hasher.matches("secret", hash));
+        while (meters.get("password.hash.active").gauge().value() < 1
+                || meters.get("password.hash.queue").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        assertThatThrownBy(() -> hasher.matches("secret", hash)).isInstanceOf(ServiceBusyException.class);
+
+        assertThat(running.join()).isTrue();
+        assertThat(queued.join()).isTrue();
+        assertThat(meters.get("password.hash.rejected").counter().count()).isPositive();
+        hasher.stop();
+    }
+
+    @Test
+    @DisplayName("Calibration stays within the configured bounds")
+    void calibratesWithinBounds() {
+        assertThat(PasswordHasher.calibrate(1, 4, 8)).isEqualTo(4);
+        assertThat(PasswordHasher.calibrate(60_000, 4, 6)).isEqualTo(6);
+    }
+}
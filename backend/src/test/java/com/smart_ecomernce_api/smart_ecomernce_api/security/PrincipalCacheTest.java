@@ -0,0 +1,62 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.security;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.auth.service.AuthService;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.entity.Role;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.entity.User;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PrincipalCacheTest {
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    @DisplayName("Snapshots are served from memory and reloaded after a lock or unlock")
+    void evictsOnAccountChanges() {
+        User user = newUser();
+
+        PrincipalSnapshot warm = principalCache.get(user.getId());
+        assertThat(warm.locked()).isFalse();
+        assertThat(warm.role()).isEqualTo(Role.CUSTOMER);
+
+        authService.lockAccount(user.getId(), "test");
+        assertThat(principalCache.get(user.getId()).locked()).isTrue();
+
+        authService.unlockAccount(user.getId());
+        PrincipalSnapshot unlocked = principalCache.get(user.getId());
+        assertThat(unlocked.locked()).isFalse();
+
+        // A row changed behind the services' back is not seen until evicted: the warm path skips the database.
+        userRepository.deleteById(user.getId());
+        assertThat(principalCache.get(user.getId())).isSameAs(unlocked);
+        principalCache.evict(user.getId());
+        assertThat(principalCache.get(user.getId())).isNull();
+    }
+
+    private User newUser() {
+        long n = System.nanoTime();
+        return userRepository.save(User.builder()
+                .email("principal-" + n + "@example.com")
+                .username("principal-" + n)
+                .password("{noop}secret")
+                .firstName("Pat")
+                .lastName("Doe")
+                .role(Role.CUSTOMER)
+                .build());
+    }
+}
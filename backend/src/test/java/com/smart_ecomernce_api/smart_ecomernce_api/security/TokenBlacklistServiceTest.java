@@ -0,0 +1,46 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.security;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.security.revocation.LoopbackRevocationBus;
+import com.smart_ecomernce_api.smart_ecomernce_api.security.revocation.RevocationBus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBlacklistServiceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("The blacklist replays its log on restart and ships revocations to peers")
+    void blacklistIsDurableAndShared() {
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        Path file = dir.resolve("blacklist.log");
+        LoopbackRevocationBus bus = new LoopbackRevocationBus();
+
+        TokenBlacklistService node = blacklist(bus, file);
+        TokenBlacklistService peer = blacklist(bus.join(), dir.resolve("peer.log"));
+        node.blacklistToken("header.payload.revoked", expiresAt);
+        node.invalidateUserTokens(9L);
+        node.stop();
+
+        assertThat(peer.isTokenBlacklisted("header.payload.revoked")).isTrue();
+        assertThat(peer.getUserTokenVersion(9L)).isNotNull();
+
+        TokenBlacklistService restarted = blacklist(new LoopbackRevocationBus(), file);
+        assertThat(restarted.isTokenBlacklisted("header.payload.revoked")).isTrue();
+        assertThat(restarted.isTokenBlacklisted("header.payload.other")).isFalse();
+        assertThat(restarted.getUserTokenVersion(9L)).isNotNull();
+        assertThat(restarted.getStats().bloomFilterRejections()).isEqualTo(1);
+    }
+
+    private static TokenBlacklistService blacklist(RevocationBus bus, Path file) {
+        TokenBlacklistService service = new TokenBlacklistService(bus, 1000, 24, 0.01, true, file.toString(), 0, false);
+        service.start();
+        return service;
+    }
+}
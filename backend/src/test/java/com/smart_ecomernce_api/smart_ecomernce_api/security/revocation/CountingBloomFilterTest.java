@@ -0,0 +1,34 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.security.revocation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CountingBloomFilterTest {
+
+    @Test
+    @DisplayName("No false negatives, removal forgets, and false positives stay near the target rate")
+    void behavesLikeASet() {
+        CountingBloomFilter filter = new CountingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(CountingBloomFilter.hash("token-" + i));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain(CountingBloomFilter.hash("token-" + i))).isTrue();
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(CountingBloomFilter.hash("other-" + i))) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(2_000);
+
+        for (int i = 0; i < 10_000; i++) {
+            filter.remove(CountingBloomFilter.hash("token-" + i));
+        }
+        assertThat(filter.mightContain(CountingBloomFilter.hash("token-1"))).isFalse();
+    }
+}
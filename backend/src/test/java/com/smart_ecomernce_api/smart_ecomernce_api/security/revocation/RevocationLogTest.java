@@ -0,0 +1,45 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.security.revocation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RevocationLogTest {
+
+    private static final String SHA = "ab".repeat(32);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Records survive reopening, compaction drops the expired ones and a full log grows")
+    void appendsReplaysAndCompacts() {
+        long now = System.currentTimeMillis();
+        Path file = dir.resolve("revocations.log");
+
+        try (RevocationLog log = new RevocationLog(file, 0, false)) {
+            log.append(Revocation.token(SHA, 42L, now + 60_000));
+            log.append(Revocation.user(7L, now, now - 1));
+        }
+
+        try (RevocationLog log = new RevocationLog(file, 0, false)) {
+            assertThat(log.readAll()).containsExactly(
+                    Revocation.token(SHA, 42L, now + 60_000),
+                    Revocation.user(7L, now, now - 1));
+
+            assertThat(log.compact(now)).isEqualTo(1);
+            for (int i = 0; i < 100; i++) {
+                log.append(Revocation.user((long) i, now, now + 60_000));
+            }
+            assertThat(log.size()).isEqualTo(101);
+        }
+
+        try (RevocationLog log = new RevocationLog(file, 0, false)) {
+            assertThat(log.readAll()).hasSize(101).first().isEqualTo(Revocation.token(SHA, 42L, now + 60_000));
+        }
+    }
+}